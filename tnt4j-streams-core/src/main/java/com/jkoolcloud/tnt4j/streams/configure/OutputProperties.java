@@ -19,7 +19,7 @@ package com.jkoolcloud.tnt4j.streams.configure;
 /**
  * Lists predefined property names used by TNT4-Streams outputs.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  */
 public interface OutputProperties {
 	/**
@@ -65,6 +65,11 @@ public interface OutputProperties {
 	 */
 	String PROP_SOURCE_FQN = "SourceFQN"; // NON-NLS
 
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_SOURCE_CACHE_SIZE = "SourceCacheSize"; // NON-NLS
+
 	/**
 	 * Constant for name of built-in {@value} property.
 	 */
@@ -74,4 +79,34 @@ public interface OutputProperties {
 	 * Constant for name of built-in {@value} property.
 	 */
 	String PROP_SEND_STREAM_STATES = "SendStreamStates"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_BATCH_SIZE = "BatchSize"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_BATCH_FLUSH_INTERVAL = "BatchFlushInterval"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_RESOLVE_SERVER_CACHE_SIZE = "ResolveServerCacheSize"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_RESOLVE_SERVER_CACHE_TTL = "ResolveServerCacheTTL"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_RESOLVE_SERVER_NEGATIVE_CACHE_TTL = "ResolveServerNegativeCacheTTL"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_RESOLVE_SERVER_TIMEOUT = "ResolveServerTimeout"; // NON-NLS
 }
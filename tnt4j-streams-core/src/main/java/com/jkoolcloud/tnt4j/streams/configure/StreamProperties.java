@@ -19,7 +19,7 @@ package com.jkoolcloud.tnt4j.streams.configure;
 /**
  * Lists predefined property names used by TNT4-Streams input streams.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  */
 public interface StreamProperties {
 
@@ -163,6 +163,36 @@ public interface StreamProperties {
 	 */
 	String PROP_BUFFER_DROP_WHEN_FULL = "BufferDropWhenFull"; // NON-NLS
 
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_BUFFER_TYPE = "BufferType"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_BUFFER_WAIT_STRATEGY = "BufferWaitStrategy"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_BUFFER_DRAIN_BATCH_SIZE = "BufferDrainBatchSize"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_BUFFER_SPILL_WHEN_FULL = "BufferSpillWhenFull"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_BUFFER_SPILL_DIRECTORY = "BufferSpillDirectory"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_BUFFER_SPILL_SEGMENT_SIZE = "BufferSpillSegmentSize"; // NON-NLS
+
 	/**
 	 * Constant for name of built-in {@value} property.
 	 */
@@ -222,4 +252,34 @@ public interface StreamProperties {
 	 * Constant for name of built-in {@value} property.
 	 */
 	String PROP_TRUNCATED_FILE_POLICY = "TruncatedFilePolicy"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_TAIL_BY_OFFSET = "TailByOffset"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_USE_PIPELINE = "UsePipeline"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_PIPELINE_PARSE_WORKERS = "PipelineParseWorkers"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_PIPELINE_QUEUE_SIZE = "PipelineQueueSize"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_PIPELINE_KEEP_ORDER = "PipelineKeepOrder"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_COMPRESSED_INPUT = "CompressedInput"; // NON-NLS
 }
@@ -34,6 +34,7 @@ import javax.xml.bind.annotation.XmlType;
  *     &lt;enumeration value="javascript"/>
  *     &lt;enumeration value="groovy"/>
  *     &lt;enumeration value="xpath"/>
+ *     &lt;enumeration value="native"/>
  *   &lt;/restriction>
  * &lt;/simpleType>
  * </pre>
@@ -69,7 +70,16 @@ public enum ScriptLangs {
 	 * 
 	 */
 	@XmlEnumValue("xpath")
-	XPATH("xpath");
+	XPATH("xpath"),
+
+	/**
+	 * 
+	 * TNT4J-Streams native expression language used to script.
+	 * 
+	 * 
+	 */
+	@XmlEnumValue("native")
+	NATIVE("native");
 	private final String value;
 
 	ScriptLangs(String v) {
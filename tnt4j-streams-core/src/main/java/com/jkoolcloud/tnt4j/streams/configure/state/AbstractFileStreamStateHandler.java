@@ -128,7 +128,8 @@ public abstract class AbstractFileStreamStateHandler<T> {
 			fileAccessState = loadState(getParent(activityFiles), streamName);
 			if (fileAccessState != null) {
 				file = findStreamingFile(fileAccessState, activityFiles);
-				if (file != null) {
+				if (file != null && !checkOffset(file, fileAccessState)) {
+					fileAccessState.currentLineOffset = null;
 					fileAccessState.currentLineNumber = checkLine(file, fileAccessState);
 					if (linePolicy == LinePolicy.HALT_IF_CRC_MISMATCH
 							&& Utils.isZero(fileAccessState.currentLineNumber)) {
@@ -218,6 +219,27 @@ public abstract class AbstractFileStreamStateHandler<T> {
 		return 0;
 	}
 
+	/**
+	 * Checks if file has persisted state defined byte offset and that offset points to the beginning of a line. If so,
+	 * there is no need to look for last read line by reading file lines.
+	 * <p>
+	 * Default implementation returns {@code false}, meaning offset based state restoring is not supported by this
+	 * handler.
+	 *
+	 * @param file
+	 *            file to check offset
+	 * @param fileAccessState
+	 *            persisted streamed files access state
+	 *
+	 * @return {@code true} if persisted offset is valid for provided file, {@code false} - otherwise
+	 *
+	 * @throws IOException
+	 *             if I/O exception occurs
+	 */
+	boolean checkOffset(T file, FileAccessState fileAccessState) throws IOException {
+		return false;
+	}
+
 	/**
 	 * Check the line CRC.
 	 *
@@ -411,6 +433,16 @@ public abstract class AbstractFileStreamStateHandler<T> {
 				: fileAccessState.currentLineNumber;
 	}
 
+	/**
+	 * Gets the file byte offset to continue streaming from.
+	 *
+	 * @return file byte offset to continue streaming from, or {@code -1} if offset is not available
+	 */
+	public long getLineOffset() {
+		return isStreamedFileAvailable() && fileAccessState != null && fileAccessState.currentLineOffset != null
+				? fileAccessState.currentLineOffset : -1;
+	}
+
 	/**
 	 * Gets the file last read timestamp.
 	 *
@@ -509,9 +541,11 @@ public abstract class AbstractFileStreamStateHandler<T> {
 
 		String lineStr = procLine.getText();
 		int lineNr = procLine.getLineNumber();
+		long lineOffset = procLine.getOffset();
 
 		try {
 			fileAccessState.currentLineNumber = lineNr;
+			fileAccessState.currentLineOffset = lineOffset < 0 ? null : lineOffset;
 			fileAccessState.lastReadTime = System.currentTimeMillis();
 
 			CRC32 crc = new CRC32();
@@ -23,7 +23,8 @@ import javax.xml.bind.annotation.*;
  * stops/fails.
  * <p>
  * Uses file header CRC to point the file, instead of commonly used name, because name of streamed rolling log file is
- * changing. Last read line pointer has two attributes: line number and line CRC.
+ * changing. Last read line pointer has two attributes: line number and line CRC. When stream tails files by byte
+ * offset, state also holds file byte offset stream shall resume reading from.
  *
  * @version $Revision: 1 $
  */
@@ -51,6 +52,11 @@ public class FileAccessState {
 	 */
 	@XmlElement
 	public Long lastReadTime;
+	/**
+	 * Byte offset of file position right after line last read.
+	 */
+	@XmlElement
+	public Long currentLineOffset;
 
 	/**
 	 * Constructs a new ActivityJsonParser.
@@ -18,15 +18,19 @@ package com.jkoolcloud.tnt4j.streams.configure.state;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import javax.xml.bind.JAXBException;
 
 import com.jkoolcloud.tnt4j.sink.DefaultEventSinkFactory;
 import com.jkoolcloud.tnt4j.sink.EventSink;
+import com.jkoolcloud.tnt4j.streams.utils.Utils;
 
 /**
  * Implements streamed files access state handler.
@@ -71,6 +75,37 @@ public class FileStreamStateHandler extends AbstractFileStreamStateHandler<Path>
 		return Files.newBufferedReader(file, Charset.defaultCharset());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Offset is valid if it does not exceed file size and byte preceding it is line feed symbol {@code '\n'}.
+	 */
+	@Override
+	boolean checkOffset(Path file, FileAccessState fileAccessState) throws IOException {
+		Long offset = fileAccessState.currentLineOffset;
+		if (offset == null || offset < 0) {
+			return false;
+		}
+		if (offset == 0) {
+			return true;
+		}
+
+		SeekableByteChannel channel = null;
+		try {
+			channel = Files.newByteChannel(file, StandardOpenOption.READ);
+			if (offset > channel.size()) {
+				return false;
+			}
+			ByteBuffer bb = ByteBuffer.allocate(1);
+			channel.position(offset - 1);
+			return channel.read(bb) == 1 && bb.get(0) == '\n';
+		} catch (UnsupportedOperationException exc) {
+			return false;
+		} finally {
+			Utils.close(channel);
+		}
+	}
+
 	@Override
 	public boolean isStreamedFileAvailable() {
 		return file != null && Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS);
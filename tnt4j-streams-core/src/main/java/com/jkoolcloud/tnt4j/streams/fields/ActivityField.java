@@ -43,7 +43,7 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * Represents a specific activity field, containing the necessary information on how to extract its value from the raw
  * activity data.
  *
- * @version $Revision: 3 $
+ * @version $Revision: 4 $
  */
 public class ActivityField extends AbstractFieldEntity {
 	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(ActivityField.class);
@@ -788,8 +788,10 @@ public class ActivityField extends AbstractFieldEntity {
 	 * @see #filterFieldValue(Object, ActivityInfo)
 	 */
 	public Object aggregateFieldValue(Object value, ActivityInfo ai) throws ParseException {
-		LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-				"ActivityField.aggregating.field", this, Utils.toString(value));
+		if (LOGGER.isSet(OpLevel.TRACE)) {
+			LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+					"ActivityField.aggregating.field", this, Utils.toString(value));
+		}
 		Object[] values = Utils.makeArray(Utils.simplifyValue(value));
 
 		if (values != null && CollectionUtils.isNotEmpty(locators)) {
@@ -824,16 +826,20 @@ public class ActivityField extends AbstractFieldEntity {
 
 		Object fieldValue = Utils.simplifyValue(values);
 
-		LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-				"ActivityField.aggregating.field.value", this, Utils.toString(fieldValue));
+		if (LOGGER.isSet(OpLevel.TRACE)) {
+			LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+					"ActivityField.aggregating.field.value", this, Utils.toString(fieldValue));
+		}
 
 		if (fieldValue != null) {
 			fieldValue = transform(fieldValue, ai);
 			fieldValue = filterFieldValue(fieldValue, ai);
 
 			if (fieldValue != null && isEmptyAsNull() && Utils.isEmptyContent(fieldValue, true)) {
-				LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-						"ActivityField.field.empty.as.null", this, Utils.toStringDump(fieldValue));
+				if (LOGGER.isSet(OpLevel.TRACE)) {
+					LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+							"ActivityField.field.empty.as.null", this, Utils.toStringDump(fieldValue));
+				}
 				fieldValue = null;
 			}
 		}
@@ -38,7 +38,7 @@ import com.jkoolcloud.tnt4j.streams.utils.*;
  * activity data item field for its corresponding activity item value, as well any transformations and filters that are
  * necessary.
  *
- * @version $Revision: 2 $
+ * @version $Revision: 3 $
  */
 public class ActivityFieldLocator extends AbstractFieldEntity implements Cloneable {
 	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(ActivityFieldLocator.class);
@@ -535,13 +535,17 @@ public class ActivityFieldLocator extends AbstractFieldEntity implements Cloneab
 				target = valueMap.get(srcString);
 			}
 			if (target == null) {
-				LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-						"ActivityFieldLocator.mapped.default", type);
+				if (LOGGER.isSet(OpLevel.TRACE)) {
+					LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+							"ActivityFieldLocator.mapped.default", type);
+				}
 				target = mapCatchAll != null ? mapCatchAll : source;
 			}
 		}
-		LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-				"ActivityFieldLocator.mapped.result", source, target, type);
+		if (LOGGER.isSet(OpLevel.TRACE)) {
+			LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+					"ActivityFieldLocator.mapped.result", source, target, type);
+		}
 		return target;
 	}
 
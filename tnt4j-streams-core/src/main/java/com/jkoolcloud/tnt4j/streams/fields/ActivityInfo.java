@@ -47,7 +47,7 @@ import com.jkoolcloud.tnt4j.uuid.DefaultUUIDFactory;
  * This class represents an {@link com.jkoolcloud.tnt4j.core.Trackable} entity (e.g. activity/event/snapshot) to record
  * to jKoolCloud.
  *
- * @version $Revision: 3 $
+ * @version $Revision: 8 $
  */
 public class ActivityInfo {
 	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(ActivityInfo.class);
@@ -55,6 +55,17 @@ public class ActivityInfo {
 	private static final Pattern CHILD_FIELD_PATTERN = Pattern.compile("child\\[(?<child>\\S+)\\]\\.(?<field>\\S+)"); // NON-NLS
 
 	private static final Map<String, String> HOST_CACHE = new ConcurrentHashMap<>();
+	private static final Map<String, FQNToken[]> FQN_PATTERNS_CACHE = new ConcurrentHashMap<>();
+	private static final Map<String, StreamFieldType> FIELD_TYPES = new HashMap<>();
+	private static final Map<String, FieldRef> FIELD_REFS_CACHE = new ConcurrentHashMap<>();
+	private static final int MAX_FIELD_REFS_CACHE_SIZE = 10000;
+	private static final Object UNKNOWN_FIELD = new Object();
+
+	static {
+		for (StreamFieldType sft : StreamFieldType.values()) {
+			FIELD_TYPES.put(sft.name().toLowerCase(Locale.ROOT), sft);
+		}
+	}
 	private static final String LOCAL_SERVER_NAME_KEY = "LOCAL_SERVER_NAME_KEY"; // NON-NLS
 	private static final String LOCAL_SERVER_IP_KEY = "LOCAL_SERVER_IP_KEY"; // NON-NLS
 
@@ -124,12 +135,16 @@ public class ActivityInfo {
 	 *             format, etc.)
 	 */
 	public void applyFieldValue(ActivityField field, Object value) throws ParseException {
-		LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-				"ActivityInfo.applying.field", field, Utils.toString(value));
+		if (LOGGER.isSet(OpLevel.TRACE)) {
+			LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+					"ActivityInfo.applying.field", field, Utils.toString(value));
+		}
 
 		if (value == null) {
-			LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-					"ActivityInfo.field.value.null", field);
+			if (LOGGER.isSet(OpLevel.TRACE)) {
+				LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+						"ActivityInfo.field.value.null", field);
+			}
 			return;
 		}
 
@@ -283,8 +298,10 @@ public class ActivityInfo {
 						StreamsResources.RESOURCE_BUNDLE_NAME, "ActivityInfo.unrecognized.field", field));
 			}
 
-			LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-					"ActivityInfo.set.field", field, Utils.toString(fieldValue));
+			if (LOGGER.isSet(OpLevel.TRACE)) {
+				LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+						"ActivityInfo.set.field", field, Utils.toString(fieldValue));
+			}
 		} else {
 			addCustomActivityProperty(field, fieldValue);
 		}
@@ -545,9 +562,11 @@ public class ActivityInfo {
 		Property prevValue = activityProperties.put(propName, property);
 
 		if (prevValue == null) {
-			LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-					"ActivityInfo.set.property", propName, Utils.toString(property.getValue()),
-					property.getValueType());
+			if (LOGGER.isSet(OpLevel.TRACE)) {
+				LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+						"ActivityInfo.set.property", propName, Utils.toString(property.getValue()),
+						property.getValueType());
+			}
 		} else {
 			LOGGER.log(OpLevel.WARNING, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
 					"ActivityInfo.replace.property", propName, Utils.toString(property.getValue()),
@@ -611,14 +630,12 @@ public class ActivityInfo {
 	 *         parsed from stream.
 	 */
 	public String getSourceFQN(String pattern) {
-		Collection<String> fqnTokens = getFQNTokens(pattern);
+		FQNToken[] fqnTokens = getFQNTokens(pattern);
 
 		StringBuilder fqnB = new StringBuilder();
 
-		for (String fqnT : fqnTokens) {
-			String[] pair = fqnT.split("=");
-			SourceType type = SourceType.valueOf(pair[0]);
-			addSourceValue(fqnB, type, getFQNValue(pair[1]));
+		for (FQNToken fqnT : fqnTokens) {
+			addSourceValue(fqnB, fqnT.type, getFQNValue(fqnT.value));
 		}
 
 		String fqn = fqnB.toString();
@@ -626,17 +643,33 @@ public class ActivityInfo {
 		return StringUtils.isEmpty(fqn) ? null : fqn;
 	}
 
-	private static Collection<String> getFQNTokens(String fqnPattern) {
-		Collection<String> fqnTokens = new ArrayList<>();
-		StringTokenizer tk = new StringTokenizer(fqnPattern, "#");
-		while (tk.hasMoreTokens()) {
-			String sToken = tk.nextToken();
-			fqnTokens.add(sToken);
+	private static FQNToken[] getFQNTokens(String fqnPattern) {
+		FQNToken[] fqnTokens = FQN_PATTERNS_CACHE.get(fqnPattern);
+		if (fqnTokens == null) {
+			List<FQNToken> tokensList = new ArrayList<>();
+			StringTokenizer tk = new StringTokenizer(fqnPattern, "#");
+			while (tk.hasMoreTokens()) {
+				String[] pair = tk.nextToken().split("=");
+				tokensList.add(new FQNToken(SourceType.valueOf(pair[0]), pair[1]));
+			}
+
+			fqnTokens = tokensList.toArray(new FQNToken[tokensList.size()]);
+			FQN_PATTERNS_CACHE.put(fqnPattern, fqnTokens);
 		}
 
 		return fqnTokens;
 	}
 
+	private static class FQNToken {
+		private final SourceType type;
+		private final String value;
+
+		private FQNToken(SourceType type, String value) {
+			this.type = type;
+			this.value = value;
+		}
+	}
+
 	private String getFQNValue(String val) {
 		if (val.startsWith(Utils.VAR_EXP_START_TOKEN)) {
 			Object fieldValue = getFieldValue(val);
@@ -671,7 +704,7 @@ public class ActivityInfo {
 	 * @return trackable instance made from this activity entity data
 	 * @throws IllegalArgumentException
 	 *             if {@code tracker} is null
-	 * @see com.jkoolcloud.tnt4j.streams.outputs.JKCloudActivityOutput#logItem(ActivityInfo)
+	 * @see com.jkoolcloud.tnt4j.streams.outputs.JKCloudActivityOutput#logItem(com.jkoolcloud.tnt4j.tracker.Tracker, ActivityInfo)
 	 */
 	public Trackable buildTrackable(Tracker tracker, Collection<Trackable> chTrackables) {
 		if (tracker == null) {
@@ -1115,8 +1148,21 @@ public class ActivityInfo {
 	 *
 	 * @param resolveOverDNS
 	 *            flag indicating whether to use DNS to resolve server names and IP addresses
+	 *
+	 * @see #resolveServer(com.jkoolcloud.tnt4j.streams.utils.DNSResolver)
 	 */
 	public void resolveServer(boolean resolveOverDNS) {
+		resolveServer(resolveOverDNS ? DNSResolver.getDefault() : null);
+	}
+
+	/**
+	 * Resolves server name and/or IP Address based on values specified.
+	 *
+	 * @param dnsResolver
+	 *            DNS resolver to use to resolve server names and IP addresses, {@code null} - if server names and IP
+	 *            addresses shall not be resolved over DNS
+	 */
+	public void resolveServer(DNSResolver dnsResolver) {
 		if (StringUtils.isEmpty(serverName) && StringUtils.isEmpty(serverIp)) {
 			serverName = HOST_CACHE.get(LOCAL_SERVER_NAME_KEY);
 			serverIp = HOST_CACHE.get(LOCAL_SERVER_IP_KEY);
@@ -1130,38 +1176,15 @@ public class ActivityInfo {
 				HOST_CACHE.put(LOCAL_SERVER_IP_KEY, serverIp);
 			}
 		} else if (StringUtils.isEmpty(serverName)) {
-			if (resolveOverDNS) {
-				try {
-					serverName = HOST_CACHE.get(serverIp);
-					if (StringUtils.isEmpty(serverName)) {
-						serverName = Utils.resolveAddressToHostName(serverIp);
-						if (StringUtils.isEmpty(serverName)) {
-							// Add entry so we don't repeatedly attempt to look up unresolvable IP Address
-							HOST_CACHE.put(serverIp, "");
-						} else {
-							HOST_CACHE.put(serverIp, serverName);
-							HOST_CACHE.put(serverName, serverIp);
-						}
-					}
-				} catch (Exception e) {
-					serverName = serverIp;
-				}
-			} else {
+			if (dnsResolver != null) {
+				serverName = dnsResolver.getHostName(serverIp);
+			}
+			if (StringUtils.isEmpty(serverName)) {
 				serverName = serverIp;
 			}
 		} else if (StringUtils.isEmpty(serverIp)) {
-			if (resolveOverDNS) {
-				serverIp = HOST_CACHE.get(serverName);
-				if (StringUtils.isEmpty(serverIp)) {
-					serverIp = Utils.resolveHostNameToAddress(serverName);
-					if (StringUtils.isEmpty(serverIp)) {
-						// Add entry so we don't repeatedly attempt to look up unresolvable host name
-						HOST_CACHE.put(serverName, "");
-					} else {
-						HOST_CACHE.put(serverIp, serverName);
-						HOST_CACHE.put(serverName, serverIp);
-					}
-				}
+			if (dnsResolver != null) {
+				serverIp = dnsResolver.getHostAddress(serverName);
 			}
 		}
 
@@ -1819,153 +1842,174 @@ public class ActivityInfo {
 	 * @return field contained value, or {@code null} if field is not found
 	 * @throws java.lang.IllegalArgumentException
 	 *             if field name does not match expected pattern
-	 * 
-	 * @see #getChildFieldValue(java.util.regex.Matcher, String, String)
 	 */
 	public Object getFieldValue(String fieldName, String groupName) throws IllegalArgumentException {
-		try {
-			if (fieldName.startsWith(StreamsConstants.PARENT_REFERENCE_PREFIX)) {
-				return parent == null ? null
-						: parent.getFieldValue(fieldName.substring(StreamsConstants.PARENT_REFERENCE_PREFIX.length()));
-			}
-
-			Matcher fnMatcher = CHILD_FIELD_PATTERN.matcher(fieldName);
-			if (fnMatcher.matches()) {
-				return getChildFieldValue(fnMatcher, fieldName, groupName);
+		FieldRef fieldRef = getFieldRef(fieldName);
+		switch (fieldRef.kind) {
+		case PARENT:
+			return parent == null ? null : parent.getFieldValue(fieldRef.name);
+		case CHILD:
+			String chGroupName = fieldRef.childGroup == null ? groupName : fieldRef.childGroup;
+			if (StringUtils.isEmpty(chGroupName)) {
+				return getActivityPropertyValue(fieldName);
 			}
-
-			if (fieldName.startsWith(Utils.VAR_EXP_START_TOKEN)) {
-				fieldName = Utils.getVarName(fieldName);
+			List<ActivityInfo> childs = children == null ? null : children.get(chGroupName);
+			return childs == null || fieldRef.childIndex >= childs.size() ? null
+					: childs.get(fieldRef.childIndex).getFieldValue(fieldRef.name);
+		case FIELD:
+			Object value = getFieldValue(fieldRef.fieldType);
+			return value == UNKNOWN_FIELD ? getActivityPropertyValue(fieldRef.name) : value;
+		default:
+			return getActivityPropertyValue(fieldRef.name);
+		}
+	}
+
+	private Object getActivityPropertyValue(String propName) {
+		Property p = activityProperties == null ? null : activityProperties.get(propName);
+
+		return p == null ? null : p.getValue();
+	}
+
+	private Object getFieldValue(StreamFieldType sft) {
+		switch (sft) {
+		case ApplName:
+			return applName;
+		case Category:
+			return category;
+		case CompCode:
+			return compCode;
+		case Correlator:
+			return correlator;
+		case ElapsedTime:
+			return elapsedTime;
+		case EndTime:
+			return endTime;
+		case EventName:
+			return eventName;
+		case EventStatus:
+			return eventStatus;
+		case EventType:
+			return eventType;
+		case Exception:
+			return exception;
+		case Location:
+			return location;
+		case Message:
+			return message;
+		case MsgCharSet:
+			return msgCharSet;
+		case MsgEncoding:
+			return msgEncoding;
+		case MsgLength:
+			return msgLength;
+		case MsgMimeType:
+			return msgMimeType;
+		case MessageAge:
+			return msgAge;
+		case TTL:
+			return ttl;
+		case ParentId:
+			return parentId;
+		case ProcessId:
+			return processId;
+		case ReasonCode:
+			return reasonCode;
+		case ResourceName:
+			return resourceName;
+		case ServerIp:
+			return serverIp;
+		case ServerName:
+			return serverName;
+		case Severity:
+			return severity;
+		case StartTime:
+			return startTime;
+		case Tag:
+			return tag;
+		case ThreadId:
+			return threadId;
+		case TrackingId:
+			return determineTrackingId();
+		case UserName:
+			return userName;
+		case Guid:
+			return guid;
+		default:
+			return UNKNOWN_FIELD;
+		}
+	}
+
+	private static FieldRef getFieldRef(String fieldName) {
+		FieldRef fieldRef = FIELD_REFS_CACHE.get(fieldName);
+		if (fieldRef == null) {
+			fieldRef = FieldRef.resolve(fieldName);
+			if (FIELD_REFS_CACHE.size() < MAX_FIELD_REFS_CACHE_SIZE) {
+				FIELD_REFS_CACHE.put(fieldName, fieldRef);
 			}
-
-			StreamFieldType sft = Utils.valueOfIgnoreCase(StreamFieldType.class, fieldName);
-			switch (sft) {
-			case ApplName:
-				return applName;
-			case Category:
-				return category;
-			case CompCode:
-				return compCode;
-			case Correlator:
-				return correlator;
-			case ElapsedTime:
-				return elapsedTime;
-			case EndTime:
-				return endTime;
-			case EventName:
-				return eventName;
-			case EventStatus:
-				return eventStatus;
-			case EventType:
-				return eventType;
-			case Exception:
-				return exception;
-			case Location:
-				return location;
-			case Message:
-				return message;
-			case MsgCharSet:
-				return msgCharSet;
-			case MsgEncoding:
-				return msgEncoding;
-			case MsgLength:
-				return msgLength;
-			case MsgMimeType:
-				return msgMimeType;
-			case MessageAge:
-				return msgAge;
-			case TTL:
-				return ttl;
-			case ParentId:
-				return parentId;
-			case ProcessId:
-				return processId;
-			case ReasonCode:
-				return reasonCode;
-			case ResourceName:
-				return resourceName;
-			case ServerIp:
-				return serverIp;
-			case ServerName:
-				return serverName;
-			case Severity:
-				return severity;
-			case StartTime:
-				return startTime;
-			case Tag:
-				return tag;
-			case ThreadId:
-				return threadId;
-			case TrackingId:
-				return determineTrackingId();
-			case UserName:
-				return userName;
-			case Guid:
-				return guid;
-			default:
-				throw new IllegalArgumentException(StreamsResources.getStringFormatted(
-						StreamsResources.RESOURCE_BUNDLE_NAME, "ActivityInfo.unrecognized.field", fieldName));
-			}
-		} catch (IllegalArgumentException exc) {
-			Property p = activityProperties == null ? null : activityProperties.get(fieldName);
-
-			return p == null ? null : p.getValue();
 		}
+
+		return fieldRef;
 	}
 
 	/**
-	 * Returns activity child entity field value.
-	 * <p>
-	 * Field name can be defined using two patterns:
-	 * <ul>
-	 * <li>{@code 'child[childIndex].fieldName'} - where {@code 'child'} is predefined value to resolve child entity,
-	 * {@code 'childIndex'} is child index in group named by {@code defaultGroupName} parameter, {@code 'fieldName'} is
-	 * child entity field name</li>
-	 * <li>{@code 'child[groupName.childIndex].fieldName'} - where {@code 'child'} is predefined value to resolve child
-	 * entity, {@code 'groupName'} is activity children group name, {@code 'childIndex'} is child index in that group,
-	 * {@code 'fieldName'} is child entity field name</li>
-	 * </ul>
-	 *
-	 * @param fnMatcher
-	 *            field name RegEx matcher
-	 * @param fieldName
-	 *            field name value to get
-	 * @param defaultGroupName
-	 *            default group name, when {@code fieldName} does not define one
-	 * @return field contained value, or {@code null} if field is not found
-	 * @throws IllegalArgumentException
-	 *             if child field name does not match expected pattern
+	 * Field name resolved once into the way its value is picked from activity entity: parent or child entity field
+	 * reference, built-in activity field or custom activity property.
 	 */
-	protected Object getChildFieldValue(Matcher fnMatcher, String fieldName, String defaultGroupName)
-			throws IllegalArgumentException {
-		String fName = null;
-		String groupName = null;
-		int chIndex = -1;
-		int chtLength = 0;
-
-		try {
-			String chLocator = fnMatcher.group("child"); // NON-NLS
-			fName = fnMatcher.group("field"); // NON-NLS
-			String[] chTokens = chLocator == null ? null : chLocator.split("\\."); // NON-NLS
-			chtLength = ArrayUtils.getLength(chTokens);
-			if (chtLength == 1) {
-				groupName = defaultGroupName;
-				chIndex = Integer.parseInt(chTokens[0]);
-			} else if (chtLength > 1) {
-				groupName = chTokens[0];
-				chIndex = Integer.parseInt(chTokens[1]);
-			}
-		} catch (Exception exc) {
+	private static class FieldRef {
+		private enum Kind {
+			PARENT, CHILD, FIELD, PROPERTY
 		}
 
-		if (StringUtils.isEmpty(fName) || StringUtils.isEmpty(groupName) || chIndex < 0) {
-			throw new IllegalArgumentException(StreamsResources.getStringFormatted(
-					StreamsResources.RESOURCE_BUNDLE_NAME, "ActivityInfo.invalid.child.field.locator",
-					chtLength == 1 ? "child[childIndex].fieldName" : "child[groupName.childIndex].fieldName", // NON-NLS
-					fieldName));
+		private final Kind kind;
+		private final String name;
+		private StreamFieldType fieldType;
+		private String childGroup;
+		private int childIndex;
+
+		private FieldRef(Kind kind, String name) {
+			this.kind = kind;
+			this.name = name;
 		}
 
-		List<ActivityInfo> childs = children == null ? null : children.get(groupName);
-		return childs == null || chIndex >= childs.size() ? null : childs.get(chIndex).getFieldValue(fName);
+		private static FieldRef resolve(String fieldName) {
+			if (fieldName.startsWith(StreamsConstants.PARENT_REFERENCE_PREFIX)) {
+				return new FieldRef(Kind.PARENT,
+						fieldName.substring(StreamsConstants.PARENT_REFERENCE_PREFIX.length()));
+			}
+
+			Matcher fnMatcher = CHILD_FIELD_PATTERN.matcher(fieldName);
+			if (fnMatcher.matches()) {
+				String fName = fnMatcher.group("field"); // NON-NLS
+				String[] chTokens = fnMatcher.group("child").split("\\."); // NON-NLS
+				try {
+					FieldRef fieldRef = new FieldRef(Kind.CHILD, fName);
+					if (chTokens.length == 0) {
+						fieldRef.childIndex = -1;
+					} else if (chTokens.length == 1) {
+						fieldRef.childIndex = Integer.parseInt(chTokens[0]);
+					} else {
+						fieldRef.childGroup = chTokens[0];
+						fieldRef.childIndex = Integer.parseInt(chTokens[1]);
+					}
+					if (fieldRef.childIndex >= 0 && StringUtils.isNotEmpty(fName)
+							&& (fieldRef.childGroup == null || !fieldRef.childGroup.isEmpty())) {
+						return fieldRef;
+					}
+				} catch (NumberFormatException exc) {
+				}
+
+				return new FieldRef(Kind.PROPERTY, fieldName);
+			}
+
+			String name = Utils.getVarName(fieldName);
+			StreamFieldType sft = name == null ? null : FIELD_TYPES.get(name.toLowerCase(Locale.ROOT));
+			if (sft == null) {
+				return new FieldRef(Kind.PROPERTY, name);
+			}
+
+			FieldRef fieldRef = new FieldRef(Kind.FIELD, name);
+			fieldRef.fieldType = sft;
+			return fieldRef;
+		}
 	}
 }
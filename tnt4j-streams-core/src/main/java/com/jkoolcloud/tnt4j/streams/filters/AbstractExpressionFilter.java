@@ -38,11 +38,12 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * @param <T>
  *            the type of filtered data value
  *
- * @version $Revision: 2 $
+ * @version $Revision: 4 $
  *
  * @see com.jkoolcloud.tnt4j.streams.filters.JavaScriptExpressionFilter
  * @see com.jkoolcloud.tnt4j.streams.filters.GroovyExpressionFilter
  * @see com.jkoolcloud.tnt4j.streams.filters.XPathExpressionFilter
+ * @see com.jkoolcloud.tnt4j.streams.filters.NativeExpressionFilter
  */
 public abstract class AbstractExpressionFilter<T> extends AbstractEntityFilter<T> {
 
@@ -168,8 +169,9 @@ public abstract class AbstractExpressionFilter<T> extends AbstractEntityFilter<T
 	 * @param lang
 	 *            scripting/expression language:
 	 *            {@value com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils#GROOVY_LANG},
-	 *            {@value com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils#JAVA_SCRIPT_LANG} ('js', 'jscript')
-	 *            or {@value com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils#XPATH_SCRIPT_LANG}
+	 *            {@value com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils#JAVA_SCRIPT_LANG} ('js', 'jscript'),
+	 *            {@value com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils#XPATH_SCRIPT_LANG} or
+	 *            {@value com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils#NATIVE_LANG}
 	 * @param expression
 	 *            filter expression string
 	 * @return created expression filter instance
@@ -190,12 +192,35 @@ public abstract class AbstractExpressionFilter<T> extends AbstractEntityFilter<T
 			return new JavaScriptExpressionFilter(handleType, expression);
 		} else if (StreamsScriptingUtils.XPATH_SCRIPT_LANG.equalsIgnoreCase(lang)) {
 			return new XPathExpressionFilter(handleType, expression);
+		} else if (StreamsScriptingUtils.NATIVE_LANG.equalsIgnoreCase(lang)) {
+			return new NativeExpressionFilter(handleType, expression);
 		}
 
 		throw new IllegalArgumentException(StreamsResources.getStringFormatted(StreamsResources.RESOURCE_BUNDLE_NAME,
 				"ExpressionFilter.unknown.language", lang));
 	}
 
+	/**
+	 * Puts field value and expression variables referenced activity entity fields values into script variables map.
+	 *
+	 * @param vars
+	 *            script variables map to fill
+	 * @param value
+	 *            field value to put as {@code $fieldValue} variable
+	 * @param activityInfo
+	 *            activity entity instance to resolve fields values, can be {@code null}
+	 */
+	protected void fillVariables(Map<String, Object> vars, Object value, ActivityInfo activityInfo) {
+		vars.put(StreamsScriptingUtils.FIELD_VALUE_VARIABLE_EXPR, value);
+
+		if (activityInfo != null && CollectionUtils.isNotEmpty(exprVars)) {
+			for (String eVar : exprVars) {
+				String varPlh = placeHoldersMap.get(eVar);
+				vars.put(StringUtils.isEmpty(varPlh) ? eVar : varPlh, activityInfo.getFieldValue(eVar));
+			}
+		}
+	}
+
 	/**
 	 * Resolved activity entity field value for a expression variable defined field name.
 	 *
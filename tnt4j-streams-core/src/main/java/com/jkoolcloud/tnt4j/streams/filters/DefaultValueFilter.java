@@ -23,6 +23,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import com.jkoolcloud.tnt4j.streams.fields.ActivityFieldFormatType;
 import com.jkoolcloud.tnt4j.streams.fields.ActivityInfo;
+import com.jkoolcloud.tnt4j.streams.matchers.RegExMatcher;
 import com.jkoolcloud.tnt4j.streams.utils.StreamsResources;
 import com.jkoolcloud.tnt4j.streams.utils.Utils;
 
@@ -30,7 +31,7 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * Data value filtering based on direct filtered object value evaluation. Filtered object value may be formatted before
  * evaluating, but it does not affect filtered object value itself.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  */
 public class DefaultValueFilter extends AbstractEntityFilter<Object> {
 
@@ -85,14 +86,15 @@ public class DefaultValueFilter extends AbstractEntityFilter<Object> {
 	/**
 	 * Performs filter initialization: makes RegEx {@link java.util.regex.Pattern} when filter evaluation type is
 	 * {@link com.jkoolcloud.tnt4j.streams.filters.EvaluationType#WILDCARD} or
-	 * {@link com.jkoolcloud.tnt4j.streams.filters.EvaluationType#REGEX}.
+	 * {@link com.jkoolcloud.tnt4j.streams.filters.EvaluationType#REGEX}. Compiled patterns are shared with
+	 * {@link com.jkoolcloud.tnt4j.streams.matchers.RegExMatcher} patterns cache.
 	 */
 	@Override
 	protected void initFilter() {
 		if (evalType == EvaluationType.WILDCARD) {
-			matchPattern = Pattern.compile(Utils.wildcardToRegex2(value));
+			matchPattern = RegExMatcher.getPattern(Utils.wildcardToRegex2(value));
 		} else if (evalType == EvaluationType.REGEX) {
-			matchPattern = Pattern.compile(value);
+			matchPattern = RegExMatcher.getPattern(value);
 		} else {
 			String[] va = Utils.splitValue(value);
 
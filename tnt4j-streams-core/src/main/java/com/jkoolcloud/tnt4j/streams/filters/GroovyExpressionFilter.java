@@ -16,32 +16,29 @@
 
 package com.jkoolcloud.tnt4j.streams.filters;
 
-import javax.script.Bindings;
-import javax.script.CompiledScript;
-import javax.script.ScriptException;
-import javax.script.SimpleBindings;
+import java.util.Map;
 
-import org.apache.commons.collections4.CollectionUtils;
+import javax.script.ScriptException;
 
-import com.jkoolcloud.tnt4j.core.Property;
 import com.jkoolcloud.tnt4j.sink.DefaultEventSinkFactory;
 import com.jkoolcloud.tnt4j.sink.EventSink;
 import com.jkoolcloud.tnt4j.streams.fields.ActivityInfo;
+import com.jkoolcloud.tnt4j.streams.utils.CompiledGroovyScript;
 import com.jkoolcloud.tnt4j.streams.utils.StreamsResources;
 import com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils;
 
 /**
  * Data value filtering based on Groovy code/expressions.
  *
- * @version $Revision: 2 $
+ * @version $Revision: 3 $
  *
- * @see com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils#compileGroovyScript(String)
- * @see javax.script.CompiledScript#eval(javax.script.Bindings)
+ * @see com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils#compileGroovyScriptClass(String)
+ * @see com.jkoolcloud.tnt4j.streams.utils.CompiledGroovyScript#run()
  */
 public class GroovyExpressionFilter extends AbstractExpressionFilter<Object> {
 	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(GroovyExpressionFilter.class);
 
-	private CompiledScript script;
+	private CompiledGroovyScript script;
 
 	/**
 	 * Constructs a new GroovyExpressionFilter. Handle type is set to
@@ -81,7 +78,7 @@ public class GroovyExpressionFilter extends AbstractExpressionFilter<Object> {
 		super.initFilter();
 
 		try {
-			script = StreamsScriptingUtils.compileGroovyScript(getExpression());
+			script = StreamsScriptingUtils.compileGroovyScriptClass(getExpression());
 		} catch (ScriptException exc) {
 			throw new IllegalArgumentException(
 					StreamsResources.getStringFormatted(StreamsResources.RESOURCE_BUNDLE_NAME,
@@ -92,21 +89,13 @@ public class GroovyExpressionFilter extends AbstractExpressionFilter<Object> {
 
 	@Override
 	public boolean doFilter(Object value, ActivityInfo ai) throws FilterException {
-		Bindings bindings = new SimpleBindings();
-		bindings.put(StreamsScriptingUtils.FIELD_VALUE_VARIABLE_EXPR, value);
-
-		if (ai != null && CollectionUtils.isNotEmpty(exprVars)) {
-			for (String eVar : exprVars) {
-				Property eKV = resolveFieldKeyAndValue(eVar, ai);
-
-				bindings.put(eKV.getKey(), eKV.getValue());
-			}
-		}
+		Map<String, Object> vars = script.getVariables();
+		fillVariables(vars, value, ai);
 
 		try {
-			boolean match = (boolean) script.eval(bindings);
+			boolean match = (boolean) script.run();
 
-			logEvaluationResult(bindings, match);
+			logEvaluationResult(vars, match);
 
 			return isFilteredOut(getHandleType(), match);
 		} catch (Exception exc) {
@@ -19,11 +19,7 @@ package com.jkoolcloud.tnt4j.streams.filters;
 import javax.script.Bindings;
 import javax.script.CompiledScript;
 import javax.script.ScriptException;
-import javax.script.SimpleBindings;
 
-import org.apache.commons.collections4.CollectionUtils;
-
-import com.jkoolcloud.tnt4j.core.Property;
 import com.jkoolcloud.tnt4j.sink.DefaultEventSinkFactory;
 import com.jkoolcloud.tnt4j.sink.EventSink;
 import com.jkoolcloud.tnt4j.streams.fields.ActivityInfo;
@@ -33,9 +29,10 @@ import com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils;
 /**
  * Data value filtering based on JavaScript code/expressions.
  * 
- * @version $Revision: 2 $
+ * @version $Revision: 3 $
  *
  * @see com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils#compileJSScript(String)
+ * @see com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils#getJSThreadBindings()
  * @see javax.script.CompiledScript#eval(javax.script.Bindings)
  */
 public class JavaScriptExpressionFilter extends AbstractExpressionFilter<Object> {
@@ -92,16 +89,8 @@ public class JavaScriptExpressionFilter extends AbstractExpressionFilter<Object>
 
 	@Override
 	public boolean doFilter(Object value, ActivityInfo ai) throws FilterException {
-		Bindings bindings = new SimpleBindings();
-		bindings.put(StreamsScriptingUtils.FIELD_VALUE_VARIABLE_EXPR, value);
-
-		if (ai != null && CollectionUtils.isNotEmpty(exprVars)) {
-			for (String eVar : exprVars) {
-				Property eKV = resolveFieldKeyAndValue(eVar, ai);
-
-				bindings.put(eKV.getKey(), eKV.getValue());
-			}
-		}
+		Bindings bindings = StreamsScriptingUtils.getJSThreadBindings();
+		fillVariables(bindings, value, ai);
 
 		try {
 			boolean match = (boolean) script.eval(bindings);
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.filters;
+
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.jkoolcloud.tnt4j.core.OpLevel;
+import com.jkoolcloud.tnt4j.sink.DefaultEventSinkFactory;
+import com.jkoolcloud.tnt4j.sink.EventSink;
+import com.jkoolcloud.tnt4j.streams.fields.ActivityInfo;
+import com.jkoolcloud.tnt4j.streams.utils.NativeExpression;
+import com.jkoolcloud.tnt4j.streams.utils.StreamsResources;
+import com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils;
+
+/**
+ * Data value filtering based on TNT4J-Streams native expression language expressions. Expression is compiled once,
+ * and evaluated without any scripting engine.
+ *
+ * @version $Revision: 1 $
+ *
+ * @see com.jkoolcloud.tnt4j.streams.utils.NativeExpression
+ */
+public class NativeExpressionFilter extends AbstractExpressionFilter<Object> {
+	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(NativeExpressionFilter.class);
+
+	private NativeExpression expression;
+
+	/**
+	 * Constructs a new NativeExpressionFilter. Handle type is set to
+	 * {@link com.jkoolcloud.tnt4j.streams.filters.HandleType#INCLUDE}.
+	 *
+	 * @param filterExpression
+	 *            filter expression string
+	 */
+	public NativeExpressionFilter(String filterExpression) {
+		super(filterExpression);
+	}
+
+	/**
+	 * Constructs a new NativeExpressionFilter.
+	 *
+	 * @param handleType
+	 *            filter {@link com.jkoolcloud.tnt4j.streams.filters.HandleType} name
+	 * @param filterExpression
+	 *            filter expression string
+	 */
+	public NativeExpressionFilter(String handleType, String filterExpression) {
+		super(handleType, filterExpression);
+	}
+
+	@Override
+	protected EventSink getLogger() {
+		return LOGGER;
+	}
+
+	@Override
+	protected String getHandledLanguage() {
+		return StreamsScriptingUtils.NATIVE_LANG;
+	}
+
+	@Override
+	protected void initFilter() {
+		super.initFilter();
+
+		try {
+			expression = NativeExpression.compile(filterExpression);
+		} catch (ParseException exc) {
+			throw new IllegalArgumentException(
+					StreamsResources.getStringFormatted(StreamsResources.RESOURCE_BUNDLE_NAME,
+							"ExpressionFilter.invalid.script", getHandledLanguage(), filterExpression),
+					exc);
+		}
+	}
+
+	@Override
+	public boolean doFilter(Object value, ActivityInfo ai) throws FilterException {
+		try {
+			boolean match = expression.test(value, ai);
+
+			if (getLogger().isSet(OpLevel.TRACE)) {
+				Map<String, Object> vars = new HashMap<>();
+				fillVariables(vars, value, ai);
+				logEvaluationResult(vars, match);
+			}
+
+			return isFilteredOut(getHandleType(), match);
+		} catch (Exception exc) {
+			throw new FilterException(StreamsResources.getStringFormatted(StreamsResources.RESOURCE_BUNDLE_NAME,
+					"ExpressionFilter.filtering.failed", filterExpression), exc);
+		}
+	}
+}
@@ -16,11 +16,18 @@
 
 package com.jkoolcloud.tnt4j.streams.inputs;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import com.jkoolcloud.tnt4j.core.OpLevel;
 import com.jkoolcloud.tnt4j.streams.configure.StreamProperties;
+import com.jkoolcloud.tnt4j.streams.utils.RingBufferQueue;
+import com.jkoolcloud.tnt4j.streams.utils.SpillLog;
 import com.jkoolcloud.tnt4j.streams.utils.StreamsResources;
 import com.jkoolcloud.tnt4j.streams.utils.StreamsThread;
 import com.jkoolcloud.tnt4j.streams.utils.Utils;
@@ -35,27 +42,72 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * <li>BufferSize - maximal buffer queue capacity. Default value - {@code 1024}. (Optional)</li>
  * <li>BufferDropWhenFull - flag indicating to drop buffer queue offered RAW activity data entries when queue gets full.
  * Default value - {@code false}. (Optional)</li>
+ * <li>BufferType - buffer queue implementation type. Value can be one of: {@code FAIR} - fair
+ * {@link java.util.concurrent.ArrayBlockingQueue}, {@code ARRAY} - non-fair
+ * {@link java.util.concurrent.ArrayBlockingQueue}, {@code LINKED} - {@link java.util.concurrent.LinkedBlockingQueue},
+ * {@code RING} - lock-free ring buffer {@link com.jkoolcloud.tnt4j.streams.utils.RingBufferQueue}. Default value -
+ * {@code FAIR}. (Optional)</li>
+ * <li>BufferWaitStrategy - {@code RING} type buffer queue wait strategy used by producers when queue is full and by
+ * consumers when queue is empty. Value can be one of: {@code SPIN}, {@code YIELD}, {@code PARK}. Default value -
+ * {@code PARK}. (Optional)</li>
+ * <li>BufferDrainBatchSize - maximal number of RAW activity data entries taken from buffer queue at once by consumer
+ * thread. Default value - {@code 1}. (Optional)</li>
+ * <li>BufferSpillWhenFull - flag indicating to spill buffer queue offered RAW activity data entries to memory-mapped
+ * segment files when queue gets full. Spilled entries are replayed to buffer queue in the same order once queue gets
+ * free space. Entries must be {@link java.io.Serializable} to be spilled, otherwise producer waits for spilled entries to
+ * be replayed and queue to get free space, or entry is dropped if {@code BufferDropWhenFull} is {@code true}. Default
+ * value - {@code false}. (Optional)</li>
+ * <li>BufferSpillDirectory - directory to create spill segment files in. Default value - {@code "tnt4j-streams-spill"}
+ * directory within system temporary files directory. (Optional)</li>
+ * <li>BufferSpillSegmentSize - spill segment file size in bytes. Default value - {@code 67108864}. (Optional)</li>
  * </ul>
  *
  * @param <T>
  *            the type of handled RAW activity data
  *
- * @version $Revision: 2 $
+ * @version $Revision: 5 $
  *
  * @see ArrayBlockingQueue
+ * @see RingBufferQueue
+ * @see SpillLog
  */
 public abstract class AbstractBufferedStream<T> extends TNTParseableInputStream<T> {
 	private static final int DEFAULT_INPUT_BUFFER_SIZE = 1024;
 	private static final Object DIE_MARKER = new Object();
 
+	private static final long SPILL_REPLAY_INTERVAL = 10;
+
+	private static final String BUFFER_TYPE_FAIR = "FAIR"; // NON-NLS
+	private static final String BUFFER_TYPE_ARRAY = "ARRAY"; // NON-NLS
+	private static final String BUFFER_TYPE_LINKED = "LINKED"; // NON-NLS
+	private static final String BUFFER_TYPE_RING = "RING"; // NON-NLS
+
 	private int bufferSize;
 	private boolean dropDataWhenBufferFull = false;
+	private String bufferType = BUFFER_TYPE_FAIR;
+	private RingBufferQueue.WaitStrategy bufferWaitStrategy = RingBufferQueue.WaitStrategy.PARK;
+	private int drainBatchSize = 1;
+	private boolean spillWhenBufferFull = false;
+	private String spillDirectory = new File(System.getProperty("java.io.tmpdir"), "tnt4j-streams-spill").getPath(); // NON-NLS
+	private int spillSegmentSize = SpillLog.DEFAULT_SEGMENT_SIZE;
+
+	private SpillLog spillLog;
+	private SpillReplayer spillReplayer;
+	private final Object spillLock = new Object();
+	private volatile boolean spilling = false;
+	private boolean dieMarkerSpilled = false;
 
 	/**
 	 * RAW activity data items buffer queue. Items in this queue are processed asynchronously by consumer thread(s).
 	 */
 	protected BlockingQueue<Object> inputBuffer;
 	private ThreadLocal<T> currentItem = new ThreadLocal<>();
+	private ThreadLocal<Deque<Object>> drainedItems = new ThreadLocal<Deque<Object>>() {
+		@Override
+		protected Deque<Object> initialValue() {
+			return new ArrayDeque<>(drainBatchSize);
+		}
+	};
 
 	/**
 	 * Constructs a new AbstractBufferedStream.
@@ -82,6 +134,18 @@ public abstract class AbstractBufferedStream<T> extends TNTParseableInputStream<
 			bufferSize = Integer.parseInt(value);
 		} else if (StreamProperties.PROP_BUFFER_DROP_WHEN_FULL.equalsIgnoreCase(name)) {
 			dropDataWhenBufferFull = Utils.toBoolean(value);
+		} else if (StreamProperties.PROP_BUFFER_TYPE.equalsIgnoreCase(name)) {
+			bufferType = value.toUpperCase();
+		} else if (StreamProperties.PROP_BUFFER_WAIT_STRATEGY.equalsIgnoreCase(name)) {
+			bufferWaitStrategy = RingBufferQueue.WaitStrategy.valueOf(value.toUpperCase());
+		} else if (StreamProperties.PROP_BUFFER_DRAIN_BATCH_SIZE.equalsIgnoreCase(name)) {
+			drainBatchSize = Math.max(1, Integer.parseInt(value));
+		} else if (StreamProperties.PROP_BUFFER_SPILL_WHEN_FULL.equalsIgnoreCase(name)) {
+			spillWhenBufferFull = Utils.toBoolean(value);
+		} else if (StreamProperties.PROP_BUFFER_SPILL_DIRECTORY.equalsIgnoreCase(name)) {
+			spillDirectory = value;
+		} else if (StreamProperties.PROP_BUFFER_SPILL_SEGMENT_SIZE.equalsIgnoreCase(name)) {
+			spillSegmentSize = Integer.parseInt(value);
 		}
 	}
 
@@ -93,16 +157,64 @@ public abstract class AbstractBufferedStream<T> extends TNTParseableInputStream<
 		if (StreamProperties.PROP_BUFFER_DROP_WHEN_FULL.equalsIgnoreCase(name)) {
 			return dropDataWhenBufferFull;
 		}
+		if (StreamProperties.PROP_BUFFER_TYPE.equalsIgnoreCase(name)) {
+			return bufferType;
+		}
+		if (StreamProperties.PROP_BUFFER_WAIT_STRATEGY.equalsIgnoreCase(name)) {
+			return bufferWaitStrategy;
+		}
+		if (StreamProperties.PROP_BUFFER_DRAIN_BATCH_SIZE.equalsIgnoreCase(name)) {
+			return drainBatchSize;
+		}
+		if (StreamProperties.PROP_BUFFER_SPILL_WHEN_FULL.equalsIgnoreCase(name)) {
+			return spillWhenBufferFull;
+		}
+		if (StreamProperties.PROP_BUFFER_SPILL_DIRECTORY.equalsIgnoreCase(name)) {
+			return spillDirectory;
+		}
+		if (StreamProperties.PROP_BUFFER_SPILL_SEGMENT_SIZE.equalsIgnoreCase(name)) {
+			return spillSegmentSize;
+		}
 		return super.getProperty(name);
 	}
 
 	@Override
 	protected void initialize() throws Exception {
-		inputBuffer = new ArrayBlockingQueue<>(bufferSize, true);
+		inputBuffer = createInputBuffer();
+
+		if (spillWhenBufferFull) {
+			spillLog = new SpillLog(new File(spillDirectory), spillSegmentSize);
+			spillReplayer = new SpillReplayer(getName() + "-SpillReplayer"); // NON-NLS
+			spillReplayer.start();
+		}
 
 		super.initialize();
 	}
 
+	/**
+	 * Creates RAW activity data items buffer queue instance of configured type.
+	 *
+	 * @return buffer queue instance
+	 *
+	 * @throws IllegalArgumentException
+	 *             if configured buffer type is not supported
+	 */
+	protected BlockingQueue<Object> createInputBuffer() throws IllegalArgumentException {
+		switch (bufferType) {
+		case BUFFER_TYPE_FAIR:
+			return new ArrayBlockingQueue<>(bufferSize, true);
+		case BUFFER_TYPE_ARRAY:
+			return new ArrayBlockingQueue<>(bufferSize);
+		case BUFFER_TYPE_LINKED:
+			return new LinkedBlockingQueue<>(bufferSize);
+		case BUFFER_TYPE_RING:
+			return new RingBufferQueue<>(bufferSize, bufferWaitStrategy);
+		default:
+			throw new IllegalArgumentException(StreamsResources.getStringFormatted(
+					StreamsResources.RESOURCE_BUNDLE_NAME, "AbstractBufferedStream.unsupported.buffer.type", bufferType));
+		}
+	}
+
 	/**
 	 * Adds terminator object to input buffer.
 	 */
@@ -128,7 +240,20 @@ public abstract class AbstractBufferedStream<T> extends TNTParseableInputStream<
 	 */
 	protected void offerDieMarker(boolean forceClear) {
 		if (inputBuffer != null) {
-			if (forceClear) {
+			if (spillLog != null) {
+				synchronized (spillLock) {
+					if (forceClear) {
+						spillLog.clear();
+						spilling = false;
+						inputBuffer.clear();
+					}
+					if (spilling) {
+						// marker shall follow spilled entries
+						dieMarkerSpilled = true;
+						return;
+					}
+				}
+			} else if (forceClear) {
 				inputBuffer.clear();
 			}
 			inputBuffer.offer(DIE_MARKER);
@@ -161,20 +286,22 @@ public abstract class AbstractBufferedStream<T> extends TNTParseableInputStream<
 					"AbstractBufferedStream.changes.buffer.uninitialized"));
 		}
 
+		Deque<Object> drained = drainedItems.get();
 		while (true) {
 			// Buffer is empty and producer input is ended. No more items going to
 			// be available.
-			if (inputBuffer.isEmpty() && isInputEnded()) {
+			if (drained.isEmpty() && inputBuffer.isEmpty() && !spilling && isInputEnded()) {
 				return null;
 			}
 
 			T item = currentItem.get();
 			if (item == null || isItemConsumed(item)) {
-				Object qe = inputBuffer.take();
+				Object qe = takeBufferedItem(drained);
 
 				// Producer input was slower than consumer, but was able to put "DIE"
 				// marker object to queue. No more items going to be available.
 				if (DIE_MARKER.equals(qe)) {
+					drained.clear();
 					return null;
 				}
 
@@ -193,6 +320,33 @@ public abstract class AbstractBufferedStream<T> extends TNTParseableInputStream<
 		}
 	}
 
+	/**
+	 * Takes next item from input buffer. When drain batch size is greater than {@code 1}, available items are drained
+	 * from input buffer to consumer thread local batch at once, and subsequent calls take items from that batch until
+	 * it gets empty.
+	 *
+	 * @param drained
+	 *            consumer thread local batch of items drained from input buffer
+	 * @return next input buffer item
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for input buffer item
+	 */
+	private Object takeBufferedItem(Deque<Object> drained) throws InterruptedException {
+		if (drainBatchSize <= 1) {
+			return inputBuffer.take();
+		}
+
+		Object qe = drained.poll();
+		if (qe != null) {
+			return qe;
+		}
+
+		qe = inputBuffer.take();
+		inputBuffer.drainTo(drained, drainBatchSize - 1);
+		return qe;
+	}
+
 	/**
 	 * Checks whether provided RAW activity data item is consumed, and stream should take next item from buffer.
 	 *
@@ -229,6 +383,16 @@ public abstract class AbstractBufferedStream<T> extends TNTParseableInputStream<
 
 	@Override
 	protected void cleanup() {
+		if (spillReplayer != null) {
+			spillReplayer.halt(true);
+			spillReplayer = null;
+		}
+		if (spillLog != null) {
+			synchronized (spillLock) {
+				spillLog.close();
+				spilling = false;
+			}
+		}
 		if (inputBuffer != null) {
 			inputBuffer.clear();
 		}
@@ -237,7 +401,9 @@ public abstract class AbstractBufferedStream<T> extends TNTParseableInputStream<
 
 	/**
 	 * Adds input data to buffer for asynchronous processing. Input data may not be added, if buffer size limit is
-	 * exceeded and stream configuration parameter {@code 'BufferDropWhenFull'} value is {@code true}.
+	 * exceeded and stream configuration parameter {@code 'BufferDropWhenFull'} value is {@code true}. If stream
+	 * configuration parameter {@code 'BufferSpillWhenFull'} value is {@code true}, input data not fitting buffer is
+	 * spilled to disk and replayed to buffer later.
 	 *
 	 * @param inputData
 	 *            input data to add to buffer
@@ -255,26 +421,133 @@ public abstract class AbstractBufferedStream<T> extends TNTParseableInputStream<
 					"AbstractBufferedStream.changes.buffer.uninitialized"));
 		}
 		if (inputData != null && !isHalted()) {
-			if (dropDataWhenBufferFull) {
-				boolean added = inputBuffer.offer(inputData);
-				if (!added) {
-					logger().log(OpLevel.WARNING, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-							"AbstractBufferedStream.changes.buffer.limit", inputData);
-					incrementLostActivitiesCount();
+			if (spillLog != null) {
+				return spillInputToBuffer(inputData);
+			}
+			return putInputToBuffer(inputData);
+		}
+		return false;
+	}
+
+	private boolean putInputToBuffer(T inputData) {
+		if (dropDataWhenBufferFull) {
+			boolean added = inputBuffer.offer(inputData);
+			if (!added) {
+				dropInput(inputData);
+			}
+			return added;
+		} else {
+			try {
+				inputBuffer.put(inputData);
+				return true;
+			} catch (InterruptedException exc) {
+				logger().log(OpLevel.WARNING, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+						"AbstractBufferedStream.put.interrupted", inputData);
+				incrementLostActivitiesCount();
+			}
+		}
+		return false;
+	}
+
+	private void dropInput(T inputData) {
+		logger().log(OpLevel.WARNING, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+				"AbstractBufferedStream.changes.buffer.limit", inputData);
+		incrementLostActivitiesCount();
+	}
+
+	/**
+	 * Offers input data to buffer, or appends it to spill log if buffer is full or there are spilled entries not yet
+	 * replayed to buffer, so entries order is preserved.
+	 * <p>
+	 * If input data can't be spilled (e.g., it is not serializable or does not fit spill log segment), it never
+	 * overtakes already spilled entries: while there are spilled entries not yet replayed, input data is dropped if
+	 * stream configuration parameter {@code 'BufferDropWhenFull'} value is {@code true}, or this method waits for
+	 * spilled entries to be replayed otherwise. When there are no spilled entries, input data is put to buffer the same
+	 * way as without spilling.
+	 *
+	 * @param inputData
+	 *            input data to add to buffer
+	 * @return {@code true} if input data is added to buffer or spill log, {@code false} - otherwise
+	 */
+	private boolean spillInputToBuffer(T inputData) {
+		while (true) {
+			if (!spilling && inputBuffer.offer(inputData)) {
+				return true;
+			}
+
+			boolean spilled;
+			synchronized (spillLock) {
+				if (!spilling && inputBuffer.offer(inputData)) {
+					return true;
 				}
-				return added;
-			} else {
 				try {
-					inputBuffer.put(inputData);
-					return true;
-				} catch (InterruptedException exc) {
-					logger().log(OpLevel.WARNING, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-							"AbstractBufferedStream.put.interrupted", inputData);
+					if (spillLog.append(inputData)) {
+						if (!spilling) {
+							spilling = true;
+							logger().log(OpLevel.DEBUG,
+									StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+									"AbstractBufferedStream.spill.started", getName());
+						}
+						return true;
+					}
+				} catch (IOException exc) {
+					Utils.logThrowable(logger(), OpLevel.WARNING,
+							StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+							"AbstractBufferedStream.spill.failed", exc);
+				}
+				spilled = spilling;
+			}
+
+			if (!spilled) {
+				return putInputToBuffer(inputData);
+			}
+			if (dropDataWhenBufferFull || isHalted()) {
+				dropInput(inputData);
+				return false;
+			}
+			StreamsThread.sleep(SPILL_REPLAY_INTERVAL);
+		}
+	}
+
+	/**
+	 * Moves spilled entries to buffer while buffer has free space.
+	 *
+	 * @return {@code true} if any spilled entry has been moved to buffer, {@code false} - otherwise
+	 */
+	private boolean replaySpilled() {
+		boolean replayed = false;
+		synchronized (spillLock) {
+			while (spilling) {
+				Object item;
+				try {
+					item = spillLog.peek();
+				} catch (IOException exc) {
+					Utils.logThrowable(logger(), OpLevel.ERROR,
+							StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+							"AbstractBufferedStream.spill.replay.failed", exc);
+					spillLog.remove();
 					incrementLostActivitiesCount();
+					continue;
+				}
+
+				if (item == null) {
+					spilling = false;
+					logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+							"AbstractBufferedStream.spill.replayed", getName());
+					if (dieMarkerSpilled) {
+						dieMarkerSpilled = false;
+						inputBuffer.offer(DIE_MARKER);
+					}
+				} else if (inputBuffer.offer(item)) {
+					spillLog.remove();
+					replayed = true;
+				} else {
+					break;
 				}
 			}
 		}
-		return false;
+
+		return replayed;
 	}
 
 	/**
@@ -284,6 +557,27 @@ public abstract class AbstractBufferedStream<T> extends TNTParseableInputStream<
 	 */
 	protected abstract boolean isInputEnded();
 
+	/**
+	 * Thread replaying spilled RAW activity data entries back to input buffer once buffer gets free space.
+	 */
+	private class SpillReplayer extends StreamsThread {
+
+		private SpillReplayer(String name) {
+			super(name);
+
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			while (!isStopRunning()) {
+				if (!replaySpilled()) {
+					StreamsThread.sleep(SPILL_REPLAY_INTERVAL);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Base class containing common features for stream input processor thread.
 	 */
@@ -16,9 +16,12 @@
 
 package com.jkoolcloud.tnt4j.streams.inputs;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.LineNumberReader;
+import java.nio.charset.Charset;
 import java.text.ParseException;
 import java.util.concurrent.TimeUnit;
 
@@ -77,6 +80,7 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  */
 public abstract class AbstractFileLineStream<T> extends AbstractBufferedStream<AbstractFileLineStream.Line> {
 	private static final long DEFAULT_DELAY_PERIOD = TimeUnit.SECONDS.toMillis(15);
+	private static final int READ_BUFFER_SIZE = 8192;
 
 	/**
 	 * Stream attribute defining file name.
@@ -318,6 +322,11 @@ public abstract class AbstractFileLineStream<T> extends AbstractBufferedStream<A
 		 */
 		protected int lineNumber = -1;
 
+		/**
+		 * File monitor attribute storing byte offset of streamed file position right after last read line.
+		 */
+		protected long lineOffset = -1;
+
 		/**
 		 * File monitor attribute storing modification time of streamed file.
 		 */
@@ -400,11 +409,53 @@ public abstract class AbstractFileLineStream<T> extends AbstractBufferedStream<A
 			while ((line = lnr.readLine()) != null && !isInputEnded()) {
 				lastReadTime = System.currentTimeMillis();
 				lineNumber = lnr.getLineNumber();
-				if (StringUtils.isNotEmpty(line) && IntRange.inRange(lineRange, lineNumber)) {
-					addActivityDataLine(line, sb, lineNumber);
-				} else {
-					skipFilteredActivities();
+				processLine(line, sb);
+			}
+
+			if (sb.length() > 0) {
+				addLineToBuffer(sb, lineNumber);
+			}
+		}
+
+		/**
+		 * Reads new file lines from input stream positioned at {@link #lineOffset} and adds them to changed lines
+		 * buffer. While reading, {@link #lineOffset} is advanced to point file position right after last read line.
+		 * <p>
+		 * Only line feed symbol {@code '\n'} is treated as line terminator, trailing carriage return symbol
+		 * {@code '\r'} is stripped from line. If file polling is turned on, last line having no terminator is not
+		 * consumed, since it may be still being written, and it is read on next poll.
+		 *
+		 * @param is
+		 *            input stream positioned at {@link #lineOffset}
+		 * @param charset
+		 *            charset to decode line bytes
+		 * @throws IOException
+		 *             if exception occurs when reading file bytes
+		 */
+		protected void readNewFileLines(InputStream is, Charset charset) throws IOException {
+			byte[] buff = new byte[READ_BUFFER_SIZE];
+			ByteArrayOutputStream lineBytes = new ByteArrayOutputStream(256);
+			StringBuilder sb = new StringBuilder(256);
+			long pos = lineOffset < 0 ? 0 : lineOffset;
+			if (lineNumber < 0) {
+				lineNumber = 0;
+			}
+			int readLen;
+			while (!isInputEnded() && (readLen = is.read(buff)) != -1) {
+				int lineStart = 0;
+				for (int i = 0; i < readLen; i++) {
+					if (buff[i] == '\n') {
+						lineBytes.write(buff, lineStart, i - lineStart);
+						lineStart = i + 1;
+						consumeLine(lineBytes, charset, pos + lineStart, sb);
+					}
 				}
+				lineBytes.write(buff, lineStart, readLen - lineStart);
+				pos += readLen;
+			}
+
+			if (lineBytes.size() > 0 && !pollingOn) {
+				consumeLine(lineBytes, charset, pos, sb);
 			}
 
 			if (sb.length() > 0) {
@@ -412,6 +463,23 @@ public abstract class AbstractFileLineStream<T> extends AbstractBufferedStream<A
 			}
 		}
 
+		private void consumeLine(ByteArrayOutputStream lineBytes, Charset charset, long endOffset, StringBuilder sb)
+				throws IOException {
+			lastReadTime = System.currentTimeMillis();
+			lineNumber++;
+			lineOffset = endOffset;
+			processLine(StringUtils.removeEnd(lineBytes.toString(charset.name()), "\r"), sb);
+			lineBytes.reset();
+		}
+
+		private void processLine(String line, StringBuilder sb) {
+			if (StringUtils.isNotEmpty(line) && IntRange.inRange(lineRange, lineNumber)) {
+				addActivityDataLine(line, sb, lineNumber);
+			} else {
+				skipFilteredActivities();
+			}
+		}
+
 		private void addActivityDataLine(String line, StringBuilder sb, int lineNumber) {
 			sb.append(line);
 			if (keepLineSeparators) {
@@ -434,7 +502,7 @@ public abstract class AbstractFileLineStream<T> extends AbstractBufferedStream<A
 		}
 
 		private void addLineToBuffer(StringBuilder sb, int lineNumber) {
-			addInputToBuffer(new Line(sb.toString(), lineNumber));
+			addInputToBuffer(new Line(sb.toString(), lineNumber, lineOffset));
 			sb.setLength(0);
 		}
 
@@ -484,6 +552,7 @@ public abstract class AbstractFileLineStream<T> extends AbstractBufferedStream<A
 	public static class Line {
 		private String text;
 		private int lineNr;
+		private long offset;
 
 		/**
 		 * Creates a new Line.
@@ -494,8 +563,23 @@ public abstract class AbstractFileLineStream<T> extends AbstractBufferedStream<A
 		 *            line number in file
 		 */
 		public Line(String text, int lineNumber) {
+			this(text, lineNumber, -1);
+		}
+
+		/**
+		 * Creates a new Line.
+		 *
+		 * @param text
+		 *            line text string
+		 * @param lineNumber
+		 *            line number in file
+		 * @param offset
+		 *            byte offset of file position right after this line, or {@code -1} if offset is unknown
+		 */
+		public Line(String text, int lineNumber, long offset) {
 			this.text = text;
 			this.lineNr = lineNumber;
+			this.offset = offset;
 		}
 
 		/**
@@ -516,6 +600,15 @@ public abstract class AbstractFileLineStream<T> extends AbstractBufferedStream<A
 			return lineNr;
 		}
 
+		/**
+		 * Returns byte offset of file position right after this line.
+		 *
+		 * @return byte offset of file position right after this line, or {@code -1} if offset is unknown
+		 */
+		public long getOffset() {
+			return offset;
+		}
+
 		@Override
 		public String toString() {
 			return text;
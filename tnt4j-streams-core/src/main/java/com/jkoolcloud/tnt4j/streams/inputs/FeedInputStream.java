@@ -25,6 +25,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -60,6 +61,8 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * (Required - just one 'FileName' or 'Port')</li>
  * <li>Port - port number to accept character stream over TCP/IP. (Required - just one 'FileName' or 'Port')</li>
  * <li>RestartOnInputClose - flag indicating to restart stream if input socked gets closed. (Optional)</li>
+ * <li>CompressedInput - flag indicating that input data is GZIP compressed. Default value - {@code false}.
+ * (Optional)</li>
  * </ul>
  *
  * @param <R>
@@ -67,7 +70,7 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * @param <T>
  *            type of activity data feed input
  *
- * @version $Revision: 2 $
+ * @version $Revision: 3 $
  *
  * @see BytesInputStream
  * @see CharacterStream
@@ -98,6 +101,12 @@ public abstract class FeedInputStream<R extends Closeable, T> extends TNTParseab
 	 */
 	private boolean restartOnInputClose = false;
 
+	/**
+	 * Indicates whether RAW input data is GZIP compressed (set by {@code CompressedInput} property) - default:
+	 * {@code false}
+	 */
+	private boolean compressedInput = false;
+
 	/**
 	 * Constructs an empty FeedInputStream. Requires configuration settings to set input stream source.
 	 */
@@ -182,6 +191,9 @@ public abstract class FeedInputStream<R extends Closeable, T> extends TNTParseab
 		if (StreamProperties.PROP_RESTART_ON_CLOSE.equalsIgnoreCase(name)) {
 			return restartOnInputClose;
 		}
+		if (StreamProperties.PROP_COMPRESSED_INPUT.equalsIgnoreCase(name)) {
+			return compressedInput;
+		}
 		return super.getProperty(name);
 	}
 
@@ -205,6 +217,8 @@ public abstract class FeedInputStream<R extends Closeable, T> extends TNTParseab
 			socketPort = Integer.valueOf(value);
 		} else if (StreamProperties.PROP_RESTART_ON_CLOSE.equalsIgnoreCase(name)) {
 			restartOnInputClose = Utils.toBoolean(value);
+		} else if (StreamProperties.PROP_COMPRESSED_INPUT.equalsIgnoreCase(name)) {
+			compressedInput = Utils.toBoolean(value);
 		}
 	}
 
@@ -246,7 +260,8 @@ public abstract class FeedInputStream<R extends Closeable, T> extends TNTParseab
 	 */
 	protected void startDataStream() throws IOException {
 		if (rawInputSource == null) {
-			setInputStream(feedInput.getInputStream());
+			InputStream is = feedInput.getInputStream();
+			setInputStream(compressedInput ? new GZIPInputStream(is) : is);
 		}
 		if (rawInputSource == null) {
 			throw new IOException(StreamsResources.getString(StreamsResources.RESOURCE_BUNDLE_NAME,
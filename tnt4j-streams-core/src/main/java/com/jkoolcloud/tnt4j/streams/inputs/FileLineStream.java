@@ -17,22 +17,27 @@
 package com.jkoolcloud.tnt4j.streams.inputs;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.LineNumberReader;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.file.*;
 import java.nio.file.attribute.FileTime;
 import java.util.Collections;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.filefilter.WildcardFileFilter;
 import org.apache.commons.lang3.ArrayUtils;
 
 import com.jkoolcloud.tnt4j.core.OpLevel;
 import com.jkoolcloud.tnt4j.sink.DefaultEventSinkFactory;
 import com.jkoolcloud.tnt4j.sink.EventSink;
+import com.jkoolcloud.tnt4j.streams.configure.StreamProperties;
 import com.jkoolcloud.tnt4j.streams.configure.state.FileStreamStateHandler;
 import com.jkoolcloud.tnt4j.streams.utils.StreamsResources;
 import com.jkoolcloud.tnt4j.streams.utils.Utils;
@@ -44,10 +49,17 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * <p>
  * This activity stream requires parsers that can support {@link String} data.
  * <p>
- * This activity stream supports configuration properties from {@link AbstractFileLineStream} (and higher hierarchy
- * streams).
+ * This activity stream supports the following configuration properties (in addition to those supported by
+ * {@link AbstractFileLineStream}):
+ * <ul>
+ * <li>TailByOffset - flag {@code true}/{@code false} indicating whether file read position shall be tracked by file
+ * byte offset instead of line number. When enabled, stream resumes reading directly from last read byte offset, so
+ * file lines already streamed are not read again on every poll and files lines are not counted on startup. Note, in
+ * this mode 'RangeToStream' line indexes are counted from position streaming has been started. Default value -
+ * {@code false}. (Optional)</li>
+ * </ul>
  *
- * @version $Revision: 2 $
+ * @version $Revision: 4 $
  *
  * @see com.jkoolcloud.tnt4j.streams.parsers.ActivityParser#isDataClassSupported(Object)
  * @see WildcardFileFilter#WildcardFileFilter(String)
@@ -55,6 +67,8 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
 public class FileLineStream extends AbstractFileLineStream<Path> {
 	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(FileLineStream.class);
 
+	private boolean tailByOffset = false;
+
 	/**
 	 * Constructs a new FileLineStream.
 	 */
@@ -77,15 +91,17 @@ public class FileLineStream extends AbstractFileLineStream<Path> {
 		}
 	}
 
-	private static int[] getFilesTotals(Path[] activityFiles) throws IOException {
+	private static int[] getFilesTotals(Path[] activityFiles, boolean countLines) throws IOException {
 		int tbc = 0;
-		int tlc = 0;
+		int tlc = countLines ? 0 : -1;
 		if (ArrayUtils.isNotEmpty(activityFiles)) {
 			for (Path f : activityFiles) {
 				tbc += Files.size(f);
-				try {
-					tlc += Utils.countLines(Files.newInputStream(f, StandardOpenOption.READ));
-				} catch (IOException exc) {
+				if (countLines) {
+					try {
+						tlc += Utils.countLines(Files.newInputStream(f, StandardOpenOption.READ));
+					} catch (IOException exc) {
+					}
 				}
 			}
 		}
@@ -93,8 +109,20 @@ public class FileLineStream extends AbstractFileLineStream<Path> {
 		return new int[] { tbc, tlc };
 	}
 
+	@Override
+	public void setProperty(String name, String value) {
+		super.setProperty(name, value);
+
+		if (StreamProperties.PROP_TAIL_BY_OFFSET.equalsIgnoreCase(name)) {
+			tailByOffset = Utils.toBoolean(value);
+		}
+	}
+
 	@Override
 	public Object getProperty(String name) {
+		if (StreamProperties.PROP_TAIL_BY_OFFSET.equalsIgnoreCase(name)) {
+			return tailByOffset;
+		}
 		return super.getProperty(name);
 	}
 
@@ -140,7 +168,7 @@ public class FileLineStream extends AbstractFileLineStream<Path> {
 		/**
 		 * Initializes files watcher thread. Picks file matching user defined file name to monitor. If user defined to
 		 * start streaming from latest file line, then count of lines in file is calculated to mark latest activity
-		 * position.
+		 * position. If stream tails file by byte offset, then file size is used to mark latest activity position.
 		 *
 		 * @param params
 		 *            initialization parameters array
@@ -163,6 +191,7 @@ public class FileLineStream extends AbstractFileLineStream<Path> {
 			if (isStoredStateAvailable()) {
 				file = stateHandler.getFile();
 				lineNumber = stateHandler.getLineNumber();
+				lineOffset = tailByOffset ? stateHandler.getLineOffset() : -1;
 				lastReadTime = stateHandler.getReadTime();
 			} else {
 				file = ArrayUtils.isEmpty(availableFiles) ? null
@@ -174,7 +203,11 @@ public class FileLineStream extends AbstractFileLineStream<Path> {
 			FileTime lastModifiedTime = Files.getLastModifiedTime(fileToRead, LinkOption.NOFOLLOW_LINKS);
 			if (startFromLatestActivity && fileToRead != null && lastModifiedTime != null) {
 				lastModifTime = lastModifiedTime.toMillis();
-				lineNumber = Utils.countLines(Files.newInputStream(fileToRead));
+				if (!tailByOffset) {
+					lineNumber = Utils.countLines(Files.newInputStream(fileToRead));
+				} else if (lineOffset < 0) {
+					lineOffset = Files.size(fileToRead);
+				}
 			}
 
 			logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
@@ -212,7 +245,9 @@ public class FileLineStream extends AbstractFileLineStream<Path> {
 		 * <p>
 		 * When file gets opened for reading reader is rolled to file marked by {@link #lineNumber} attribute. If turns
 		 * out that file got smaller in lines count, then monitor tries to swap to previous file. If no previous
-		 * readable file is available, then reader is reset to first file line.
+		 * readable file is available, then reader is reset to first file line. If stream tails file by byte offset,
+		 * file channel is positioned to {@link #lineOffset} attribute marked byte instead, and file size is compared
+		 * to that offset to determine if file got smaller.
 		 * <p>
 		 * Reader reads all file lines until end of file and puts them to changed lines buffer.
 		 */
@@ -267,27 +302,35 @@ public class FileLineStream extends AbstractFileLineStream<Path> {
 				}
 			}
 
-			LineNumberReader lnr = null;
+			int prevLineNumber;
 
-			try {
-				lnr = rollToCurrentLine();
-			} catch (IOException exc) {
-				Utils.logThrowable(logger(), OpLevel.ERROR,
-						StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-						"FileLineStream.error.rolling", exc);
-			}
+			if (tailByOffset) {
+				prevLineNumber = lineNumber < 0 ? 0 : lineNumber;
 
-			int prevLineNumber = lnr.getLineNumber();
+				readOffsetFileChanges();
+			} else {
+				LineNumberReader lnr = null;
 
-			if (lnr != null) {
 				try {
-					readNewFileLines(lnr);
+					lnr = rollToCurrentLine();
 				} catch (IOException exc) {
 					Utils.logThrowable(logger(), OpLevel.ERROR,
 							StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-							"FileLineStream.error.reading", exc);
-				} finally {
-					Utils.close(lnr);
+							"FileLineStream.error.rolling", exc);
+				}
+
+				prevLineNumber = lnr.getLineNumber();
+
+				if (lnr != null) {
+					try {
+						readNewFileLines(lnr);
+					} catch (IOException exc) {
+						Utils.logThrowable(logger(), OpLevel.ERROR,
+								StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+								"FileLineStream.error.reading", exc);
+					} finally {
+						Utils.close(lnr);
+					}
 				}
 			}
 
@@ -296,6 +339,80 @@ public class FileLineStream extends AbstractFileLineStream<Path> {
 					lineNumber - prevLineNumber);
 		}
 
+		private void readOffsetFileChanges() {
+			SeekableByteChannel channel = null;
+
+			try {
+				channel = rollToCurrentOffset();
+				if (channel != null) {
+					readNewFileLines(getChannelInput(channel, lineOffset < 0 ? 0 : lineOffset),
+							Charset.defaultCharset());
+				}
+			} catch (IOException exc) {
+				Utils.logThrowable(logger(), OpLevel.ERROR,
+						StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+						"FileLineStream.error.reading", exc);
+			} finally {
+				Utils.close(channel);
+			}
+		}
+
+		private SeekableByteChannel rollToCurrentOffset() throws IOException {
+			SeekableByteChannel channel;
+			try {
+				channel = Files.newByteChannel(fileToRead, StandardOpenOption.READ);
+			} catch (Exception exc) {
+				logger().log(OpLevel.ERROR, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+						"FileLineStream.reader.error");
+
+				shutdown();
+				return null;
+			}
+
+			return checkOffset(channel);
+		}
+
+		SeekableByteChannel checkOffset(SeekableByteChannel channel) throws IOException {
+			long fileSize = channel.size();
+			if (fileSize < lineOffset) {
+				logger().log(OpLevel.INFO, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+						"FileLineStream.file.shorter.offset", fileSize, lineOffset);
+
+				boolean swapped = swapToPrevFile();
+
+				if (swapped) {
+					Utils.close(channel);
+
+					return rollToCurrentOffset();
+				} else {
+					if (truncatedFilePolicy.equalsIgnoreCase(FileAccessPolicy.CONTINUE_FROM_LAST.name())) {
+						lineOffset = fileSize;
+					} else {
+						lineOffset = 0;
+						lineNumber = 0;
+					}
+					logger().log(OpLevel.INFO, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+							"FileLineStream.resetting.reader.offset", lineOffset);
+				}
+			}
+
+			return channel;
+		}
+
+		private InputStream getChannelInput(SeekableByteChannel channel, long offset) throws IOException {
+			try {
+				channel.position(offset);
+
+				return Channels.newInputStream(channel);
+			} catch (UnsupportedOperationException exc) {
+				// some file systems channels do not support positioning, so just skip bytes
+				InputStream is = Channels.newInputStream(channel);
+				IOUtils.skipFully(is, offset);
+
+				return is;
+			}
+		}
+
 		private LineNumberReader rollToCurrentLine() throws IOException {
 			LineNumberReader lnr;
 			try {
@@ -392,6 +509,8 @@ public class FileLineStream extends AbstractFileLineStream<Path> {
 					setFileToRead(nextFile);
 					lastModifTime = Files.getLastModifiedTime(nextFile, LinkOption.NOFOLLOW_LINKS).toMillis();
 					lineNumber = 0;
+					// byte offset is tracked and persisted only when tailing file by offset
+					lineOffset = tailByOffset ? 0 : -1;
 
 					logger().log(OpLevel.INFO, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
 							"FileLineStream.swapping.to.next", nextFile.toAbsolutePath());
@@ -407,7 +526,7 @@ public class FileLineStream extends AbstractFileLineStream<Path> {
 		}
 
 		private void updateDataTotals(Path[] activityFiles) throws IOException {
-			int[] totals = getFilesTotals(activityFiles);
+			int[] totals = getFilesTotals(activityFiles, !tailByOffset);
 			totalBytesCount = totals[0];
 			totalLinesCount = totals[1];
 		}
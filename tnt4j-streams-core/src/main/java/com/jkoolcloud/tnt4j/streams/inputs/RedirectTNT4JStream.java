@@ -356,12 +356,22 @@ public class RedirectTNT4JStream extends TNTInputStream<String, String> {
 	 */
 	@Override
 	protected void processActivityItem(String item, AtomicBoolean failureFlag) throws Exception {
+		outputActivityItem(prepareActivityItem(item, failureFlag));
+	}
+
+	@Override
+	protected String prepareActivityItem(String item, AtomicBoolean failureFlag) throws Exception {
 		notifyProgressUpdate(incrementCurrentActivitiesCount(), getTotalActivities());
 
+		return item;
+	}
+
+	@Override
+	protected void outputActivityItem(String outItem) throws Exception {
 		logger().log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-				"RedirectTNT4JStream.sending.item", item);
+				"RedirectTNT4JStream.sending.item", outItem);
 
-		getOutput().logItem(item);
+		getOutput().logItem(outItem);
 	}
 
 	private boolean isInputEnded() {
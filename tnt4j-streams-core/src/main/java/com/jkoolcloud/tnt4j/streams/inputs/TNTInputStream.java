@@ -57,6 +57,17 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * {@code PingLogActivityDelay})</li>
  * <li>PingLogActivityDelay - defines repetitive interval in seconds between "ping" log entries with stream statistics.
  * Default value - {@code -1} meaning "NEVER". (Optional, can be OR'ed with {@code PingLogActivityCount})</li>
+ * <li>UsePipeline - identifies whether stream should process activities data items using staged pipeline: read,
+ * parse/filter, output. Parse stage is run by a pool of parse workers, while output stage is run by single output
+ * thread. When set to {@code true}, {@code UseExecutors} property is ignored. Default value - {@code false}.
+ * (Optional)</li>
+ * <li>PipelineParseWorkers - defines number of pipeline parse stage worker threads. Value must be greater than
+ * {@code 0}. Default value - {@code 4}. (Optional, actual only if {@code UsePipeline} is set to {@code true})</li>
+ * <li>PipelineQueueSize - defines capacity of each pipeline stage queue. Value must be greater than {@code 0}. Default
+ * value - {@code 1000}. (Optional, actual only if {@code UsePipeline} is set to {@code true})</li>
+ * <li>PipelineKeepOrder - identifies whether pipeline output stage should re-sequence parsed items to the order they
+ * were read from stream input. Default value - {@code true}. (Optional, actual only if {@code UsePipeline} is set to
+ * {@code true})</li>
  * </ul>
  *
  * @param <T>
@@ -64,7 +75,7 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * @param <O>
  *            the type of handled output data
  *
- * @version $Revision: 3 $
+ * @version $Revision: 6 $
  *
  * @see java.util.concurrent.ExecutorService
  * @see com.jkoolcloud.tnt4j.streams.outputs.TNTStreamOutput
@@ -77,6 +88,9 @@ public abstract class TNTInputStream<T, O> implements Runnable, NamedObject {
 	private static final int DEFAULT_EXECUTORS_TERMINATION_TIMEOUT = 20;
 	private static final int DEFAULT_EXECUTOR_REJECTED_TASK_TIMEOUT = 20;
 
+	private static final int DEFAULT_PIPELINE_PARSE_WORKERS = 4;
+	private static final int DEFAULT_PIPELINE_QUEUE_SIZE = 1000;
+
 	/**
 	 * StreamThread running this stream.
 	 */
@@ -107,6 +121,13 @@ public abstract class TNTInputStream<T, O> implements Runnable, NamedObject {
 	private int executorsTerminationTimeout = DEFAULT_EXECUTORS_TERMINATION_TIMEOUT;
 	private int executorRejectedTaskOfferTimeout = DEFAULT_EXECUTOR_REJECTED_TASK_TIMEOUT;
 
+	// processing pipeline related properties
+	private boolean usePipeline = false;
+	private int pipelineParseWorkers = DEFAULT_PIPELINE_PARSE_WORKERS;
+	private int pipelineQueueSize = DEFAULT_PIPELINE_QUEUE_SIZE;
+	private boolean pipelineKeepOrder = true;
+	private ProcessingPipeline pipeline = null;
+
 	private int pingLogActivitiesCount = -1;
 	private int pingLogActivitiesDelay = -1;
 
@@ -237,11 +258,41 @@ public abstract class TNTInputStream<T, O> implements Runnable, NamedObject {
 			pingLogActivitiesCount = Integer.parseInt(value);
 		} else if (StreamProperties.PROP_PING_LOG_ACTIVITY_DELAY.equalsIgnoreCase(name)) {
 			pingLogActivitiesDelay = Integer.parseInt(value);
+		} else if (StreamProperties.PROP_USE_PIPELINE.equalsIgnoreCase(name)) {
+			usePipeline = Utils.toBoolean(value);
+		} else if (StreamProperties.PROP_PIPELINE_PARSE_WORKERS.equalsIgnoreCase(name)) {
+			pipelineParseWorkers = getPositiveInt(name, value);
+		} else if (StreamProperties.PROP_PIPELINE_QUEUE_SIZE.equalsIgnoreCase(name)) {
+			pipelineQueueSize = getPositiveInt(name, value);
+		} else if (StreamProperties.PROP_PIPELINE_KEEP_ORDER.equalsIgnoreCase(name)) {
+			pipelineKeepOrder = Utils.toBoolean(value);
 		}
 
 		output().setProperty(name, value);
 	}
 
+	/**
+	 * Parses stream configuration property value as integer greater than {@code 0}.
+	 *
+	 * @param name
+	 *            property name
+	 * @param value
+	 *            property value
+	 * @return parsed property value
+	 *
+	 * @throws java.lang.IllegalArgumentException
+	 *             if property value is not a number or is not greater than {@code 0}
+	 */
+	protected static int getPositiveInt(String name, String value) {
+		int iValue = Integer.parseInt(value);
+		if (iValue <= 0) {
+			throw new IllegalArgumentException(StreamsResources.getStringFormatted(StreamsResources.RESOURCE_BUNDLE_NAME,
+					"TNTInputStream.property.illegal", name, value));
+		}
+
+		return iValue;
+	}
+
 	/**
 	 * Applies activity stream configuration properties.
 	 * 
@@ -292,6 +343,18 @@ public abstract class TNTInputStream<T, O> implements Runnable, NamedObject {
 		if (StreamProperties.PROP_PING_LOG_ACTIVITY_DELAY.equals(name)) {
 			return this.pingLogActivitiesDelay;
 		}
+		if (StreamProperties.PROP_USE_PIPELINE.equals(name)) {
+			return usePipeline;
+		}
+		if (StreamProperties.PROP_PIPELINE_PARSE_WORKERS.equals(name)) {
+			return pipelineParseWorkers;
+		}
+		if (StreamProperties.PROP_PIPELINE_QUEUE_SIZE.equals(name)) {
+			return pipelineQueueSize;
+		}
+		if (StreamProperties.PROP_PIPELINE_KEEP_ORDER.equals(name)) {
+			return pipelineKeepOrder;
+		}
 
 		return null;
 	}
@@ -315,7 +378,9 @@ public abstract class TNTInputStream<T, O> implements Runnable, NamedObject {
 
 		out.initialize();
 
-		if (useExecutorService) {
+		if (usePipeline) {
+			pipeline = new ProcessingPipeline(pipelineParseWorkers, pipelineQueueSize, pipelineKeepOrder);
+		} else if (useExecutorService) {
 			streamExecutorService = boundedExecutorModel
 					? getBoundedExecutorService(executorThreadsQty, executorRejectedTaskOfferTimeout)
 					: getDefaultExecutorService(executorThreadsQty);
@@ -682,6 +747,7 @@ public abstract class TNTInputStream<T, O> implements Runnable, NamedObject {
 	 */
 	public void halt(boolean terminate) {
 		shutdownExecutors();
+		shutdownPipeline();
 
 		if (isOwned()) {
 			ownerThread.halt(terminate);
@@ -759,6 +825,12 @@ public abstract class TNTInputStream<T, O> implements Runnable, NamedObject {
 		}
 	}
 
+	private void shutdownPipeline() {
+		if (pipeline != null) {
+			pipeline.shutdown(TimeUnit.SECONDS.toMillis(executorsTerminationTimeout));
+		}
+	}
+
 	/**
 	 * Starts input stream processing. Implementing {@link Runnable} interface makes it possible to process each stream
 	 * in separate thread.
@@ -790,7 +862,9 @@ public abstract class TNTInputStream<T, O> implements Runnable, NamedObject {
 							halt(false); // no more data items to process
 						}
 					} else {
-						if (streamExecutorService == null) {
+						if (pipeline != null) {
+							pipeline.submit(item, getActivityPosition());
+						} else if (streamExecutorService == null) {
 							processActivityItem_(item, failureFlag);
 						} else {
 							streamExecutorService.submit(new ActivityItemProcessingTask(item, failureFlag, getActivityPosition()));
@@ -879,11 +953,105 @@ public abstract class TNTInputStream<T, O> implements Runnable, NamedObject {
 	 */
 	protected abstract void processActivityItem(T item, AtomicBoolean failureFlag) throws Exception;
 
+	/**
+	 * Performs first (parse/filter) stage of raw activity data item processing, producing output data package to be
+	 * passed to {@link #outputActivityItem(Object)}. This method is used by stream processing pipeline parse workers, so
+	 * it must not use stream output.
+	 * <p>
+	 * Default implementation performs complete item processing by calling {@link #processActivityItem(Object,
+	 * AtomicBoolean)} and returns {@code null}, so processing does not split into separate stages. Subclasses should
+	 * override both this method and {@link #outputActivityItem(Object)} to take advantage of pipelined processing.
+	 *
+	 * @param item
+	 *            raw activity data item
+	 * @param failureFlag
+	 *            item processing failure flag instance
+	 * @return output data package, or {@code null} if there is nothing to output for this item
+	 * @throws Exception
+	 *             if any errors occurred while processing item
+	 *
+	 * @see #outputActivityItem(Object)
+	 */
+	protected O prepareActivityItem(T item, AtomicBoolean failureFlag) throws Exception {
+		processActivityItem(item, failureFlag);
+		return null;
+	}
+
+	/**
+	 * Performs last (output) stage of activity data item processing: passes output data package prepared by
+	 * {@link #prepareActivityItem(Object, AtomicBoolean)} to stream output.
+	 *
+	 * @param outItem
+	 *            output data package to log
+	 * @throws Exception
+	 *             if any errors occurred while logging item
+	 *
+	 * @see #prepareActivityItem(Object, AtomicBoolean)
+	 */
+	protected void outputActivityItem(O outItem) throws Exception {
+		getOutput().logItem(outItem);
+	}
+
 	private AtomicInteger cai = new AtomicInteger(0);
 	private long lastLogTime = System.currentTimeMillis();
 
+	/**
+	 * Invoked when raw activity data item processing has been completed: activity data produced from that item has
+	 * been logged by stream output, item has been filtered out or item has failed to be processed and was skipped. If
+	 * stream output collects activity data into batches, it is invoked after batch containing item activity data gets
+	 * logged. It is not invoked for items lost on stream halt or items processing of which has failed because of stream
+	 * output failure halting the stream.
+	 * <p>
+	 * Items processed by multiple threads (e.g., when executors or processing pipeline are used) may complete in
+	 * different order than they were read.
+	 * <p>
+	 * Default implementation does nothing. Streams may override it to acknowledge processed items to data source, e.g.
+	 * commit consumed messages offsets.
+	 *
+	 * @param item
+	 *            processed raw activity data item
+	 */
+	protected void activityItemCompleted(T item) {
+	}
+
+	/**
+	 * Marks raw activity data item processing as done. Calls {@link #activityItemCompleted(Object)} for that item once
+	 * all activity data passed to stream output so far gets logged.
+	 *
+	 * @param item
+	 *            processed raw activity data item
+	 *
+	 * @see com.jkoolcloud.tnt4j.streams.outputs.TNTStreamOutput#runWhenLogged(Runnable)
+	 */
+	protected void completeActivityItem(final T item) {
+		if (out == null) {
+			activityItemCompleted(item);
+			return;
+		}
+
+		out.runWhenLogged(new Runnable() {
+			@Override
+			public void run() {
+				activityItemCompleted(item);
+			}
+		});
+	}
+
 	private void processActivityItem_(T item, AtomicBoolean failureFlag) throws Exception {
-		processActivityItem(item, failureFlag);
+		try {
+			processActivityItem(item, failureFlag);
+		} catch (IllegalStateException ise) {
+			throw ise;
+		} catch (Exception exc) {
+			// failed item gets skipped, so its processing is done as well
+			completeActivityItem(item);
+			throw exc;
+		}
+		completeActivityItem(item);
+		activityItemProcessed();
+	}
+
+	private void activityItemProcessed() {
 		lastActivityTime = System.currentTimeMillis();
 
 		// TODO: make ping logger class running separate thread.
@@ -1179,6 +1347,266 @@ public abstract class TNTInputStream<T, O> implements Runnable, NamedObject {
 		}
 	}
 
+	/**
+	 * Staged activity items processing pipeline. Stream thread reads raw activity data items and puts them into bounded
+	 * parse stage queue. Pool of parse workers takes items from that queue, parses and filters them using
+	 * {@link #prepareActivityItem(Object, AtomicBoolean)} and puts results into bounded output stage queue. Single
+	 * output thread takes results from output queue and passes them to stream output using
+	 * {@link #outputActivityItem(Object)}. If items order shall be kept, output thread re-sequences results to the order
+	 * items were read by stream.
+	 * <p>
+	 * Number of items processed by pipeline at the same time is limited, so re-sequencing buffer does not grow
+	 * unbounded if some item takes long to parse.
+	 */
+	private class ProcessingPipeline {
+		private static final long POLL_TIMEOUT = 100;
+
+		private final BlockingQueue<PipelineItem> parseQueue;
+		private final BlockingQueue<PipelineItem> outputQueue;
+		private final Semaphore inFlightPermits;
+		private final CountDownLatch parseWorkersLatch;
+		private final List<Thread> threads;
+		private final boolean keepOrder;
+
+		private long readSequence = 0;
+		private volatile boolean stopping = false;
+
+		/**
+		 * Constructs a new ProcessingPipeline and starts pipeline stages threads.
+		 *
+		 * @param parseWorkers
+		 *            number of parse stage worker threads
+		 * @param queueSize
+		 *            capacity of each stage queue
+		 * @param keepOrder
+		 *            flag indicating whether output stage should re-sequence items to read order
+		 */
+		ProcessingPipeline(int parseWorkers, int queueSize, boolean keepOrder) {
+			this.keepOrder = keepOrder;
+			this.parseQueue = new ArrayBlockingQueue<>(queueSize);
+			this.outputQueue = new ArrayBlockingQueue<>(queueSize);
+			this.inFlightPermits = new Semaphore(2 * queueSize + parseWorkers);
+			this.parseWorkersLatch = new CountDownLatch(parseWorkers);
+			this.threads = new ArrayList<>(parseWorkers + 1);
+
+			StreamsThreadFactory pstf = new StreamsThreadFactory("StreamPipelineParseThread-"); // NON-NLS
+			for (int i = 0; i < parseWorkers; i++) {
+				threads.add(pstf.newThread(new ParseWorker()));
+			}
+
+			StreamsThreadFactory ostf = new StreamsThreadFactory("StreamPipelineOutputThread-"); // NON-NLS
+			ostf.addThreadFactoryListener(new StreamsThreadFactoryListener());
+			threads.add(ostf.newThread(new OutputWorker()));
+
+			for (Thread t : threads) {
+				t.start();
+			}
+		}
+
+		/**
+		 * Puts raw activity data item into pipeline parse stage queue. Blocks while maximum number of items is being
+		 * processed by pipeline.
+		 *
+		 * @param item
+		 *            raw activity data item
+		 * @param activityPosition
+		 *            streamed activity position index
+		 * @throws InterruptedException
+		 *             if interrupted while waiting for pipeline to accept item
+		 */
+		void submit(T item, int activityPosition) throws InterruptedException {
+			while (!inFlightPermits.tryAcquire(POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				if (stopping) {
+					incrementLostActivitiesCount();
+					return;
+				}
+			}
+
+			PipelineItem pItem = new PipelineItem(readSequence++, activityPosition, item);
+			while (!parseQueue.offer(pItem, POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				if (stopping) {
+					inFlightPermits.release();
+					incrementLostActivitiesCount();
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Signals pipeline to stop when all already submitted items get processed and waits for pipeline threads to
+		 * complete. If this method is invoked by pipeline thread itself, it does not wait.
+		 *
+		 * @param timeout
+		 *            maximum time in milliseconds to wait for pipeline threads to complete
+		 */
+		void shutdown(long timeout) {
+			stopping = true;
+
+			if (threads.contains(Thread.currentThread())) {
+				return;
+			}
+
+			long deadline = System.currentTimeMillis() + timeout;
+			for (Thread t : threads) {
+				long wait = deadline - System.currentTimeMillis();
+				if (wait <= 0) {
+					break;
+				}
+				try {
+					t.join(wait);
+				} catch (InterruptedException exc) {
+					break;
+				}
+			}
+		}
+
+		private void handleItemFailure(PipelineItem pItem, Exception exc) {
+			Utils.logThrowable(logger(), OpLevel.ERROR,
+					StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+					"TNTInputStream.failed.record.activity.at", pItem.activityPosition, exc);
+			notifyStreamEvent(OpLevel.ERROR,
+					StreamsResources.getStringFormatted(StreamsResources.RESOURCE_BUNDLE_NAME,
+							"TNTInputStream.failed.record.activity.at", pItem.activityPosition,
+							Utils.getExceptionMessages(exc)),
+					pItem.item);
+			incrementSkippedActivitiesCount();
+		}
+
+		/**
+		 * Pipeline parse stage worker.
+		 */
+		private class ParseWorker implements Runnable {
+			@Override
+			public void run() {
+				try {
+					while (true) {
+						PipelineItem pItem = parseQueue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+						if (pItem == null) {
+							if (stopping) {
+								break;
+							}
+							continue;
+						}
+
+						try {
+							pItem.outItem = prepareActivityItem(pItem.item, failureFlag);
+							pItem.prepared = true;
+						} catch (Exception exc) {
+							handleItemFailure(pItem, exc);
+						}
+
+						// NOTE: failed items are also passed to output stage to keep items sequence continuous
+						outputQueue.put(pItem);
+					}
+				} catch (InterruptedException exc) {
+				} finally {
+					parseWorkersLatch.countDown();
+				}
+			}
+		}
+
+		/**
+		 * Pipeline output stage worker.
+		 */
+		private class OutputWorker implements Runnable {
+			private final PriorityQueue<PipelineItem> pendingItems = new PriorityQueue<>();
+			private long expectedSequence = 0;
+
+			@Override
+			public void run() {
+				try {
+					while (true) {
+						PipelineItem pItem = outputQueue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+						if (pItem == null) {
+							if (parseWorkersLatch.getCount() == 0 && outputQueue.isEmpty()) {
+								break;
+							}
+							continue;
+						}
+
+						if (keepOrder) {
+							pendingItems.add(pItem);
+							while (!pendingItems.isEmpty() && pendingItems.peek().sequence == expectedSequence) {
+								output(pendingItems.poll());
+								expectedSequence++;
+							}
+						} else {
+							output(pItem);
+						}
+					}
+				} catch (InterruptedException exc) {
+				} finally {
+					while (!pendingItems.isEmpty()) {
+						output(pendingItems.poll());
+					}
+
+					List<PipelineItem> notParsedItems = new ArrayList<>();
+					parseQueue.drainTo(notParsedItems);
+					for (int i = 0; i < notParsedItems.size(); i++) {
+						incrementLostActivitiesCount();
+					}
+				}
+			}
+
+			private void output(PipelineItem pItem) {
+				try {
+					if (pItem.prepared && pItem.outItem != null) {
+						outputActivityItem(pItem.outItem);
+					}
+					// NOTE: items failed to be prepared are skipped, so their processing is done as well
+					completeActivityItem(pItem.item);
+					if (pItem.prepared) {
+						activityItemProcessed();
+					}
+				} catch (IllegalStateException ise) {
+					Utils.logThrowable(logger(), OpLevel.ERROR,
+							StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+							"TNTInputStream.failed.record.activity.at", pItem.activityPosition, ise);
+					failureFlag.set(true);
+					notifyFailed(ise.getMessage(), ise, null);
+					halt(false);
+				} catch (Exception exc) {
+					handleItemFailure(pItem, exc);
+					completeActivityItem(pItem.item);
+				} finally {
+					inFlightPermits.release();
+				}
+			}
+		}
+
+		/**
+		 * Raw activity data item processed by pipeline, along with its read sequence number and processing result.
+		 */
+		private class PipelineItem implements Comparable<PipelineItem> {
+			private final long sequence;
+			private final int activityPosition;
+			private final T item;
+			private O outItem;
+			private boolean prepared = false;
+
+			/**
+			 * Constructs a new PipelineItem.
+			 *
+			 * @param sequence
+			 *            item read sequence number
+			 * @param activityPosition
+			 *            streamed activity position index
+			 * @param item
+			 *            raw activity data item
+			 */
+			PipelineItem(long sequence, int activityPosition, T item) {
+				this.sequence = sequence;
+				this.activityPosition = activityPosition;
+				this.item = item;
+			}
+
+			@Override
+			public int compareTo(PipelineItem o) {
+				return Long.compare(sequence, o.sequence);
+			}
+		}
+	}
+
 	/**
 	 * TNT4J-Streams thread factory.
 	 *
@@ -56,7 +56,7 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * @param <T>
  *            the type of handled RAW activity data
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  */
 public abstract class TNTParseableInputStream<T> extends TNTInputStream<T, ActivityInfo> {
 
@@ -250,9 +250,11 @@ public abstract class TNTParseableInputStream<T> extends TNTInputStream<T, Activ
 				}
 			}
 
-			logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-					"TNTInputStream.parser.match", getName(), pRef, dataMatch, tagsMatch == null ? "----" : tagsMatch, // NON-NLS
-					expMatch == null ? "----" : expMatch); // NON-NLS
+			if (logger().isSet(OpLevel.DEBUG)) {
+				logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+						"TNTInputStream.parser.match", getName(), pRef, dataMatch,
+						tagsMatch == null ? "----" : tagsMatch, expMatch == null ? "----" : expMatch); // NON-NLS
+			}
 			if (parserMatch) {
 				ActivityInfo ai = pRef.getParser().parse(this, data);
 				if (ai != null) {
@@ -314,9 +316,26 @@ public abstract class TNTParseableInputStream<T> extends TNTInputStream<T, Activ
 	 * <p>
 	 * Performs parsing of raw activity data to {@link ActivityInfo} data package, which can be transformed to
 	 * {@link com.jkoolcloud.tnt4j.core.Trackable} object and sent to jKoolCloud using TNT4J and JESL APIs.
+	 *
+	 * @see #prepareActivityItem(Object, AtomicBoolean)
+	 * @see #outputActivityItem(Object)
 	 */
 	@Override
 	protected void processActivityItem(T item, AtomicBoolean failureFlag) throws Exception {
+		ActivityInfo ai = prepareActivityItem(item, failureFlag);
+		if (ai != null) {
+			outputActivityItem(ai);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Performs parsing of raw activity data to {@link ActivityInfo} data package. If no parser can parse provided raw
+	 * activity data or parsed activity gets filtered out, {@code null} is returned.
+	 */
+	@Override
+	protected ActivityInfo prepareActivityItem(T item, AtomicBoolean failureFlag) throws Exception {
 		notifyProgressUpdate(incrementCurrentActivitiesCount(), getTotalActivities());
 
 		ActivityInfo ai = makeActivityInfo(item);
@@ -333,13 +352,14 @@ public abstract class TNTParseableInputStream<T> extends TNTInputStream<T, Activ
 				notifyStreamEvent(OpLevel.WARNING, StreamsResources.getStringFormatted(
 						StreamsResources.RESOURCE_BUNDLE_NAME, "TNTInputStream.could.not.parse.activity", item), item);
 			}
-		} else {
-			if (!ai.isFilteredOut()) {
-				getOutput().logItem(ai);
-			} else {
+		} else if (ai.isFilteredOut()) {
+			if (logger().isSet(OpLevel.DEBUG)) {
 				logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
 						"TNTInputStream.activity.filtered.out", ai);
 			}
+			return null;
 		}
+
+		return ai;
 	}
 }
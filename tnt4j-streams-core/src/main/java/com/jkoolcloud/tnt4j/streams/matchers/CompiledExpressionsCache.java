@@ -0,0 +1,204 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.matchers;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded concurrent cache of compiled match expressions, e.g. RegEx {@link java.util.regex.Pattern},
+ * {@link com.jayway.jsonpath.JsonPath} or {@link javax.xml.xpath.XPathExpression}. Expression is compiled only once -
+ * on first request, and subsequent requests return cached compiled instance.
+ * <p>
+ * When cache size exceeds defined maximum, some of cached entries are evicted. Cache collects hits, misses and
+ * evictions counts to be used as cache efficiency metrics.
+ *
+ * @param <T>
+ *            type of compiled expression
+ * @param <E>
+ *            type of exception thrown when expression compilation fails
+ *
+ * @version $Revision: 1 $
+ */
+public abstract class CompiledExpressionsCache<T, E extends Exception> {
+	/**
+	 * Default maximum number of cached compiled expressions.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 512;
+
+	private final String name;
+	private final int maxSize;
+	private final ConcurrentMap<String, T> cache;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Constructs a new CompiledExpressionsCache having {@link #DEFAULT_MAX_SIZE} maximum size.
+	 *
+	 * @param name
+	 *            cache name
+	 */
+	protected CompiledExpressionsCache(String name) {
+		this(name, DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Constructs a new CompiledExpressionsCache.
+	 *
+	 * @param name
+	 *            cache name
+	 * @param maxSize
+	 *            maximum number of cached compiled expressions
+	 */
+	protected CompiledExpressionsCache(String name, int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize=" + maxSize); // NON-NLS
+		}
+		this.name = name;
+		this.maxSize = maxSize;
+		this.cache = new ConcurrentHashMap<>(Math.min(maxSize, 64));
+	}
+
+	/**
+	 * Compiles provided expression string.
+	 *
+	 * @param expression
+	 *            expression string to compile
+	 * @return compiled expression instance
+	 * @throws E
+	 *             if expression compilation fails
+	 */
+	protected abstract T compile(String expression) throws E;
+
+	/**
+	 * Returns compiled expression instance for provided expression string. If expression is not yet cached, it gets
+	 * compiled and put into cache. Expressions failed to compile are not cached.
+	 *
+	 * @param expression
+	 *            expression string
+	 * @return compiled expression instance
+	 * @throws E
+	 *             if expression compilation fails
+	 */
+	public T get(String expression) throws E {
+		T compiled = cache.get(expression);
+		if (compiled != null) {
+			hits.incrementAndGet();
+			return compiled;
+		}
+
+		misses.incrementAndGet();
+		compiled = compile(expression);
+		T prev = cache.putIfAbsent(expression, compiled);
+		if (prev != null) {
+			return prev;
+		}
+		evictOverflow();
+
+		return compiled;
+	}
+
+	private void evictOverflow() {
+		Iterator<String> it = cache.keySet().iterator();
+		while (cache.size() > maxSize && it.hasNext()) {
+			it.next();
+			it.remove();
+			evictions.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Returns cache name.
+	 *
+	 * @return cache name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns number of currently cached compiled expressions.
+	 *
+	 * @return number of cached compiled expressions
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	/**
+	 * Returns number of requests served by already cached compiled expression.
+	 *
+	 * @return cache hits count
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Returns number of requests required to compile expression.
+	 *
+	 * @return cache misses count
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Returns number of compiled expressions evicted from cache because of cache size overflow.
+	 *
+	 * @return cache evictions count
+	 */
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	/**
+	 * Returns cache metrics: size, hits, misses and evictions counts.
+	 *
+	 * @return map of cache metrics
+	 */
+	public Map<String, Long> getStatistics() {
+		Map<String, Long> stats = new LinkedHashMap<>(4);
+		stats.put("size", (long) size()); // NON-NLS
+		stats.put("hits", getHits()); // NON-NLS
+		stats.put("misses", getMisses()); // NON-NLS
+		stats.put("evictions", getEvictions()); // NON-NLS
+
+		return stats;
+	}
+
+	/**
+	 * Removes all cached compiled expressions and resets cache metrics.
+	 */
+	public void clear() {
+		cache.clear();
+		hits.set(0);
+		misses.set(0);
+		evictions.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return name + getStatistics();
+	}
+}
@@ -27,10 +27,18 @@ import com.jayway.jsonpath.PathNotFoundException;
  * Data string or {@link com.jayway.jsonpath.DocumentContext} value match expression evaluation based on
  * {@link com.jayway.jsonpath.JsonPath} expressions.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  */
 public class JsonPathMatcher implements Matcher {
 
+	private static final CompiledExpressionsCache<JsonPath, JsonPathException> PATHS_CACHE = new CompiledExpressionsCache<JsonPath, JsonPathException>(
+			"JsonPath") { // NON-NLS
+		@Override
+		protected JsonPath compile(String expression) throws JsonPathException {
+			return JsonPath.compile(expression);
+		}
+	};
+
 	private static JsonPathMatcher instance;
 
 	private JsonPathMatcher() {
@@ -70,7 +78,7 @@ public class JsonPathMatcher implements Matcher {
 		DocumentContext jsonContext = data instanceof DocumentContext ? (DocumentContext) data
 				: JsonPath.parse(String.valueOf(data));
 		try {
-			Object val = jsonContext.read(expression);
+			Object val = jsonContext.read(PATHS_CACHE.get(expression));
 
 			if (val instanceof Boolean) {
 				return (Boolean) val;
@@ -83,4 +91,13 @@ public class JsonPathMatcher implements Matcher {
 			return false;
 		}
 	}
+
+	/**
+	 * Returns compiled JsonPath expressions cache.
+	 *
+	 * @return compiled JsonPath expressions cache
+	 */
+	static CompiledExpressionsCache<JsonPath, JsonPathException> getCache() {
+		return PATHS_CACHE;
+	}
 }
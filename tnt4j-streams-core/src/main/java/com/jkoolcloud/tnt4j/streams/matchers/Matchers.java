@@ -16,7 +16,7 @@
 
 package com.jkoolcloud.tnt4j.streams.matchers;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.regex.Pattern;
 
@@ -32,8 +32,11 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
 
 /**
  * Facade for {@link Matcher}s evaluation of match expression against activity data.
+ * <p>
+ * Compiled match expressions are cached by bounded caches. Use {@link #getCachesStatistics()} to get caches hits and
+ * misses metrics.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  *
  * @see com.jkoolcloud.tnt4j.streams.matchers.StringMatcher
  * @see com.jkoolcloud.tnt4j.streams.matchers.RegExMatcher
@@ -46,7 +49,21 @@ public class Matchers {
 	 */
 	protected static final Pattern EVAL_EXP_PATTERN = Pattern.compile("((?<type>[a-zA-Z]*):)?(?<evalExp>.+)"); // NON-NLS
 
-	private static Map<String, StreamEntityFilter<Object>> langEvaluatorsCache = new HashMap<>(5);
+	private static final CompiledExpressionsCache<StreamEntityFilter<Object>, IllegalArgumentException> LANG_EVALUATORS_CACHE = new CompiledExpressionsCache<StreamEntityFilter<Object>, IllegalArgumentException>(
+			"LangEvaluators") { // NON-NLS
+		@Override
+		protected StreamEntityFilter<Object> compile(String expression) throws IllegalArgumentException {
+			String[] expTokens = tokenizeExpression(expression);
+			String lang = expTokens[0];
+			String evalExpression = expTokens[1];
+
+			if (StringUtils.isEmpty(lang)) {
+				lang = ScriptLangs.GROOVY.value();
+			}
+
+			return AbstractExpressionFilter.createExpressionFilter(HandleType.EXCLUDE.name(), lang, evalExpression);
+		}
+	};
 
 	/**
 	 * Evaluates match <tt>expression</tt> against provided activity <tt>data</tt>.
@@ -93,12 +110,7 @@ public class Matchers {
 	}
 
 	private static boolean evaluate(String evalLang, String evalExp, Object data) throws Exception {
-		String expression = evalLang + ':' + evalExp;
-		StreamEntityFilter<Object> ef = langEvaluatorsCache.get(expression);
-		if (ef == null) {
-			ef = AbstractExpressionFilter.createExpressionFilter(HandleType.EXCLUDE.name(), evalLang, evalExp);
-			langEvaluatorsCache.put(expression, ef);
-		}
+		StreamEntityFilter<Object> ef = LANG_EVALUATORS_CACHE.get(evalLang + ':' + evalExp);
 
 		return ef.doFilter(data, null);
 	}
@@ -118,19 +130,7 @@ public class Matchers {
 	 *             if evaluation expression is empty or evaluation of match expression fails
 	 */
 	public static boolean evaluate(String expression, ActivityInfo ai) throws Exception {
-		StreamEntityFilter<Object> ef = langEvaluatorsCache.get(expression);
-		if (ef == null) {
-			String[] expTokens = tokenizeExpression(expression);
-			String lang = expTokens[0];
-			String evalExpression = expTokens[1];
-
-			if (StringUtils.isEmpty(lang)) {
-				lang = ScriptLangs.GROOVY.value();
-			}
-
-			ef = AbstractExpressionFilter.createExpressionFilter(HandleType.EXCLUDE.name(), lang, evalExpression);
-			langEvaluatorsCache.put(expression, ef);
-		}
+		StreamEntityFilter<Object> ef = LANG_EVALUATORS_CACHE.get(expression);
 
 		return ef.doFilter(null, ai);
 	}
@@ -177,4 +177,28 @@ public class Matchers {
 		}
 		return evaluate(expression, data);
 	}
+
+	/**
+	 * Returns match expressions caches metrics: cached expressions count, cache hits, misses and evictions counts.
+	 *
+	 * @return map of match expressions caches metrics, where key is cache name
+	 */
+	public static Map<String, Map<String, Long>> getCachesStatistics() {
+		Map<String, Map<String, Long>> stats = new LinkedHashMap<>(5);
+		putStatistics(stats, StringMatcher.getCache());
+		putStatistics(stats, RegExMatcher.getCache());
+		putStatistics(stats, JsonPathMatcher.getCache());
+		try {
+			putStatistics(stats, XPathMatcher.getInstance().getCache());
+		} catch (Exception exc) {
+			// XPath matcher is not available
+		}
+		putStatistics(stats, LANG_EVALUATORS_CACHE);
+
+		return stats;
+	}
+
+	private static void putStatistics(Map<String, Map<String, Long>> stats, CompiledExpressionsCache<?, ?> cache) {
+		stats.put(cache.getName(), cache.getStatistics());
+	}
 }
@@ -22,10 +22,18 @@ import java.util.regex.PatternSyntaxException;
 /**
  * Data string value match expression evaluation based on Regular Expressions (RegEx).
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  */
 public class RegExMatcher implements Matcher {
 
+	private static final CompiledExpressionsCache<Pattern, PatternSyntaxException> PATTERNS_CACHE = new CompiledExpressionsCache<Pattern, PatternSyntaxException>(
+			"RegEx") { // NON-NLS
+		@Override
+		protected Pattern compile(String expression) throws PatternSyntaxException {
+			return Pattern.compile(expression);
+		}
+	};
+
 	private static RegExMatcher instance;
 
 	private RegExMatcher() {
@@ -57,8 +65,31 @@ public class RegExMatcher implements Matcher {
 	 */
 	@Override
 	public boolean evaluate(String expression, Object data) throws PatternSyntaxException {
-		Pattern pattern = Pattern.compile(expression);
+		Pattern pattern = getPattern(expression);
 		java.util.regex.Matcher matcher = pattern.matcher(String.valueOf(data));
 		return matcher.find();
 	}
+
+	/**
+	 * Returns compiled RegEx pattern for provided expression. Compiled patterns are cached and shared between all
+	 * pattern users.
+	 *
+	 * @param regex
+	 *            RegEx expression to compile
+	 * @return compiled RegEx pattern
+	 * @throws java.util.regex.PatternSyntaxException
+	 *             if the <tt>regex</tt>'s syntax is invalid
+	 */
+	public static Pattern getPattern(String regex) throws PatternSyntaxException {
+		return PATTERNS_CACHE.get(regex);
+	}
+
+	/**
+	 * Returns compiled RegEx patterns cache.
+	 *
+	 * @return compiled RegEx patterns cache
+	 */
+	static CompiledExpressionsCache<Pattern, PatternSyntaxException> getCache() {
+		return PATTERNS_CACHE;
+	}
 }
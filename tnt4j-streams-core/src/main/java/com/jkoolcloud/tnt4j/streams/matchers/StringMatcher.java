@@ -28,12 +28,20 @@ import com.jkoolcloud.tnt4j.streams.utils.StreamsResources;
  * Data string value match expression evaluation based on use of {@link org.apache.commons.lang3.StringUtils} provided
  * methods.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  *
  * @see org.apache.commons.lang3.StringUtils
  */
 public class StringMatcher implements Matcher {
 
+	private static final CompiledExpressionsCache<StringExpression, Exception> EXPRESSIONS_CACHE = new CompiledExpressionsCache<StringExpression, Exception>(
+			"String") { // NON-NLS
+		@Override
+		protected StringExpression compile(String expression) throws Exception {
+			return compileExpression(expression);
+		}
+	};
+
 	private static StringMatcher instance;
 
 	private StringMatcher() {
@@ -88,6 +96,16 @@ public class StringMatcher implements Matcher {
 	 */
 	@Override
 	public boolean evaluate(String expression, Object data) throws Exception {
+		StringExpression sExpression = EXPRESSIONS_CACHE.get(expression);
+		Object[] allArgs = new Object[sExpression.arguments.length + 1];
+		allArgs[0] = String.valueOf(data);
+		System.arraycopy(sExpression.arguments, 0, allArgs, 1, sExpression.arguments.length);
+
+		boolean result = returnBoolean(sExpression.method.invoke(null, allArgs));
+		return sExpression.invert ? !result : result;
+	}
+
+	private static StringExpression compileExpression(String expression) throws Exception {
 		boolean invert = expression.charAt(0) == '!';
 		String methodName = expression.substring(invert ? 1 : 0, expression.indexOf("(")); // NON-NLS
 		String[] arguments = expression.substring(expression.indexOf("(") + 1, expression.lastIndexOf(")")).split(","); // NON-NLS
@@ -97,21 +115,13 @@ public class StringMatcher implements Matcher {
 		boolean hasNoArguments = hasNoArguments(arguments);
 		if (hasNoArguments) {
 			method = StringUtils.class.getDeclaredMethod(methodName, CharSequence.class);
+			convertedArguments = ArrayUtils.EMPTY_OBJECT_ARRAY;
 		} else {
 			method = findMatchingMethodAndConvertArgs(methodName, arguments, convertedArguments,
 					StringUtils.class.getDeclaredMethods());
 		}
 		if (method != null) {
-			if (hasNoArguments) {
-				boolean result = returnBoolean(method.invoke(null, String.valueOf(data)));
-				return invert ? !result : result;
-			} else {
-				// Arrays.
-				Object[] predefinedArgs = { String.valueOf(data) };
-				Object[] allArgs = ArrayUtils.addAll(predefinedArgs, convertedArguments);
-				boolean result = returnBoolean(method.invoke(null, allArgs));
-				return invert ? !result : result;
-			}
+			return new StringExpression(method, convertedArguments, invert);
 		} else {
 			throw new RuntimeException(StreamsResources.getStringFormatted(StreamsResources.RESOURCE_BUNDLE_NAME,
 					"StringMatcher.no.such.method", methodName));
@@ -163,4 +173,29 @@ public class StringMatcher implements Matcher {
 	private static boolean hasNoArguments(String[] arguments) {
 		return ArrayUtils.isEmpty(arguments) || (arguments.length == 1 && arguments[0].isEmpty());
 	}
+
+	/**
+	 * Returns compiled string expressions cache.
+	 *
+	 * @return compiled string expressions cache
+	 */
+	static CompiledExpressionsCache<StringExpression, Exception> getCache() {
+		return EXPRESSIONS_CACHE;
+	}
+
+	/**
+	 * Compiled string match expression: resolved {@link org.apache.commons.lang3.StringUtils} method, converted method
+	 * arguments and evaluation result inversion flag.
+	 */
+	static class StringExpression {
+		private final Method method;
+		private final Object[] arguments;
+		private final boolean invert;
+
+		private StringExpression(Method method, Object[] arguments, boolean invert) {
+			this.method = method;
+			this.arguments = arguments;
+			this.invert = invert;
+		}
+	}
 }
@@ -23,6 +23,8 @@ import java.util.concurrent.locks.ReentrantLock;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -34,8 +36,12 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
 /**
  * Data string or {@link org.w3c.dom.Node} value match expression evaluation based on {@link javax.xml.xpath.XPath}
  * expressions.
+ * <p>
+ * Compiled XPath expressions are cached. Since {@link javax.xml.xpath.XPath} and
+ * {@link javax.xml.xpath.XPathExpression} instances are not thread safe, expressions compilation and evaluation is
+ * guarded by same lock.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  */
 public class XPathMatcher implements Matcher {
 
@@ -45,6 +51,14 @@ public class XPathMatcher implements Matcher {
 	private final Lock xPathLock = new ReentrantLock();
 	private final Lock builderLock = new ReentrantLock();
 
+	private final CompiledExpressionsCache<XPathExpression, XPathExpressionException> expressionsCache = new CompiledExpressionsCache<XPathExpression, XPathExpressionException>(
+			"XPath") { // NON-NLS
+		@Override
+		protected XPathExpression compile(String expression) throws XPathExpressionException {
+			return xPath.compile(expression);
+		}
+	};
+
 	private static XPathMatcher instance;
 
 	private XPathMatcher() throws Exception {
@@ -95,7 +109,7 @@ public class XPathMatcher implements Matcher {
 		}
 		xPathLock.lock();
 		try {
-			String expressionResult = xPath.evaluate(expression, xmlDoc);
+			String expressionResult = expressionsCache.get(expression).evaluate(xmlDoc);
 
 			if (StringUtils.equalsAnyIgnoreCase(expression, "true", "false")) { // NON-NLS
 				return Boolean.parseBoolean(expressionResult);
@@ -106,4 +120,13 @@ public class XPathMatcher implements Matcher {
 			xPathLock.unlock();
 		}
 	}
+
+	/**
+	 * Returns compiled XPath expressions cache.
+	 *
+	 * @return compiled XPath expressions cache
+	 */
+	CompiledExpressionsCache<XPathExpression, XPathExpressionException> getCache() {
+		return expressionsCache;
+	}
 }
@@ -18,10 +18,15 @@ package com.jkoolcloud.tnt4j.streams.outputs;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 
@@ -64,6 +69,11 @@ import com.jkoolcloud.tnt4j.tracker.TrackingEvent;
  * (Optional)</li>
  * <li>SendStreamStates - flag indicating whether to send stream status change messages (`startup`/`shutdown`) to output
  * endpoint e.g. 'jKoolCloud'. Default value - {@code true}. (Optional)</li>
+ * <li>BatchSize - number of activity items to collect before logging them as single batch. Value {@code 0} or
+ * {@code 1} means items are logged one by one. Default value - {@code 0}. (Optional)</li>
+ * <li>BatchFlushInterval - maximal period in milliseconds collected activity items batch can wait to be logged.
+ * Applicable only when batching is enabled. Value {@code 0} means batch is logged only when filled up. Default value -
+ * {@code 1000}. (Optional)</li>
  * </ul>
  *
  * @param <T>
@@ -71,7 +81,7 @@ import com.jkoolcloud.tnt4j.tracker.TrackingEvent;
  * @param <O>
  *            the type of outgoing activity data package to be sent to jKoolCloud
  *
- * @version $Revision: 1 $
+ * @version $Revision: 6 $
  */
 public abstract class AbstractJKCloudOutput<T, O> extends AbstractTNTStreamOutput<T> implements SinkErrorListener {
 
@@ -84,9 +94,14 @@ public abstract class AbstractJKCloudOutput<T, O> extends AbstractTNTStreamOutpu
 	private static final String ZK_PREFIX = "zk://"; // NON-NLS
 
 	/**
-	 * Used to deliver processed activity data to destination.
+	 * Default period in milliseconds collected activity items batch can wait to be logged.
 	 */
-	private final Map<String, Tracker> trackersMap = new HashMap<>();
+	protected static final long DEFAULT_BATCH_FLUSH_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+
+	/**
+	 * Used to deliver processed activity data to destination. Trackers are mapped by stream output running thread id.
+	 */
+	private final ConcurrentMap<Long, Tracker> trackersMap = new ConcurrentHashMap<>();
 
 	private TrackerConfig trackerConfig;
 	private Source defaultSource;
@@ -97,6 +112,16 @@ public abstract class AbstractJKCloudOutput<T, O> extends AbstractTNTStreamOutpu
 	private boolean sendStreamStates = true;
 	private JKoolNotificationListener jKoolNotificationListener = new JKoolNotificationListener();
 
+	private int batchSize = 0;
+	private long batchFlushInterval = DEFAULT_BATCH_FLUSH_INTERVAL;
+	private final List<T> batch = new ArrayList<>();
+	private List<Runnable> batchCallbacks = new ArrayList<>();
+	private List<Runnable> loggedBatchCallbacks;
+	private final Object batchLogLock = new Object();
+	private long batchStartTime;
+	private ScheduledExecutorService batchFlushScheduler;
+	private StreamsThread batchFlushThread;
+
 	/**
 	 * Constructs a new AbstractJKCloudOutput.
 	 */
@@ -170,6 +195,243 @@ public abstract class AbstractJKCloudOutput<T, O> extends AbstractTNTStreamOutpu
 		initializeTNT4JConfig();
 
 		setupDefaultSource();
+
+		startBatchFlushScheduler();
+	}
+
+	private void startBatchFlushScheduler() {
+		if (!isBatching() || batchFlushInterval <= 0 || batchFlushScheduler != null) {
+			return;
+		}
+
+		ThreadFactory tf = new TNTInputStream.StreamsThreadFactory("StreamOutputBatchFlushThread-") { // NON-NLS
+			@Override
+			public Thread newThread(Runnable r) {
+				batchFlushThread = (StreamsThread) super.newThread(r);
+				return batchFlushThread;
+			}
+		};
+		batchFlushScheduler = Executors.newSingleThreadScheduledExecutor(tf);
+		batchFlushScheduler.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				if (isBatchExpired()) {
+					flushBatch();
+				}
+			}
+		}, batchFlushInterval, batchFlushInterval, TimeUnit.MILLISECONDS);
+	}
+
+	private void stopBatchFlushScheduler() {
+		if (batchFlushScheduler != null) {
+			if (batchFlushThread != null) {
+				batchFlushThread.halt(false);
+			}
+			batchFlushScheduler.shutdown();
+
+			try {
+				batchFlushScheduler.awaitTermination(batchFlushInterval, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException exc) {
+			} finally {
+				batchFlushScheduler.shutdownNow();
+				batchFlushScheduler = null;
+				batchFlushThread = null;
+			}
+		}
+	}
+
+	/**
+	 * Returns flag indicating whether this output collects activity items into batches before logging them.
+	 *
+	 * @return {@code true} if batch size is greater than {@code 1}, {@code false} - otherwise
+	 */
+	protected boolean isBatching() {
+		return batchSize > 1;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If batching is enabled, item is put into batch, and whole batch is logged when batch size or flush interval
+	 * limit gets reached. Otherwise item is logged immediately.
+	 *
+	 * @see #logItems(java.util.Collection)
+	 * @see #logItem(com.jkoolcloud.tnt4j.tracker.Tracker, Object)
+	 */
+	@Override
+	public void logItem(T item) throws Exception {
+		if (isBatching()) {
+			if (addToBatch(item)) {
+				logBatch();
+			}
+		} else {
+			logItem(getTracker(), item);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If batching is enabled and there are activity items collected in batch or batch is being logged, callback is run
+	 * after that batch gets logged. Otherwise callback is run immediately.
+	 */
+	@Override
+	public void runWhenLogged(Runnable callback) {
+		if (isBatching()) {
+			synchronized (batch) {
+				if (!batch.isEmpty()) {
+					batchCallbacks.add(callback);
+					return;
+				}
+				if (loggedBatchCallbacks != null) {
+					loggedBatchCallbacks.add(callback);
+					return;
+				}
+			}
+		}
+
+		callback.run();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Picks {@link Tracker} for current thread once and logs all batch items using it. Failure to log one item does not
+	 * prevent logging of remaining items: failure is logged for that particular item and logging continues. Only
+	 * {@link IllegalStateException} (tracker can't record activity data) interrupts logging of items.
+	 *
+	 * @see #logItem(com.jkoolcloud.tnt4j.tracker.Tracker, Object)
+	 */
+	@Override
+	public void logItems(Collection<T> items) throws Exception {
+		if (CollectionUtils.isEmpty(items)) {
+			return;
+		}
+
+		logBatchItems(new ArrayList<>(items));
+	}
+
+	/**
+	 * Logs batch items using tracker picked for current thread. Logged items are removed from provided list, so if
+	 * logging gets interrupted by {@link IllegalStateException}, list contains items left not logged.
+	 *
+	 * @param items
+	 *            activity items to log
+	 * @throws IllegalStateException
+	 *             if tracker can't record activity data
+	 */
+	private void logBatchItems(List<T> items) throws IllegalStateException {
+		Tracker tracker = getTracker();
+		Iterator<T> itemsIt = items.iterator();
+		while (itemsIt.hasNext()) {
+			T item = itemsIt.next();
+			try {
+				logItem(tracker, item);
+			} catch (IllegalStateException ise) {
+				throw ise;
+			} catch (Exception exc) {
+				Utils.logThrowable(logger(), OpLevel.ERROR,
+						StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+						"TNTStreamOutput.batch.item.failed", getName(), item, exc);
+			}
+			itemsIt.remove();
+		}
+	}
+
+	/**
+	 * Performs streamed activity item logging using provided tracker.
+	 *
+	 * @param tracker
+	 *            communication gateway to use to record activity
+	 * @param item
+	 *            activity item to log
+	 * @throws Exception
+	 *             if any errors occurred while logging item
+	 */
+	protected abstract void logItem(Tracker tracker, T item) throws Exception;
+
+	private boolean addToBatch(T item) {
+		synchronized (batch) {
+			if (batch.isEmpty()) {
+				batchStartTime = System.currentTimeMillis();
+			}
+			batch.add(item);
+
+			return batch.size() >= batchSize || isBatchExpired();
+		}
+	}
+
+	private boolean isBatchExpired() {
+		synchronized (batch) {
+			return !batch.isEmpty() && batchFlushInterval > 0
+					&& System.currentTimeMillis() - batchStartTime >= batchFlushInterval;
+		}
+	}
+
+	/**
+	 * Logs all activity items collected in batch on calling thread. Batches are logged one at a time in the order they
+	 * were collected. Callbacks registered by {@link #runWhenLogged(Runnable)} for batch items are run after batch gets
+	 * logged. If logging fails because of {@link IllegalStateException} (tracker can't record activity data), items
+	 * left not logged and all batch callbacks are put back in front of the batch to be logged next time.
+	 *
+	 * @throws IllegalStateException
+	 *             if tracker can't record activity data
+	 */
+	private void logBatch() throws IllegalStateException {
+		synchronized (batchLogLock) {
+			List<T> items;
+			List<Runnable> callbacks;
+			synchronized (batch) {
+				if (batch.isEmpty()) {
+					return;
+				}
+
+				items = new ArrayList<>(batch);
+				batch.clear();
+				callbacks = batchCallbacks;
+				batchCallbacks = new ArrayList<>();
+				loggedBatchCallbacks = callbacks;
+			}
+
+			try {
+				logBatchItems(items);
+			} catch (IllegalStateException ise) {
+				requeueBatch(items, callbacks);
+				throw ise;
+			}
+
+			synchronized (batch) {
+				loggedBatchCallbacks = null;
+			}
+			for (Runnable callback : callbacks) {
+				callback.run();
+			}
+		}
+	}
+
+	private void requeueBatch(List<T> items, List<Runnable> callbacks) {
+		synchronized (batch) {
+			if (batch.isEmpty()) {
+				batchStartTime = System.currentTimeMillis();
+			}
+			batch.addAll(0, items);
+			callbacks.addAll(batchCallbacks);
+			batchCallbacks = callbacks;
+			loggedBatchCallbacks = null;
+		}
+	}
+
+	/**
+	 * Logs all activity items collected in batch on calling thread.
+	 */
+	protected void flushBatch() {
+		try {
+			logBatch();
+		} catch (Exception exc) {
+			Utils.logThrowable(logger(), OpLevel.ERROR,
+					StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+					"TNTStreamOutput.batch.flush.failed", getName(), exc);
+		}
 	}
 
 	@Override
@@ -263,12 +525,18 @@ public abstract class AbstractJKCloudOutput<T, O> extends AbstractTNTStreamOutpu
 					getStream().removeStreamListener(jKoolNotificationListener);
 				}
 			}
+		} else if (OutputProperties.PROP_BATCH_SIZE.equalsIgnoreCase(name)) {
+			batchSize = Integer.parseInt((String) value);
+		} else if (OutputProperties.PROP_BATCH_FLUSH_INTERVAL.equalsIgnoreCase(name)) {
+			batchFlushInterval = Long.parseLong((String) value);
 		}
 	}
 
 	/**
 	 * Gets {@link Tracker} instance from {@link #trackersMap} matching {@link Thread#currentThread()} on which stream
 	 * output is running. If no tracker found in trackers map - new one is created.
+	 * <p>
+	 * Lookup of already created tracker does not acquire any lock.
 	 *
 	 * @return tracker instance for activity item
 	 *
@@ -293,13 +561,19 @@ public abstract class AbstractJKCloudOutput<T, O> extends AbstractTNTStreamOutpu
 	 *             indicates that created tracker is not opened and can not record activity data
 	 */
 	protected Tracker getTracker(Thread t) throws IllegalStateException {
+		Long tKey = getTrackersMapKey(t);
+		Tracker tracker = trackersMap.get(tKey);
+		if (tracker != null) {
+			return tracker;
+		}
+
 		synchronized (trackersMap) {
-			Tracker tracker = trackersMap.get(getTrackersMapKey(t));
+			tracker = trackersMap.get(tKey);
 			if (tracker == null) {
-				tracker = TrackingLogger.getInstance(trackerConfig.build());
+				tracker = createTracker();
 				tracker.getEventSink().addSinkErrorListener(this);
 				checkTracker(tracker);
-				trackersMap.put(getTrackersMapKey(t), tracker);
+				trackersMap.put(tKey, tracker);
 				logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
 						"TNTStreamOutput.built.new.tracker", getName(), getTrackerId(tracker),
 						(t == null ? "null" : t.getId()), tracker);
@@ -309,15 +583,27 @@ public abstract class AbstractJKCloudOutput<T, O> extends AbstractTNTStreamOutpu
 		}
 	}
 
-	private static String getTrackersMapKey(Thread t) {
-		return t == null ? "null" : String.valueOf(t.getId()); // NON-NLS
+	/**
+	 * Creates new {@link Tracker} instance using output bound tracker configuration.
+	 *
+	 * @return new tracker instance
+	 */
+	protected Tracker createTracker() {
+		return TrackingLogger.getInstance(trackerConfig.build());
+	}
+
+	private static Long getTrackersMapKey(Thread t) {
+		return t == null ? -1L : t.getId();
 	}
 
 	@Override
 	public void cleanup() {
+		stopBatchFlushScheduler();
+		flushBatch();
+
 		synchronized (trackersMap) {
 			if (!trackersMap.isEmpty()) {
-				for (Map.Entry<String, Tracker> te : trackersMap.entrySet()) {
+				for (Map.Entry<Long, Tracker> te : trackersMap.entrySet()) {
 					Tracker tracker = te.getValue();
 					dumpTrackerStats(tracker);
 					logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
@@ -421,6 +707,7 @@ public abstract class AbstractJKCloudOutput<T, O> extends AbstractTNTStreamOutpu
 		}
 
 		setupDefaultSource();
+		startBatchFlushScheduler();
 	}
 
 	private void applyUserTNT4JProperties() {
@@ -577,6 +864,10 @@ public abstract class AbstractJKCloudOutput<T, O> extends AbstractTNTStreamOutpu
 	 *            stream status
 	 */
 	protected void sendStreamStateMessage(StreamStatus status) {
+		if (status != StreamStatus.STARTED) {
+			flushBatch();
+		}
+
 		Tracker tracker = getTracker();
 		TrackingEvent sMsgEvent;
 		if (status == StreamStatus.STARTED) {
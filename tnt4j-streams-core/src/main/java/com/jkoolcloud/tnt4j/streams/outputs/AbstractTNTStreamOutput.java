@@ -69,6 +69,16 @@ public abstract class AbstractTNTStreamOutput<T> implements TNTStreamOutput<T> {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * This output logs items immediately, so callback is run on calling thread.
+	 */
+	@Override
+	public void runWhenLogged(Runnable callback) {
+		callback.run();
+	}
+
 	@Override
 	public boolean isClosed() {
 		return closed;
@@ -23,6 +23,8 @@ import java.util.List;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.jkoolcloud.tnt4j.core.Activity;
 import com.jkoolcloud.tnt4j.core.Snapshot;
 import com.jkoolcloud.tnt4j.core.Trackable;
@@ -33,6 +35,7 @@ import com.jkoolcloud.tnt4j.source.Source;
 import com.jkoolcloud.tnt4j.source.SourceFactory;
 import com.jkoolcloud.tnt4j.streams.configure.OutputProperties;
 import com.jkoolcloud.tnt4j.streams.fields.ActivityInfo;
+import com.jkoolcloud.tnt4j.streams.utils.DNSResolver;
 import com.jkoolcloud.tnt4j.streams.utils.Utils;
 import com.jkoolcloud.tnt4j.tracker.Tracker;
 import com.jkoolcloud.tnt4j.tracker.TrackingActivity;
@@ -47,6 +50,15 @@ import com.jkoolcloud.tnt4j.tracker.TrackingEvent;
  * <ul>
  * <li>ResolveServerFromDNS - flag indicating whether to resolve activity entity host name/IP from DNS server. Default
  * value - {@code false}. (Optional)</li>
+ * <li>ResolveServerCacheSize - max. capacity of DNS resolved host names/IP addresses cache. Default value -
+ * {@code 10000}. (Optional)</li>
+ * <li>ResolveServerCacheTTL - DNS resolved host names/IP addresses cache entries TTL in seconds. Default value -
+ * {@code 600}. (Optional)</li>
+ * <li>ResolveServerNegativeCacheTTL - DNS unresolvable host names/IP addresses cache entries TTL in seconds. Default
+ * value - {@code 60}. (Optional)</li>
+ * <li>ResolveServerTimeout - time in milliseconds to wait for DNS lookup to complete. If lookup does not complete in
+ * time, it continues in background and activity entity host name/IP is left unresolved. Default value - {@code 100}.
+ * (Optional)</li>
  * <li>SplitRelatives - flag indicating whether to send activity entity child entities independently merging data from
  * both parent and child entity fields into produced entity. Default value - {@code false}. (Optional)</li>
  * <li>BuildSourceFQNFromStreamedData - flag indicating whether to set streamed activity entity {@link Source} FQN build
@@ -55,20 +67,30 @@ import com.jkoolcloud.tnt4j.tracker.TrackingEvent;
  * <li>SourceFQN - {@link Source} FQN pattern to be used when building it from streamed activity entity fields values.
  * Format is: SourceType1=${FieldName1}#SourceType2=${FieldName2}#SourceType3=${FieldName3}... . Default value -
  * 'APPL=${ApplName}#USER=${UserName}#SERVER=${ServerName}#NETADDR=${ServerIp}#GEOADDR=${Location}'. (Optional)</li>
+ * <li>SourceCacheSize - max. capacity of cache for {@link Source} instances built from streamed activity entity fields
+ * values, keyed by source FQN. Value {@code 0} disables caching. Default value - {@code 1000}. (Optional)</li>
  * </ul>
  *
- * @version $Revision: 1 $
+ * @version $Revision: 5 $
  *
  * @see ActivityInfo#buildTrackable(com.jkoolcloud.tnt4j.tracker.Tracker, java.util.Collection)
  */
 public class JKCloudActivityOutput extends AbstractJKCloudOutput<ActivityInfo, Trackable> {
 	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(JKCloudActivityOutput.class);
+	private static final long DEFAULT_SOURCE_CACHE_SIZE = 1000;
 	private static final String DEFAULT_SOURCE_FQN = "APPL=${ApplName}#SERVER=${ServerName}#NETADDR=${ServerIp}#GEOADDR=${Location}"; // NON-NLS
 
 	private boolean resolveServer = false;
+	private long dnsCacheSize = DNSResolver.DEFAULT_CACHE_MAX_SIZE;
+	private long dnsCacheTtl = DNSResolver.DEFAULT_CACHE_TTL;
+	private long dnsNegativeCacheTtl = DNSResolver.DEFAULT_NEGATIVE_CACHE_TTL;
+	private long dnsLookupTimeout = DNSResolver.DEFAULT_LOOKUP_TIMEOUT;
+	private DNSResolver dnsResolver;
 	private boolean splitRelatives = false;
 	private boolean buildFQNFromData = true;
 	private String sourceFQN = null;
+	private long sourceCacheSize = DEFAULT_SOURCE_CACHE_SIZE;
+	private Cache<String, Source> sourceCache;
 
 	/**
 	 * Constructs a new JKCloudActivityOutput.
@@ -99,6 +121,14 @@ public class JKCloudActivityOutput extends AbstractJKCloudOutput<ActivityInfo, T
 
 		if (OutputProperties.PROP_RESOLVE_SERVER.equalsIgnoreCase(name)) {
 			resolveServer = Utils.toBoolean((String) value);
+		} else if (OutputProperties.PROP_RESOLVE_SERVER_CACHE_SIZE.equalsIgnoreCase(name)) {
+			dnsCacheSize = Long.parseLong((String) value);
+		} else if (OutputProperties.PROP_RESOLVE_SERVER_CACHE_TTL.equalsIgnoreCase(name)) {
+			dnsCacheTtl = Long.parseLong((String) value);
+		} else if (OutputProperties.PROP_RESOLVE_SERVER_NEGATIVE_CACHE_TTL.equalsIgnoreCase(name)) {
+			dnsNegativeCacheTtl = Long.parseLong((String) value);
+		} else if (OutputProperties.PROP_RESOLVE_SERVER_TIMEOUT.equalsIgnoreCase(name)) {
+			dnsLookupTimeout = Long.parseLong((String) value);
 		} else if (StringUtils.equalsAnyIgnoreCase(name, OutputProperties.PROP_SPLIT_RELATIVES,
 				OutputProperties.PROP_TURN_OUT_CHILDREN)) {
 			splitRelatives = Utils.toBoolean((String) value);
@@ -106,9 +136,39 @@ public class JKCloudActivityOutput extends AbstractJKCloudOutput<ActivityInfo, T
 			buildFQNFromData = Utils.toBoolean((String) value);
 		} else if (OutputProperties.PROP_SOURCE_FQN.equalsIgnoreCase(name)) {
 			sourceFQN = (String) value;
+		} else if (OutputProperties.PROP_SOURCE_CACHE_SIZE.equalsIgnoreCase(name)) {
+			sourceCacheSize = Long.parseLong((String) value);
+		}
+	}
+
+	@Override
+	public void initialize() throws Exception {
+		super.initialize();
+
+		if (resolveServer && dnsResolver == null) {
+			dnsResolver = new DNSResolver(dnsCacheSize, dnsCacheTtl, dnsNegativeCacheTtl, dnsLookupTimeout);
+		}
+
+		if (sourceCacheSize > 0 && sourceCache == null) {
+			sourceCache = CacheBuilder.newBuilder().maximumSize(sourceCacheSize).build();
 		}
 	}
 
+	@Override
+	public void cleanup() {
+		if (dnsResolver != null) {
+			dnsResolver.shutdown();
+			dnsResolver = null;
+		}
+
+		// cleanup is also performed on TNT4J reconfiguration, so sources made by old source factory shall be dropped
+		if (sourceCache != null) {
+			sourceCache.invalidateAll();
+		}
+
+		super.cleanup();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * <p>
@@ -116,34 +176,37 @@ public class JKCloudActivityOutput extends AbstractJKCloudOutput<ActivityInfo, T
 	 * @see ActivityInfo#buildTrackable(com.jkoolcloud.tnt4j.tracker.Tracker, java.util.Collection)
 	 */
 	@Override
-	public void logItem(ActivityInfo ai) throws Exception {
-			Tracker tracker = getTracker();
-			ai.resolveServer(resolveServer);
-			String aiFQN = buildFQNFromData ? StringUtils.isEmpty(sourceFQN) ? DEFAULT_SOURCE_FQN : sourceFQN : null;
+	protected void logItem(Tracker tracker, ActivityInfo ai) throws Exception {
+		ai.resolveServer(resolveServer ? getDNSResolver() : null);
+		String aiFQN = buildFQNFromData ? StringUtils.isEmpty(sourceFQN) ? DEFAULT_SOURCE_FQN : sourceFQN : null;
 
-			if (splitRelatives && ai.hasChildren()) {
-				List<ActivityInfo> cais = ai.getChildren();
-				for (ActivityInfo cai : cais) {
-					cai.merge(ai);
-					Trackable t = cai.buildTrackable(tracker);
-					alterTrackableSource(tracker, t, cai, aiFQN);
-					recordActivity(tracker, CONN_RETRY_INTERVAL, t);
-				}
-			} else {
-				List<Trackable> chTrackables = new ArrayList<>();
-				Trackable t = ai.buildTrackable(tracker, chTrackables);
-				alterTrackableSource(tracker, t, ai, aiFQN);
+		if (splitRelatives && ai.hasChildren()) {
+			List<ActivityInfo> cais = ai.getChildren();
+			for (ActivityInfo cai : cais) {
+				cai.merge(ai);
+				Trackable t = cai.buildTrackable(tracker);
+				alterTrackableSource(tracker, t, cai, aiFQN);
 				recordActivity(tracker, CONN_RETRY_INTERVAL, t);
+			}
+		} else {
+			List<Trackable> chTrackables = new ArrayList<>();
+			Trackable t = ai.buildTrackable(tracker, chTrackables);
+			alterTrackableSource(tracker, t, ai, aiFQN);
+			recordActivity(tracker, CONN_RETRY_INTERVAL, t);
 
-				List<ActivityInfo> cais = ai.getChildren();
-				for (int i = 0; i < chTrackables.size(); i++) {
-					Trackable chT = chTrackables.get(i);
-					ActivityInfo cai = cais.get(i);
-					alterTrackableSource(tracker, chT, cai, aiFQN);
-					recordActivity(tracker, CONN_RETRY_INTERVAL, chT);
-				}
+			List<ActivityInfo> cais = ai.getChildren();
+			for (int i = 0; i < chTrackables.size(); i++) {
+				Trackable chT = chTrackables.get(i);
+				ActivityInfo cai = cais.get(i);
+				alterTrackableSource(tracker, chT, cai, aiFQN);
+				recordActivity(tracker, CONN_RETRY_INTERVAL, chT);
 			}
 		}
+	}
+
+	private DNSResolver getDNSResolver() {
+		return dnsResolver == null ? DNSResolver.getDefault() : dnsResolver;
+	}
 
 	private void alterTrackableSource(Tracker tracker, Trackable t, ActivityInfo ai, String fqn) {
 		if (StringUtils.isNotEmpty(fqn)) {
@@ -174,17 +237,34 @@ public class JKCloudActivityOutput extends AbstractJKCloudOutput<ActivityInfo, T
 		}
 	}
 
-	private static Source buildSource(Tracker tracker, String sourceFQN) {
+	/**
+	 * Builds {@link Source} instance for provided source FQN. Built sources are cached by source FQN, if source cache is
+	 * enabled.
+	 *
+	 * @param tracker
+	 *            tracker instance to get source factory from, or {@code null} to use default source factory
+	 * @param sourceFQN
+	 *            source FQN
+	 * @return source instance, or {@code null} if source FQN is empty
+	 */
+	protected Source buildSource(Tracker tracker, String sourceFQN) {
 		if (StringUtils.isEmpty(sourceFQN)) {
 			return null;
 		}
-		SourceFactory sf = tracker == null ? DefaultSourceFactory.getInstance()
-				: tracker.getConfiguration().getSourceFactory();
-		Source source = sf.newFromFQN(sourceFQN);
-		source.setSSN(sf.getSSN());
 
-		return source;
+		Source source = sourceCache == null ? null : sourceCache.getIfPresent(sourceFQN);
+		if (source == null) {
+			SourceFactory sf = tracker == null ? DefaultSourceFactory.getInstance()
+					: tracker.getConfiguration().getSourceFactory();
+			source = sf.newFromFQN(sourceFQN);
+			source.setSSN(sf.getSSN());
 
+			if (sourceCache != null) {
+				sourceCache.put(sourceFQN, source);
+			}
+		}
+
+		return source;
 	}
 
 	@Override
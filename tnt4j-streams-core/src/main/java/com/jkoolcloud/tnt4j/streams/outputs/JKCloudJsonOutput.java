@@ -30,7 +30,7 @@ import com.jkoolcloud.tnt4j.tracker.TrackingEvent;
  * This output logger primarily is used by {@link com.jkoolcloud.tnt4j.streams.inputs.RedirectTNT4JStream} to redirect
  * incoming activities from other TNT4J based producer APIs like 'tnt4j-stream-jmx'.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  *
  * @see com.jkoolcloud.tnt4j.streams.inputs.RedirectTNT4JStream
  * @see Tracker#log(OpLevel, String, Object...)
@@ -67,8 +67,8 @@ public class JKCloudJsonOutput extends AbstractJKCloudOutput<String, String> {
 	 * @see Tracker#log(OpLevel, String, Object...)
 	 */
 	@Override
-	public void logItem(String ai) throws Exception {
-		recordActivity(getTracker(), CONN_RETRY_INTERVAL, ai);
+	protected void logItem(Tracker tracker, String ai) throws Exception {
+		recordActivity(tracker, CONN_RETRY_INTERVAL, ai);
 	}
 
 	@Override
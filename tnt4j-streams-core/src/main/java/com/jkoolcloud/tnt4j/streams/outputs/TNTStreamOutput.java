@@ -28,7 +28,7 @@ import com.jkoolcloud.tnt4j.streams.inputs.TNTInputStream;
  * @param <T>
  *            the type of handled activity data
  *
- * @version $Revision: 1 $
+ * @version $Revision: 3 $
  *
  * @see TNTInputStream#setOutput(TNTStreamOutput)
  * @see com.jkoolcloud.tnt4j.tracker.Tracker
@@ -46,6 +46,29 @@ public interface TNTStreamOutput<T> extends NamedObject {
 	 */
 	void logItem(T item) throws Exception;
 
+	/**
+	 * Performs streamed activity items batch logging processing. Implementations shall pick
+	 * {@link com.jkoolcloud.tnt4j.tracker.Tracker} once per batch and log all batch items using it.
+	 *
+	 * @param items
+	 *            collection of activity items to log
+	 * @throws Exception
+	 *             if any errors occurred while logging items
+	 *
+	 * @see #logItem(Object)
+	 */
+	void logItems(Collection<T> items) throws Exception;
+
+	/**
+	 * Runs provided callback once all activity items passed to this output so far have been logged. Outputs logging
+	 * items immediately shall run callback on calling thread. Outputs collecting items into batches shall run callback
+	 * after batch containing items passed before this call gets logged.
+	 *
+	 * @param callback
+	 *            callback to run
+	 */
+	void runWhenLogged(Runnable callback);
+
 	/**
 	 * Performs initialization of stream output handler.
 	 * 
@@ -16,18 +16,20 @@
 
 package com.jkoolcloud.tnt4j.streams.parsers;
 
-import java.io.BufferedReader;
-import java.io.EOFException;
-import java.io.IOException;
-import java.io.InputStream;
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.JsonPathException;
@@ -35,8 +37,7 @@ import com.jkoolcloud.tnt4j.core.OpLevel;
 import com.jkoolcloud.tnt4j.sink.DefaultEventSinkFactory;
 import com.jkoolcloud.tnt4j.sink.EventSink;
 import com.jkoolcloud.tnt4j.streams.configure.ParserProperties;
-import com.jkoolcloud.tnt4j.streams.fields.ActivityFieldDataType;
-import com.jkoolcloud.tnt4j.streams.fields.ActivityFieldLocator;
+import com.jkoolcloud.tnt4j.streams.fields.*;
 import com.jkoolcloud.tnt4j.streams.inputs.TNTInputStream;
 import com.jkoolcloud.tnt4j.streams.utils.StreamsConstants;
 import com.jkoolcloud.tnt4j.streams.utils.StreamsResources;
@@ -53,9 +54,12 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * <ul>
  * <li>ReadLines - indicates that complete JSON data package is single line. Default value - '{@code true}'. (Optional,
  * deprecated - use 'ActivityDelim' instead)</li>
+ * <li>StreamingParse - indicates that {@link java.io.Reader} and {@link java.io.InputStream} activity data shall be
+ * read as stream of JSON tokens, where every concatenated or JSON array wrapped JSON value makes single activity data
+ * package. Default value - '{@code false}'. (Optional)</li>
  * </ul>
  *
- * @version $Revision: 2 $
+ * @version $Revision: 3 $
  */
 public class ActivityJsonParser extends GenericActivityParser<DocumentContext> {
 	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(ActivityJsonParser.class);
@@ -63,6 +67,14 @@ public class ActivityJsonParser extends GenericActivityParser<DocumentContext> {
 	private static final String JSON_PATH_ROOT = "$";// NON-NLS
 	private static final String JSON_PATH_SEPARATOR = StreamsConstants.DEFAULT_PATH_DELIM;
 
+	/**
+	 * Property indicating that parser shall read JSON values from RAW data reader as stream of JSON tokens.
+	 */
+	protected boolean streamingParse = false;
+
+	private final ConcurrentMap<String, JsonPath> jsonPaths = new ConcurrentHashMap<>();
+	private JsonValuesReader valuesReader;
+
 	/**
 	 * Constructs a new ActivityJsonParser.
 	 */
@@ -85,6 +97,12 @@ public class ActivityJsonParser extends GenericActivityParser<DocumentContext> {
 
 			logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
 					"ActivityParser.setting", name, value);
+		} else if (ParserProperties.PROP_STREAMING_PARSE.equalsIgnoreCase(name)) {
+			if (StringUtils.isNotEmpty(value)) {
+				streamingParse = Utils.toBoolean(value);
+				logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+						"ActivityParser.setting", name, value);
+			}
 		}
 	}
 
@@ -94,10 +112,62 @@ public class ActivityJsonParser extends GenericActivityParser<DocumentContext> {
 		if (ParserProperties.PROP_READ_LINES.equalsIgnoreCase(name)) {
 			return activityDelim;
 		}
+		if (ParserProperties.PROP_STREAMING_PARSE.equalsIgnoreCase(name)) {
+			return streamingParse;
+		}
 
 		return super.getProperty(name);
 	}
 
+	@Override
+	public void organizeFields() {
+		super.organizeFields();
+
+		for (ActivityField aField : fieldList) {
+			List<ActivityFieldLocator> locators = aField.getLocators();
+			if (locators == null) {
+				continue;
+			}
+			for (ActivityFieldLocator loc : locators) {
+				String locStr = loc.getLocator();
+				if (isDataLocator(loc) && !ActivityField.isDynamicAttr(locStr)) {
+					try {
+						getJsonPath(locStr);
+					} catch (JsonPathException exc) {
+						logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+								"ActivityJsonParser.path.precompile.failed", aField.getFieldTypeName(), locStr,
+								Utils.getExceptionMessages(exc));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns compiled {@link JsonPath} instance for provided locator string. Compiled paths are cached, so every
+	 * locator path is compiled only once.
+	 *
+	 * @param locStr
+	 *            locator string
+	 * @return compiled JSON path instance
+	 * @throws JsonPathException
+	 *             if locator string is not valid JsonPath expression
+	 */
+	protected JsonPath getJsonPath(String locStr) throws JsonPathException {
+		JsonPath jsonPath = jsonPaths.get(locStr);
+		if (jsonPath == null) {
+			String pathStr = locStr.startsWith(JSON_PATH_ROOT) ? locStr
+					: JSON_PATH_ROOT + JSON_PATH_SEPARATOR + locStr;
+			jsonPath = JsonPath.compile(pathStr);
+			JsonPath cPath = jsonPaths.putIfAbsent(locStr, jsonPath);
+			if (cPath != null) {
+				jsonPath = cPath;
+			}
+		}
+
+		return jsonPath;
+	}
+
 	/**
 	 * Returns whether this parser supports the given format of the activity data. This is used by activity streams to
 	 * determine if the parser can parse the data in the format that the stream has it.
@@ -133,6 +203,11 @@ public class ActivityJsonParser extends GenericActivityParser<DocumentContext> {
 		try {
 			if (data instanceof DocumentContext) {
 				jsonDoc = (DocumentContext) data;
+			} else if (streamingParse && (data instanceof Reader || data instanceof InputStream)) {
+				jsonDoc = readNextJsonValue(data);
+				if (jsonDoc == null) {
+					return null;
+				}
 			} else if (data instanceof InputStream) {
 				jsonDoc = JsonPath.parse((InputStream) data);
 			} else {
@@ -160,6 +235,42 @@ public class ActivityJsonParser extends GenericActivityParser<DocumentContext> {
 		return cData;
 	}
 
+	/**
+	 * Reads next JSON value from provided RAW data {@link Reader} or {@link InputStream} as stream of JSON tokens.
+	 * Input data can be concatenated JSON values (e.g. {@code {...}{...}} or newline separated ones), or JSON array
+	 * wrapped values (e.g. {@code [{...},{...}]}), where every JSON value makes separate activity data package.
+	 *
+	 * @param data
+	 *            RAW data reader or input stream
+	 * @return JSON document context of next JSON value, or {@code null} if the end of the stream has been reached
+	 * @throws IOException
+	 *             if I/O exception occurs while reading data or data is not valid JSON
+	 */
+	protected DocumentContext readNextJsonValue(Object data) throws IOException {
+		Object jsonValue = null;
+
+		nextLock.lock();
+		try {
+			if (valuesReader == null || valuesReader.source != data) {
+				valuesReader = new JsonValuesReader(data);
+			}
+			try {
+				jsonValue = valuesReader.next();
+			} catch (EOFException eof) {
+				Utils.logThrowable(logger(), OpLevel.DEBUG,
+						StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME), "ActivityParser.data.end",
+						getActivityDataType(), eof);
+			}
+			if (jsonValue == null) {
+				valuesReader = null;
+			}
+		} finally {
+			nextLock.unlock();
+		}
+
+		return jsonValue == null ? null : JsonPath.parse(jsonValue);
+	}
+
 	/**
 	 * Reads RAW activity data JSON package string from {@link BufferedReader}.
 	 *
@@ -233,13 +344,9 @@ public class ActivityJsonParser extends GenericActivityParser<DocumentContext> {
 		String locStr = locator.getLocator();
 
 		if (StringUtils.isNotEmpty(locStr)) {
-			if (!locStr.startsWith(JSON_PATH_ROOT)) {
-				locStr = JSON_PATH_ROOT + JSON_PATH_SEPARATOR + locStr;
-			}
-
 			Object jsonValue = null;
 			try {
-				jsonValue = cData.getData().read(locStr);
+				jsonValue = cData.getData().read(getJsonPath(locStr));
 			} catch (JsonPathException exc) {
 				Utils.logThrowable(logger(), OpLevel.DEBUG,
 						StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
@@ -269,4 +376,91 @@ public class ActivityJsonParser extends GenericActivityParser<DocumentContext> {
 
 		return val;
 	}
+
+	/**
+	 * JSON tokens stream reader producing {@link Map}, {@link List} and simple type values out of concatenated or JSON
+	 * array wrapped JSON values, one value per {@link #next()} call.
+	 */
+	private static class JsonValuesReader {
+		private final Object source;
+		private final JsonReader reader;
+		private boolean inArray = false;
+
+		JsonValuesReader(Object source) {
+			this.source = source;
+			Reader rdr = source instanceof Reader ? (Reader) source
+					: new InputStreamReader((InputStream) source, StandardCharsets.UTF_8);
+			reader = new JsonReader(rdr);
+			reader.setLenient(true);
+		}
+
+		Object next() throws IOException {
+			while (true) {
+				JsonToken token = reader.peek();
+				if (inArray) {
+					if (token == JsonToken.END_ARRAY) {
+						reader.endArray();
+						inArray = false;
+						continue;
+					}
+				} else if (token == JsonToken.BEGIN_ARRAY) {
+					reader.beginArray();
+					inArray = true;
+					continue;
+				} else if (token == JsonToken.END_DOCUMENT) {
+					return null;
+				}
+
+				return readValue();
+			}
+		}
+
+		private Object readValue() throws IOException {
+			switch (reader.peek()) {
+			case BEGIN_OBJECT:
+				Map<String, Object> map = new LinkedHashMap<>();
+				reader.beginObject();
+				while (reader.hasNext()) {
+					map.put(reader.nextName(), readValue());
+				}
+				reader.endObject();
+				return map;
+			case BEGIN_ARRAY:
+				List<Object> list = new ArrayList<>();
+				reader.beginArray();
+				while (reader.hasNext()) {
+					list.add(readValue());
+				}
+				reader.endArray();
+				return list;
+			case STRING:
+				return reader.nextString();
+			case NUMBER:
+				return toNumber(reader.nextString());
+			case BOOLEAN:
+				return reader.nextBoolean();
+			case NULL:
+				reader.nextNull();
+				return null;
+			default:
+				throw new IOException(StreamsResources.getStringFormatted(StreamsResources.RESOURCE_BUNDLE_NAME,
+						"ActivityJsonParser.unexpected.token", reader.peek(), reader.getPath()));
+			}
+		}
+
+		private static Number toNumber(String numStr) {
+			if (StringUtils.containsAny(numStr, '.', 'e', 'E')) {
+				return Double.valueOf(numStr);
+			}
+			try {
+				long lValue = Long.parseLong(numStr);
+				if (lValue >= Integer.MIN_VALUE && lValue <= Integer.MAX_VALUE) {
+					return (int) lValue;
+				}
+				return lValue;
+			} catch (NumberFormatException exc) {
+				return new BigInteger(numStr);
+			}
+		}
+	}
 }
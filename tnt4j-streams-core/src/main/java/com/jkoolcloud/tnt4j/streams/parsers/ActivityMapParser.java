@@ -16,6 +16,7 @@
 
 package com.jkoolcloud.tnt4j.streams.parsers;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 import com.jkoolcloud.tnt4j.sink.DefaultEventSinkFactory;
@@ -28,12 +29,13 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * each field is represented by a key/value pair and the name is used to map each field into its corresponding activity
  * field.
  * <p>
- * Additionally this parser makes activity data transformation from {@code byte[]} to {@link String}.
+ * Additionally this parser makes activity data transformation from {@code byte[]} or {@link java.nio.ByteBuffer} to
+ * {@link String}.
  * <p>
  * This activity parser supports configuration properties from
  * {@link com.jkoolcloud.tnt4j.streams.parsers.AbstractActivityMapParser} (and higher hierarchy parsers).
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  */
 public class ActivityMapParser extends AbstractActivityMapParser {
 	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(ActivityMapParser.class);
@@ -51,8 +53,8 @@ public class ActivityMapParser extends AbstractActivityMapParser {
 	}
 
 	/**
-	 * Casts specified data object to map and applies default activity data transformation from {@code byte[]} to
-	 * {@link String}.
+	 * Casts specified data object to map and applies default activity data transformation from {@code byte[]} or
+	 * {@link java.nio.ByteBuffer} to {@link String}.
 	 *
 	 * @param data
 	 *            activity object data object
@@ -72,6 +74,9 @@ public class ActivityMapParser extends AbstractActivityMapParser {
 		if (activityData instanceof byte[]) {
 			String activityDataStr = Utils.getString((byte[]) activityData);
 			map.put(StreamsConstants.ACTIVITY_DATA_KEY, activityDataStr);
+		} else if (activityData instanceof ByteBuffer) {
+			String activityDataStr = Utils.getString((ByteBuffer) activityData, null);
+			map.put(StreamsConstants.ACTIVITY_DATA_KEY, activityDataStr);
 		}
 
 		return map;
@@ -36,7 +36,7 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * Base class that all activity parsers must extend. It provides some base functionality useful for all activity
  * parsers.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  */
 public abstract class ActivityParser implements NamedObject {
 	/**
@@ -213,18 +213,24 @@ public abstract class ActivityParser implements NamedObject {
 		if (CollectionUtils.isNotEmpty(field.getStackedParsers())) {
 			boolean applied = false;
 			for (ActivityField.FieldParserReference parserRef : field.getStackedParsers()) {
-				logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-						"ActivityParser.stacked.parser.applying", name, field, parserRef);
+				if (logger().isSet(OpLevel.DEBUG)) {
+					logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+							"ActivityParser.stacked.parser.applying", name, field, parserRef);
+				}
 				try {
 					Object valueToParse = parserRef.getApplyOn() == ParserApplyType.Activity
 							? ai.getFieldValue(field.getFieldTypeName()) : value;
-					logger().log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-							"ActivityParser.stacked.parser.input.value.type", name, field, parserRef,
-							valueToParse == null ? null : valueToParse.getClass().getName());
+					if (logger().isSet(OpLevel.TRACE)) {
+						logger().log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+								"ActivityParser.stacked.parser.input.value.type", name, field, parserRef,
+								valueToParse == null ? null : valueToParse.getClass().getName());
+					}
 					applied = applyStackedParser(stream, ai, field, parserRef, valueToParse);
 
-					logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-							"ActivityParser.stacked.parser.applied", name, field, parserRef, applied);
+					if (logger().isSet(OpLevel.DEBUG)) {
+						logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+								"ActivityParser.stacked.parser.applied", name, field, parserRef, applied);
+					}
 
 					if (applied) {
 						break;
@@ -279,9 +285,11 @@ public abstract class ActivityParser implements NamedObject {
 			}
 		}
 
-		logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-				"ActivityParser.stacked.parser.match", parserRef, dataMatch, tagsMatch == null ? "----" : tagsMatch, // NON-NLS
-				expMatch == null ? "----" : expMatch); // NON-NLS
+		if (logger().isSet(OpLevel.DEBUG)) {
+			logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+					"ActivityParser.stacked.parser.match", parserRef, dataMatch,
+					tagsMatch == null ? "----" : tagsMatch, expMatch == null ? "----" : expMatch); // NON-NLS
+		}
 
 		if (parserMatch) {
 			ActivityInfo sai = parserRef.getParser().parse(stream, value, ai);
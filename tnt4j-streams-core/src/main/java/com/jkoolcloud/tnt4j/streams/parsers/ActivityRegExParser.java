@@ -23,13 +23,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import com.jkoolcloud.tnt4j.core.OpLevel;
 import com.jkoolcloud.tnt4j.sink.DefaultEventSinkFactory;
 import com.jkoolcloud.tnt4j.sink.EventSink;
 import com.jkoolcloud.tnt4j.streams.configure.ParserProperties;
+import com.jkoolcloud.tnt4j.streams.fields.ActivityField;
 import com.jkoolcloud.tnt4j.streams.fields.ActivityFieldDataType;
 import com.jkoolcloud.tnt4j.streams.fields.ActivityFieldLocator;
 import com.jkoolcloud.tnt4j.streams.fields.ActivityFieldLocatorType;
@@ -63,6 +63,8 @@ import com.jkoolcloud.tnt4j.streams.utils.StreamsResources;
  * Note that match index starts from {@code 1} while group indices starts from {@code 0} (group {@code 0} usually means
  * {@code "Full match"}).
  * <p>
+ * Fields locators are resolved to match and group indices once, when parser fields get organized.
+ * <p>
  * This activity parser supports those activity field locator types:
  * <ul>
  * <li>{@link com.jkoolcloud.tnt4j.streams.fields.ActivityFieldLocatorType#Index}</li>
@@ -73,7 +75,7 @@ import com.jkoolcloud.tnt4j.streams.utils.StreamsResources;
  * <li>{@link com.jkoolcloud.tnt4j.streams.fields.ActivityFieldLocatorType#Activity}</li>
  * </ul>
  *
- * @version $Revision: 2 $
+ * @version $Revision: 4 $
  */
 public class ActivityRegExParser extends GenericActivityParser<Matcher> {
 	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(ActivityRegExParser.class);
@@ -90,6 +92,9 @@ public class ActivityRegExParser extends GenericActivityParser<Matcher> {
 	 */
 	protected Strategy matchStrategy = Strategy.MATCH;
 
+	private volatile NamedGroups namedGroups;
+	private Map<ActivityFieldLocator, GroupRef> groupRefs = Collections.emptyMap();
+
 	/**
 	 * Constructs a new ActivityRegExParser.
 	 */
@@ -133,6 +138,29 @@ public class ActivityRegExParser extends GenericActivityParser<Matcher> {
 		return super.getProperty(name);
 	}
 
+	@Override
+	public void organizeFields() {
+		super.organizeFields();
+
+		Map<ActivityFieldLocator, GroupRef> refs = new IdentityHashMap<>();
+		for (ActivityField aField : fieldList) {
+			List<ActivityFieldLocator> locators = aField.getLocators();
+			if (locators == null) {
+				continue;
+			}
+			for (ActivityFieldLocator loc : locators) {
+				if (isDataLocator(loc) && !ActivityField.isDynamicAttr(loc.getLocator())) {
+					try {
+						refs.put(loc, resolveGroupRef(loc));
+					} catch (NumberFormatException exc) {
+					}
+				}
+			}
+		}
+
+		groupRefs = refs;
+	}
+
 	@Override
 	protected ActivityInfo parse(TNTInputStream<?, ?> stream, Object data, ActivityInfo pai)
 			throws IllegalStateException, ParseException {
@@ -161,7 +189,7 @@ public class ActivityRegExParser extends GenericActivityParser<Matcher> {
 		cData.setMessage(dataStr);
 
 		if (matchStrategy == Strategy.FIND) {
-			Map<String, String> matches = findMatches(matcher);
+			List<String[]> matches = findMatchGroups(matcher);
 			cData.put(MATCHES_KEY, matches);
 		}
 
@@ -194,51 +222,30 @@ public class ActivityRegExParser extends GenericActivityParser<Matcher> {
 	/**
 	 * Resolves all available RegEx matches found in activity data.
 	 * <p>
-	 * Found matches map key is match group index or name, value is matched activity data substring.
-	 * 
+	 * Found matches list item is array of match groups values, where array index is group index.
+	 *
 	 * @param matcher
 	 *            regex matcher to be used to find matches
-	 * @return map of found matches
-	 * @throws ParseException
-	 *             if exception occurs while finding RegEx matches
+	 * @return list of found matches groups values
 	 *
 	 * @see java.util.regex.Matcher#group(int)
 	 */
-	protected Map<String, String> findMatches(Matcher matcher) throws ParseException {
-		try {
-			Map<String, Integer> namedGroupsMap = getNamedGroups(pattern);
-			Map<String, String> matches = new HashMap<>(10);
-
-			matcher.reset();
-			int mi = 0;
-			while (matcher.find()) {
-				mi++;
-				int gc = matcher.groupCount();
-				for (int gi = 0; gi <= gc; gi++) {
-					String matchStr = matcher.group(gi);
-					if (matchStr != null) {
-						addMatchEntry(matches, makeMatchKey(mi, gi), matchStr);
-
-						if (MapUtils.isNotEmpty(namedGroupsMap)) {
-							for (Map.Entry<String, Integer> namedGroup : namedGroupsMap.entrySet()) {
-								if (gi == namedGroup.getValue()) {
-									addMatchEntry(matches, makeMatchKey(mi, namedGroup.getKey()), matchStr);
-								}
-							}
-						}
-					}
-				}
+	protected List<String[]> findMatchGroups(Matcher matcher) {
+		List<String[]> matches = new ArrayList<>();
+
+		matcher.reset();
+		while (matcher.find()) {
+			int gc = matcher.groupCount();
+			String[] groups = new String[gc + 1];
+			for (int gi = 0; gi <= gc; gi++) {
+				groups[gi] = matcher.group(gi);
 			}
-			logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-					"ActivityRegExParser.found.matches", matches.size());
-
-			return matches;
-		} catch (Exception e) {
-			ParseException pe = new ParseException(StreamsResources.getStringFormatted(
-					StreamsResources.RESOURCE_BUNDLE_NAME, "ActivityRegExParser.failed.parsing.matches"), 0);
-			pe.initCause(e);
-			throw pe;
+			matches.add(groups);
 		}
+		logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+				"ActivityRegExParser.found.matches", matches.size());
+
+		return matches;
 	}
 
 	/**
@@ -254,19 +261,13 @@ public class ActivityRegExParser extends GenericActivityParser<Matcher> {
 		return mi + StreamsConstants.DEFAULT_PATH_DELIM + gid;
 	}
 
-	private void addMatchEntry(Map<String, String> matches, String matchKey, String matchStr) {
-		matches.put(matchKey, matchStr);
-		logger().log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-				"ActivityRegExParser.match", matchKey, matchStr);
-	}
-
 	/**
 	 * Gets field raw data value resolved by locator.
 	 *
 	 * @param locator
 	 *            activity field locator
 	 * @param cData
-	 *            RegEx data package - {@link Matcher} or {@link ArrayList} of matches
+	 *            RegEx data package - {@link Matcher} or {@link List} of matches groups
 	 * @param formattingNeeded
 	 *            flag to set if value formatting is not needed
 	 * @return raw value resolved by locator, or {@code null} if value is not resolved
@@ -282,24 +283,16 @@ public class ActivityRegExParser extends GenericActivityParser<Matcher> {
 		String locStr = locator.getLocator();
 
 		if (StringUtils.isNotEmpty(locStr)) {
+			GroupRef gRef = groupRefs.get(locator);
+			if (gRef == null) {
+				gRef = resolveGroupRef(locator);
+			}
+
 			if (cData.containsKey(MATCHES_KEY)) {
-				Map<String, String> matches = (Map<String, String>) cData.get(MATCHES_KEY);
-				val = getMatch(matches, locStr);
+				List<String[]> matches = (List<String[]>) cData.get(MATCHES_KEY);
+				val = getMatch(matches, gRef);
 			} else {
-				Matcher matcher = cData.getData();
-				ActivityFieldLocatorType locType = locator.getBuiltInType();
-
-				if (locType != null && locType.getDataType() == Integer.class) {
-					val = groupIndex(locStr, matcher);
-				} else if (locType != null && locType.getDataType() == String.class) {
-					val = groupName(locStr, matcher);
-				} else {
-					try {
-						val = groupIndex(locStr, matcher);
-					} catch (NumberFormatException exc) {
-						val = groupName(locStr, matcher);
-					}
-				}
+				val = getGroup(cData.getData(), gRef);
 			}
 		}
 
@@ -307,39 +300,113 @@ public class ActivityRegExParser extends GenericActivityParser<Matcher> {
 	}
 
 	/**
-	 * Finds match value in regex matches map using provided locator string.
+	 * Resolves match and group indices referenced by provided locator.
 	 * <p>
-	 * If locator string does not contain match-group delimiter, default match index {@code 1} is used.
+	 * For {@code "MatchStrategy=FIND"}, if locator string does not contain match-group delimiter, default match index
+	 * {@code 1} is used.
 	 *
-	 * @param matches
-	 *            regex matches map
-	 * @param locStr
-	 *            locator string:
-	 * @return matches map contained value
+	 * @param locator
+	 *            activity field locator
+	 * @return match group reference
+	 * @throws NumberFormatException
+	 *             if locator of numeric type does not define valid group index
 	 */
-	private static Object getMatch(Map<String, String> matches, String locStr) {
-		if (!locStr.contains(StreamsConstants.DEFAULT_PATH_DELIM)) {
-			return matches.get(makeMatchKey(1, locStr));
+	private GroupRef resolveGroupRef(ActivityFieldLocator locator) throws NumberFormatException {
+		String locStr = locator.getLocator();
+
+		if (matchStrategy == Strategy.FIND) {
+			int di = locStr.indexOf(StreamsConstants.DEFAULT_PATH_DELIM);
+			if (di < 0) {
+				return groupRef(1, locStr);
+			}
+			try {
+				return groupRef(Integer.parseInt(locStr.substring(0, di)), locStr.substring(di + 1));
+			} catch (NumberFormatException exc) {
+				return new GroupRef(-1, -1, null);
+			}
+		}
+
+		ActivityFieldLocatorType locType = locator.getBuiltInType();
+		if (locType != null && locType.getDataType() == Integer.class) {
+			return new GroupRef(1, Integer.parseInt(locStr), null);
+		} else if (locType != null && locType.getDataType() == String.class) {
+			return namedGroupRef(1, locStr);
 		} else {
-			return matches.get(locStr);
+			return groupRef(1, locStr);
 		}
 	}
 
-	private static String groupIndex(String locStr, Matcher matcher) {
-		int loc = Integer.parseInt(locStr);
+	private GroupRef groupRef(int mi, String gid) {
 		try {
-			return matcher.group(loc);
-		} catch (IndexOutOfBoundsException exc) {
-			return null;
+			return new GroupRef(mi, Integer.parseInt(gid), null);
+		} catch (NumberFormatException exc) {
+			return namedGroupRef(mi, gid);
 		}
 	}
 
-	private static String groupName(String locStr, Matcher matcher) {
+	private GroupRef namedGroupRef(int mi, String name) {
+		Map<String, Integer> namedGroupsMap;
 		try {
-			return matcher.group(locStr);
-		} catch (NullPointerException | IllegalArgumentException exc) {
+			namedGroupsMap = getNamedGroups();
+		} catch (Exception exc) {
+			return new GroupRef(mi, -1, name);
+		}
+		Integer gi = namedGroupsMap == null ? null : namedGroupsMap.get(name);
+
+		return new GroupRef(mi, gi == null ? -1 : gi, null);
+	}
+
+	/**
+	 * Finds match group value in regex matches list using provided group reference.
+	 *
+	 * @param matches
+	 *            regex matches groups list
+	 * @param gRef
+	 *            match group reference
+	 * @return matches list contained value
+	 */
+	private static Object getMatch(List<String[]> matches, GroupRef gRef) {
+		if (gRef.matchIdx < 1 || gRef.matchIdx > matches.size()) {
 			return null;
 		}
+		String[] groups = matches.get(gRef.matchIdx - 1);
+
+		return gRef.groupIdx >= 0 && gRef.groupIdx < groups.length ? groups[gRef.groupIdx] : null;
+	}
+
+	private static String getGroup(Matcher matcher, GroupRef gRef) {
+		if (gRef.groupIdx >= 0) {
+			return gRef.groupIdx <= matcher.groupCount() ? matcher.group(gRef.groupIdx) : null;
+		}
+		if (gRef.groupName != null) {
+			try {
+				return matcher.group(gRef.groupName);
+			} catch (IllegalArgumentException exc) {
+				return null;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Retrieves named groups map of parser defined {@link #pattern}. Retrieved map is cached until parser pattern
+	 * changes.
+	 *
+	 * @return map of named groups, or {@code null} if no named groups defined
+	 * @throws java.lang.Exception
+	 *             if error occurs while retrieving named groups map from pattern
+	 *
+	 * @see #getNamedGroups(java.util.regex.Pattern)
+	 */
+	protected Map<String, Integer> getNamedGroups() throws Exception {
+		NamedGroups nGroups = namedGroups;
+		if (nGroups == null || nGroups.pattern != pattern) {
+			nGroups = new NamedGroups(pattern, getNamedGroups(pattern));
+			namedGroups = nGroups;
+		}
+
+		return nGroups.groups;
 	}
 
 	/**
@@ -379,6 +446,34 @@ public class ActivityRegExParser extends GenericActivityParser<Matcher> {
 		return UNSUPPORTED_LOCATOR_TYPES;
 	}
 
+	/**
+	 * Match group reference resolved from field locator.
+	 */
+	private static class GroupRef {
+		private final int matchIdx;
+		private final int groupIdx;
+		private final String groupName;
+
+		private GroupRef(int matchIdx, int groupIdx, String groupName) {
+			this.matchIdx = matchIdx;
+			this.groupIdx = groupIdx;
+			this.groupName = groupName;
+		}
+	}
+
+	/**
+	 * Pattern and its named groups map pair.
+	 */
+	private static class NamedGroups {
+		private final Pattern pattern;
+		private final Map<String, Integer> groups;
+
+		private NamedGroups(Pattern pattern, Map<String, Integer> groups) {
+			this.pattern = pattern;
+			this.groups = groups;
+		}
+	}
+
 	/**
 	 * Strategies used to verify if pattern matches input data string.
 	 */
@@ -17,25 +17,27 @@
 package com.jkoolcloud.tnt4j.streams.parsers;
 
 import java.text.ParseException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.text.StringTokenizer;
-import org.apache.commons.text.matcher.StringMatcher;
-import org.apache.commons.text.matcher.StringMatcherFactory;
 
 import com.jkoolcloud.tnt4j.core.OpLevel;
 import com.jkoolcloud.tnt4j.sink.DefaultEventSinkFactory;
 import com.jkoolcloud.tnt4j.sink.EventSink;
 import com.jkoolcloud.tnt4j.streams.configure.ParserProperties;
+import com.jkoolcloud.tnt4j.streams.fields.ActivityField;
 import com.jkoolcloud.tnt4j.streams.fields.ActivityFieldDataType;
 import com.jkoolcloud.tnt4j.streams.fields.ActivityFieldLocator;
-import com.jkoolcloud.tnt4j.streams.fields.ActivityInfo;
 import com.jkoolcloud.tnt4j.streams.inputs.TNTInputStream;
 import com.jkoolcloud.tnt4j.streams.utils.StreamsResources;
+import com.jkoolcloud.tnt4j.streams.utils.TokenizedCharSequence;
 import com.jkoolcloud.tnt4j.streams.utils.Utils;
 
 /**
@@ -46,22 +48,30 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * This parser supports the following configuration properties (in addition to those supported by
  * {@link GenericActivityParser}):
  * <ul>
- * <li>FieldDelim - fields separator. (Optional)</li>
+ * <li>FieldDelim - fields separator characters. Empty value means no separator: whole activity data string is single
+ * field. (Optional)</li>
  * <li>Pattern - pattern used to determine which types of activity data string this parser supports. When {@code null},
  * all strings are assumed to match the format supported by this parser. (Optional)</li>
  * <li>StripQuotes - whether surrounding double quotes should be stripped from extracted data values. (Optional)</li>
  * </ul>
+ * <p>
+ * Activity data string is split into tokens as char sequence slices, so only values of tokens referenced by parser
+ * fields locators are materialized as strings. Fields locators token positions are resolved once, when parser fields
+ * get organized.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 4 $
  */
 public class ActivityTokenParser extends GenericActivityParser<String[]> {
 	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(ActivityTokenParser.class);
 
+	private static final String TOKENS_KEY = "TOKENS_DATA"; // NON-NLS
+
 	/**
-	 * Contains the field separator (set by {@code FieldDelim} property) - default:
-	 * {@value com.jkoolcloud.tnt4j.streams.parsers.GenericActivityParser#DEFAULT_DELIM}
+	 * Contains the field separator characters (set by {@code FieldDelim} property) - default:
+	 * {@value com.jkoolcloud.tnt4j.streams.parsers.GenericActivityParser#DEFAULT_DELIM}. Empty array means no
+	 * separator.
 	 */
-	protected StringMatcher fieldDelim = StringMatcherFactory.INSTANCE.charSetMatcher(DEFAULT_DELIM);
+	protected char[] fieldDelim = DEFAULT_DELIM.toCharArray();
 
 	/**
 	 * Indicates whether surrounding double quotes should be stripped from extracted data values (set by
@@ -76,6 +86,9 @@ public class ActivityTokenParser extends GenericActivityParser<String[]> {
 	 */
 	protected Pattern pattern = null;
 
+	private Map<ActivityFieldLocator, Integer> locatorIndices = Collections.emptyMap();
+	private boolean fieldsArrayRequired = true;
+
 	/**
 	 * Constructs a new ActivityTokenParser.
 	 */
@@ -93,7 +106,7 @@ public class ActivityTokenParser extends GenericActivityParser<String[]> {
 		super.setProperty(name, value);
 
 		if (ParserProperties.PROP_FLD_DELIM.equalsIgnoreCase(name)) {
-			fieldDelim = StringUtils.isEmpty(value) ? null : StringMatcherFactory.INSTANCE.charSetMatcher(value);
+			fieldDelim = StringUtils.isEmpty(value) ? ArrayUtils.EMPTY_CHAR_ARRAY : value.toCharArray();
 			logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
 					"ActivityParser.setting", name, value);
 		} else if (ParserProperties.PROP_PATTERN.equalsIgnoreCase(name)) {
@@ -112,7 +125,7 @@ public class ActivityTokenParser extends GenericActivityParser<String[]> {
 	@Override
 	public Object getProperty(String name) {
 		if (ParserProperties.PROP_FLD_DELIM.equalsIgnoreCase(name)) {
-			return fieldDelim;
+			return new String(fieldDelim);
 		}
 		if (ParserProperties.PROP_PATTERN.equalsIgnoreCase(name)) {
 			return pattern;
@@ -125,13 +138,30 @@ public class ActivityTokenParser extends GenericActivityParser<String[]> {
 	}
 
 	@Override
-	protected ActivityInfo parse(TNTInputStream<?, ?> stream, Object data, ActivityInfo pai)
-			throws IllegalStateException, ParseException {
-		if (fieldDelim == null) {
-			throw new IllegalStateException(StreamsResources.getString(StreamsResources.RESOURCE_BUNDLE_NAME,
-					"ActivityTokenParser.no.field.delimiter"));
+	public void organizeFields() {
+		super.organizeFields();
+
+		Map<ActivityFieldLocator, Integer> indices = new IdentityHashMap<>();
+		boolean arrayRequired = useActivityAsMessage;
+		for (ActivityField aField : fieldList) {
+			List<ActivityFieldLocator> locators = aField.getLocators();
+			if (locators == null) {
+				continue;
+			}
+			for (ActivityFieldLocator loc : locators) {
+				if (LOC_FOR_COMPLETE_ACTIVITY_DATA.equals(loc.getLocator())) {
+					arrayRequired = true;
+				} else if (isDataLocator(loc)) {
+					try {
+						indices.put(loc, Integer.parseInt(loc.getLocator()));
+					} catch (NumberFormatException exc) {
+					}
+				}
+			}
 		}
-		return super.parse(stream, data, pai);
+
+		locatorIndices = indices;
+		fieldsArrayRequired = arrayRequired;
 	}
 
 	@Override
@@ -151,32 +181,35 @@ public class ActivityTokenParser extends GenericActivityParser<String[]> {
 				return null;
 			}
 		}
-		StringTokenizer tk = stripQuotes
-				? new StringTokenizer(dataStr, fieldDelim, StringMatcherFactory.INSTANCE.doubleQuoteMatcher())
-				: new StringTokenizer(dataStr, fieldDelim);
-		tk.setIgnoreEmptyTokens(false);
-		String[] fields = tk.getTokenArray();
-		if (ArrayUtils.isEmpty(fields)) {
+		TokenizedCharSequence tokens = new TokenizedCharSequence(dataStr, fieldDelim, stripQuotes);
+		if (tokens.size() == 0) {
 			logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
 					"ActivityParser.no.fields");
 			return null;
 		}
 		logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-				"ActivityParser.split", fields.length);
+				"ActivityParser.split", tokens.size());
 
-		ActivityContext cData = new ActivityContext(stream, data, fields);
+		// complete fields array is built only when it is referenced by parser configuration
+		ActivityContext cData = new ActivityContext(stream, data, fieldsArrayRequired ? tokens.toArray() : null);
+		cData.put(TOKENS_KEY, tokens);
 		// cData.setMessage(getRawDataAsMessage(fields));
 
 		return cData;
 	}
 
+	@Override
+	protected boolean hasPreparedData(ActivityContext cData) {
+		return super.hasPreparedData(cData) || cData.containsKey(TOKENS_KEY);
+	}
+
 	/**
 	 * Gets field raw data value resolved by locator.
 	 *
 	 * @param locator
 	 *            activity field locator
 	 * @param cData
-	 *            activity object data fields array
+	 *            activity object data fields tokens or array
 	 * @param formattingNeeded
 	 *            flag to set if value formatting is not needed
 	 * @return raw value resolved by locator, or {@code null} if value is not resolved
@@ -186,12 +219,20 @@ public class ActivityTokenParser extends GenericActivityParser<String[]> {
 			AtomicBoolean formattingNeeded) {
 		Object val = null;
 		String locStr = locator.getLocator();
-		String[] fields = cData.getData();
 
 		if (StringUtils.isNotEmpty(locStr)) {
-			int loc = Integer.parseInt(locStr);
-			if (loc > 0 && loc <= fields.length) {
-				val = fields[loc - 1].trim();
+			Integer locIdx = locatorIndices.get(locator);
+			int loc = locIdx == null ? Integer.parseInt(locStr) : locIdx;
+			TokenizedCharSequence tokens = (TokenizedCharSequence) cData.get(TOKENS_KEY);
+			if (tokens != null) {
+				if (loc > 0 && loc <= tokens.size()) {
+					val = tokens.get(loc - 1, true);
+				}
+			} else {
+				String[] fields = cData.getData();
+				if (loc > 0 && loc <= fields.length) {
+					val = fields[loc - 1].trim();
+				}
 			}
 		}
 
@@ -21,7 +21,6 @@ import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 
 import javax.xml.XMLConstants;
@@ -65,9 +64,16 @@ import com.jkoolcloud.tnt4j.streams.utils.*;
  * <li>Namespace - additional XML namespace mappings. (Optional)</li>
  * <li>NamespaceAware - indicates that parser has to provide support for XML namespaces. Default value - {@code true}.
  * (Optional)</li>
+ * <li>StreamingParse - indicates that parser has to resolve fields values in single StAX pass over XML data, without
+ * building XML DOM document. Applicable only when all parser fields locators are simple location paths supported by
+ * {@link StreamingXPathMatcher}, otherwise DOM based parsing is used. Fields values are resolved as strings, so stacked
+ * parsers get field value text instead of DOM node. Default value - {@code false}. (Optional)</li>
  * </ul>
+ * <p>
+ * DOM document builder, XPath compiler and compiled locator expressions are kept per parsing thread, so parsing
+ * performed by multiple stream threads is not serialized.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  */
 public class ActivityXmlParser extends GenericActivityParser<Node> {
 	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(ActivityXmlParser.class);
@@ -89,22 +95,28 @@ public class ActivityXmlParser extends GenericActivityParser<Node> {
 	 */
 	private static final String LOCALE_ATTR = "locale"; // NON-NLS
 
+	private static final String STREAMED_VALUES_KEY = "STREAMED_XML_VALUES"; // NON-NLS
+
 	/**
 	 * Contains the XML namespace mappings.
 	 */
 	protected NamespaceMap namespaces = null;
 
-	private XPath xPath;
-	private DocumentBuilder builder;
-
-	private final ReentrantLock xPathLock = new ReentrantLock();
-	private final ReentrantLock builderLock = new ReentrantLock();
+	private DocumentBuilderFactory domFactory;
+	private volatile ThreadLocal<XmlParseContext> parseContext;
 
 	/**
 	 * Property indicating that parser shall be namespace aware.
 	 */
 	protected boolean namespaceAware = true;
 
+	/**
+	 * Property indicating that parser shall resolve fields values in streaming manner, without building XML DOM.
+	 */
+	protected boolean streamingParse = false;
+
+	private StreamingXPathMatcher streamingMatcher;
+
 	/**
 	 * Constructs a new activity XML string parser.
 	 */
@@ -122,19 +134,12 @@ public class ActivityXmlParser extends GenericActivityParser<Node> {
 	 *             if any errors configuring the parser
 	 */
 	protected synchronized void intXmlParser(Map<String, String> uNamespaces) throws ParserConfigurationException {
-		DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+		domFactory = DocumentBuilderFactory.newInstance();
 		domFactory.setNamespaceAware(namespaceAware);
 		domFactory.setValidating(false);
 
-		builder = domFactory.newDocumentBuilder();
-		builder.setEntityResolver(new EntityResolver() {
-			@Override
-			public InputSource resolveEntity(String publicId, String systemId) {
-				return new InputSource(new StringReader(""));
-			}
-		});
-
-		xPath = StreamsXMLUtils.getStreamsXPath();
+		XmlParseContext pCtx = new XmlParseContext(newDocumentBuilder());
+		XPath xPath = pCtx.xPath;
 
 		if (namespaces == null) {
 			if (xPath.getNamespaceContext() instanceof NamespaceMap) {
@@ -149,6 +154,112 @@ public class ActivityXmlParser extends GenericActivityParser<Node> {
 		namespaces.setPrefixUriMapping("xsi", XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI); // NON-NLS
 
 		namespaces.addPrefixUriMappings(uNamespaces);
+
+		parseContext = new ThreadLocal<>();
+		parseContext.set(pCtx);
+	}
+
+	private synchronized DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
+		DocumentBuilder builder = domFactory.newDocumentBuilder();
+		builder.setEntityResolver(new EntityResolver() {
+			@Override
+			public InputSource resolveEntity(String publicId, String systemId) {
+				return new InputSource(new StringReader(""));
+			}
+		});
+
+		return builder;
+	}
+
+	/**
+	 * Returns DOM document builder and XPath compiler context bound to current thread. If current thread has no
+	 * context yet, new one is created.
+	 *
+	 * @return current thread bound parsing context
+	 * @throws ParserConfigurationException
+	 *             if DOM document builder can't be created
+	 */
+	private XmlParseContext getParseContext() throws ParserConfigurationException {
+		ThreadLocal<XmlParseContext> ctxRef = parseContext;
+		XmlParseContext pCtx = ctxRef.get();
+		if (pCtx == null) {
+			pCtx = new XmlParseContext(newDocumentBuilder());
+			pCtx.xPath.setNamespaceContext(namespaces);
+			ctxRef.set(pCtx);
+		}
+
+		return pCtx;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Additionally compiles static (not having dynamic references) fields locators XPath expressions. Expressions
+	 * failing to compile at this point (e.g. using namespace prefixes defined only by parsed documents) are compiled
+	 * when first used.
+	 * <p>
+	 * When streaming parse is enabled, builds streaming matcher of fields locators.
+	 */
+	@Override
+	public void organizeFields() {
+		super.organizeFields();
+
+		if (streamingParse) {
+			streamingMatcher = buildStreamingMatcher();
+		}
+
+		XmlParseContext pCtx;
+		try {
+			pCtx = getParseContext();
+		} catch (ParserConfigurationException exc) {
+			throw new RuntimeException(exc);
+		}
+
+		for (ActivityField aField : fieldList) {
+			List<ActivityFieldLocator> locators = aField.getLocators();
+			if (locators == null) {
+				continue;
+			}
+			for (ActivityFieldLocator loc : locators) {
+				String locStr = loc.getLocator();
+				if (isDataLocator(loc) && !ActivityField.isDynamicAttr(locStr)) {
+					try {
+						pCtx.getXPathExpr(locStr);
+					} catch (XPathExpressionException exc) {
+						logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+								"ActivityXmlParser.xPath.precompile.failed", aField.getFieldTypeName(), locStr,
+								Utils.getExceptionMessages(exc));
+					}
+				}
+			}
+		}
+	}
+
+	private StreamingXPathMatcher buildStreamingMatcher() {
+		StreamingXPathMatcher matcher = new StreamingXPathMatcher(namespaceAware, namespaces);
+		for (ActivityField aField : fieldList) {
+			List<ActivityFieldLocator> locators = aField.getLocators();
+			if (locators == null) {
+				continue;
+			}
+			for (ActivityFieldLocator loc : locators) {
+				String locStr = loc.getLocator();
+				boolean supported = true;
+				if (LOC_FOR_COMPLETE_ACTIVITY_DATA.equals(locStr) || ActivityField.isDynamicAttr(locStr)) {
+					supported = false;
+				} else if (isDataLocator(loc)) {
+					supported = matcher.addPath(locStr);
+				}
+
+				if (!supported) {
+					logger().log(OpLevel.WARNING, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+							"ActivityXmlParser.streaming.unsupported", getName(), aField.getFieldTypeName(), locStr);
+					return null;
+				}
+			}
+		}
+
+		return matcher;
 	}
 
 	@Override
@@ -183,6 +294,12 @@ public class ActivityXmlParser extends GenericActivityParser<Node> {
 						logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
 								"ActivityParser.setting", name, value);
 					}
+				} else if (ParserProperties.PROP_STREAMING_PARSE.equalsIgnoreCase(name)) {
+					if (StringUtils.isNotEmpty(value)) {
+						streamingParse = Utils.toBoolean(value);
+						logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+								"ActivityParser.setting", name, value);
+					}
 				}
 			}
 		}
@@ -199,6 +316,9 @@ public class ActivityXmlParser extends GenericActivityParser<Node> {
 		if (ParserProperties.PROP_NAMESPACE_AWARE.equalsIgnoreCase(name)) {
 			return namespaceAware;
 		}
+		if (ParserProperties.PROP_STREAMING_PARSE.equalsIgnoreCase(name)) {
+			return streamingParse;
+		}
 
 		return super.getProperty(name);
 	}
@@ -233,6 +353,10 @@ public class ActivityXmlParser extends GenericActivityParser<Node> {
 
 	@Override
 	protected ActivityContext prepareItem(TNTInputStream<?, ?> stream, Object data) throws ParseException {
+		if (streamingMatcher != null && !(data instanceof Node)) {
+			return prepareStreamedItem(stream, data);
+		}
+
 		Node xmlDoc;
 		String xmlString = null;
 		try {
@@ -282,6 +406,47 @@ public class ActivityXmlParser extends GenericActivityParser<Node> {
 		return cData;
 	}
 
+	/**
+	 * Resolves all fields locators values in single streaming pass over XML data and puts them into activity data
+	 * context.
+	 *
+	 * @param stream
+	 *            stream providing activity data
+	 * @param data
+	 *            raw activity data to prepare
+	 * @return activity data context package, or {@code null} if there is no XML data
+	 * @throws ParseException
+	 *             if XML data can't be read
+	 */
+	protected ActivityContext prepareStreamedItem(TNTInputStream<?, ?> stream, Object data) throws ParseException {
+		String xmlString = getNextActivityString(data);
+		if (StringUtils.isEmpty(xmlString)) {
+			return null;
+		}
+
+		Map<String, List<StreamingXPathMatcher.MatchedValue>> values;
+		try {
+			values = streamingMatcher.match(new StringReader(xmlString));
+		} catch (Exception e) {
+			ParseException pe = new ParseException(StreamsResources.getString(StreamsResources.RESOURCE_BUNDLE_NAME,
+					"ActivityXmlParser.xmlDocument.parse.error"), 0);
+			pe.initCause(e);
+
+			throw pe;
+		}
+
+		ActivityContext cData = new ActivityContext(stream, data);
+		cData.put(STREAMED_VALUES_KEY, values);
+		cData.setMessage(xmlString);
+
+		return cData;
+	}
+
+	@Override
+	protected boolean hasPreparedData(ActivityContext cData) {
+		return super.hasPreparedData(cData) || cData.containsKey(STREAMED_VALUES_KEY);
+	}
+
 	@Override
 	protected void parseFields(ActivityContext cData) throws Exception {
 		String[] savedFormats = null;
@@ -355,18 +520,28 @@ public class ActivityXmlParser extends GenericActivityParser<Node> {
 			AtomicBoolean formattingNeeded) throws ParseException {
 		Object val = null;
 		String locStr = locator.getLocator();
+		boolean dynamicLocator = ActivityField.isDynamicAttr(locStr);
 
-		if (ActivityField.isDynamicAttr(locStr)) {
+		if (dynamicLocator) {
 			ActivityInfo ai = cData.getActivity();
 			locStr = StreamsCache.fillInKeyPattern(locStr, ai, getName());
 		}
 
+		@SuppressWarnings("unchecked")
+		Map<String, List<StreamingXPathMatcher.MatchedValue>> streamedValues = (Map<String, List<StreamingXPathMatcher.MatchedValue>>) cData
+				.get(STREAMED_VALUES_KEY);
+		if (streamedValues != null) {
+			return StringUtils.isEmpty(locStr) ? null
+					: getStreamedValue(locator, streamedValues.get(locStr), formattingNeeded);
+		}
+
 		if (StringUtils.isNotEmpty(locStr)) {
 			Object rawData = cData.getRawData();
 			Node xmlDoc = rawData instanceof Node ? ((Node) rawData).getOwnerDocument() : null;
 			Node nodeDocument = cData.getData();
 			try {
-				XPathExpression expr = getXPathExpr(locStr);
+				XmlParseContext pCtx = getParseContext();
+				XPathExpression expr = dynamicLocator ? pCtx.xPath.compile(locStr) : pCtx.getXPathExpr(locStr);
 
 				if (nodeDocument != null) { // try expression relative to node
 					val = resolveValueOverXPath(nodeDocument, expr);
@@ -385,7 +560,7 @@ public class ActivityXmlParser extends GenericActivityParser<Node> {
 						}
 					}
 				}
-			} catch (XPathExpressionException exc) {
+			} catch (XPathExpressionException | ParserConfigurationException exc) {
 				ParseException pe = new ParseException(StreamsResources.getString(StreamsResources.RESOURCE_BUNDLE_NAME,
 						"ActivityXMLParser.xPath.exception"), 0);
 				pe.initCause(exc);
@@ -395,22 +570,8 @@ public class ActivityXmlParser extends GenericActivityParser<Node> {
 		return val;
 	}
 
-	private Node parseXmlDoc(InputStream ins) throws SAXException, IOException {
-		builderLock.lock();
-		try {
-			return builder.parse(ins);
-		} finally {
-			builderLock.unlock();
-		}
-	}
-
-	private XPathExpression getXPathExpr(String locStr) throws XPathExpressionException {
-		xPathLock.lock();
-		try {
-			return xPath.compile(locStr);
-		} finally {
-			xPathLock.unlock();
-		}
+	private Node parseXmlDoc(InputStream ins) throws SAXException, IOException, ParserConfigurationException {
+		return getParseContext().builder.parse(ins);
 	}
 
 	/**
@@ -525,6 +686,79 @@ public class ActivityXmlParser extends GenericActivityParser<Node> {
 		return strValue.trim();
 	}
 
+	private static Object getStreamedValue(ActivityFieldLocator locator,
+			List<StreamingXPathMatcher.MatchedValue> mValues, AtomicBoolean formattingNeeded) throws ParseException {
+		if (CollectionUtils.isEmpty(mValues)) {
+			return null;
+		}
+
+		List<Object> valuesList = new ArrayList<>(mValues.size());
+		for (StreamingXPathMatcher.MatchedValue mv : mValues) {
+			if (mv.getText() != null) {
+				valuesList.add(getTextContent(locator, mv.getText(), mv.getAttributes(), formattingNeeded));
+			}
+		}
+
+		return Utils.simplifyValue(valuesList);
+	}
+
+	/**
+	 * Formats streamed XML textual data using provided locator and XML attributes of element containing that data.
+	 *
+	 * @param locator
+	 *            locator instance to alter using XML attributes contained data type, format and units used to format
+	 *            resolved value
+	 * @param strValue
+	 *            textual data to format
+	 * @param attrs
+	 *            attributes of element containing textual data
+	 * @param formattingNeeded
+	 *            flag to set if value formatting is not needed
+	 * @return resolved textual value formatted based on the locator's formatting properties
+	 * @throws ParseException
+	 *             if exception occurs applying locator format properties to specified value
+	 */
+	protected static Object getTextContent(ActivityFieldLocator locator, String strValue, Map<String, String> attrs,
+			AtomicBoolean formattingNeeded) throws ParseException {
+		if (attrs != null && !attrs.isEmpty()) {
+			ActivityFieldLocator locCopy = locator.clone();
+
+			String attrVal = getFormattingAttr(attrs, DATA_TYPE_ATTR);
+			if (StringUtils.isNotEmpty(attrVal)) {
+				locCopy.setDataType(ActivityFieldDataType.valueOf(attrVal));
+			}
+
+			attrVal = getFormattingAttr(attrs, FORMAT_ATTR);
+			if (StringUtils.isNotEmpty(attrVal)) {
+				String attrLVal = attrs.get(LOCALE_ATTR);
+
+				locCopy.setFormat(attrVal, StringUtils.isEmpty(attrLVal) ? locator.getLocale() : attrLVal);
+			}
+
+			attrVal = getFormattingAttr(attrs, UNITS_ATTR);
+			if (StringUtils.isNotEmpty(attrVal)) {
+				locCopy.setUnits(attrVal);
+			}
+
+			Object fValue = locCopy.formatValue(strValue.trim());
+			formattingNeeded.set(false);
+
+			return fValue;
+		}
+
+		return strValue.trim();
+	}
+
+	private static String getFormattingAttr(Map<String, String> attrs, String attrName) {
+		for (Map.Entry<String, String> attr : attrs.entrySet()) {
+			if (attr.getKey().equalsIgnoreCase(attrName)) {
+				return attr.getValue();
+			}
+		}
+
+		return null;
+	}
+
 	private static Node getFormattingAttr(NamedNodeMap attrsMap, String attrName) {
 		if (attrsMap != null) {
 			int attrsCount = attrsMap.getLength();
@@ -594,4 +828,28 @@ public class ActivityXmlParser extends GenericActivityParser<Node> {
 	protected String getActivityDataType() {
 		return "XML"; // NON-NLS
 	}
+
+	/**
+	 * Thread bound XML parsing context: DOM document builder, XPath compiler and compiled XPath expressions cache.
+	 */
+	private static class XmlParseContext {
+		private final DocumentBuilder builder;
+		private final XPath xPath;
+		private final Map<String, XPathExpression> expressions = new HashMap<>();
+
+		private XmlParseContext(DocumentBuilder builder) {
+			this.builder = builder;
+			this.xPath = StreamsXMLUtils.getStreamsXPath();
+		}
+
+		private XPathExpression getXPathExpr(String locStr) throws XPathExpressionException {
+			XPathExpression expr = expressions.get(locStr);
+			if (expr == null) {
+				expr = xPath.compile(locStr);
+				expressions.put(locStr, expr);
+			}
+
+			return expr;
+		}
+	}
 }
@@ -57,7 +57,7 @@ import com.jkoolcloud.tnt4j.streams.utils.*;
  *
  * @param <T>
  *            the type of handled activity data
- * @version $Revision: 2 $
+ * @version $Revision: 6 $
  */
 public abstract class GenericActivityParser<T> extends ActivityParser {
 
@@ -327,6 +327,29 @@ public abstract class GenericActivityParser<T> extends ActivityParser {
 		}
 	}
 
+	/**
+	 * Checks whether provided locator value is resolved by parser from prepared RAW activity data, meaning it is not
+	 * complete activity data placeholder or value taken from stream properties, cache or parsed activity entity.
+	 *
+	 * @param loc
+	 *            activity field locator
+	 * @return {@code true} if locator value is resolved from prepared activity data, {@code false} - otherwise
+	 *
+	 * @see #resolveLocatorValue(com.jkoolcloud.tnt4j.streams.fields.ActivityFieldLocator,
+	 *      com.jkoolcloud.tnt4j.streams.parsers.GenericActivityParser.ActivityContext,
+	 *      java.util.concurrent.atomic.AtomicBoolean)
+	 */
+	protected static boolean isDataLocator(ActivityFieldLocator loc) {
+		String locStr = loc.getLocator();
+		if (StringUtils.isEmpty(locStr) || LOC_FOR_COMPLETE_ACTIVITY_DATA.equals(locStr)) {
+			return false;
+		}
+
+		ActivityFieldLocatorType lType = loc.getBuiltInType();
+		return lType != ActivityFieldLocatorType.StreamProp && lType != ActivityFieldLocatorType.Cache
+				&& lType != ActivityFieldLocatorType.Activity;
+	}
+
 	/**
 	 * Organizes fields by references for {@code fields} list provided parser fields. Organizing is performed in two
 	 * steps:
@@ -535,7 +558,7 @@ public abstract class GenericActivityParser<T> extends ActivityParser {
 		} else if (data instanceof byte[]) {
 			return Utils.getString((byte[]) data);
 		} else if (data instanceof ByteBuffer) {
-			return Utils.getString(((ByteBuffer) data).array());// Utils.getStringLine(data);
+			return Utils.getString((ByteBuffer) data, null);
 		}
 		BufferedReader rdr;
 		if (data instanceof BufferedReader) {
@@ -600,13 +623,18 @@ public abstract class GenericActivityParser<T> extends ActivityParser {
 			return null;
 		}
 
-		logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-				"ActivityParser.activity.raw.data", getLogString(data));
+		boolean debugLog = logger().isSet(OpLevel.DEBUG);
+		if (debugLog) {
+			logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+					"ActivityParser.activity.raw.data", getLogString(data));
+		}
 
 		data = preParse(stream, data);
 
-		logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-				"ActivityParser.preparsed.data", getLogString(data));
+		if (debugLog) {
+			logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+					"ActivityParser.preparsed.data", getLogString(data));
+		}
 
 		ActivityContext cData = prepareItem(stream, data);
 		if (pai != null) {
@@ -619,7 +647,7 @@ public abstract class GenericActivityParser<T> extends ActivityParser {
 			return null;
 		}
 
-		if (logger().isSet(OpLevel.DEBUG)) {
+		if (debugLog) {
 			logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
 					"ActivityParser.parsing.data", getLogString(getDataAsMessage(cData)));
 		}
@@ -725,6 +753,17 @@ public abstract class GenericActivityParser<T> extends ActivityParser {
 		}
 	}
 
+	/**
+	 * Checks whether provided activity data context contains prepared activity data to be parsed.
+	 *
+	 * @param cData
+	 *            prepared activity data item context
+	 * @return {@code true} if context has prepared activity data, {@code false} - otherwise
+	 */
+	protected boolean hasPreparedData(ActivityContext cData) {
+		return cData.getData() != null;
+	}
+
 	/**
 	 * Parse the specified prepared activity data, converting each field in prepared data to its corresponding value of
 	 * activity info item.
@@ -738,7 +777,7 @@ public abstract class GenericActivityParser<T> extends ActivityParser {
 	 * @see #parseFields(com.jkoolcloud.tnt4j.streams.parsers.GenericActivityParser.ActivityContext)
 	 */
 	protected ActivityInfo parsePreparedItem(ActivityContext cData) throws ParseException {
-		if (cData == null || cData.getData() == null) {
+		if (cData == null || !hasPreparedData(cData)) {
 			return null;
 		}
 
@@ -839,8 +878,10 @@ public abstract class GenericActivityParser<T> extends ActivityParser {
 	 * @see #applyFieldValue(TNTInputStream, ActivityInfo, ActivityField, Object)
 	 */
 	protected void applyFieldValue(ActivityField field, Object value, ActivityContext cData) throws ParseException {
-		logger().log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-				"ActivityParser.applying.field", getName(), field, Utils.toString(value));
+		if (logger().isSet(OpLevel.TRACE)) {
+			logger().log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+					"ActivityParser.applying.field", getName(), field, Utils.toString(value));
+		}
 
 		if (field.isDynamic() || (field.isSplitCollection() && Utils.isCollection(value))) {
 			applyDynamicValue(cData, field, value);
@@ -1071,12 +1112,16 @@ public abstract class GenericActivityParser<T> extends ActivityParser {
 				}
 
 				// logger().log(val == null && !locator.isOptional() ? OpLevel.WARNING : OpLevel.TRACE,
-				logger().log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-						"ActivityParser.locator.resolved", cData.getField(), locStr, toString(val));
+				if (logger().isSet(OpLevel.TRACE)) {
+					logger().log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+							"ActivityParser.locator.resolved", cData.getField(), locStr, toString(val));
+				}
 
 				if (val != null && locator.isEmptyAsNull() && Utils.isEmptyContent(val, true)) {
-					logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-							"ActivityParser.locator.empty.as.null", locStr, toString(val));
+					if (logger().isSet(OpLevel.DEBUG)) {
+						logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+								"ActivityParser.locator.empty.as.null", locStr, toString(val));
+					}
 					val = null;
 				}
 			}
@@ -1206,8 +1251,10 @@ public abstract class GenericActivityParser<T> extends ActivityParser {
 		try {
 			boolean filteredOut = activityFilter.doFilter(null, ai);
 			ai.setFiltered(filteredOut);
-			logger().log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-					"ActivityParser.filtering.result", getName(), activityFilter.getName(), filteredOut);
+			if (logger().isSet(OpLevel.TRACE)) {
+				logger().log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+						"ActivityParser.filtering.result", getName(), activityFilter.getName(), filteredOut);
+			}
 		} finally {
 			filterLock.unlock();
 		}
@@ -1240,8 +1287,11 @@ public abstract class GenericActivityParser<T> extends ActivityParser {
 	 */
 	protected Object preParseActivityData(Object data) throws Exception {
 		if (CollectionUtils.isNotEmpty(preParsers)) {
-			logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-					"ActivityParser.data.before.pre.parsing", getLogString(data));
+			boolean debugLog = logger().isSet(OpLevel.DEBUG);
+			if (debugLog) {
+				logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+						"ActivityParser.data.before.pre.parsing", getLogString(data));
+			}
 
 			preParserLock.lock();
 			try {
@@ -1253,12 +1303,18 @@ public abstract class GenericActivityParser<T> extends ActivityParser {
 					boolean validData = preParser.isDataClassSupported(data);
 					boolean logicalValid = isLogicalTypeSupported(preParser.dataTypeReturned());
 					if (validData && logicalValid) {
-						logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-								"ActivityParser.pre.parsing.data", Utils.getName(preParser));
+						if (debugLog) {
+							logger().log(OpLevel.DEBUG,
+									StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+									"ActivityParser.pre.parsing.data", Utils.getName(preParser));
+						}
 						data = preParser.preParse(data);
-						logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
-								"ActivityParser.data.after.pre.parsing", getLogString(data));
-					} else {
+						if (debugLog) {
+							logger().log(OpLevel.DEBUG,
+									StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+									"ActivityParser.data.after.pre.parsing", getLogString(data));
+						}
+					} else if (debugLog) {
 						logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
 								"ActivityParser.pre.parsing.invalid", Utils.getName(preParser), validData, logicalValid,
 								getLogString(data));
@@ -42,6 +42,7 @@ import com.jkoolcloud.tnt4j.core.OpLevel;
 import com.jkoolcloud.tnt4j.sink.DefaultEventSinkFactory;
 import com.jkoolcloud.tnt4j.sink.EventSink;
 import com.jkoolcloud.tnt4j.streams.fields.ActivityFieldFormatType;
+import com.jkoolcloud.tnt4j.streams.utils.ByteBufferInputStream;
 import com.jkoolcloud.tnt4j.streams.utils.StreamsResources;
 import com.jkoolcloud.tnt4j.streams.utils.Utils;
 
@@ -56,7 +57,7 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * If resolved XML has multiple nodes in root level, to make XML valid those nodes gets surrounded by single root node
  * named {@value com.jkoolcloud.tnt4j.streams.preparsers.XMLFromBinDataPreParser.XMLBinSAXHandler#ROOT_ELEMENT}.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 3 $
  */
 public class XMLFromBinDataPreParser extends AbstractPreParser<Object, Document> {
 	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(XMLFromBinDataPreParser.class);
@@ -99,6 +100,26 @@ public class XMLFromBinDataPreParser extends AbstractPreParser<Object, Document>
 			throw new ParseException(StreamsResources.getString(StreamsResources.RESOURCE_BUNDLE_NAME,
 					"XMLFromBinDataPreParser.doc.init.failure"), 0);
 		}
+
+		parseBinData(data, format, documentHandler);
+
+		return documentHandler.getDOM();
+	}
+
+	/**
+	 * Parses RAW binary activity data using provided SAX handler.
+	 *
+	 * @param data
+	 *            RAW activity data
+	 * @param format
+	 *            RAW activity data format
+	 * @param documentHandler
+	 *            SAX handler to use for parsing
+	 * @throws ParseException
+	 *             if data type is not supported or data can't be read
+	 */
+	static void parseBinData(Object data, ActivityFieldFormatType format, XMLBinSAXHandler documentHandler)
+			throws ParseException {
 		InputStream is;
 		boolean closeWhenDone = false;
 		if (data instanceof String) {
@@ -120,7 +141,7 @@ public class XMLFromBinDataPreParser extends AbstractPreParser<Object, Document>
 			is = new ByteArrayInputStream((byte[]) data);
 			closeWhenDone = true;
 		} else if (data instanceof ByteBuffer) {
-			is = new ByteArrayInputStream(((ByteBuffer) data).array());
+			is = new ByteBufferInputStream((ByteBuffer) data);
 			closeWhenDone = true;
 		} else if (data instanceof Reader) {
 			Reader reader = (Reader) data;
@@ -154,8 +175,6 @@ public class XMLFromBinDataPreParser extends AbstractPreParser<Object, Document>
 				Utils.close(is);
 			}
 		}
-
-		return documentHandler.getDOM();
 	}
 
 	/**
@@ -212,7 +231,13 @@ public class XMLFromBinDataPreParser extends AbstractPreParser<Object, Document>
 		private Integer startSkip = null;
 		private Integer lastSkip = null;
 
-		private XMLBinSAXHandler() throws ParserConfigurationException {
+		/**
+		 * Constructs a new XMLBinSAXHandler.
+		 *
+		 * @throws ParserConfigurationException
+		 *             if initialization of SAX parser fails
+		 */
+		protected XMLBinSAXHandler() throws ParserConfigurationException {
 			try {
 				SAXParserFactory parserFactory = SAXParserFactory.newInstance();
 				parser = parserFactory.newSAXParser();
@@ -404,7 +429,10 @@ public class XMLFromBinDataPreParser extends AbstractPreParser<Object, Document>
 			markLastGoodPosition();
 		}
 
-		private void markLastGoodPosition() {
+		/**
+		 * Marks current SAX parser position as last known position of well-formed XML data.
+		 */
+		protected void markLastGoodPosition() {
 			if (lastSkip != null && startSkip != null) {
 				logSkipRange();
 			}
@@ -532,4 +560,139 @@ public class XMLFromBinDataPreParser extends AbstractPreParser<Object, Document>
 			}
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * SAX handler implementation allowing to make XML string from provided binary data containing fragments of XML.
+	 * It uses same RAW data recovery logic as {@link XMLBinSAXHandler}, but writes XML markup directly into string
+	 * instead of building XML DOM document.
+	 */
+	protected static class XMLBinStringSAXHandler extends XMLBinSAXHandler {
+		private static final String ROOT_MARKER = "#root"; // NON-NLS
+
+		private final StringBuilder xml = new StringBuilder(1024);
+		private final Stack<String> elementsStk = new Stack<>();
+		private int rootNodesCount = 0;
+
+		private XMLBinStringSAXHandler() throws ParserConfigurationException {
+			super();
+			elementsStk.push(ROOT_MARKER);
+		}
+
+		/**
+		 * Init new XML string from bin data pre parser SAX handler.
+		 *
+		 * @return the XML string from bin data pre parser SAX handler
+		 */
+		public static XMLBinStringSAXHandler initNewString() {
+			try {
+				return new XMLBinStringSAXHandler();
+			} catch (ParserConfigurationException e) {
+				return null;
+				// can't initialize
+			}
+		}
+
+		/**
+		 * Returns XML string made from binary data. Elements left unclosed by truncated data are closed and multiple
+		 * root level nodes are surrounded by single root node named {@value #ROOT_ELEMENT}.
+		 *
+		 * @return XML string made from binary data
+		 */
+		public String getXML() {
+			StringBuilder xmlStr = new StringBuilder(xml);
+			for (int i = elementsStk.size() - 1; i >= 0; i--) {
+				String qName = elementsStk.get(i);
+				if (!ROOT_MARKER.equals(qName)) {
+					xmlStr.append("</").append(qName).append('>'); // NON-NLS
+				}
+			}
+
+			if (rootNodesCount != 1) {
+				xmlStr.insert(0, '<' + ROOT_ELEMENT + '>').append("</").append(ROOT_ELEMENT).append('>'); // NON-NLS
+			}
+
+			return xmlStr.toString();
+		}
+
+		private boolean appendNode() {
+			if (elementsStk.isEmpty()) {
+				return false;
+			}
+
+			if (ROOT_MARKER.equals(elementsStk.peek())) {
+				rootNodesCount++;
+			}
+
+			return true;
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			if (appendNode()) {
+				// escaped twice to get same text value as XML DOM document text node has
+				String text = new String(ch, start, length);
+				xml.append(StringEscapeUtils.escapeXml10(StringEscapeUtils.escapeXml10(text)));
+			}
+		}
+
+		@Override
+		public void endDocument() {
+			popElement();
+		}
+
+		@Override
+		public void startElement(String namespace, String localName, String qName, Attributes attrs) {
+			boolean append = appendNode();
+			if (append) {
+				xml.append('<').append(qName);
+				int attrsCount = attrs.getLength();
+				for (int i = 0; i < attrsCount; i++) {
+					xml.append(' ').append(attrs.getQName(i)).append("=\""); // NON-NLS
+					xml.append(StringEscapeUtils.escapeXml10(attrs.getValue(i))).append('"');
+				}
+				xml.append('>');
+			}
+
+			markLastGoodPosition();
+
+			LOGGER.log(OpLevel.TRACE, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+					"XMLFromBinDataPreParser.found.element", qName);
+			if (append) {
+				elementsStk.push(qName);
+			}
+		}
+
+		@Override
+		public void endElement(String namespace, String localName, String qName) {
+			popElement();
+			markLastGoodPosition();
+		}
+
+		private void popElement() {
+			if (!elementsStk.isEmpty()) {
+				String qName = elementsStk.pop();
+				if (!ROOT_MARKER.equals(qName)) {
+					xml.append("</").append(qName).append('>'); // NON-NLS
+				}
+			}
+		}
+
+		@Override
+		public void processingInstruction(String target, String data) {
+			if (appendNode()) {
+				xml.append("<?").append(target); // NON-NLS
+				if (data != null && !data.isEmpty()) {
+					xml.append(' ').append(data);
+				}
+				xml.append("?>"); // NON-NLS
+			}
+		}
+
+		@Override
+		public void comment(char[] ch, int start, int length) {
+			if (appendNode()) {
+				xml.append("<!--").append(ch, start, length).append("-->"); // NON-NLS
+			}
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.preparsers;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.text.ParseException;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import com.jkoolcloud.tnt4j.streams.fields.ActivityFieldFormatType;
+import com.jkoolcloud.tnt4j.streams.utils.StreamsResources;
+
+/**
+ * Pre-parser to convert RAW binary activity data to valid XML string parseable by actual activity XML parser. It
+ * performs same RAW data recovery as {@link XMLFromBinDataPreParser}, but does not build XML DOM document: recovered
+ * XML markup is written directly to string. It is intended to be used with
+ * {@link com.jkoolcloud.tnt4j.streams.parsers.ActivityXmlParser} running in streaming parse mode, to handle large
+ * activity data packages without materializing them as XML DOM.
+ *
+ * @version $Revision: 1 $
+ *
+ * @see XMLFromBinDataPreParser
+ */
+public class XMLStringFromBinDataPreParser extends AbstractPreParser<Object, String> {
+
+	private ActivityFieldFormatType format;
+
+	/**
+	 * Constructs a new XMLStringFromBinDataPreParser.
+	 *
+	 * @throws ParserConfigurationException
+	 *             if initialization of SAX parser fails
+	 */
+	public XMLStringFromBinDataPreParser() throws ParserConfigurationException {
+		this(ActivityFieldFormatType.bytes);
+	}
+
+	/**
+	 * Constructs a new XMLStringFromBinDataPreParser.
+	 *
+	 * @param format
+	 *            RAW activity data format
+	 *
+	 * @throws ParserConfigurationException
+	 *             if initialization of SAX parser fails
+	 */
+	public XMLStringFromBinDataPreParser(ActivityFieldFormatType format) throws ParserConfigurationException {
+		this.format = format;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Parsing input stream to prepare XML string. The method checks for acceptable input source and rethrows
+	 * {@link ParseException} if something fails.
+	 */
+	@Override
+	public String preParse(Object data) throws ParseException {
+		XMLFromBinDataPreParser.XMLBinStringSAXHandler stringHandler = XMLFromBinDataPreParser.XMLBinStringSAXHandler
+				.initNewString();
+		if (stringHandler == null) {
+			throw new ParseException(StreamsResources.getString(StreamsResources.RESOURCE_BUNDLE_NAME,
+					"XMLFromBinDataPreParser.doc.init.failure"), 0);
+		}
+
+		XMLFromBinDataPreParser.parseBinData(data, format, stringHandler);
+
+		return stringHandler.getXML();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * This pre-parser supports the following class types (and all classes extending/implementing any of these):
+	 * <ul>
+	 * <li>{@link java.lang.String}</li>
+	 * <li>{@link java.io.InputStream}</li>
+	 * <li>{@link java.io.Reader}</li>
+	 * <li>{@code byte[]}</li>
+	 * <li>{@link java.nio.ByteBuffer}</li>
+	 * </ul>
+	 */
+	@Override
+	public boolean isDataClassSupported(Object data) {
+		return String.class.isInstance(data) || InputStream.class.isInstance(data) || Reader.class.isInstance(data)
+				|| byte[].class.isInstance(data) || ByteBuffer.class.isInstance(data);
+	}
+
+	@Override
+	public String dataTypeReturned() {
+		return "XML"; // NON-NLS
+	}
+}
@@ -38,11 +38,12 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * @param <V>
  *            the type of transformed data value
  *
- * @version $Revision: 2 $
+ * @version $Revision: 4 $
  *
  * @see JavaScriptTransformation
  * @see GroovyTransformation
  * @see XPathTransformation
+ * @see NativeTransformation
  */
 public abstract class AbstractScriptTransformation<V> extends AbstractValueTransformation<V, Object> {
 
@@ -131,8 +132,9 @@ public abstract class AbstractScriptTransformation<V> extends AbstractValueTrans
 	 * @param lang
 	 *            scripting/expression language:
 	 *            {@value com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils#GROOVY_LANG},
-	 *            {@value com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils#JAVA_SCRIPT_LANG} ('js', 'jscript')
-	 *            or {@value com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils#XPATH_SCRIPT_LANG}
+	 *            {@value com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils#JAVA_SCRIPT_LANG} ('js', 'jscript'),
+	 *            {@value com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils#XPATH_SCRIPT_LANG} or
+	 *            {@value com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils#NATIVE_LANG}
 	 * @param code
 	 *            transformation script code
 	 * @param phaseName
@@ -168,6 +170,8 @@ public abstract class AbstractScriptTransformation<V> extends AbstractValueTrans
 			return new JavaScriptTransformation(name, code, phase);
 		} else if (StreamsScriptingUtils.XPATH_SCRIPT_LANG.equalsIgnoreCase(lang)) {
 			return new XPathTransformation(name, code, phase);
+		} else if (StreamsScriptingUtils.NATIVE_LANG.equalsIgnoreCase(lang)) {
+			return new NativeTransformation(name, code, phase);
 		}
 
 		throw new IllegalArgumentException(StreamsResources.getStringFormatted(StreamsResources.RESOURCE_BUNDLE_NAME,
@@ -205,6 +209,27 @@ public abstract class AbstractScriptTransformation<V> extends AbstractValueTrans
 		return exprVars;
 	}
 
+	/**
+	 * Puts field value and expression variables referenced activity entity fields values into script variables map.
+	 *
+	 * @param vars
+	 *            script variables map to fill
+	 * @param value
+	 *            field value to put as {@code $fieldValue} variable
+	 * @param activityInfo
+	 *            activity entity instance to resolve fields values, can be {@code null}
+	 */
+	protected void fillVariables(Map<String, Object> vars, Object value, ActivityInfo activityInfo) {
+		vars.put(StreamsScriptingUtils.FIELD_VALUE_VARIABLE_EXPR, value);
+
+		if (activityInfo != null && CollectionUtils.isNotEmpty(exprVars)) {
+			for (String eVar : exprVars) {
+				String varPlh = placeHoldersMap.get(eVar);
+				vars.put(StringUtils.isEmpty(varPlh) ? eVar : varPlh, activityInfo.getFieldValue(eVar));
+			}
+		}
+	}
+
 	/**
 	 * Resolved activity entity field value for a expression variable defined field name.
 	 *
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.transform;
+
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.jkoolcloud.tnt4j.core.OpLevel;
+import com.jkoolcloud.tnt4j.sink.DefaultEventSinkFactory;
+import com.jkoolcloud.tnt4j.sink.EventSink;
+import com.jkoolcloud.tnt4j.streams.fields.ActivityInfo;
+import com.jkoolcloud.tnt4j.streams.utils.NativeExpression;
+import com.jkoolcloud.tnt4j.streams.utils.StreamsResources;
+import com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils;
+
+/**
+ * Data value transformation based on TNT4J-Streams native expression language expressions. Expression is compiled
+ * once, and evaluated without any scripting engine.
+ *
+ * @version $Revision: 1 $
+ *
+ * @see com.jkoolcloud.tnt4j.streams.utils.NativeExpression
+ */
+public class NativeTransformation extends AbstractScriptTransformation<Object> {
+	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(NativeTransformation.class);
+
+	private NativeExpression expression;
+
+	/**
+	 * Constructs a new NativeTransformation.
+	 *
+	 * @param name
+	 *            transformation name
+	 * @param scriptCode
+	 *            transformation expression code
+	 */
+	public NativeTransformation(String name, String scriptCode) {
+		super(name, scriptCode);
+	}
+
+	/**
+	 * Constructs a new NativeTransformation.
+	 *
+	 * @param name
+	 *            transformation name
+	 * @param scriptCode
+	 *            transformation expression code
+	 * @param phase
+	 *            activity data value resolution phase
+	 */
+	public NativeTransformation(String name, String scriptCode, Phase phase) {
+		super(name, scriptCode, phase);
+	}
+
+	@Override
+	protected EventSink getLogger() {
+		return LOGGER;
+	}
+
+	@Override
+	protected String getHandledLanguage() {
+		return StreamsScriptingUtils.NATIVE_LANG;
+	}
+
+	@Override
+	protected void initTransformation() {
+		super.initTransformation();
+
+		try {
+			expression = NativeExpression.compile(getScriptCode());
+		} catch (ParseException exc) {
+			throw new IllegalArgumentException(
+					StreamsResources.getStringFormatted(StreamsResources.RESOURCE_BUNDLE_NAME,
+							"ScriptTransformation.invalid.script", getName(), getScriptCode()),
+					exc);
+		}
+	}
+
+	@Override
+	public Object transform(Object value, ActivityInfo ai) throws TransformationException {
+		try {
+			Object tValue = expression.evaluate(value, ai);
+
+			if (getLogger().isSet(OpLevel.TRACE)) {
+				Map<String, Object> vars = new HashMap<>();
+				fillVariables(vars, value, ai);
+				logEvaluationResult(vars, tValue);
+			}
+
+			return tValue;
+		} catch (Exception exc) {
+			throw new TransformationException(StreamsResources.getStringFormatted(StreamsResources.RESOURCE_BUNDLE_NAME,
+					"ValueTransformation.transformation.failed", getName(), getPhase()), exc);
+		}
+	}
+}
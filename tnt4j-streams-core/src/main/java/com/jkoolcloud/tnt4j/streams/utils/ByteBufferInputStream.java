@@ -0,0 +1,95 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.utils;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Input stream reading bytes directly from {@link ByteBuffer} without copying them into intermediate array. Stream
+ * reads remaining (between position and limit) buffer bytes, using own duplicate of buffer, so position of provided
+ * buffer is left unchanged. Both heap and direct buffers are supported.
+ * <p>
+ * This stream supports {@link #mark(int)} and {@link #reset()}.
+ *
+ * @version $Revision: 1 $
+ */
+public class ByteBufferInputStream extends InputStream {
+	private final ByteBuffer buffer;
+	private int mark;
+
+	/**
+	 * Constructs a new ByteBufferInputStream.
+	 *
+	 * @param buffer
+	 *            byte buffer to read bytes from
+	 */
+	public ByteBufferInputStream(ByteBuffer buffer) {
+		this.buffer = buffer.duplicate();
+		this.mark = this.buffer.position();
+	}
+
+	@Override
+	public int read() {
+		return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) {
+		if (len == 0) {
+			return 0;
+		}
+		if (!buffer.hasRemaining()) {
+			return -1;
+		}
+
+		int rLen = Math.min(len, buffer.remaining());
+		buffer.get(b, off, rLen);
+		return rLen;
+	}
+
+	@Override
+	public long skip(long n) {
+		if (n <= 0) {
+			return 0;
+		}
+
+		int sLen = (int) Math.min(n, buffer.remaining());
+		buffer.position(buffer.position() + sLen);
+		return sLen;
+	}
+
+	@Override
+	public int available() {
+		return buffer.remaining();
+	}
+
+	@Override
+	public boolean markSupported() {
+		return true;
+	}
+
+	@Override
+	public synchronized void mark(int readLimit) {
+		mark = buffer.position();
+	}
+
+	@Override
+	public synchronized void reset() {
+		buffer.position(mark);
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.utils;
+
+import java.util.Map;
+
+import org.codehaus.groovy.runtime.InvokerHelper;
+
+import groovy.lang.Binding;
+import groovy.lang.Script;
+
+/**
+ * Groovy script code compiled into {@link groovy.lang.Script} class, which is executed directly bypassing JSR-223
+ * scripting engine layer. Every thread evaluating script gets own script instance bound to reusable
+ * {@link groovy.lang.Binding}, so no script instance or variables map is created on every evaluation.
+ * <p>
+ * Typical evaluation sequence is:
+ *
+ * <pre>
+ * Map&lt;String, Object&gt; vars = script.getVariables();
+ * vars.put("$fieldValue", value);
+ * Object result = script.run();
+ * </pre>
+ *
+ * @version $Revision: 1 $
+ *
+ * @see com.jkoolcloud.tnt4j.streams.utils.StreamsScriptingUtils#compileGroovyScriptClass(String)
+ */
+public class CompiledGroovyScript {
+	private final Class<? extends Script> scriptClass;
+	private final ThreadLocal<Script> threadScript = new ThreadLocal<Script>() {
+		@Override
+		protected Script initialValue() {
+			return InvokerHelper.createScript(scriptClass, new Binding());
+		}
+	};
+
+	/**
+	 * Constructs a new CompiledGroovyScript.
+	 *
+	 * @param scriptClass
+	 *            compiled Groovy script class
+	 */
+	CompiledGroovyScript(Class<? extends Script> scriptClass) {
+		this.scriptClass = scriptClass;
+	}
+
+	/**
+	 * Returns cleared variables map of current thread script instance binding. Fill it with script variables values
+	 * before calling {@link #run()}.
+	 *
+	 * @return current thread script variables map
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String, Object> getVariables() {
+		Map<String, Object> vars = threadScript.get().getBinding().getVariables();
+		vars.clear();
+
+		return vars;
+	}
+
+	/**
+	 * Runs current thread script instance using variables values set into map returned by {@link #getVariables()}.
+	 *
+	 * @return script evaluation result
+	 */
+	public Object run() {
+		return threadScript.get().run();
+	}
+}
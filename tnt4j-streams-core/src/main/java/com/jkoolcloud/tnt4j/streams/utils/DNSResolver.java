@@ -0,0 +1,275 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.utils;
+
+import java.util.concurrent.*;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.jkoolcloud.tnt4j.core.OpLevel;
+import com.jkoolcloud.tnt4j.sink.DefaultEventSinkFactory;
+import com.jkoolcloud.tnt4j.sink.EventSink;
+import com.jkoolcloud.tnt4j.streams.inputs.TNTInputStream;
+
+/**
+ * Resolves host names and IP addresses over DNS asynchronously, caching resolution results. Lookups are performed by
+ * background threads, so caller thread waits for resolution result no longer than defined lookup timeout: if lookup
+ * does not complete in time, {@code null} is returned and lookup result gets cached for subsequent calls.
+ * <p>
+ * Resolved values are cached for defined TTL period. When cached value gets older than half of TTL, it is refreshed in
+ * background while still returning cached value. Unresolvable host names/IP addresses are cached separately for
+ * (commonly shorter) negative TTL period. Both caches are bounded by defined max size.
+ *
+ * @version $Revision: 1 $
+ */
+public class DNSResolver {
+	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(DNSResolver.class);
+
+	/**
+	 * Default max. capacity of resolved values cache.
+	 */
+	public static final long DEFAULT_CACHE_MAX_SIZE = 10000;
+	/**
+	 * Default resolved values cache entries TTL in seconds.
+	 */
+	public static final long DEFAULT_CACHE_TTL = TimeUnit.MINUTES.toSeconds(10);
+	/**
+	 * Default unresolved values cache entries TTL in seconds.
+	 */
+	public static final long DEFAULT_NEGATIVE_CACHE_TTL = TimeUnit.MINUTES.toSeconds(1);
+	/**
+	 * Default time in milliseconds to wait for lookup to complete.
+	 */
+	public static final long DEFAULT_LOOKUP_TIMEOUT = 100;
+
+	private static final int LOOKUP_THREADS = 2;
+	private static final int LOOKUP_QUEUE_SIZE = 1000;
+
+	private static final String NAME_KEY_PREFIX = "N:"; // NON-NLS
+	private static final String ADDRESS_KEY_PREFIX = "A:"; // NON-NLS
+
+	private static DNSResolver defaultResolver;
+
+	private final Cache<String, ResolvedValue> resolvedCache;
+	private final Cache<String, Boolean> unresolvedCache;
+	private final ConcurrentMap<String, Future<String>> pendingLookups = new ConcurrentHashMap<>();
+	private final ThreadPoolExecutor lookupExecutor;
+
+	private final long refreshAfterMillis;
+	private final long lookupTimeout;
+
+	/**
+	 * Constructs a new DNSResolver using default configuration values.
+	 */
+	public DNSResolver() {
+		this(DEFAULT_CACHE_MAX_SIZE, DEFAULT_CACHE_TTL, DEFAULT_NEGATIVE_CACHE_TTL, DEFAULT_LOOKUP_TIMEOUT);
+	}
+
+	/**
+	 * Constructs a new DNSResolver.
+	 *
+	 * @param maxSize
+	 *            max. capacity of resolved and unresolved values caches
+	 * @param ttl
+	 *            resolved values cache entries TTL in seconds
+	 * @param negativeTtl
+	 *            unresolved values cache entries TTL in seconds
+	 * @param lookupTimeout
+	 *            time in milliseconds to wait for lookup to complete, {@code 0} - do not wait
+	 */
+	public DNSResolver(long maxSize, long ttl, long negativeTtl, long lookupTimeout) {
+		this.resolvedCache = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl, TimeUnit.SECONDS)
+				.build();
+		this.unresolvedCache = CacheBuilder.newBuilder().maximumSize(maxSize)
+				.expireAfterWrite(negativeTtl, TimeUnit.SECONDS).build();
+		this.refreshAfterMillis = TimeUnit.SECONDS.toMillis(ttl) / 2;
+		this.lookupTimeout = lookupTimeout;
+
+		this.lookupExecutor = new ThreadPoolExecutor(LOOKUP_THREADS, LOOKUP_THREADS, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<Runnable>(LOOKUP_QUEUE_SIZE),
+				new TNTInputStream.StreamsThreadFactory("DNSResolverThread-")); // NON-NLS
+	}
+
+	/**
+	 * Returns default DNS resolver instance using default configuration values.
+	 *
+	 * @return default DNS resolver instance
+	 */
+	public static synchronized DNSResolver getDefault() {
+		if (defaultResolver == null) {
+			defaultResolver = new DNSResolver();
+		}
+
+		return defaultResolver;
+	}
+
+	/**
+	 * Resolves host name for provided IP address.
+	 *
+	 * @param ipAddress
+	 *            IP address to resolve host name
+	 * @return resolved host name, or {@code null} if IP address can't be resolved or lookup did not complete within
+	 *         lookup timeout
+	 */
+	public String getHostName(String ipAddress) {
+		return resolve(NAME_KEY_PREFIX, ipAddress);
+	}
+
+	/**
+	 * Resolves IP address for provided host name.
+	 *
+	 * @param hostName
+	 *            host name to resolve IP address
+	 * @return resolved IP address, or {@code null} if host name can't be resolved or lookup did not complete within
+	 *         lookup timeout
+	 */
+	public String getHostAddress(String hostName) {
+		return resolve(ADDRESS_KEY_PREFIX, hostName);
+	}
+
+	private String resolve(String keyPrefix, String value) {
+		if (StringUtils.isEmpty(value)) {
+			return null;
+		}
+
+		String key = keyPrefix + value;
+		ResolvedValue rValue = resolvedCache.getIfPresent(key);
+		if (rValue != null) {
+			if (System.currentTimeMillis() - rValue.resolveTime > refreshAfterMillis) {
+				submitLookup(key, keyPrefix, value);
+			}
+			return rValue.value;
+		}
+		if (unresolvedCache.getIfPresent(key) != null) {
+			return null;
+		}
+
+		Future<String> lookup = submitLookup(key, keyPrefix, value);
+		if (lookup == null || lookupTimeout <= 0) {
+			return null;
+		}
+
+		try {
+			return lookup.get(lookupTimeout, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException exc) {
+			return null;
+		} catch (InterruptedException exc) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException exc) {
+			return null;
+		}
+	}
+
+	private Future<String> submitLookup(final String key, final String keyPrefix, final String value) {
+		Future<String> pending = pendingLookups.get(key);
+		if (pending != null) {
+			return pending;
+		}
+
+		FutureTask<String> lookup = new FutureTask<>(new Callable<String>() {
+			@Override
+			public String call() throws Exception {
+				try {
+					return lookup(keyPrefix, value);
+				} finally {
+					pendingLookups.remove(key);
+				}
+			}
+		});
+		pending = pendingLookups.putIfAbsent(key, lookup);
+		if (pending != null) {
+			return pending;
+		}
+
+		try {
+			lookupExecutor.execute(lookup);
+		} catch (RejectedExecutionException exc) {
+			pendingLookups.remove(key);
+			LOGGER.log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+					"DNSResolver.lookup.rejected", value);
+			return null;
+		}
+
+		return lookup;
+	}
+
+	private String lookup(String keyPrefix, String value) {
+		boolean nameLookup = NAME_KEY_PREFIX.equals(keyPrefix);
+		String resolved;
+		try {
+			resolved = nameLookup ? Utils.resolveAddressToHostName(value) : Utils.resolveHostNameToAddress(value);
+		} catch (Throwable exc) {
+			LOGGER.log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
+					"DNSResolver.lookup.failed", value, exc);
+			resolved = null;
+		}
+
+		if (StringUtils.isEmpty(resolved) || (nameLookup && resolved.equals(value))) {
+			// Add entry so we don't repeatedly attempt to look up unresolvable value
+			unresolvedCache.put(keyPrefix + value, Boolean.TRUE);
+			resolvedCache.invalidate(keyPrefix + value);
+			return null;
+		}
+
+		long now = System.currentTimeMillis();
+		resolvedCache.put(keyPrefix + value, new ResolvedValue(resolved, now));
+		resolvedCache.put((nameLookup ? ADDRESS_KEY_PREFIX : NAME_KEY_PREFIX) + resolved,
+				new ResolvedValue(value, now));
+		return resolved;
+	}
+
+	/**
+	 * Returns number of cached resolved values.
+	 *
+	 * @return number of cached resolved values
+	 */
+	public long getResolvedCount() {
+		return resolvedCache.size();
+	}
+
+	/**
+	 * Returns number of cached unresolved values.
+	 *
+	 * @return number of cached unresolved values
+	 */
+	public long getUnresolvedCount() {
+		return unresolvedCache.size();
+	}
+
+	/**
+	 * Stops lookup threads and clears caches.
+	 */
+	public void shutdown() {
+		lookupExecutor.shutdownNow();
+		pendingLookups.clear();
+		resolvedCache.invalidateAll();
+		unresolvedCache.invalidateAll();
+	}
+
+	private static class ResolvedValue {
+		private final String value;
+		private final long resolveTime;
+
+		private ResolvedValue(String value, long resolveTime) {
+			this.value = value;
+			this.resolveTime = resolveTime;
+		}
+	}
+}
@@ -0,0 +1,740 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.text.ParseException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+import com.jkoolcloud.tnt4j.streams.fields.ActivityInfo;
+
+/**
+ * Expression of TNT4J-Streams native expression language. Expression code is parsed once into evaluation nodes tree,
+ * so expression evaluation does not require any scripting engine and costs just a few method calls per expression
+ * operator.
+ * <p>
+ * Supported expression syntax:
+ * <ul>
+ * <li>literals: numbers {@code 100}, {@code 1.5}, strings {@code 'SEND'} or {@code "SEND"}, {@code true},
+ * {@code false} and {@code null}. Within string only quote and backslash characters are escaped by backslash, e.g.
+ * {@code 'It\'s'}, other backslash sequences are left unchanged, e.g. RegEx {@code '^SYSTEM\.'}</li>
+ * <li>variables: {@code $fieldValue} - field/locator resolved value, {@code ${FIELD_NAME}} or {@code $FIELD_NAME} -
+ * activity entity field value</li>
+ * <li>arithmetic operators: {@code +}, {@code -}, {@code *}, {@code /}, {@code %} and unary {@code -}. Operator
+ * {@code +} concatenates strings if any of operands is string. Operator {@code /} always produces decimal value</li>
+ * <li>comparison operators: {@code ==}, {@code !=}, {@code <}, {@code <=}, {@code >}, {@code >=} and RegEx find
+ * operator {@code =~}</li>
+ * <li>logical operators: {@code &&}, {@code ||}, {@code !} and parentheses</li>
+ * </ul>
+ * When number is compared to string, string is converted to number. Other values compared to string are compared using
+ * their string representation, e.g. {@code ${EventType} == 'SEND'}. Logical operators use Groovy truth rules:
+ * {@code null}, zero number, empty string, collection, map or array is {@code false}.
+ *
+ * @version $Revision: 2 $
+ */
+public class NativeExpression {
+	private final String expression;
+	private final Node root;
+
+	private NativeExpression(String expression, Node root) {
+		this.expression = expression;
+		this.root = root;
+	}
+
+	/**
+	 * Compiles native expression code into evaluation nodes tree.
+	 *
+	 * @param expression
+	 *            native expression code
+	 * @return compiled native expression
+	 * @throws java.text.ParseException
+	 *             if expression code has syntax errors
+	 */
+	public static NativeExpression compile(String expression) throws ParseException {
+		return new NativeExpression(expression, new Parser(expression).parse());
+	}
+
+	/**
+	 * Returns expression code string.
+	 *
+	 * @return expression code
+	 */
+	public String getExpression() {
+		return expression;
+	}
+
+	/**
+	 * Evaluates expression using provided field value and activity entity fields values.
+	 *
+	 * @param value
+	 *            field/locator resolved value
+	 * @param ai
+	 *            activity entity instance to resolve referenced fields values, can be {@code null}
+	 * @return expression evaluation result
+	 */
+	public Object evaluate(Object value, ActivityInfo ai) {
+		return root.eval(value, ai);
+	}
+
+	/**
+	 * Evaluates expression as boolean condition using provided field value and activity entity fields values.
+	 *
+	 * @param value
+	 *            field/locator resolved value
+	 * @param ai
+	 *            activity entity instance to resolve referenced fields values, can be {@code null}
+	 * @return {@code true} if expression evaluation result is treated as {@code true}, {@code false} - otherwise
+	 *
+	 * @see #isTrue(Object)
+	 */
+	public boolean test(Object value, ActivityInfo ai) {
+		return isTrue(root.eval(value, ai));
+	}
+
+	@Override
+	public String toString() {
+		return expression;
+	}
+
+	/**
+	 * Checks whether provided value is treated as {@code true}: value is {@code true} boolean, non-zero number,
+	 * non-empty string, collection, map or array, or any other non-{@code null} object.
+	 *
+	 * @param v
+	 *            value to check
+	 * @return {@code true} if value is treated as {@code true}, {@code false} - otherwise
+	 */
+	public static boolean isTrue(Object v) {
+		if (v == null) {
+			return false;
+		}
+		if (v instanceof Boolean) {
+			return (Boolean) v;
+		}
+		if (v instanceof Number) {
+			return ((Number) v).doubleValue() != 0;
+		}
+		if (v instanceof CharSequence) {
+			return ((CharSequence) v).length() > 0;
+		}
+		if (v instanceof Collection) {
+			return !((Collection<?>) v).isEmpty();
+		}
+		if (v instanceof Map) {
+			return !((Map<?, ?>) v).isEmpty();
+		}
+		if (v.getClass().isArray()) {
+			return java.lang.reflect.Array.getLength(v) > 0;
+		}
+
+		return true;
+	}
+
+	private static Number toNumber(Object v) {
+		if (v instanceof Number) {
+			return (Number) v;
+		}
+		if (v instanceof CharSequence || v instanceof Character) {
+			String str = v.toString().trim();
+			if (NumberUtils.isParsable(str)) {
+				if (str.indexOf('.') < 0 && str.length() <= 18) {
+					return Long.valueOf(str);
+				}
+				return new BigDecimal(str);
+			}
+		}
+
+		return null;
+	}
+
+	private static boolean isIntegral(Number n) {
+		return n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte;
+	}
+
+	private static boolean isBig(Number n) {
+		return n instanceof BigDecimal || n instanceof BigInteger;
+	}
+
+	private static BigDecimal toBigDecimal(Number n) {
+		if (n instanceof BigDecimal) {
+			return (BigDecimal) n;
+		}
+		if (n instanceof BigInteger) {
+			return new BigDecimal((BigInteger) n);
+		}
+		if (isIntegral(n)) {
+			return BigDecimal.valueOf(n.longValue());
+		}
+
+		return BigDecimal.valueOf(n.doubleValue());
+	}
+
+	private static int compareNumbers(Number l, Number r) {
+		if (isIntegral(l) && isIntegral(r)) {
+			return Long.compare(l.longValue(), r.longValue());
+		}
+		if (isBig(l) || isBig(r)) {
+			return toBigDecimal(l).compareTo(toBigDecimal(r));
+		}
+
+		return Double.compare(l.doubleValue(), r.doubleValue());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static int compare(Object l, Object r) {
+		if (l instanceof Number || r instanceof Number) {
+			Number ln = toNumber(l);
+			Number rn = toNumber(r);
+			if (ln != null && rn != null) {
+				return compareNumbers(ln, rn);
+			}
+		}
+		if (l instanceof Comparable && l.getClass().isInstance(r)) {
+			return ((Comparable<Object>) l).compareTo(r);
+		}
+
+		return String.valueOf(l).compareTo(String.valueOf(r));
+	}
+
+	private static boolean isEqual(Object l, Object r) {
+		if (l == null || r == null) {
+			return l == r;
+		}
+		if (l instanceof Number || r instanceof Number) {
+			Number ln = toNumber(l);
+			Number rn = toNumber(r);
+			if (ln != null && rn != null) {
+				return compareNumbers(ln, rn) == 0;
+			}
+		}
+		if (l.equals(r)) {
+			return true;
+		}
+
+		return (l instanceof CharSequence || r instanceof CharSequence) && l.toString().equals(r.toString());
+	}
+
+	private static Number toOperand(Object v, char op) {
+		Number n = toNumber(v);
+		if (n == null) {
+			throw new IllegalArgumentException(StreamsResources.getStringFormatted(
+					StreamsResources.RESOURCE_BUNDLE_NAME, "NativeExpression.not.number", v, op));
+		}
+
+		return n;
+	}
+
+	private static Object calculate(char op, Object l, Object r) {
+		if (op == '+' && (l instanceof CharSequence || r instanceof CharSequence)) {
+			return String.valueOf(l) + String.valueOf(r);
+		}
+		if (l == null || r == null) {
+			return null;
+		}
+
+		Number ln = toOperand(l, op);
+		Number rn = toOperand(r, op);
+
+		if (isBig(ln) || isBig(rn)) {
+			BigDecimal lb = toBigDecimal(ln);
+			BigDecimal rb = toBigDecimal(rn);
+			switch (op) {
+			case '+':
+				return lb.add(rb);
+			case '-':
+				return lb.subtract(rb);
+			case '*':
+				return lb.multiply(rb);
+			case '/':
+				return lb.divide(rb, MathContext.DECIMAL64);
+			default:
+				return lb.remainder(rb);
+			}
+		}
+
+		if (op != '/' && isIntegral(ln) && isIntegral(rn)) {
+			long ll = ln.longValue();
+			long rl = rn.longValue();
+			switch (op) {
+			case '+':
+				return ll + rl;
+			case '-':
+				return ll - rl;
+			case '*':
+				return ll * rl;
+			default:
+				return ll % rl;
+			}
+		}
+
+		double ld = ln.doubleValue();
+		double rd = rn.doubleValue();
+		switch (op) {
+		case '+':
+			return ld + rd;
+		case '-':
+			return ld - rd;
+		case '*':
+			return ld * rd;
+		case '/':
+			return ld / rd;
+		default:
+			return ld % rd;
+		}
+	}
+
+	/**
+	 * Expression evaluation tree node.
+	 */
+	private interface Node {
+		Object eval(Object value, ActivityInfo ai);
+	}
+
+	private static class Literal implements Node {
+		private final Object literal;
+
+		private Literal(Object literal) {
+			this.literal = literal;
+		}
+
+		@Override
+		public Object eval(Object value, ActivityInfo ai) {
+			return literal;
+		}
+	}
+
+	private static class FieldValue implements Node {
+		@Override
+		public Object eval(Object value, ActivityInfo ai) {
+			return value;
+		}
+	}
+
+	private static class FieldReference implements Node {
+		private final String fieldName;
+
+		private FieldReference(String fieldName) {
+			this.fieldName = fieldName;
+		}
+
+		@Override
+		public Object eval(Object value, ActivityInfo ai) {
+			return ai == null ? null : ai.getFieldValue(fieldName);
+		}
+	}
+
+	private static class Not implements Node {
+		private final Node operand;
+
+		private Not(Node operand) {
+			this.operand = operand;
+		}
+
+		@Override
+		public Object eval(Object value, ActivityInfo ai) {
+			return !isTrue(operand.eval(value, ai));
+		}
+	}
+
+	private static class Negate implements Node {
+		private final Node operand;
+
+		private Negate(Node operand) {
+			this.operand = operand;
+		}
+
+		@Override
+		public Object eval(Object value, ActivityInfo ai) {
+			Object v = operand.eval(value, ai);
+			if (v == null) {
+				return null;
+			}
+
+			Number n = toOperand(v, '-');
+			if (n instanceof BigDecimal) {
+				return ((BigDecimal) n).negate();
+			}
+			if (n instanceof BigInteger) {
+				return ((BigInteger) n).negate();
+			}
+
+			return isIntegral(n) ? (Object) (-n.longValue()) : (Object) (-n.doubleValue());
+		}
+	}
+
+	private static class And implements Node {
+		private final Node left;
+		private final Node right;
+
+		private And(Node left, Node right) {
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		public Object eval(Object value, ActivityInfo ai) {
+			return isTrue(left.eval(value, ai)) && isTrue(right.eval(value, ai));
+		}
+	}
+
+	private static class Or implements Node {
+		private final Node left;
+		private final Node right;
+
+		private Or(Node left, Node right) {
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		public Object eval(Object value, ActivityInfo ai) {
+			return isTrue(left.eval(value, ai)) || isTrue(right.eval(value, ai));
+		}
+	}
+
+	private static class Comparison implements Node {
+		private final String op;
+		private final Node left;
+		private final Node right;
+
+		private Comparison(String op, Node left, Node right) {
+			this.op = op;
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		public Object eval(Object value, ActivityInfo ai) {
+			Object l = left.eval(value, ai);
+			Object r = right.eval(value, ai);
+
+			switch (op) {
+			case "==": // NON-NLS
+				return isEqual(l, r);
+			case "!=": // NON-NLS
+				return !isEqual(l, r);
+			case "<": // NON-NLS
+				return l != null && r != null && compare(l, r) < 0;
+			case "<=": // NON-NLS
+				return l != null && r != null && compare(l, r) <= 0;
+			case ">": // NON-NLS
+				return l != null && r != null && compare(l, r) > 0;
+			default:
+				return l != null && r != null && compare(l, r) >= 0;
+			}
+		}
+	}
+
+	private static class RegExFind implements Node {
+		private final Node left;
+		private final Node right;
+		private final Pattern pattern;
+
+		private RegExFind(Node left, Node right) {
+			this.left = left;
+			this.right = right;
+			this.pattern = right instanceof Literal ? Pattern.compile(String.valueOf(((Literal) right).literal))
+					: null;
+		}
+
+		@Override
+		public Object eval(Object value, ActivityInfo ai) {
+			Object l = left.eval(value, ai);
+			if (l == null) {
+				return false;
+			}
+
+			Pattern p = pattern == null ? Pattern.compile(String.valueOf(right.eval(value, ai))) : pattern;
+			return p.matcher(l.toString()).find();
+		}
+	}
+
+	private static class Arithmetic implements Node {
+		private final char op;
+		private final Node left;
+		private final Node right;
+
+		private Arithmetic(char op, Node left, Node right) {
+			this.op = op;
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		public Object eval(Object value, ActivityInfo ai) {
+			return calculate(op, left.eval(value, ai), right.eval(value, ai));
+		}
+	}
+
+	/**
+	 * Recursive descent parser building expression evaluation nodes tree.
+	 */
+	private static class Parser {
+		private static final String[] COMPARISON_OPS = { "==", "!=", "=~", "<=", ">=", "<", ">" }; // NON-NLS
+
+		private final String exp;
+		private int pos;
+
+		private Parser(String exp) {
+			this.exp = exp;
+		}
+
+		private Node parse() throws ParseException {
+			if (exp == null) {
+				throw error("NativeExpression.empty");
+			}
+			Node node = parseOr();
+			skipWhitespace();
+			if (pos < exp.length()) {
+				throw error("NativeExpression.unexpected.symbol");
+			}
+
+			return node;
+		}
+
+		private ParseException error(String key) {
+			return new ParseException(StreamsResources.getStringFormatted(StreamsResources.RESOURCE_BUNDLE_NAME, key,
+					exp, pos + 1), pos);
+		}
+
+		private void skipWhitespace() {
+			while (pos < exp.length() && Character.isWhitespace(exp.charAt(pos))) {
+				pos++;
+			}
+		}
+
+		private boolean match(String op) {
+			skipWhitespace();
+			if (exp.startsWith(op, pos)) {
+				pos += op.length();
+				return true;
+			}
+
+			return false;
+		}
+
+		private char peek() {
+			skipWhitespace();
+			return pos < exp.length() ? exp.charAt(pos) : 0;
+		}
+
+		private Node parseOr() throws ParseException {
+			Node node = parseAnd();
+			while (match("||")) { // NON-NLS
+				node = new Or(node, parseAnd());
+			}
+
+			return node;
+		}
+
+		private Node parseAnd() throws ParseException {
+			Node node = parseComparison();
+			while (match("&&")) { // NON-NLS
+				node = new And(node, parseComparison());
+			}
+
+			return node;
+		}
+
+		private Node parseComparison() throws ParseException {
+			Node node = parseAdditive();
+			String op;
+			while ((op = matchComparison()) != null) {
+				int opPos = pos;
+				Node right = parseAdditive();
+				if ("=~".equals(op)) { // NON-NLS
+					try {
+						node = new RegExFind(node, right);
+					} catch (PatternSyntaxException exc) {
+						pos = opPos;
+						throw error("NativeExpression.invalid.regex");
+					}
+				} else {
+					node = new Comparison(op, node, right);
+				}
+			}
+
+			return node;
+		}
+
+		private String matchComparison() {
+			for (String op : COMPARISON_OPS) {
+				if (match(op)) {
+					return op;
+				}
+			}
+
+			return null;
+		}
+
+		private Node parseAdditive() throws ParseException {
+			Node node = parseMultiplicative();
+			char op;
+			while ((op = peek()) == '+' || op == '-') {
+				pos++;
+				node = new Arithmetic(op, node, parseMultiplicative());
+			}
+
+			return node;
+		}
+
+		private Node parseMultiplicative() throws ParseException {
+			Node node = parseUnary();
+			char op;
+			while ((op = peek()) == '*' || op == '/' || op == '%') {
+				pos++;
+				node = new Arithmetic(op, node, parseUnary());
+			}
+
+			return node;
+		}
+
+		private Node parseUnary() throws ParseException {
+			char ch = peek();
+			if (ch == '!') {
+				pos++;
+				return new Not(parseUnary());
+			}
+			if (ch == '-') {
+				pos++;
+				return new Negate(parseUnary());
+			}
+
+			return parsePrimary();
+		}
+
+		private Node parsePrimary() throws ParseException {
+			char ch = peek();
+			if (ch == '(') {
+				pos++;
+				Node node = parseOr();
+				if (!match(")")) { // NON-NLS
+					throw error("NativeExpression.missing.parenthesis");
+				}
+				return node;
+			}
+			if (ch == '\'' || ch == '"') {
+				return new Literal(parseString(ch));
+			}
+			if (Character.isDigit(ch) || ch == '.') {
+				return new Literal(parseNumber());
+			}
+			if (ch == '$') {
+				return parseVariable();
+			}
+			if (Character.isJavaIdentifierStart(ch)) {
+				String word = parseIdentifier();
+				switch (word) {
+				case "true": // NON-NLS
+					return new Literal(Boolean.TRUE);
+				case "false": // NON-NLS
+					return new Literal(Boolean.FALSE);
+				case "null": // NON-NLS
+					return new Literal(null);
+				default:
+					pos -= word.length();
+				}
+			}
+
+			throw error("NativeExpression.unexpected.symbol");
+		}
+
+		private String parseString(char quote) throws ParseException {
+			StringBuilder sb = new StringBuilder();
+			pos++;
+			while (pos < exp.length()) {
+				char ch = exp.charAt(pos++);
+				if (ch == quote) {
+					return sb.toString();
+				}
+				// only quote and backslash are escaped, other escapes (e.g. RegEx '\d') are kept as is
+				if (ch == '\\' && pos < exp.length()) {
+					char next = exp.charAt(pos);
+					if (next == quote || next == '\\') {
+						ch = next;
+						pos++;
+					}
+				}
+				sb.append(ch);
+			}
+
+			throw error("NativeExpression.unterminated.string");
+		}
+
+		private Number parseNumber() throws ParseException {
+			int start = pos;
+			boolean decimal = false;
+			while (pos < exp.length()) {
+				char ch = exp.charAt(pos);
+				if (ch == '.' || ch == 'e' || ch == 'E') {
+					decimal = true;
+				} else if (!Character.isDigit(ch)
+						&& !((ch == '-' || ch == '+') && (exp.charAt(pos - 1) == 'e' || exp.charAt(pos - 1) == 'E'))) {
+					break;
+				}
+				pos++;
+			}
+
+			String numStr = exp.substring(start, pos);
+			try {
+				if (decimal) {
+					return Double.valueOf(numStr);
+				}
+				return numStr.length() <= 18 ? (Number) Long.valueOf(numStr) : (Number) new BigDecimal(numStr);
+			} catch (NumberFormatException exc) {
+				pos = start;
+				throw error("NativeExpression.invalid.number");
+			}
+		}
+
+		private Node parseVariable() throws ParseException {
+			pos++;
+			if (pos < exp.length() && exp.charAt(pos) == '{') {
+				int end = exp.indexOf('}', pos);
+				if (end < 0) {
+					throw error("NativeExpression.unterminated.variable");
+				}
+				String name = exp.substring(pos + 1, end);
+				pos = end + 1;
+				return new FieldReference(name);
+			}
+
+			if (pos >= exp.length() || !Character.isJavaIdentifierStart(exp.charAt(pos))) {
+				throw error("NativeExpression.unexpected.symbol");
+			}
+			String name = parseIdentifier();
+			return StreamsScriptingUtils.FIELD_VALUE_VARIABLE_NAME.equals(name) ? new FieldValue()
+					: new FieldReference(name);
+		}
+
+		private String parseIdentifier() {
+			int start = pos;
+			while (pos < exp.length() && Character.isJavaIdentifierPart(exp.charAt(pos))) {
+				pos++;
+			}
+
+			return exp.substring(start, pos);
+		}
+	}
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.utils;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free multi-producer/multi-consumer {@link BlockingQueue} backed by power of two sized ring buffer.
+ * Producers and consumers claim ring buffer slots using CAS operations on queue tail and head counters, and slot
+ * sequence numbers guarantee element publication, so neither {@link #offer(Object)} nor {@link #poll()} take any lock
+ * or allocate any object. Single producer or single consumer use is just a special case of this queue.
+ * <p>
+ * Blocking operations ({@link #put(Object)}, {@link #take()} and timed offer/poll) wait for free slot or available
+ * element using defined {@link WaitStrategy}.
+ * <p>
+ * {@link #iterator()} returns weakly consistent snapshot of queue elements and does not support element removal.
+ *
+ * @param <E>
+ *            the type of elements held in this queue
+ *
+ * @version $Revision: 1 $
+ */
+public class RingBufferQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private final Object[] buffer;
+	private final AtomicLongArray sequences;
+	private final int mask;
+	private final WaitStrategy waitStrategy;
+
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+
+	/**
+	 * Constructs a new RingBufferQueue using {@link WaitStrategy#PARK} wait strategy.
+	 *
+	 * @param capacity
+	 *            minimal queue capacity, actual capacity is rounded up to nearest power of two
+	 */
+	public RingBufferQueue(int capacity) {
+		this(capacity, WaitStrategy.PARK);
+	}
+
+	/**
+	 * Constructs a new RingBufferQueue.
+	 *
+	 * @param capacity
+	 *            minimal queue capacity, actual capacity is rounded up to nearest power of two
+	 * @param waitStrategy
+	 *            strategy to use while waiting for free slot or available element
+	 */
+	public RingBufferQueue(int capacity, WaitStrategy waitStrategy) {
+		if (capacity <= 0 || capacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException("capacity=" + capacity); // NON-NLS
+		}
+		int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+
+		this.buffer = new Object[size];
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+		this.mask = size - 1;
+		this.waitStrategy = waitStrategy == null ? WaitStrategy.PARK : waitStrategy;
+	}
+
+	/**
+	 * Returns queue capacity.
+	 *
+	 * @return queue capacity
+	 */
+	public int capacity() {
+		return buffer.length;
+	}
+
+	@Override
+	public boolean offer(E e) {
+		checkNotNull(e);
+
+		long pos = tail.get();
+		while (true) {
+			int idx = (int) (pos & mask);
+			long dif = sequences.get(idx) - pos;
+			if (dif == 0) {
+				if (tail.compareAndSet(pos, pos + 1)) {
+					buffer[idx] = e;
+					sequences.set(idx, pos + 1);
+					return true;
+				}
+				pos = tail.get();
+			} else if (dif < 0) {
+				return false;
+			} else {
+				pos = tail.get();
+			}
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E poll() {
+		long pos = head.get();
+		while (true) {
+			int idx = (int) (pos & mask);
+			long dif = sequences.get(idx) - (pos + 1);
+			if (dif == 0) {
+				if (head.compareAndSet(pos, pos + 1)) {
+					E e = (E) buffer[idx];
+					buffer[idx] = null;
+					sequences.set(idx, pos + mask + 1);
+					return e;
+				}
+				pos = head.get();
+			} else if (dif < 0) {
+				return null;
+			} else {
+				pos = head.get();
+			}
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E peek() {
+		while (true) {
+			long pos = head.get();
+			int idx = (int) (pos & mask);
+			long dif = sequences.get(idx) - (pos + 1);
+			if (dif < 0) {
+				return null;
+			}
+			E e = (E) buffer[idx];
+			if (dif == 0 && e != null && pos == head.get()) {
+				return e;
+			}
+		}
+	}
+
+	@Override
+	public void put(E e) throws InterruptedException {
+		checkNotNull(e);
+
+		int counter = 0;
+		while (!offer(e)) {
+			checkInterrupted();
+			counter = waitStrategy.idle(counter);
+		}
+	}
+
+	@Override
+	public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+		checkNotNull(e);
+
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		int counter = 0;
+		while (!offer(e)) {
+			checkInterrupted();
+			if (System.nanoTime() - deadline >= 0) {
+				return false;
+			}
+			counter = waitStrategy.idle(counter);
+		}
+		return true;
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		int counter = 0;
+		E e;
+		while ((e = poll()) == null) {
+			checkInterrupted();
+			counter = waitStrategy.idle(counter);
+		}
+		return e;
+	}
+
+	@Override
+	public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		int counter = 0;
+		E e;
+		while ((e = poll()) == null) {
+			checkInterrupted();
+			if (System.nanoTime() - deadline >= 0) {
+				return null;
+			}
+			counter = waitStrategy.idle(counter);
+		}
+		return e;
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> c) {
+		return drainTo(c, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> c, int maxElements) {
+		checkNotNull(c);
+		if (c == this) {
+			throw new IllegalArgumentException();
+		}
+
+		int n = 0;
+		E e;
+		while (n < maxElements && (e = poll()) != null) {
+			c.add(e);
+			n++;
+		}
+		return n;
+	}
+
+	@Override
+	public int size() {
+		while (true) {
+			long h = head.get();
+			long t = tail.get();
+			if (h == head.get()) {
+				long size = t - h;
+				return size < 0 ? 0 : (int) Math.min(size, buffer.length);
+			}
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return tail.get() == head.get();
+	}
+
+	@Override
+	public int remainingCapacity() {
+		return buffer.length - size();
+	}
+
+	@Override
+	public void clear() {
+		while (poll() != null) {
+			// just drop polled element
+		}
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return Collections.unmodifiableList(snapshot()).iterator();
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<E> snapshot() {
+		long h = head.get();
+		long t = tail.get();
+		List<E> elements = new ArrayList<>((int) Math.max(0, Math.min(t - h, buffer.length)));
+		for (long pos = h; pos < t; pos++) {
+			int idx = (int) (pos & mask);
+			Object e = buffer[idx];
+			if (e != null && sequences.get(idx) == pos + 1) {
+				elements.add((E) e);
+			}
+		}
+		return elements;
+	}
+
+	private static void checkNotNull(Object o) {
+		if (o == null) {
+			throw new NullPointerException();
+		}
+	}
+
+	private static void checkInterrupted() throws InterruptedException {
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+	}
+
+	/**
+	 * Strategies to wait for free queue slot or available queue element.
+	 */
+	public enum WaitStrategy {
+		/**
+		 * Busy spins. Lowest latency, but occupies CPU core while waiting.
+		 */
+		SPIN {
+			@Override
+			int idle(int counter) {
+				return counter + 1;
+			}
+		},
+		/**
+		 * Spins for a while, then yields thread.
+		 */
+		YIELD {
+			@Override
+			int idle(int counter) {
+				if (counter >= SPIN_TRIES) {
+					Thread.yield();
+				}
+				return counter + 1;
+			}
+		},
+		/**
+		 * Spins and yields for a while, then parks thread for short period of time. Lowest CPU usage.
+		 */
+		PARK {
+			@Override
+			int idle(int counter) {
+				if (counter >= SPIN_TRIES * 2) {
+					LockSupport.parkNanos(PARK_NANOS);
+				} else if (counter >= SPIN_TRIES) {
+					Thread.yield();
+				}
+				return counter + 1;
+			}
+		};
+
+		private static final int SPIN_TRIES = 100;
+		private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+		/**
+		 * Performs single waiting iteration.
+		 *
+		 * @param counter
+		 *            number of waiting iterations performed so far
+		 * @return incremented waiting iterations counter
+		 */
+		abstract int idle(int counter);
+	}
+}
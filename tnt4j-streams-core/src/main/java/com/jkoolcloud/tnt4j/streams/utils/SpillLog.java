@@ -0,0 +1,272 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.utils;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * FIFO log of serialized objects kept in memory-mapped segment files. Objects are appended to the tail segment and read
+ * back in the same order from the head segment. When segment gets full, new segment file is created, and when all
+ * segment records are read, segment file is deleted.
+ * <p>
+ * Segment record layout is: {@code int} serialized object bytes length followed by serialized object bytes. When all
+ * segment records are read, segment gets reused from the beginning if it is the only one left.
+ * <p>
+ * This class is thread safe.
+ *
+ * @version $Revision: 2 $
+ */
+public class SpillLog implements Closeable {
+	/**
+	 * Default segment file size in bytes.
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	private static final String SEGMENT_FILE_PREFIX = "spill-"; // NON-NLS
+	private static final String SEGMENT_FILE_SUFFIX = ".seg"; // NON-NLS
+	private static final int LENGTH_BYTES = 4;
+
+	private final File directory;
+	private final int segmentSize;
+
+	private final Deque<Segment> segments = new ArrayDeque<>();
+	private long count;
+	private boolean closed;
+
+	/**
+	 * Constructs a new SpillLog.
+	 *
+	 * @param directory
+	 *            directory to create segment files in
+	 * @param segmentSize
+	 *            segment file size in bytes
+	 *
+	 * @throws IOException
+	 *             if directory can't be created
+	 */
+	public SpillLog(File directory, int segmentSize) throws IOException {
+		if (segmentSize <= LENGTH_BYTES) {
+			throw new IllegalArgumentException("segmentSize=" + segmentSize); // NON-NLS
+		}
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+
+		Files.createDirectories(directory.toPath());
+	}
+
+	/**
+	 * Checks whether provided object can be written to spill log.
+	 *
+	 * @param obj
+	 *            object to check
+	 * @return {@code true} if object is serializable, {@code false} - otherwise
+	 */
+	public static boolean isSpillable(Object obj) {
+		return obj instanceof Serializable;
+	}
+
+	/**
+	 * Appends provided object to the tail of spill log.
+	 *
+	 * @param obj
+	 *            serializable object to append
+	 * @return {@code true} if object has been appended, {@code false} - if object is not serializable or serialized
+	 *         object does not fit into segment
+	 *
+	 * @throws IOException
+	 *             if object serialization or segment file creation fails
+	 */
+	public synchronized boolean append(Object obj) throws IOException {
+		if (closed || !isSpillable(obj)) {
+			return false;
+		}
+
+		byte[] bytes = serialize(obj);
+		if (bytes.length + LENGTH_BYTES > segmentSize) {
+			return false;
+		}
+
+		Segment tail = segments.peekLast();
+		if (tail == null || !tail.fits(bytes.length)) {
+			tail = newSegment();
+			segments.addLast(tail);
+		}
+		tail.write(bytes);
+		count++;
+
+		return true;
+	}
+
+	/**
+	 * Reads object from the head of spill log without removing it.
+	 *
+	 * @return head object, or {@code null} if spill log is empty
+	 *
+	 * @throws IOException
+	 *             if object deserialization fails
+	 */
+	public synchronized Object peek() throws IOException {
+		Segment head = headSegment();
+		return head == null ? null : head.peek();
+	}
+
+	/**
+	 * Removes object from the head of spill log. Object is skipped without deserializing it, so object failed to be
+	 * read by {@link #peek()} can be removed as well.
+	 */
+	public synchronized void remove() {
+		Segment head = headSegment();
+		if (head != null && head.skip()) {
+			count--;
+		}
+	}
+
+	private Segment headSegment() {
+		while (true) {
+			Segment head = segments.peekFirst();
+			if (head == null || head.hasNext() || head == segments.peekLast()) {
+				return head == null || !head.hasNext() ? null : head;
+			}
+			segments.pollFirst().delete();
+		}
+	}
+
+	/**
+	 * Returns number of objects in spill log.
+	 *
+	 * @return number of objects in spill log
+	 */
+	public synchronized long size() {
+		return count;
+	}
+
+	/**
+	 * Checks whether spill log is empty.
+	 *
+	 * @return {@code true} if spill log is empty, {@code false} - otherwise
+	 */
+	public synchronized boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * Removes all objects from spill log and deletes segment files.
+	 */
+	public synchronized void clear() {
+		Segment segment;
+		while ((segment = segments.pollFirst()) != null) {
+			segment.delete();
+		}
+		count = 0;
+	}
+
+	/**
+	 * Clears spill log and marks it closed: no more objects can be appended.
+	 */
+	@Override
+	public synchronized void close() {
+		clear();
+		closed = true;
+	}
+
+	private Segment newSegment() throws IOException {
+		Path path = Files.createTempFile(directory.toPath(), SEGMENT_FILE_PREFIX, SEGMENT_FILE_SUFFIX);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			return new Segment(path.toFile(), channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+		}
+	}
+
+	private static byte[] serialize(Object obj) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(256);
+		try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+			oos.writeObject(obj);
+		}
+		return bos.toByteArray();
+	}
+
+	private static Object deserialize(byte[] bytes) throws IOException {
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			return ois.readObject();
+		} catch (ClassNotFoundException exc) {
+			throw new IOException(exc);
+		}
+	}
+
+	private static class Segment {
+		private final File file;
+		private MappedByteBuffer buffer;
+		private int writePos;
+		private int readPos;
+
+		private Segment(File file, MappedByteBuffer buffer) {
+			this.file = file;
+			this.buffer = buffer;
+		}
+
+		private boolean fits(int length) {
+			return writePos + LENGTH_BYTES + length <= buffer.capacity();
+		}
+
+		private void write(byte[] bytes) {
+			ByteBuffer buf = buffer.duplicate();
+			buf.position(writePos);
+			buf.putInt(bytes.length);
+			buf.put(bytes);
+			writePos += LENGTH_BYTES + bytes.length;
+		}
+
+		private boolean hasNext() {
+			return readPos < writePos;
+		}
+
+		private Object peek() throws IOException {
+			ByteBuffer buf = buffer.duplicate();
+			buf.position(readPos);
+			byte[] bytes = new byte[buf.getInt()];
+			buf.get(bytes);
+			return deserialize(bytes);
+		}
+
+		private boolean skip() {
+			if (!hasNext()) {
+				return false;
+			}
+			readPos += LENGTH_BYTES + buffer.getInt(readPos);
+			if (readPos == writePos) {
+				// all records read - segment can be reused from the beginning
+				readPos = 0;
+				writePos = 0;
+			}
+			return true;
+		}
+
+		private void delete() {
+			buffer = null;
+			if (!file.delete()) {
+				file.deleteOnExit();
+			}
+		}
+	}
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.utils;
+
+import java.io.Reader;
+import java.util.*;
+import java.util.regex.Pattern;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Resolves values of simple XPath location paths over XML document in single StAX pass, without building XML DOM
+ * document.
+ * <p>
+ * Supported location paths are made of element name steps separated by {@code '/'}, optionally starting with
+ * {@code '/'} (path from document root, same as relative path) or {@code '//'} (path matching anywhere in document).
+ * Element name step can be qualified by namespace prefix or be {@code '*'} wildcard. Last path step can be attribute
+ * step {@code '@name'} or {@code 'text()'}. Paths having predicates, functions, axes or operators are not supported.
+ * <p>
+ * Element step value is element text content including descendant elements text. Together with every resolved value
+ * matcher collects attributes of element containing value.
+ *
+ * @version $Revision: 2 $
+ */
+public class StreamingXPathMatcher {
+	private static final Pattern NAME_STEP = Pattern.compile("\\*|([A-Za-z_][\\w.\\-]*:)?[A-Za-z_][\\w.\\-]*"); // NON-NLS
+	private static final String TEXT_STEP = "text()"; // NON-NLS
+	private static final String ANY_NAME = "*"; // NON-NLS
+
+	private final XMLInputFactory inputFactory;
+	private final boolean namespaceAware;
+	private final NamespaceContext nsContext;
+	private final Map<String, PathPattern> patterns = new LinkedHashMap<>();
+
+	/**
+	 * Constructs a new StreamingXPathMatcher.
+	 *
+	 * @param namespaceAware
+	 *            flag indicating whether matcher has to provide support for XML namespaces
+	 * @param nsContext
+	 *            namespace context used to resolve path steps prefixes, can be {@code null}
+	 */
+	public StreamingXPathMatcher(boolean namespaceAware, NamespaceContext nsContext) {
+		this.namespaceAware = namespaceAware;
+		this.nsContext = nsContext;
+
+		inputFactory = XMLInputFactory.newInstance();
+		inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, namespaceAware);
+		inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+		inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+	}
+
+	/**
+	 * Adds XPath location path to be matched by this matcher.
+	 *
+	 * @param xPath
+	 *            XPath location path
+	 * @return {@code true} if path is supported and was added, {@code false} - otherwise
+	 */
+	public boolean addPath(String xPath) {
+		if (patterns.containsKey(xPath)) {
+			return true;
+		}
+
+		PathPattern pp = compile(xPath);
+		if (pp == null) {
+			return false;
+		}
+
+		patterns.put(xPath, pp);
+		return true;
+	}
+
+	private static PathPattern compile(String xPath) {
+		String path = StringUtils.trimToEmpty(xPath);
+		if (path.isEmpty()) {
+			return null;
+		}
+
+		boolean descendant = false;
+		if (path.startsWith("//")) { // NON-NLS
+			descendant = true;
+			path = path.substring(2);
+		} else if (path.startsWith("/")) { // NON-NLS
+			path = path.substring(1);
+		}
+
+		String[] steps = path.split("/"); // NON-NLS
+		List<String> elementSteps = new ArrayList<>(steps.length);
+		String attrName = null;
+		boolean text = false;
+		for (int i = 0; i < steps.length; i++) {
+			String step = steps[i];
+			boolean last = i == steps.length - 1;
+			if (last && step.startsWith("@")) {
+				attrName = step.substring(1);
+				if (ANY_NAME.equals(attrName) || !NAME_STEP.matcher(attrName).matches()) {
+					return null;
+				}
+			} else if (last && TEXT_STEP.equals(step)) {
+				text = true;
+			} else if (NAME_STEP.matcher(step).matches()) {
+				elementSteps.add(step);
+			} else {
+				return null;
+			}
+		}
+
+		if (elementSteps.isEmpty()) {
+			return null;
+		}
+
+		return new PathPattern(elementSteps.toArray(new String[elementSteps.size()]), descendant, attrName, text);
+	}
+
+	/**
+	 * Performs single pass over XML document read from provided reader and collects values of all added location
+	 * paths.
+	 *
+	 * @param xmlReader
+	 *            reader to read XML document from
+	 * @return map of location path and list of matched values in document order
+	 * @throws XMLStreamException
+	 *             if XML document is not well-formed or reading fails
+	 */
+	public Map<String, List<MatchedValue>> match(Reader xmlReader) throws XMLStreamException {
+		Map<String, List<MatchedValue>> values = new HashMap<>(patterns.size());
+		List<Capture> captures = new ArrayList<>();
+		List<ElementFrame> stack = new ArrayList<>();
+
+		XMLStreamReader reader = inputFactory.createXMLStreamReader(xmlReader);
+		try {
+			while (reader.hasNext()) {
+				switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					ElementFrame frame = new ElementFrame(reader);
+					stack.add(frame);
+					for (Map.Entry<String, PathPattern> pe : patterns.entrySet()) {
+						PathPattern pp = pe.getValue();
+						if (!matches(pp, stack)) {
+							continue;
+						}
+
+						if (pp.attrName != null) {
+							String attrValue = getAttributeValue(reader, pp.attrName);
+							if (attrValue != null) {
+								addValue(values, pe.getKey(), new MatchedValue(attrValue, getAttributes(frame, reader)));
+							}
+						} else {
+							MatchedValue mv = new MatchedValue(null,
+									pp.text ? null : getAttributes(frame, reader));
+							addValue(values, pe.getKey(), mv);
+							captures.add(new Capture(mv, stack.size(), pp.text));
+						}
+					}
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					if (!captures.isEmpty()) {
+						for (Capture c : captures) {
+							if (!c.directTextOnly || c.depth == stack.size()) {
+								c.text.append(reader.getTextCharacters(), reader.getTextStart(),
+										reader.getTextLength());
+							}
+						}
+					}
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					int depth = stack.size();
+					for (Iterator<Capture> it = captures.iterator(); it.hasNext();) {
+						Capture c = it.next();
+						if (c.depth == depth) {
+							c.value.text = c.directTextOnly && c.text.length() == 0 ? null : c.text.toString();
+							it.remove();
+						}
+					}
+					stack.remove(depth - 1);
+					break;
+				default:
+					break;
+				}
+			}
+		} finally {
+			reader.close();
+		}
+
+		return values;
+	}
+
+	private boolean matches(PathPattern pp, List<ElementFrame> stack) {
+		int depth = stack.size();
+		if (pp.descendant ? depth < pp.steps.length : depth != pp.steps.length) {
+			return false;
+		}
+
+		int offset = depth - pp.steps.length;
+		for (int i = pp.steps.length - 1; i >= 0; i--) {
+			ElementFrame ef = stack.get(offset + i);
+			if (!nameMatches(pp.steps[i], ef.localName, ef.prefix, ef.nsUri, false)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static void addValue(Map<String, List<MatchedValue>> values, String path, MatchedValue value) {
+		List<MatchedValue> pValues = values.get(path);
+		if (pValues == null) {
+			pValues = new ArrayList<>(1);
+			values.put(path, pValues);
+		}
+		pValues.add(value);
+	}
+
+	private String getAttributeValue(XMLStreamReader reader, String attrName) {
+		int attrsCount = reader.getAttributeCount();
+		for (int i = 0; i < attrsCount; i++) {
+			if (nameMatches(attrName, reader.getAttributeLocalName(i), reader.getAttributePrefix(i),
+					reader.getAttributeNamespace(i), true)) {
+				return reader.getAttributeValue(i);
+			}
+		}
+
+		return null;
+	}
+
+	private static Map<String, String> getAttributes(ElementFrame frame, XMLStreamReader reader) {
+		if (frame.attributes == null) {
+			int attrsCount = reader.getAttributeCount();
+			Map<String, String> attrs = new HashMap<>(attrsCount);
+			for (int i = 0; i < attrsCount; i++) {
+				String prefix = reader.getAttributePrefix(i);
+				String name = StringUtils.isEmpty(prefix) ? reader.getAttributeLocalName(i)
+						: prefix + ":" + reader.getAttributeLocalName(i); // NON-NLS
+				attrs.put(name, reader.getAttributeValue(i));
+			}
+			frame.attributes = attrs;
+		}
+
+		return frame.attributes;
+	}
+
+	private boolean nameMatches(String step, String localName, String prefix, String nsUri, boolean attribute) {
+		if (ANY_NAME.equals(step)) {
+			return true;
+		}
+
+		int pIdx = step.indexOf(':');
+		String stepPrefix = pIdx < 0 ? null : step.substring(0, pIdx);
+		String stepName = pIdx < 0 ? step : step.substring(pIdx + 1);
+
+		if (!namespaceAware) {
+			String qName = StringUtils.isEmpty(prefix) ? localName : prefix + ":" + localName; // NON-NLS
+			return step.equals(qName) || (attribute && step.equals(localName));
+		}
+
+		if (!stepName.equals(localName)) {
+			return false;
+		}
+
+		if (stepPrefix == null) {
+			return StringUtils.isEmpty(nsUri);
+		}
+
+		if (stepPrefix.equals(prefix)) {
+			return true;
+		}
+
+		String stepUri = nsContext == null ? null : nsContext.getNamespaceURI(stepPrefix);
+		return StringUtils.isNotEmpty(stepUri) && stepUri.equals(nsUri);
+	}
+
+	/**
+	 * Value resolved by location path.
+	 */
+	public static class MatchedValue {
+		private String text;
+		private final Map<String, String> attributes;
+
+		private MatchedValue(String text, Map<String, String> attributes) {
+			this.text = text;
+			this.attributes = attributes;
+		}
+
+		/**
+		 * Returns resolved textual value.
+		 *
+		 * @return resolved textual value, or {@code null} if {@code text()} step matched element has no text
+		 */
+		public String getText() {
+			return text;
+		}
+
+		/**
+		 * Returns attributes of element containing resolved value: matched element itself or owner element of matched
+		 * attribute. For {@code text()} steps there are no attributes.
+		 *
+		 * @return map of attribute qualified name and value, or {@code null} if not applicable
+		 */
+		public Map<String, String> getAttributes() {
+			return attributes;
+		}
+	}
+
+	private static class PathPattern {
+		private final String[] steps;
+		private final boolean descendant;
+		private final String attrName;
+		private final boolean text;
+
+		private PathPattern(String[] steps, boolean descendant, String attrName, boolean text) {
+			this.steps = steps;
+			this.descendant = descendant;
+			this.attrName = attrName;
+			this.text = text;
+		}
+
+	}
+
+	private static class ElementFrame {
+		private final String localName;
+		private final String prefix;
+		private final String nsUri;
+		private Map<String, String> attributes;
+
+		private ElementFrame(XMLStreamReader reader) {
+			localName = reader.getLocalName();
+			prefix = reader.getPrefix();
+			nsUri = reader.getNamespaceURI();
+		}
+	}
+
+	private static class Capture {
+		private final MatchedValue value;
+		private final int depth;
+		private final boolean directTextOnly;
+		private final StringBuilder text = new StringBuilder();
+
+		private Capture(MatchedValue value, int depth, boolean directTextOnly) {
+			this.value = value;
+			this.depth = depth;
+			this.directTextOnly = directTextOnly;
+		}
+	}
+}
@@ -24,17 +24,19 @@ import javax.script.*;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.codehaus.groovy.control.CompilationFailedException;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.customizers.CompilationCustomizer;
 import org.codehaus.groovy.control.customizers.ImportCustomizer;
 import org.codehaus.groovy.jsr223.GroovyScriptEngineImpl;
 
 import groovy.lang.GroovyClassLoader;
+import groovy.lang.Script;
 
 /**
  * General scripting utility methods used by TNT4J-Streams.
  * 
- * @version $Revision: 2 $
+ * @version $Revision: 5 $
  */
 public final class StreamsScriptingUtils {
 	/**
@@ -58,6 +60,10 @@ public final class StreamsScriptingUtils {
 	 * Constant for name of scripting/expression language {@value}.
 	 */
 	public static final String XPATH_SCRIPT_LANG = "xpath"; // NON-NLS
+	/**
+	 * Constant for name of scripting/expression language {@value}.
+	 */
+	public static final String NATIVE_LANG = "native"; // NON-NLS
 
 	private static final String SCRIPTING_CFG_PROPERTIES = "scripting.properties"; // NON-NLS
 	private static final String IMPORT_PACKAGES_PROP_KEY_SUFFIX = ".scripting.import.packages"; // NON-NLS
@@ -73,7 +79,14 @@ public final class StreamsScriptingUtils {
 	private static final Set<String> DEFAULT_IMPORT_CLASSES = new HashSet<>();
 
 	private static ScriptEngine GROOVY_SCRIPT_ENGINE;
+	private static GroovyClassLoader GROOVY_CLASS_LOADER;
 	private static ScriptEngine JS_SCRIPT_ENGINE;
+	private static final ThreadLocal<Bindings> JS_THREAD_BINDINGS = new ThreadLocal<Bindings>() {
+		@Override
+		protected Bindings initialValue() {
+			return getJSScriptEngine().createBindings();
+		}
+	};
 
 	static {
 		initDefaultImportPackages();
@@ -332,6 +345,44 @@ public final class StreamsScriptingUtils {
 		return ((Compilable) GROOVY_SCRIPT_ENGINE).compile(scriptCode);
 	}
 
+	/**
+	 * Compiles Groovy script code into {@link groovy.lang.Script} class, which instances are executed directly, without
+	 * JSR-223 scripting engine layer.
+	 *
+	 * @param scriptCode
+	 *            Groovy script code string
+	 * @return compiled Groovy script class wrapper
+	 *
+	 * @throws javax.script.ScriptException
+	 *             if compilation fails
+	 *
+	 * @see groovy.lang.GroovyClassLoader#parseClass(String)
+	 */
+	@SuppressWarnings("unchecked")
+	public static synchronized CompiledGroovyScript compileGroovyScriptClass(String scriptCode)
+			throws ScriptException {
+		if (GROOVY_CLASS_LOADER == null) {
+			GROOVY_CLASS_LOADER = new GroovyClassLoader(Thread.currentThread().getContextClassLoader(),
+					getDefaultGroovyCompilerConfig());
+		}
+
+		Class<?> scriptClass;
+		try {
+			scriptClass = GROOVY_CLASS_LOADER.parseClass(scriptCode);
+		} catch (CompilationFailedException exc) {
+			ScriptException se = new ScriptException(exc.getMessage());
+			se.initCause(exc);
+			throw se;
+		}
+
+		if (!Script.class.isAssignableFrom(scriptClass)) {
+			throw new ScriptException(StreamsResources.getStringFormatted(StreamsResources.RESOURCE_BUNDLE_NAME,
+					"StreamsScriptingUtils.not.groovy.script", scriptClass.getName()));
+		}
+
+		return new CompiledGroovyScript((Class<? extends Script>) scriptClass);
+	}
+
 	private static ScriptEngine initGroovyScriptEngine() {
 		ScriptEngineManager factory = new ScriptEngineManager();
 		ScriptEngine engine = factory.getEngineByName(GROOVY_LANG);
@@ -355,11 +406,32 @@ public final class StreamsScriptingUtils {
 	 * @see javax.script.Compilable#compile(String)
 	 */
 	public static CompiledScript compileJSScript(String scriptCode) throws ScriptException {
+		return ((Compilable) getJSScriptEngine()).compile(addDefaultJSScriptImports(scriptCode));
+	}
+
+	/**
+	 * Returns cleared JavaScript engine bindings bound to current thread. Same bindings instance is reused by all
+	 * JavaScript code evaluations made by that thread, so engine does not need to initialize new global scope for every
+	 * evaluation. Values set by previous evaluation are removed, so they are not visible for next evaluated script.
+	 * Fill returned bindings with script variables values before every evaluation.
+	 *
+	 * @return current thread JavaScript engine bindings
+	 *
+	 * @see javax.script.ScriptEngine#createBindings()
+	 */
+	public static Bindings getJSThreadBindings() {
+		Bindings bindings = JS_THREAD_BINDINGS.get();
+		bindings.clear();
+
+		return bindings;
+	}
+
+	private static synchronized ScriptEngine getJSScriptEngine() {
 		if (JS_SCRIPT_ENGINE == null) {
 			JS_SCRIPT_ENGINE = initJSScriptEngine();
 		}
 
-		return ((Compilable) JS_SCRIPT_ENGINE).compile(addDefaultJSScriptImports(scriptCode));
+		return JS_SCRIPT_ENGINE;
 	}
 
 	private static ScriptEngine initJSScriptEngine() {
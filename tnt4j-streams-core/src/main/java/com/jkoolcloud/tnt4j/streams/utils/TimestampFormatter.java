@@ -19,10 +19,23 @@ package com.jkoolcloud.tnt4j.streams.utils;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.TimeZone;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -36,19 +49,33 @@ import com.jkoolcloud.tnt4j.core.UsecTimestamp;
  * This is based on {@link SimpleDateFormat}, but extends its support to recognize microsecond fractional seconds. If
  * number of fractional second characters is greater than 3, then it's assumed to be microseconds. Otherwise, it's
  * assumed to be milliseconds (as this is the behavior of {@link SimpleDateFormat}.
+ * <p>
+ * Date/time strings are parsed using immutable {@link DateTimeFormatter} built from {@link SimpleDateFormat} pattern,
+ * so formatter instance can be safely shared between threads. For patterns ending with seconds and optional fraction
+ * of second fields, recently parsed date/time prefixes up to seconds are cached, so monotonically increasing log
+ * timestamps within same second are resolved without full parsing. If pattern can't be expressed by
+ * {@link DateTimeFormatter} without changing {@link SimpleDateFormat} semantics or {@link DateTimeFormatter} fails to
+ * parse value (e.g. because {@link SimpleDateFormat} parses leniently), {@link UsecTimestamp} provided parsing is
+ * used. Fraction of second having more than 3 characters is parsed by {@link DateTimeFormatter} only when it is
+ * {@code ".SSSSSS"} ending the pattern, other fraction lengths are left to {@link UsecTimestamp} microseconds
+ * handling.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 4 $
  *
  * @see SimpleDateFormat
+ * @see DateTimeFormatter
  * @see UsecTimestamp
  */
 public class TimestampFormatter {
+	private static final int MAX_CACHED_FORMATTERS = 256;
+	private static final Map<String, TimestampFormatter> FORMATTERS_CACHE = new ConcurrentHashMap<>();
 
 	private String pattern = null;
 	private String timeZone = null;
 	private TimeUnit units = null;
 	private DateFormat formatter = null;
 	private String locale = null;
+	private DateTimeParser dtParser = null;
 
 	/**
 	 * Creates a timestamp formatter/parser for numeric timestamps with the specified resolution.
@@ -99,6 +126,7 @@ public class TimestampFormatter {
 		this.locale = locale;
 		formatter = StringUtils.isEmpty(pattern) ? new SimpleDateFormat() : StringUtils.isEmpty(locale)
 				? new SimpleDateFormat(pattern) : new SimpleDateFormat(pattern, Utils.getLocale(locale));
+		dtParser = DateTimeParser.build(pattern, timeZone, locale);
 	}
 
 	/**
@@ -121,6 +149,7 @@ public class TimestampFormatter {
 		this.pattern = null;
 		this.formatter = null;
 		this.locale = null;
+		this.dtParser = null;
 	}
 
 	/**
@@ -145,6 +174,9 @@ public class TimestampFormatter {
 		if (formatter != null && StringUtils.isNotEmpty(timeZone)) {
 			formatter.setTimeZone(TimeZone.getTimeZone(timeZone));
 		}
+		if (pattern != null) {
+			dtParser = DateTimeParser.build(pattern, timeZone, locale);
+		}
 	}
 
 	/**
@@ -213,7 +245,7 @@ public class TimestampFormatter {
 			if (units != null) {
 				return parse(units, value);
 			} else if (pattern != null) {
-				return parse(pattern, value, timeZone, locale);
+				return parsePattern(Utils.toString(value));
 			}
 		}
 		throw new ParseException(StreamsResources.getStringFormatted(StreamsResources.RESOURCE_BUNDLE_NAME,
@@ -229,7 +261,9 @@ public class TimestampFormatter {
 	 * @return date/time formatted as a string
 	 */
 	public String format(Object value) {
-		return formatter.format(value);
+		synchronized (formatter) {
+			return formatter.format(value);
+		}
 	}
 
 	/**
@@ -394,7 +428,32 @@ public class TimestampFormatter {
 	public static UsecTimestamp parse(String pattern, Object value, String timeZoneId, String locale)
 			throws ParseException {
 		String dateStr = Utils.toString(value);
-		return new UsecTimestamp(dateStr, pattern, timeZoneId, locale);
+		if (StringUtils.isEmpty(pattern)) {
+			return new UsecTimestamp(dateStr, pattern, timeZoneId, locale);
+		}
+
+		String fKey = pattern + '|' + timeZoneId + '|' + locale;
+		TimestampFormatter tsFormatter = FORMATTERS_CACHE.get(fKey);
+		if (tsFormatter == null) {
+			tsFormatter = new TimestampFormatter(pattern, timeZoneId, locale);
+			if (FORMATTERS_CACHE.size() < MAX_CACHED_FORMATTERS) {
+				FORMATTERS_CACHE.put(fKey, tsFormatter);
+			}
+		}
+
+		return tsFormatter.parsePattern(dateStr);
+	}
+
+	private UsecTimestamp parsePattern(String dateStr) throws ParseException {
+		DateTimeParser dtp = dtParser;
+		if (dtp != null && dateStr != null) {
+			UsecTimestamp ts = dtp.parse(dateStr);
+			if (ts != null) {
+				return ts;
+			}
+		}
+
+		return new UsecTimestamp(dateStr, pattern, timeZone, locale);
 	}
 
 	/**
@@ -445,4 +504,313 @@ public class TimestampFormatter {
 	public static long convert(Number timestamp, TimeUnit fromUnits, TimeUnit toUnits) {
 		return toUnits.convert(timestamp == null ? 0 : timestamp.longValue(), fromUnits);
 	}
+
+	/**
+	 * Thread safe date/time strings parser using {@link DateTimeFormatter} built from {@link SimpleDateFormat}
+	 * pattern.
+	 */
+	private static class DateTimeParser {
+		private static final int SECONDS_CACHE_SIZE = 4;
+		private static final int MAX_MISSES_WITHOUT_HIT = 100;
+		private static final long[] FRACTION_SCALE = { 1L, 100000000L, 10000000L, 1000000L, 100000L, 10000L, 1000L,
+				100L, 10L, 1L };
+
+		private final DateTimeFormatter formatter;
+		private final int fractionDigits;
+		private final int fractionSeparator;
+		private final boolean secondsCacheable;
+		private final AtomicReferenceArray<SecondsEntry> secondsCache = new AtomicReferenceArray<>(
+				SECONDS_CACHE_SIZE);
+
+		private volatile boolean hit = false;
+		private volatile boolean disabled = false;
+		private final AtomicInteger misses = new AtomicInteger();
+
+		private DateTimeParser(DateTimeFormatter formatter, int fractionDigits, int fractionSeparator,
+				boolean secondsCacheable) {
+			this.formatter = formatter;
+			this.fractionDigits = fractionDigits;
+			this.fractionSeparator = fractionSeparator;
+			this.secondsCacheable = secondsCacheable;
+		}
+
+		/**
+		 * Builds date/time parser for provided {@link SimpleDateFormat} pattern.
+		 *
+		 * @param pattern
+		 *            {@link SimpleDateFormat} pattern
+		 * @param timeZone
+		 *            time zone ID, or {@code null} to use the default time zone
+		 * @param locale
+		 *            locale for date format to use
+		 * @return date/time parser instance, or {@code null} if pattern can't be expressed by
+		 *         {@link DateTimeFormatter}
+		 */
+		static DateTimeParser build(String pattern, String timeZone, String locale) {
+			if (StringUtils.isEmpty(pattern)) {
+				return null;
+			}
+
+			StringBuilder dtPattern = new StringBuilder(pattern.length() + 8);
+			Set<Character> letters = new HashSet<>();
+			int fractionDigits = 0;
+			int len = pattern.length();
+			for (int i = 0; i < len;) {
+				char c = pattern.charAt(i);
+				if (c == '\'') {
+					int end = i + 1;
+					while (end < len) {
+						if (pattern.charAt(end) == '\'') {
+							if (end + 1 < len && pattern.charAt(end + 1) == '\'') {
+								end += 2;
+								continue;
+							}
+							break;
+						}
+						end++;
+					}
+					if (end >= len) {
+						return null;
+					}
+					dtPattern.append(pattern, i, end + 1);
+					i = end + 1;
+				} else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+					int end = i;
+					while (end < len && pattern.charAt(end) == c) {
+						end++;
+					}
+					int count = end - i;
+					char dtLetter = toDateTimeLetter(c, count);
+					if (dtLetter == 0) {
+						return null;
+					}
+					if (c == 'S') {
+						fractionDigits = count;
+					}
+					letters.add(c);
+					for (int ci = 0; ci < count; ci++) {
+						dtPattern.append(dtLetter);
+					}
+					i = end;
+				} else {
+					if (c == '[' || c == ']' || c == '{' || c == '}' || c == '#') {
+						dtPattern.append('\'').append(c).append('\'');
+					} else {
+						dtPattern.append(c);
+					}
+					i++;
+				}
+			}
+
+			boolean hours12 = letters.contains('h') || letters.contains('K');
+			if (hours12 != letters.contains('a')) {
+				return null;
+			}
+
+			DateTimeFormatter dtFormatter;
+			try {
+				DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder().parseCaseInsensitive()
+						.appendPattern(dtPattern.toString());
+				if (!letters.contains('y')) {
+					builder.parseDefaulting(ChronoField.YEAR, 1970);
+				}
+				if (!letters.contains('D')) {
+					if (!letters.contains('M')) {
+						builder.parseDefaulting(ChronoField.MONTH_OF_YEAR, 1);
+					}
+					if (!letters.contains('d')) {
+						builder.parseDefaulting(ChronoField.DAY_OF_MONTH, 1);
+					}
+				}
+				if (!hours12 && !letters.contains('H') && !letters.contains('k')) {
+					builder.parseDefaulting(ChronoField.HOUR_OF_DAY, 0);
+				}
+				if (!letters.contains('m')) {
+					builder.parseDefaulting(ChronoField.MINUTE_OF_HOUR, 0);
+				}
+				if (!letters.contains('s')) {
+					builder.parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0);
+				}
+				ZoneId zone = StringUtils.isEmpty(timeZone) ? ZoneId.systemDefault()
+						: TimeZone.getTimeZone(timeZone).toZoneId();
+				Locale loc = StringUtils.isEmpty(locale) ? Locale.getDefault(Locale.Category.FORMAT)
+						: Utils.getLocale(locale);
+				dtFormatter = builder.toFormatter(loc).withResolverStyle(ResolverStyle.STRICT).withZone(zone);
+			} catch (IllegalArgumentException | DateTimeException exc) {
+				return null;
+			}
+
+			// seconds cache is applicable for patterns ending with "ss", "ssSSS" or "ss.SSS" (any non letter separator)
+			int secondsEnd = len;
+			int fractionSeparator = -1;
+			if (fractionDigits > 0) {
+				secondsEnd = pattern.charAt(len - 1) == 'S' ? len - fractionDigits : 0;
+				if (secondsEnd > 0 && pattern.charAt(secondsEnd - 1) != 's') {
+					char sep = pattern.charAt(secondsEnd - 1);
+					fractionSeparator = Character.isLetter(sep) || sep == '\'' ? -1 : sep;
+					secondsEnd = fractionSeparator == -1 ? 0 : secondsEnd - 1;
+				}
+			}
+			// UsecTimestamp takes fraction longer than 3 digits as microseconds count following last '.' of date/time
+			// string, so only trailing '.' separated 6 digits fraction has same value as decimal fraction of second
+			if (fractionDigits > 3 && (fractionDigits != 6 || fractionSeparator != '.'
+					|| pattern.indexOf('S') != len - fractionDigits)) {
+				return null;
+			}
+			boolean cacheable = secondsEnd > 0 && pattern.charAt(secondsEnd - 1) == 's';
+
+			return new DateTimeParser(dtFormatter, fractionDigits, fractionSeparator, cacheable);
+		}
+
+		private static char toDateTimeLetter(char c, int count) {
+			switch (c) {
+			case 'y':
+				// two digit year has different century resolution
+				return count == 2 ? 0 : 'u';
+			case 'M':
+				return count <= 4 ? c : 0;
+			case 'd':
+			case 'H':
+			case 'k':
+			case 'K':
+			case 'h':
+			case 'm':
+			case 's':
+				return count <= 2 ? c : 0;
+			case 'D':
+				return count <= 3 ? c : 0;
+			case 'E':
+			case 'z':
+				return count <= 4 ? c : 0;
+			case 'a':
+				return count == 1 ? c : 0;
+			case 'Z':
+			case 'X':
+				return count <= 3 ? c : 0;
+			case 'S':
+				// less than 3 digits are milliseconds count, not a fraction of second
+				return count >= 3 && count <= 9 ? c : 0;
+			default:
+				return 0;
+			}
+		}
+
+		/**
+		 * Parses date/time string into timestamp.
+		 *
+		 * @param dateStr
+		 *            date/time string to parse
+		 * @return microsecond timestamp, or {@code null} if string can't be parsed by this parser
+		 */
+		UsecTimestamp parse(String dateStr) {
+			if (disabled) {
+				return null;
+			}
+
+			int prefixLength = secondsCacheable ? getSecondsPrefixLength(dateStr) : -1;
+			if (prefixLength > 0) {
+				SecondsEntry entry = secondsCache.get(slot(dateStr, prefixLength));
+				if (entry != null && entry.prefix.length() == prefixLength
+						&& dateStr.regionMatches(0, entry.prefix, 0, prefixLength)) {
+					return toTimestamp(entry.epochSeconds, parseFraction(dateStr));
+				}
+			}
+
+			Instant instant;
+			try {
+				instant = toInstant(formatter.parse(dateStr));
+			} catch (DateTimeException exc) {
+				if (!hit && misses.incrementAndGet() >= MAX_MISSES_WITHOUT_HIT) {
+					disabled = true;
+				}
+				return null;
+			}
+			hit = true;
+
+			if (prefixLength > 0) {
+				secondsCache.set(slot(dateStr, prefixLength),
+						new SecondsEntry(dateStr.substring(0, prefixLength), instant.getEpochSecond()));
+			}
+
+			return toTimestamp(instant.getEpochSecond(), instant.getNano());
+		}
+
+		/**
+		 * Resolves parsed date/time into instant. When date/time string has no offset and local date/time falls into
+		 * time zone overlap (e.g., daylight saving time fall-back hour), later offset (standard time) is used the same
+		 * way as {@link SimpleDateFormat} does.
+		 *
+		 * @param parsed
+		 *            parsed date/time
+		 * @return instant of parsed date/time
+		 * @throws DateTimeException
+		 *             if parsed date/time can't be resolved into instant
+		 */
+		private static Instant toInstant(TemporalAccessor parsed) throws DateTimeException {
+			ZoneOffset offset = parsed.query(TemporalQueries.offset());
+			if (offset != null) {
+				return Instant.from(parsed);
+			}
+
+			LocalDateTime ldt = LocalDateTime.from(parsed);
+			return ZonedDateTime.ofLocal(ldt, ZoneId.from(parsed), null).withLaterOffsetAtOverlap().toInstant();
+		}
+
+		private int getSecondsPrefixLength(String dateStr) {
+			int len = dateStr.length();
+			int prefixLength = len - fractionDigits;
+			if (fractionSeparator >= 0) {
+				prefixLength--;
+				if (prefixLength <= 0 || dateStr.charAt(prefixLength) != fractionSeparator) {
+					return -1;
+				}
+			}
+			if (prefixLength <= 0) {
+				return -1;
+			}
+			for (int i = len - fractionDigits; i < len; i++) {
+				char c = dateStr.charAt(i);
+				if (c < '0' || c > '9') {
+					return -1;
+				}
+			}
+
+			return prefixLength;
+		}
+
+		private long parseFraction(String dateStr) {
+			long fraction = 0;
+			int len = dateStr.length();
+			for (int i = len - fractionDigits; i < len; i++) {
+				fraction = fraction * 10 + (dateStr.charAt(i) - '0');
+			}
+
+			return fraction * FRACTION_SCALE[fractionDigits];
+		}
+
+		private static int slot(String dateStr, int prefixLength) {
+			int h = 0;
+			for (int i = prefixLength - 4 < 0 ? 0 : prefixLength - 4; i < prefixLength; i++) {
+				h = 31 * h + dateStr.charAt(i);
+			}
+
+			return h & (SECONDS_CACHE_SIZE - 1);
+		}
+
+		private static UsecTimestamp toTimestamp(long epochSeconds, long nanos) {
+			long micros = nanos / 1000L;
+
+			return new UsecTimestamp(epochSeconds * 1000L + micros / 1000L, micros % 1000L);
+		}
+	}
+
+	private static class SecondsEntry {
+		private final String prefix;
+		private final long epochSeconds;
+
+		private SecondsEntry(String prefix, long epochSeconds) {
+			this.prefix = prefix;
+			this.epochSeconds = epochSeconds;
+		}
+	}
 }
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.utils;
+
+/**
+ * Splits {@link CharSequence} into delimiter separated tokens without copying token characters. Tokens are kept as
+ * bounds of source sequence slices, and token {@link String} value is built only when requested.
+ * <p>
+ * Tokenization rules follow {@link org.apache.commons.text.StringTokenizer} having char set delimiter matcher, double
+ * quote matcher (when quoting is enabled), no trimmer and preserving empty tokens:
+ * <ul>
+ * <li>empty token is produced between adjacent delimiters and after trailing delimiter</li>
+ * <li>only token starting with double quote character is handled as quoted: delimiters within quoted parts of such
+ * token are ignored, quote characters are stripped and doubled quote within quoted part stands for single quote
+ * character. Quoted part can be followed by unquoted one, e.g. {@code "a,b"c} makes token {@code a,bc}</li>
+ * <li>double quote characters of token not starting with double quote are kept as is</li>
+ * <li>unterminated quoted part lasts to the end of sequence</li>
+ * <li>whitespace characters are not trimmed, unless requested by {@link #get(int, boolean)}</li>
+ * </ul>
+ *
+ * @version $Revision: 2 $
+ */
+public class TokenizedCharSequence {
+	private static final char QUOTE = '"';
+	private static final int SLOT_SIZE = 3;
+	private static final int INITIAL_TOKENS_COUNT = 16;
+
+	private final CharSequence source;
+	private int[] bounds;
+	private int count;
+
+	/**
+	 * Constructs a new TokenizedCharSequence and tokenizes provided char sequence.
+	 *
+	 * @param source
+	 *            char sequence to tokenize
+	 * @param delims
+	 *            token delimiter characters, {@code null} or empty array means no delimiters
+	 * @param quotes
+	 *            flag indicating whether double quoted tokens shall be handled
+	 */
+	public TokenizedCharSequence(CharSequence source, char[] delims, boolean quotes) {
+		this.source = source;
+		this.bounds = new int[INITIAL_TOKENS_COUNT * SLOT_SIZE];
+
+		tokenize(delims, quotes);
+	}
+
+	private void tokenize(char[] delims, boolean quotes) {
+		int len = source.length();
+		int pos = 0;
+		while (pos < len) {
+			int start = pos;
+			boolean quoted = quotes && source.charAt(start) == QUOTE;
+			boolean inQuote = false;
+			while (pos < len) {
+				char c = source.charAt(pos);
+				if (inQuote) {
+					if (c == QUOTE) {
+						if (pos + 1 < len && source.charAt(pos + 1) == QUOTE) {
+							pos += 2;
+							continue;
+						}
+						inQuote = false;
+					}
+				} else if (isDelimiter(c, delims)) {
+					break;
+				} else if (quoted && c == QUOTE) {
+					inQuote = true;
+				}
+				pos++;
+			}
+			addToken(start, pos, quoted);
+
+			if (pos < len) {
+				pos++;
+				if (pos == len) {
+					addToken(pos, pos, false);
+				}
+			}
+		}
+	}
+
+	private static boolean isDelimiter(char c, char[] delims) {
+		if (delims == null) {
+			return false;
+		}
+		for (char d : delims) {
+			if (d == c) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void addToken(int start, int end, boolean quoted) {
+		int idx = count * SLOT_SIZE;
+		if (idx + SLOT_SIZE > bounds.length) {
+			int[] nBounds = new int[bounds.length * 2];
+			System.arraycopy(bounds, 0, nBounds, 0, bounds.length);
+			bounds = nBounds;
+		}
+		bounds[idx] = start;
+		bounds[idx + 1] = end;
+		bounds[idx + 2] = quoted ? 1 : 0;
+		count++;
+	}
+
+	/**
+	 * Returns tokenized source char sequence.
+	 *
+	 * @return source char sequence
+	 */
+	public CharSequence getSource() {
+		return source;
+	}
+
+	/**
+	 * Returns number of tokens found in source char sequence.
+	 *
+	 * @return number of tokens
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Returns string value of token at defined index.
+	 *
+	 * @param idx
+	 *            0-based token index
+	 * @return token string value
+	 * @throws IndexOutOfBoundsException
+	 *             if token index is out of range
+	 */
+	public String get(int idx) {
+		return get(idx, false);
+	}
+
+	/**
+	 * Returns string value of token at defined index, optionally trimming leading and trailing whitespace characters
+	 * the same way {@link String#trim()} does.
+	 *
+	 * @param idx
+	 *            0-based token index
+	 * @param trim
+	 *            flag indicating whether to trim token value
+	 * @return token string value
+	 * @throws IndexOutOfBoundsException
+	 *             if token index is out of range
+	 */
+	public String get(int idx, boolean trim) {
+		if (idx < 0 || idx >= count) {
+			throw new IndexOutOfBoundsException(String.valueOf(idx));
+		}
+		int bIdx = idx * SLOT_SIZE;
+		int start = bounds[bIdx];
+		int end = bounds[bIdx + 1];
+
+		if (bounds[bIdx + 2] != 0) {
+			String value = unquote(start, end);
+			return trim ? value.trim() : value;
+		}
+
+		if (trim) {
+			while (start < end && source.charAt(start) <= ' ') {
+				start++;
+			}
+			while (end > start && source.charAt(end - 1) <= ' ') {
+				end--;
+			}
+		}
+
+		return slice(start, end);
+	}
+
+	private String slice(int start, int end) {
+		if (source instanceof String) {
+			return ((String) source).substring(start, end);
+		}
+
+		return new StringBuilder(end - start).append(source, start, end).toString();
+	}
+
+	private String unquote(int start, int end) {
+		StringBuilder sb = new StringBuilder(end - start);
+		boolean inQuote = false;
+		for (int pos = start; pos < end; pos++) {
+			char c = source.charAt(pos);
+			if (c == QUOTE) {
+				if (inQuote && pos + 1 < end && source.charAt(pos + 1) == QUOTE) {
+					sb.append(QUOTE);
+					pos++;
+				} else {
+					inQuote = !inQuote;
+				}
+			} else {
+				sb.append(c);
+			}
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Builds array of all tokens string values.
+	 *
+	 * @return array of tokens string values
+	 */
+	public String[] toArray() {
+		String[] tokens = new String[count];
+		for (int i = 0; i < count; i++) {
+			tokens[i] = get(i);
+		}
+
+		return tokens;
+	}
+}
@@ -62,7 +62,7 @@ import com.jkoolcloud.tnt4j.streams.configure.NamedObject;
 /**
  * General utility methods used by TNT4J-Streams.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  */
 public final class Utils extends com.jkoolcloud.tnt4j.utils.Utils {
 
@@ -445,8 +445,8 @@ public final class Utils extends com.jkoolcloud.tnt4j.utils.Utils {
 	}
 
 	/**
-	 * Returns string line read from data source. Data source object can be {@link String}, {@link java.io.Reader} or
-	 * {@link java.io.InputStream}.
+	 * Returns string line read from data source. Data source object can be {@link String}, {@code byte[]},
+	 * {@link java.nio.ByteBuffer}, {@link java.io.Reader} or {@link java.io.InputStream}.
 	 *
 	 * @param data
 	 *            data source object to read string line
@@ -470,8 +470,7 @@ public final class Utils extends com.jkoolcloud.tnt4j.utils.Utils {
 			rdr = new BufferedReader(new StringReader(getString((byte[]) data)));
 			autoClose = true;
 		} else if (data instanceof ByteBuffer) {
-			ByteBuffer bb = (ByteBuffer) data;
-			rdr = new BufferedReader(new StringReader(getString(bb.array())));
+			rdr = new BufferedReader(new InputStreamReader(new ByteBufferInputStream((ByteBuffer) data)));
 			autoClose = true;
 		} else if (data instanceof BufferedReader) {
 			rdr = (BufferedReader) data;
@@ -656,6 +655,27 @@ public final class Utils extends com.jkoolcloud.tnt4j.utils.Utils {
 		return strBytes == null ? null : StringUtils.toEncodedString(strBytes, charset);
 	}
 
+	/**
+	 * Makes a new {@link String} by decoding remaining bytes of specified byte buffer using {@code charset} defined
+	 * charset. Bytes are decoded directly from buffer (heap or direct) without copying them into intermediate array,
+	 * and buffer position is left unchanged.
+	 *
+	 * @param strBytes
+	 *            the byte buffer to be decoded into characters
+	 * @param charset
+	 *            charset instance to use for decoding, or {@code null} to use system default charset
+	 * @return string constructed from specified byte buffer, or {@code null} if {@code strBytes} is {@code null}
+	 *
+	 * @see java.nio.charset.Charset#decode(java.nio.ByteBuffer)
+	 */
+	public static String getString(ByteBuffer strBytes, Charset charset) {
+		if (strBytes == null) {
+			return null;
+		}
+
+		return (charset == null ? Charset.defaultCharset() : charset).decode(strBytes.duplicate()).toString();
+	}
+
 	/**
 	 * Returns UUID found in provided string.
 	 *
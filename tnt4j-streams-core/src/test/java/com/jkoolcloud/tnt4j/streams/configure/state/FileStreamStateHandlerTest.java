@@ -29,9 +29,11 @@ import java.nio.file.Paths;
 import java.util.zip.CRC32;
 import java.util.zip.Checksum;
 
+import org.apache.commons.lang3.StringUtils;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.jkoolcloud.tnt4j.streams.inputs.AbstractFileLineStream;
 import com.jkoolcloud.tnt4j.streams.utils.Utils;
 
 /**
@@ -113,4 +115,40 @@ public class FileStreamStateHandlerTest {
 		fileWritten.delete();
 	}
 
+	@Test
+	public void restoreLineModeState() throws Exception {
+		String streamName = "LineModeTestStream"; // NON-NLS
+		File testFilesDir = Files.createTempDirectory("TEST_STATE").toFile(); // NON-NLS
+		Path testFile = new File(testFilesDir, "test.log").toPath(); // NON-NLS
+		// file header used to find streamed file is longer than CRC calculation window
+		String header = StringUtils.repeat('H', 300);
+		Files.write(testFile, (header + "\nLINE2\nLINE3\n").getBytes()); // NON-NLS
+		Path[] testFiles = { testFile };
+
+		try {
+			FileStreamStateHandler rwd = new FileStreamStateHandler(testFiles, streamName);
+			rwd.setStreamedFile(testFile);
+			// state is saved for previous line, once next line gets streamed
+			rwd.saveState(new AbstractFileLineStream.Line("LINE2", 2), streamName); // NON-NLS
+			rwd.saveState(new AbstractFileLineStream.Line("LINE3", 3), streamName); // NON-NLS
+			rwd.writeState(testFilesDir, streamName);
+
+			rwd = new FileStreamStateHandler(testFiles, streamName);
+			assertEquals(testFile, rwd.getFile());
+			assertEquals(2, rwd.getLineNumber());
+			assertEquals(-1, rwd.getLineOffset());
+
+			// persisted line got changed, so it shall be found by line CRC check
+			Files.write(testFile, (header + "\nCHANGED2\nLINE3\n").getBytes()); // NON-NLS
+			rwd = new FileStreamStateHandler(testFiles, streamName);
+			assertEquals(testFile, rwd.getFile());
+			assertEquals(0, rwd.getLineNumber());
+		} finally {
+			new File(testFilesDir, AbstractFileStreamStateHandler.getFileName(streamName)).delete();
+			new File(System.getProperty("java.io.tmpdir"), AbstractFileStreamStateHandler.getFileName(streamName))
+					.delete();
+			Files.delete(testFile);
+			testFilesDir.delete();
+		}
+	}
 }
@@ -453,4 +453,32 @@ public class ActivityInfoTest {
 		Object startTime = ai.getFieldValue("startTime");
 		System.out.printf("The result: %s \n", startTime);
 	}
+
+	@Test
+	public void testGetFieldValueReferences() throws ParseException {
+		ActivityInfo ai = new ActivityInfo();
+		ActivityField af = new ActivityField(StreamFieldType.EventName.name());
+		af.addLocator(new ActivityFieldLocator(ActivityFieldLocatorType.Label, "TestLocator"));
+		ai.applyField(af, "TestEvent");
+		ai.addActivityProperty("TestProp", "TestValue");
+		ai.addActivityProperty("child[x].y", "InvalidChildLocator");
+
+		ActivityInfo child = new ActivityInfo();
+		child.addActivityProperty("ChildProp", "ChildValue");
+		ai.addChild("TestGroup", child);
+
+		for (int i = 0; i < 2; i++) {
+			assertEquals("TestEvent", ai.getFieldValue("eventname"));
+			assertEquals("TestEvent", ai.getFieldValue("${EventName}"));
+			assertEquals("TestValue", ai.getFieldValue("TestProp"));
+			assertEquals("TestValue", ai.getFieldValue("${TestProp}"));
+			assertNull(ai.getFieldValue("MissingProp"));
+			assertEquals("InvalidChildLocator", ai.getFieldValue("child[x].y"));
+			assertEquals("ChildValue", ai.getFieldValue("child[TestGroup.0].ChildProp"));
+			assertEquals("ChildValue", ai.getFieldValue("child[0].ChildProp", "TestGroup"));
+			assertNull(ai.getFieldValue("child[TestGroup.1].ChildProp"));
+			assertEquals("TestEvent", child.getFieldValue("^.EventName"));
+			assertEquals("TestValue", child.getFieldValue("^.${TestProp}"));
+		}
+	}
 }
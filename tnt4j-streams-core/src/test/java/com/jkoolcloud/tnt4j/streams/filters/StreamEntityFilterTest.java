@@ -159,4 +159,51 @@ public class StreamEntityFilterTest {
 		assertTrue(filterResult);
 	}
 
+	@Test
+	public void testGroovyExpressionFilterVariables() throws Exception {
+		GroovyExpressionFilter filter = new GroovyExpressionFilter("INCLUDE", "$fieldValue > ${Limit}");
+
+		ActivityInfo ai = new ActivityInfo();
+		ai.addActivityProperty("Limit", 10);
+		assertFalse(filter.doFilter(15, ai));
+		assertTrue(filter.doFilter(5, ai));
+
+		ai.addActivityProperty("Limit", 1);
+		assertFalse(filter.doFilter(5, ai));
+	}
+
+	@Test
+	public void testJavaScriptExpressionFilterVariables() throws Exception {
+		JavaScriptExpressionFilter filter = new JavaScriptExpressionFilter("INCLUDE", "$fieldValue > ${Limit}");
+
+		ActivityInfo ai = new ActivityInfo();
+		ai.addActivityProperty("Limit", 10);
+		assertFalse(filter.doFilter(15, ai));
+		assertTrue(filter.doFilter(5, ai));
+
+		ai.addActivityProperty("Limit", 1);
+		assertFalse(filter.doFilter(5, ai));
+	}
+
+	@Test(expected = FilterException.class)
+	public void testJavaScriptExpressionFilterVariablesNotRetained() throws Exception {
+		JavaScriptExpressionFilter filter = new JavaScriptExpressionFilter("INCLUDE", "$fieldValue > ${Limit}");
+
+		ActivityInfo ai = new ActivityInfo();
+		ai.addActivityProperty("Limit", 10);
+		assertFalse(filter.doFilter(15, ai));
+
+		// no activity entity - previous evaluation variable value shall not be used
+		filter.doFilter(15, null);
+	}
+
+	@Test
+	public void testJavaScriptExpressionFiltersVariablesNotShared() throws Exception {
+		JavaScriptExpressionFilter filter = new JavaScriptExpressionFilter("INCLUDE", "(jsVar = $fieldValue) > 10");
+		JavaScriptExpressionFilter filter2 = new JavaScriptExpressionFilter("INCLUDE", "typeof jsVar == 'undefined'");
+
+		assertFalse(filter.doFilter(15, null));
+		assertFalse(filter2.doFilter(15, null));
+	}
+
 }
\ No newline at end of file
@@ -19,9 +19,14 @@ package com.jkoolcloud.tnt4j.streams.inputs;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
 
+import java.io.File;
+import java.nio.file.Files;
+
 import org.junit.Test;
 
 import com.jkoolcloud.tnt4j.sink.EventSink;
+import com.jkoolcloud.tnt4j.streams.configure.StreamProperties;
+import com.jkoolcloud.tnt4j.streams.utils.RingBufferQueue;
 
 /**
  * @author akausinis
@@ -39,6 +44,110 @@ public class AbstractBufferedStreamTest {
 		assertEquals("TEST", abs.getNextItem());
 	}
 
+	@Test
+	public void getNextItemRingBufferTest() throws Exception {
+		abs.setProperty(StreamProperties.PROP_BUFFER_TYPE, "ring"); // NON-NLS
+		abs.setProperty(StreamProperties.PROP_BUFFER_DRAIN_BATCH_SIZE, "2"); // NON-NLS
+		abs.startStream();
+		abs.setOwnerThread(mock(StreamThread.class));
+		assertTrue(abs.inputBuffer instanceof RingBufferQueue);
+		abs.addInputToBuffer("TEST1"); // NON-NLS
+		abs.addInputToBuffer("TEST2"); // NON-NLS
+		abs.addInputToBuffer("TEST3"); // NON-NLS
+		assertEquals("TEST1", abs.getNextItem());
+		assertEquals(1, abs.inputBuffer.size());
+		assertEquals("TEST2", abs.getNextItem());
+		assertEquals("TEST3", abs.getNextItem());
+		inputShouldEnd = true;
+		assertNull(abs.getNextItem());
+	}
+
+	@Test(timeout = 5000)
+	public void getNextItemSpilledTest() throws Exception {
+		File spillDir = Files.createTempDirectory("spill").toFile(); // NON-NLS
+		abs.setProperty(StreamProperties.PROP_BUFFER_SIZE, "2"); // NON-NLS
+		abs.setProperty(StreamProperties.PROP_BUFFER_SPILL_WHEN_FULL, "true"); // NON-NLS
+		abs.setProperty(StreamProperties.PROP_BUFFER_SPILL_DIRECTORY, spillDir.getPath());
+		abs.startStream();
+		abs.setOwnerThread(mock(StreamThread.class));
+		try {
+			for (int i = 0; i < 10; i++) {
+				assertTrue(abs.addInputToBuffer("TEST" + i)); // NON-NLS
+			}
+			assertEquals(2, abs.inputBuffer.size());
+			for (int i = 0; i < 10; i++) {
+				assertEquals("TEST" + i, abs.getNextItem()); // NON-NLS
+			}
+		} finally {
+			abs.cleanup();
+			assertEquals(0, spillDir.list().length);
+			spillDir.delete();
+		}
+	}
+
+	@Test(timeout = 5000)
+	public void notSpillableDroppedWhileSpillingTest() throws Exception {
+		File spillDir = Files.createTempDirectory("spill").toFile(); // NON-NLS
+		abs.setProperty(StreamProperties.PROP_BUFFER_SIZE, "2"); // NON-NLS
+		abs.setProperty(StreamProperties.PROP_BUFFER_DROP_WHEN_FULL, "true"); // NON-NLS
+		abs.setProperty(StreamProperties.PROP_BUFFER_SPILL_WHEN_FULL, "true"); // NON-NLS
+		abs.setProperty(StreamProperties.PROP_BUFFER_SPILL_DIRECTORY, spillDir.getPath());
+		abs.setProperty(StreamProperties.PROP_BUFFER_SPILL_SEGMENT_SIZE, "256"); // NON-NLS
+		abs.startStream();
+		abs.setOwnerThread(mock(StreamThread.class));
+		try {
+			for (int i = 0; i < 5; i++) {
+				assertTrue(abs.addInputToBuffer("TEST" + i)); // NON-NLS
+			}
+			// does not fit spill segment and shall not overtake spilled entries
+			assertFalse(abs.addInputToBuffer(new String(new char[512])));
+			assertEquals(1, abs.getLostActivitiesCount());
+			for (int i = 0; i < 5; i++) {
+				assertEquals("TEST" + i, abs.getNextItem()); // NON-NLS
+			}
+			assertTrue(abs.inputBuffer.isEmpty());
+		} finally {
+			abs.cleanup();
+			spillDir.delete();
+		}
+	}
+
+	@Test(timeout = 5000)
+	public void notSpillableWaitsForSpilledTest() throws Exception {
+		File spillDir = Files.createTempDirectory("spill").toFile(); // NON-NLS
+		abs.setProperty(StreamProperties.PROP_BUFFER_SIZE, "2"); // NON-NLS
+		abs.setProperty(StreamProperties.PROP_BUFFER_SPILL_WHEN_FULL, "true"); // NON-NLS
+		abs.setProperty(StreamProperties.PROP_BUFFER_SPILL_DIRECTORY, spillDir.getPath());
+		abs.setProperty(StreamProperties.PROP_BUFFER_SPILL_SEGMENT_SIZE, "256"); // NON-NLS
+		abs.startStream();
+		abs.setOwnerThread(mock(StreamThread.class));
+		final String bigItem = new String(new char[512]);
+		try {
+			for (int i = 0; i < 5; i++) {
+				assertTrue(abs.addInputToBuffer("TEST" + i)); // NON-NLS
+			}
+			Thread producer = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					abs.addInputToBuffer(bigItem);
+				}
+			});
+			producer.start();
+			Thread.sleep(200);
+			assertTrue(producer.isAlive());
+
+			for (int i = 0; i < 5; i++) {
+				assertEquals("TEST" + i, abs.getNextItem()); // NON-NLS
+			}
+			assertEquals(bigItem, abs.getNextItem());
+			producer.join();
+			assertEquals(0, abs.getLostActivitiesCount());
+		} finally {
+			abs.cleanup();
+			spillDir.delete();
+		}
+	}
+
 	@Test(expected = IllegalStateException.class)
 	public void getNextItemFailOnNullTest() throws Exception {
 		abs.addInputToBuffer(null);
@@ -21,6 +21,7 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
@@ -87,4 +88,38 @@ public class FileLineStreamTest {
 		assertEquals("TEST4", fls.getNextItem().toString());
 	}
 
+	@Test
+	public void testTailByOffset() throws Exception {
+		File testFile = File.createTempFile("TEST_OFFSET", ".TST"); // NON-NLS
+		testFile.deleteOnExit();
+		FileOutputStream fos = new FileOutputStream(testFile);
+		fos.write("LINE1\r\nLINE2\nLINE3".getBytes()); // NON-NLS
+		fos.close();
+
+		Map<String, String> props = new HashMap<>(5);
+		props.put(StreamProperties.PROP_FILENAME, testFile.getAbsolutePath());
+		props.put(StreamProperties.PROP_START_FROM_LATEST, String.valueOf(false));
+		props.put(StreamProperties.PROP_FILE_POLLING, String.valueOf(false));
+		props.put(StreamProperties.PROP_RESTORE_STATE, String.valueOf(false));
+		props.put(StreamProperties.PROP_TAIL_BY_OFFSET, String.valueOf(true));
+		fls.setProperties(props.entrySet());
+		testPropertyList(fls, props.entrySet());
+		fls.startStream();
+
+		AbstractFileLineStream.Line line = fls.getNextItem();
+		assertEquals("LINE1", line.getText());
+		assertEquals(1, line.getLineNumber());
+		assertEquals(7, line.getOffset());
+		line = fls.getNextItem();
+		assertEquals("LINE2", line.getText());
+		assertEquals(2, line.getLineNumber());
+		assertEquals(13, line.getOffset());
+		line = fls.getNextItem();
+		assertEquals("LINE3", line.getText());
+		assertEquals(3, line.getLineNumber());
+		assertEquals(18, line.getOffset());
+
+		fls.cleanup();
+		testFile.delete();
+	}
 }
@@ -29,6 +29,8 @@ import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import com.jkoolcloud.tnt4j.core.OpLevel;
 import com.jkoolcloud.tnt4j.sink.EventSink;
@@ -36,6 +38,7 @@ import com.jkoolcloud.tnt4j.streams.TestUtils;
 import com.jkoolcloud.tnt4j.streams.configure.StreamProperties;
 import com.jkoolcloud.tnt4j.streams.fields.ActivityField;
 import com.jkoolcloud.tnt4j.streams.fields.ActivityInfo;
+import com.jkoolcloud.tnt4j.streams.outputs.TNTStreamOutput;
 import com.jkoolcloud.tnt4j.streams.parsers.ActivityParser;
 import com.jkoolcloud.tnt4j.streams.reference.ParserReference;
 import com.jkoolcloud.tnt4j.tracker.Tracker;
@@ -86,6 +89,22 @@ public class TNTInputStreamTest {
 		testPropertyList(ts, props.entrySet());
 	}
 
+	@Test
+	public void setPipelineNonPositivePropertiesTest() {
+		String[] names = { StreamProperties.PROP_PIPELINE_PARSE_WORKERS, StreamProperties.PROP_PIPELINE_QUEUE_SIZE };
+		for (String name : names) {
+			for (String value : new String[] { "0", "-1" }) { // NON-NLS
+				try {
+					ts.setProperty(name, value);
+					fail("Property value should be rejected: " + name + "=" + value); // NON-NLS
+				} catch (IllegalArgumentException exc) {
+				}
+			}
+			ts.setProperty(name, "1"); // NON-NLS
+			assertEquals(1, ts.getProperty(name));
+		}
+	}
+
 	@Test
 	public void setPropertiesIfNullTest() {
 		TNTInputStream<?, ?> my = Mockito.mock(TestUtils.SimpleTestStream.class, Mockito.CALLS_REAL_METHODS);
@@ -122,6 +141,92 @@ public class TNTInputStreamTest {
 		ts.halt(true);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void processingPipelineTest() throws Exception {
+		Map<String, String> props = new HashMap<>(4);
+		props.put(StreamProperties.PROP_USE_PIPELINE, String.valueOf(true));
+		props.put(StreamProperties.PROP_PIPELINE_PARSE_WORKERS, String.valueOf(3));
+		props.put(StreamProperties.PROP_PIPELINE_QUEUE_SIZE, String.valueOf(10));
+		props.put(StreamProperties.PROP_PIPELINE_KEEP_ORDER, String.valueOf(true));
+		ts.setProperties(props.entrySet());
+		testPropertyList(ts, props.entrySet());
+
+		final int itemsCount = 50;
+		List<String> items = new ArrayList<>(itemsCount);
+		for (int i = 0; i < itemsCount; i++) {
+			items.add("ITEM" + i); // NON-NLS
+		}
+		ts.items.clear();
+		ts.items.addAll(items);
+
+		final Map<ActivityInfo, String> parsedItems = Collections
+				.synchronizedMap(new IdentityHashMap<ActivityInfo, String>());
+		ActivityParser slowParser = mock(ActivityParser.class);
+		when(slowParser.isDataClassSupported(any())).thenReturn(true);
+		when(slowParser.parse(any(TNTInputStream.class), any())).thenAnswer(new Answer<ActivityInfo>() {
+			@Override
+			public ActivityInfo answer(InvocationOnMock invocation) throws Throwable {
+				String item = invocation.getArgument(1);
+				// earlier items are parsed slower, so parse workers complete them out of order
+				Thread.sleep((itemsCount - Integer.parseInt(item.substring(4))) % 7);
+				ActivityInfo ai = new ActivityInfo();
+				parsedItems.put(ai, item);
+				return ai;
+			}
+		});
+		ts.addParser(slowParser);
+
+		final List<String> loggedItems = Collections.synchronizedList(new ArrayList<String>());
+		TNTStreamOutput<ActivityInfo> output = mock(TNTStreamOutput.class);
+		doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				loggedItems.add(parsedItems.get(invocation.getArgument(0)));
+				return null;
+			}
+		}).when(output).logItem(any(ActivityInfo.class));
+		doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				((Runnable) invocation.getArgument(0)).run();
+				return null;
+			}
+		}).when(output).runWhenLogged(any(Runnable.class));
+		ts.setOutput(output);
+
+		streamThread.start();
+		streamThread.join(10000);
+
+		assertEquals(items, loggedItems);
+		assertEquals(items, ts.completedItems);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void failedItemCompletedTest() throws Exception {
+		TNTStreamOutput<ActivityInfo> output = mock(TNTStreamOutput.class);
+		doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				((Runnable) invocation.getArgument(0)).run();
+				return null;
+			}
+		}).when(output).runWhenLogged(any(Runnable.class));
+		ts.setOutput(output);
+
+		ActivityParser failingParser = mock(ActivityParser.class);
+		when(failingParser.isDataClassSupported(any())).thenReturn(true);
+		when(failingParser.parse(any(TNTInputStream.class), any())).thenThrow(new ParseException("TEST", 0)); // NON-NLS
+		ts.addParser(failingParser);
+
+		streamThread.start();
+		streamThread.join(5000);
+
+		assertEquals(Collections.singletonList("TEST"), ts.completedItems); // NON-NLS
+		verify(output, never()).logItem(any(ActivityInfo.class));
+	}
+
 	@Test(expected = IllegalStateException.class)
 	public void runTest() {
 		ts.setOwnerThread(null);
@@ -280,7 +385,8 @@ public class TNTInputStreamTest {
 
 	private class TestStream extends TNTParseableInputStream<String> {
 		// BlockingQueue<String> buffer = new ArrayBlockingQueue<String>(5);
-		boolean used = false;
+		final Queue<String> items = new ArrayDeque<>(Collections.singletonList("TEST")); // NON-NLS
+		final List<String> completedItems = Collections.synchronizedList(new ArrayList<String>());
 
 		protected TestStream() {
 			super();
@@ -295,11 +401,12 @@ public class TNTInputStreamTest {
 
 		@Override
 		public String getNextItem() throws Exception {
-			if (used) {
-				return null;
-			}
-			used = true;
-			return "TEST"; // NON-NLS
+			return items.poll();
+		}
+
+		@Override
+		protected void activityItemCompleted(String item) {
+			completedItems.add(item);
 		}
 
 	}
@@ -25,6 +25,6 @@ import org.junit.runners.Suite;
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ RegExMatcherTest.class, StringMatcherTest.class, XPathMatcherTest.class,
-		JsonPathMatcherTest.class })
+		JsonPathMatcherTest.class, CompiledExpressionsCacheTest.class })
 public class AllMatchersTests {
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.matchers;
+
+import static org.junit.Assert.*;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Test;
+
+/**
+ * @author akausinis
+ * @version 1.0
+ */
+public class CompiledExpressionsCacheTest {
+
+	private static CompiledExpressionsCache<Pattern, PatternSyntaxException> newCache(int maxSize) {
+		return new CompiledExpressionsCache<Pattern, PatternSyntaxException>("Test", maxSize) { // NON-NLS
+			@Override
+			protected Pattern compile(String expression) throws PatternSyntaxException {
+				return Pattern.compile(expression);
+			}
+		};
+	}
+
+	@Test
+	public void testHitsAndMisses() {
+		CompiledExpressionsCache<Pattern, PatternSyntaxException> cache = newCache(10);
+		Pattern p1 = cache.get("a.*"); // NON-NLS
+		Pattern p2 = cache.get("a.*"); // NON-NLS
+		cache.get("b.*"); // NON-NLS
+
+		assertSame(p1, p2);
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getHits());
+		assertEquals(2, cache.getMisses());
+		assertEquals(0, cache.getEvictions());
+	}
+
+	@Test
+	public void testBounded() {
+		CompiledExpressionsCache<Pattern, PatternSyntaxException> cache = newCache(3);
+		for (int i = 0; i < 10; i++) {
+			cache.get("exp" + i); // NON-NLS
+		}
+
+		assertEquals(3, cache.size());
+		assertEquals(7, cache.getEvictions());
+		assertEquals(10, cache.getMisses());
+	}
+
+	@Test
+	public void testInvalidExpressionNotCached() {
+		CompiledExpressionsCache<Pattern, PatternSyntaxException> cache = newCache(3);
+		try {
+			cache.get("[a"); // NON-NLS
+			fail("Invalid pattern compiled");
+		} catch (PatternSyntaxException exc) {
+		}
+
+		assertEquals(0, cache.size());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void testMatchersCacheRegEx() throws Exception {
+		Matchers.evaluate("regex:cache[0-9]+", "cache123"); // NON-NLS
+		long misses = RegExMatcher.getCache().getMisses();
+		long hits = RegExMatcher.getCache().getHits();
+
+		assertTrue(Matchers.evaluate("regex:cache[0-9]+", "cache456")); // NON-NLS
+		assertEquals(misses, RegExMatcher.getCache().getMisses());
+		assertEquals(hits + 1, RegExMatcher.getCache().getHits());
+		assertTrue(Matchers.getCachesStatistics().containsKey("RegEx")); // NON-NLS
+	}
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.outputs;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.jkoolcloud.tnt4j.sink.DefaultEventSinkFactory;
+import com.jkoolcloud.tnt4j.sink.EventSink;
+import com.jkoolcloud.tnt4j.streams.configure.OutputProperties;
+import com.jkoolcloud.tnt4j.streams.utils.StreamsThread;
+import com.jkoolcloud.tnt4j.tracker.Tracker;
+import com.jkoolcloud.tnt4j.tracker.TrackingEvent;
+
+/**
+ * @author akausinis
+ * @version 1.0
+ */
+public class AbstractJKCloudOutputTest {
+
+	private TestOutput output;
+	private final AtomicInteger callbacksRun = new AtomicInteger();
+
+	@After
+	public void tearDown() {
+		if (output != null) {
+			output.cleanup();
+		}
+	}
+
+	@Test
+	public void testBatchLoggedWhenFilled() throws Exception {
+		output = createOutput(3, 0);
+
+		logItem("a");
+		logItem("b");
+		assertTrue(output.loggedItems.isEmpty());
+		assertEquals(0, callbacksRun.get());
+
+		logItem("c");
+		assertEquals(Arrays.asList("a", "b", "c"), output.loggedItems);
+		assertEquals(3, callbacksRun.get());
+	}
+
+	@Test
+	public void testNotBatching() throws Exception {
+		output = createOutput(1, 0);
+
+		logItem("a");
+		assertEquals(Collections.singletonList("a"), output.loggedItems);
+		assertEquals(1, callbacksRun.get());
+	}
+
+	@Test
+	public void testBatchFlushedOnInterval() throws Exception {
+		output = createOutput(100, 50);
+
+		logItem("a");
+		logItem("b");
+
+		long waitEnd = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+		while (callbacksRun.get() < 2 && System.currentTimeMillis() < waitEnd) {
+			Thread.sleep(10);
+		}
+
+		assertEquals(Arrays.asList("a", "b"), output.loggedItems);
+		assertEquals(2, callbacksRun.get());
+
+		Thread flushThread = output.loggingThreads.iterator().next();
+		assertTrue(flushThread instanceof StreamsThread);
+		assertTrue(flushThread.isDaemon());
+		assertTrue(flushThread.getName().startsWith("StreamOutputBatchFlushThread-"));
+	}
+
+	@Test
+	public void testBatchFlushedOnCleanup() throws Exception {
+		output = createOutput(100, 0);
+
+		logItem("a");
+		assertTrue(output.loggedItems.isEmpty());
+
+		output.cleanup();
+		assertEquals(Collections.singletonList("a"), output.loggedItems);
+		assertEquals(1, callbacksRun.get());
+	}
+
+	@Test
+	public void testBatchItemFailureDoesNotDropOtherItems() throws Exception {
+		output = createOutput(3, 0);
+		output.failingItem = "b";
+
+		logItem("a");
+		logItem("b");
+		logItem("c");
+
+		assertEquals(Arrays.asList("a", "c"), output.loggedItems);
+		assertEquals(3, callbacksRun.get());
+	}
+
+	@Test
+	public void testBatchRequeuedOnIllegalState() throws Exception {
+		output = createOutput(2, 0);
+		output.illegalStateItem = "b";
+
+		logItem("a");
+		try {
+			logItem("b");
+			fail("Expected IllegalStateException");
+		} catch (IllegalStateException exc) {
+		}
+
+		assertEquals(Collections.singletonList("a"), output.loggedItems);
+		assertEquals(0, callbacksRun.get());
+
+		output.illegalStateItem = null;
+		output.flushBatch();
+
+		assertEquals(Arrays.asList("a", "b"), output.loggedItems);
+		assertEquals(1, callbacksRun.get());
+	}
+
+	@Test
+	public void testConcurrentTrackerLookupCreatesSingleTracker() throws Exception {
+		final TrackersTestOutput trackersOutput = new TrackersTestOutput();
+		final Thread streamThread = new Thread();
+		int threadsCount = 8;
+		final CountDownLatch startGate = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
+		try {
+			List<Future<Tracker>> results = new ArrayList<>(threadsCount);
+			for (int i = 0; i < threadsCount; i++) {
+				results.add(executor.submit(new Callable<Tracker>() {
+					@Override
+					public Tracker call() throws Exception {
+						startGate.await();
+						return trackersOutput.getTracker(streamThread);
+					}
+				}));
+			}
+			startGate.countDown();
+
+			Tracker tracker = results.get(0).get(5, TimeUnit.SECONDS);
+			assertNotNull(tracker);
+			for (Future<Tracker> result : results) {
+				assertSame(tracker, result.get(5, TimeUnit.SECONDS));
+			}
+			assertEquals(1, trackersOutput.trackersCreated.get());
+			assertSame(tracker, trackersOutput.getTracker(streamThread));
+		} finally {
+			executor.shutdownNow();
+			trackersOutput.cleanup();
+		}
+	}
+
+	@Test
+	public void testTrackerCreatedPerThread() throws Exception {
+		final TrackersTestOutput trackersOutput = new TrackersTestOutput();
+		final int threadsCount = 4;
+		final CountDownLatch allRunning = new CountDownLatch(threadsCount);
+		ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
+		try {
+			List<Future<Tracker>> results = new ArrayList<>(threadsCount);
+			for (int i = 0; i < threadsCount; i++) {
+				results.add(executor.submit(new Callable<Tracker>() {
+					@Override
+					public Tracker call() throws Exception {
+						allRunning.countDown();
+						allRunning.await();
+						Tracker tracker = trackersOutput.getTracker();
+						assertSame(tracker, trackersOutput.getTracker());
+						return tracker;
+					}
+				}));
+			}
+
+			Set<Tracker> trackers = Collections.newSetFromMap(new IdentityHashMap<Tracker, Boolean>());
+			for (Future<Tracker> result : results) {
+				trackers.add(result.get(5, TimeUnit.SECONDS));
+			}
+			assertEquals(threadsCount, trackers.size());
+			assertEquals(threadsCount, trackersOutput.trackersCreated.get());
+		} finally {
+			executor.shutdownNow();
+			trackersOutput.cleanup();
+		}
+	}
+
+	private TestOutput createOutput(int batchSize, long flushInterval) throws Exception {
+		TestOutput out = new TestOutput();
+		out.setProperty(OutputProperties.PROP_BATCH_SIZE, String.valueOf(batchSize));
+		out.setProperty(OutputProperties.PROP_BATCH_FLUSH_INTERVAL, String.valueOf(flushInterval));
+		out.initialize();
+
+		return out;
+	}
+
+	private void logItem(String item) throws Exception {
+		output.logItem(item);
+		output.runWhenLogged(new Runnable() {
+			@Override
+			public void run() {
+				callbacksRun.incrementAndGet();
+			}
+		});
+	}
+
+	private static class TestOutput extends AbstractJKCloudOutput<String, String> {
+		private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(TestOutput.class);
+
+		private final List<String> loggedItems = Collections.synchronizedList(new ArrayList<String>());
+		private final Set<Thread> loggingThreads = Collections.synchronizedSet(new HashSet<Thread>());
+		private final Tracker tracker = mock(Tracker.class);
+		private volatile String failingItem;
+		private volatile String illegalStateItem;
+
+		TestOutput() {
+			super("TestOutput");
+		}
+
+		@Override
+		protected EventSink logger() {
+			return LOGGER;
+		}
+
+		@Override
+		protected void initializeTNT4JConfig() {
+		}
+
+		@Override
+		protected void setupDefaultSource() {
+		}
+
+		@Override
+		protected Tracker getTracker(Thread t) throws IllegalStateException {
+			return tracker;
+		}
+
+		@Override
+		protected void logItem(Tracker tracker, String item) throws Exception {
+			if (item.equals(illegalStateItem)) {
+				throw new IllegalStateException("Tracker is not opened");
+			}
+			if (item.equals(failingItem)) {
+				throw new Exception("Failed to log " + item);
+			}
+			loggingThreads.add(Thread.currentThread());
+			loggedItems.add(item);
+		}
+
+		@Override
+		protected void logJKCActivity(Tracker tracker, String activityData) {
+		}
+
+		@Override
+		protected String formatStreamStatusMessage(TrackingEvent statusMessage) {
+			return null;
+		}
+	}
+
+	private static class TrackersTestOutput extends AbstractJKCloudOutput<String, String> {
+		private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(TrackersTestOutput.class);
+
+		private final AtomicInteger trackersCreated = new AtomicInteger();
+
+		TrackersTestOutput() {
+			super("TrackersTestOutput");
+		}
+
+		@Override
+		protected EventSink logger() {
+			return LOGGER;
+		}
+
+		@Override
+		protected Tracker createTracker() {
+			trackersCreated.incrementAndGet();
+			Tracker tracker = mock(Tracker.class);
+			when(tracker.isOpen()).thenReturn(true);
+			when(tracker.getEventSink()).thenReturn(mock(EventSink.class));
+			return tracker;
+		}
+
+		@Override
+		protected void logItem(Tracker tracker, String item) throws Exception {
+		}
+
+		@Override
+		protected void logJKCActivity(Tracker tracker, String activityData) {
+		}
+
+		@Override
+		protected String formatStreamStatusMessage(TrackingEvent statusMessage) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.outputs;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.jkoolcloud.tnt4j.source.Source;
+import com.jkoolcloud.tnt4j.streams.configure.OutputProperties;
+
+/**
+ * @author akausinis
+ * @version 1.0
+ */
+public class JKCloudActivityOutputTest {
+
+	private static final String SOURCE_FQN_1 = "APPL=TestAppl1#SERVER=TestServer"; // NON-NLS
+	private static final String SOURCE_FQN_2 = "APPL=TestAppl2#SERVER=TestServer"; // NON-NLS
+	private static final String SOURCE_FQN_3 = "APPL=TestAppl3#SERVER=TestServer"; // NON-NLS
+
+	private TestActivityOutput output;
+
+	@After
+	public void tearDown() {
+		if (output != null) {
+			output.cleanup();
+		}
+	}
+
+	@Test
+	public void testSourceCacheHit() throws Exception {
+		output = createOutput(null);
+
+		Source source = output.buildSource(null, SOURCE_FQN_1);
+		assertNotNull(source);
+		assertSame(source, output.buildSource(null, SOURCE_FQN_1));
+		assertNotSame(source, output.buildSource(null, SOURCE_FQN_2));
+	}
+
+	@Test
+	public void testSourceCacheEviction() throws Exception {
+		output = createOutput("2");
+
+		Source source1 = output.buildSource(null, SOURCE_FQN_1);
+		Source source2 = output.buildSource(null, SOURCE_FQN_2);
+		Source source3 = output.buildSource(null, SOURCE_FQN_3);
+
+		assertSame(source3, output.buildSource(null, SOURCE_FQN_3));
+		assertSame(source2, output.buildSource(null, SOURCE_FQN_2));
+		assertNotSame(source1, output.buildSource(null, SOURCE_FQN_1));
+	}
+
+	@Test
+	public void testSourceCacheDisabled() throws Exception {
+		output = createOutput("0");
+
+		Source source = output.buildSource(null, SOURCE_FQN_1);
+		assertNotNull(source);
+		assertNotSame(source, output.buildSource(null, SOURCE_FQN_1));
+	}
+
+	@Test
+	public void testSourceCacheClearedOnCleanup() throws Exception {
+		output = createOutput(null);
+
+		Source source = output.buildSource(null, SOURCE_FQN_1);
+		output.cleanup();
+
+		assertNotSame(source, output.buildSource(null, SOURCE_FQN_1));
+	}
+
+	@Test
+	public void testEmptySourceFQN() throws Exception {
+		output = createOutput(null);
+
+		assertNull(output.buildSource(null, null));
+		assertNull(output.buildSource(null, ""));
+	}
+
+	private static TestActivityOutput createOutput(String sourceCacheSize) throws Exception {
+		TestActivityOutput out = new TestActivityOutput();
+		if (sourceCacheSize != null) {
+			out.setProperty(OutputProperties.PROP_SOURCE_CACHE_SIZE, sourceCacheSize);
+		}
+		out.initialize();
+
+		return out;
+	}
+
+	private static class TestActivityOutput extends JKCloudActivityOutput {
+
+		TestActivityOutput() {
+			super("TestActivityOutput"); // NON-NLS
+		}
+
+		@Override
+		protected void initializeTNT4JConfig() {
+		}
+
+		@Override
+		protected void setupDefaultSource() {
+		}
+	}
+}
@@ -217,4 +217,29 @@ public class ActivityJsonParserTest {
 		assertEquals(stringToBeParsed, parser.getNextActivityString(inputStream));
 	}
 
+	@Test
+	public void streamingParseTest() throws Exception {
+		Map<String, String> props = new HashMap<>(1);
+		props.put("StreamingParse", "true"); // NON-NLS
+		parser.setProperties(props.entrySet());
+		ActivityField field = new ActivityField("test_name"); // NON-NLS
+		field.addLocator(new ActivityFieldLocator(ActivityFieldLocatorType.Label, "test"));
+		parser.addField(field);
+		ActivityField numField = new ActivityField("test_num"); // NON-NLS
+		numField.addLocator(new ActivityFieldLocator(ActivityFieldLocatorType.Label, "$.num"));
+		parser.addField(numField);
+		parser.organizeFields();
+
+		StringReader reader = new StringReader(
+				"[{\"test\":\"OK1\",\"num\":1},{\"test\":\"OK2\",\"num\":2}]\n{\"test\":\"OK3\",\"num\":3}{\"test\":\"OK4\",\"num\":4.5}"); // NON-NLS
+		assertEquals("OK1", parser.parse(stream, reader).getFieldValue("test_name"));
+		assertEquals("OK2", parser.parse(stream, reader).getFieldValue("test_name"));
+		ActivityInfo ai = parser.parse(stream, reader);
+		assertEquals("OK3", ai.getFieldValue("test_name"));
+		assertEquals(3, ai.getFieldValue("test_num"));
+		ai = parser.parse(stream, reader);
+		assertEquals("OK4", ai.getFieldValue("test_name"));
+		assertEquals(4.5, ai.getFieldValue("test_num"));
+		assertNull(parser.parse(stream, reader));
+	}
 }
@@ -271,4 +271,28 @@ public class ActivityRegExParserTest extends ActivityParserTestBase {
 		assertEquals(ai.getFieldValue("test3"), ("10232")); // NON-NLS
 		assertEquals(ai.getFieldValue("test4"), ("006")); // NON-NLS
 	}
+
+	@Test
+	public void parseOrganizedFieldsTest() throws Exception {
+		ActivityField af1 = new ActivityField("test1"); // NON-NLS
+		af1.addLocator(new ActivityFieldLocator(ActivityFieldLocatorType.Label, "num")); // NON-NLS
+		ActivityField af2 = new ActivityField("test2"); // NON-NLS
+		af2.addLocator(new ActivityFieldLocator(ActivityFieldLocatorType.Label, "2.num")); // NON-NLS
+		ActivityField af3 = new ActivityField("test3"); // NON-NLS
+		af3.addLocator(new ActivityFieldLocator(ActivityFieldLocatorType.Label, "3.0")); // NON-NLS
+		ActivityField af4 = new ActivityField("test4"); // NON-NLS
+		af4.addLocator(new ActivityFieldLocator(ActivityFieldLocatorType.Label, "4.1")); // NON-NLS
+		parser.addField(af1);
+		parser.addField(af2);
+		parser.addField(af3);
+		parser.addField(af4);
+		setProperty(parser, ParserProperties.PROP_PATTERN, "(?<num>\\d+)"); // NON-NLS
+		setProperty(parser, ParserProperties.PROP_MATCH_STRATEGY, "FIND"); // NON-NLS
+		parser.organizeFields();
+		ActivityInfo ai = parser.parse(stream, "11 22 33"); // NON-NLS
+		assertEquals("11", ai.getFieldValue("test1")); // NON-NLS
+		assertEquals("22", ai.getFieldValue("test2")); // NON-NLS
+		assertEquals("33", ai.getFieldValue("test3")); // NON-NLS
+		assertNull(ai.getFieldValue("test4")); // NON-NLS
+	}
 }
@@ -25,8 +25,10 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.jkoolcloud.tnt4j.streams.configure.ParserProperties;
+import com.jkoolcloud.tnt4j.streams.fields.ActivityField;
 import com.jkoolcloud.tnt4j.streams.fields.ActivityFieldLocator;
 import com.jkoolcloud.tnt4j.streams.fields.ActivityFieldLocatorType;
+import com.jkoolcloud.tnt4j.streams.fields.ActivityInfo;
 import com.jkoolcloud.tnt4j.streams.inputs.TNTInputStream;
 
 /**
@@ -84,4 +86,64 @@ public class ActivityTokenParserTest extends GenericActivityParserTestBase {
 		Object result = ((ActivityTokenParser) parser).getLocatorValue(stream, locator, fields);
 		assertEquals("GOOD", result);
 	}
+
+	@Test
+	public void testParseOrganizedFields() throws Exception {
+		final TNTInputStream<?, ?> stream = mock(TNTInputStream.class);
+		ActivityField af1 = new ActivityField("test1"); // NON-NLS
+		af1.addLocator(new ActivityFieldLocator(ActivityFieldLocatorType.Index, "1"));
+		ActivityField af2 = new ActivityField("test2"); // NON-NLS
+		af2.addLocator(new ActivityFieldLocator(ActivityFieldLocatorType.Index, "3"));
+		ActivityField af3 = new ActivityField("test3"); // NON-NLS
+		af3.addLocator(new ActivityFieldLocator(ActivityFieldLocatorType.Index, "5"));
+		parser.addField(af1);
+		parser.addField(af2);
+		parser.addField(af3);
+		parser.organizeFields();
+		ActivityInfo ai = parser.parse(stream, " first ,second,\" third, \"\"quoted\"\"\",fourth"); // NON-NLS
+		assertEquals("first", ai.getFieldValue("test1")); // NON-NLS
+		assertEquals("third, \"quoted\"", ai.getFieldValue("test2")); // NON-NLS
+		assertNull(ai.getFieldValue("test3")); // NON-NLS
+	}
+
+	@Test
+	public void testParseQuotedFields() throws Exception {
+		final TNTInputStream<?, ?> stream = mock(TNTInputStream.class);
+		ActivityField af1 = new ActivityField("test1"); // NON-NLS
+		af1.addLocator(new ActivityFieldLocator(ActivityFieldLocatorType.Index, "1"));
+		ActivityField af2 = new ActivityField("test2"); // NON-NLS
+		af2.addLocator(new ActivityFieldLocator(ActivityFieldLocatorType.Index, "2"));
+		parser.addField(af1);
+		parser.addField(af2);
+		parser.organizeFields();
+
+		setProperty(parser, ParserProperties.PROP_STRIP_QUOTES, false);
+		ActivityInfo ai = parser.parse(stream, "\"a,b\",c"); // NON-NLS
+		assertEquals("\"a", ai.getFieldValue("test1")); // NON-NLS
+		assertEquals("b\"", ai.getFieldValue("test2")); // NON-NLS
+
+		setProperty(parser, ParserProperties.PROP_STRIP_QUOTES, true);
+		ai = parser.parse(stream, "a\"b,\"c,d\"e"); // NON-NLS
+		assertEquals("a\"b", ai.getFieldValue("test1")); // NON-NLS
+		assertEquals("c,de", ai.getFieldValue("test2")); // NON-NLS
+	}
+
+	@Test
+	public void testParseEmptyFieldDelim() throws Exception {
+		final TNTInputStream<?, ?> stream = mock(TNTInputStream.class);
+		ActivityField af1 = new ActivityField("test1"); // NON-NLS
+		af1.addLocator(new ActivityFieldLocator(ActivityFieldLocatorType.Index, "1"));
+		parser.addField(af1);
+		parser.organizeFields();
+
+		setProperty(parser, ParserProperties.PROP_FLD_DELIM, "");
+		assertEquals("", parser.getProperty(ParserProperties.PROP_FLD_DELIM));
+		ActivityInfo ai = parser.parse(stream, "first,second"); // NON-NLS
+		assertEquals("first,second", ai.getFieldValue("test1")); // NON-NLS
+
+		setProperty(parser, ParserProperties.PROP_FLD_DELIM, ",;"); // NON-NLS
+		assertEquals(",;", parser.getProperty(ParserProperties.PROP_FLD_DELIM)); // NON-NLS
+		ai = parser.parse(stream, "first;second"); // NON-NLS
+		assertEquals("first", ai.getFieldValue("test1")); // NON-NLS
+	}
 }
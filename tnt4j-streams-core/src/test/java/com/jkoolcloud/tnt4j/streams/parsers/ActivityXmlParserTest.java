@@ -25,6 +25,7 @@ import java.text.ParseException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
@@ -113,6 +114,105 @@ public class ActivityXmlParserTest extends GenericActivityParserTestBase {
 		assertNotNull(ai);
 	}
 
+	@Test
+	public void streamingParseTest() throws Exception {
+		ActivityXmlParser sParser = new ActivityXmlParser();
+		ActivityField field = new ActivityField("Test");
+		field.addLocator(new ActivityFieldLocator(ActivityFieldLocatorType.Label, "MsgData/@value"));
+		sParser.addField(field);
+		ActivityField fField = new ActivityField("Format");
+		fField.addLocator(new ActivityFieldLocator(ActivityFieldLocatorType.Label, "//MsgData/@format"));
+		sParser.addField(fField);
+		Map<String, String> props = new HashMap<>(1);
+		props.put(ParserProperties.PROP_STREAMING_PARSE, String.valueOf(true));
+		sParser.setProperties(props.entrySet());
+		sParser.organizeFields();
+
+		ActivityInfo ai = sParser.parse(is, simpleString);
+		assertNotNull(ai);
+		assertEquals("Message Body", ai.getFieldValue("Test")); // NON-NLS
+		assertEquals("string", ai.getFieldValue("Format")); // NON-NLS
+	}
+
+	@Test
+	public void streamingParseSameAsDomTest() throws Exception {
+		String xml = "<root id=\"r1\"><item type=\"a\">one</item><item type=\"b\">two</item>" // NON-NLS
+				+ "<group><item type=\"c\">three</item></group><msg>Message <b>Body</b></msg></root>"; // NON-NLS
+		String[][] fields = { { "Id", "/root/@id" }, { "Items", "/root/item" }, { "AllItems", "//item" }, // NON-NLS
+				{ "Types", "/root/*/@type" }, { "GroupItem", "root/group/item" }, { "Msg", "/root/msg" }, // NON-NLS
+				{ "MsgText", "/root/msg/text()" }, { "Missing", "/root/none" } }; // NON-NLS
+
+		ActivityInfo domAi = buildParser(fields, false).parse(is, xml);
+		ActivityInfo streamAi = buildParser(fields, true).parse(is, xml);
+		for (String[] field : fields) {
+			Object domValue = domAi.getFieldValue(field[0]);
+			Object streamValue = streamAi.getFieldValue(field[0]);
+			if (field[0].equals("Missing")) { // NON-NLS
+				assertNull(domValue);
+			} else {
+				assertNotNull(field[0], domValue);
+			}
+			assertArrayEquals(field[0], Utils.makeArray(domValue), Utils.makeArray(streamValue));
+		}
+	}
+
+	@Test
+	public void streamingParseUnsupportedLocatorTest() throws Exception {
+		String xml = "<root><item>one</item><item>two</item></root>"; // NON-NLS
+		String[][] fields = { { "First", "/root/item" }, { "Second", "/root/item[2]" } }; // NON-NLS
+
+		// unsupported location path makes parser fall back to DOM parsing
+		ActivityInfo ai = buildParser(fields, true).parse(is, xml);
+		assertEquals("two", ai.getFieldValue("Second")); // NON-NLS
+		assertArrayEquals(new Object[] { "one", "two" }, Utils.makeArray(ai.getFieldValue("First"))); // NON-NLS
+	}
+
+	private static ActivityXmlParser buildParser(String[][] fields, boolean streaming) {
+		ActivityXmlParser xParser = new ActivityXmlParser();
+		for (String[] field : fields) {
+			ActivityField aField = new ActivityField(field[0]);
+			aField.addLocator(new ActivityFieldLocator(ActivityFieldLocatorType.Label, field[1]));
+			xParser.addField(aField);
+		}
+		Map<String, String> props = new HashMap<>(1);
+		props.put(ParserProperties.PROP_STREAMING_PARSE, String.valueOf(streaming));
+		xParser.setProperties(props.entrySet());
+		xParser.organizeFields();
+
+		return xParser;
+	}
+
+	@Test
+	public void multiThreadedParseTest() throws Exception {
+		parser.organizeFields();
+
+		final AtomicInteger parsedCount = new AtomicInteger();
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 50; j++) {
+						try {
+							ActivityInfo ai = parser.parse(is, simpleString);
+							if ("Message Body".equals(ai.getFieldValue("Test"))) { // NON-NLS
+								parsedCount.incrementAndGet();
+							}
+						} catch (Exception exc) {
+							return;
+						}
+					}
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+
+		assertEquals(threads.length * 50, parsedCount.get());
+	}
+
 	@Override
 	@Test
 	public void setPropertiesTest() throws Exception {
@@ -20,18 +20,23 @@ import static org.junit.Assert.assertEquals;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.text.ParseException;
 
+import javax.xml.parsers.DocumentBuilderFactory;
+
 import org.junit.Test;
+import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.bootstrap.DOMImplementationRegistry;
 import org.w3c.dom.ls.DOMImplementationLS;
 import org.w3c.dom.ls.LSOutput;
 import org.w3c.dom.ls.LSSerializer;
+import org.xml.sax.InputSource;
 
 import com.jkoolcloud.tnt4j.streams.utils.Utils;
 
@@ -99,6 +104,19 @@ public class XMLFromBinDataPreParserTest {
 		assertEquals(expected, output);
 	}
 
+	@Test
+	public void testPreParseToString() throws Exception {
+		byte[] fileBuffer = Files
+				.readAllBytes(Paths.get("../tnt4j-streams-core/samples/XML-from-bin-data/RFH2_incomplete.dump")); // NON-NLS
+
+		XMLStringFromBinDataPreParser preParser = new XMLStringFromBinDataPreParser();
+		String xmlString = preParser.preParse(fileBuffer);
+		Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+				.parse(new InputSource(new StringReader(xmlString)));
+
+		assertEquals(preParseBinData(fileBuffer), getString(document));
+	}
+
 	private static String preParseBinData(byte[] binData) throws Exception {
 		// init
 		XMLFromBinDataPreParser preParser = new XMLFromBinDataPreParser();
@@ -25,6 +25,8 @@ import org.junit.runners.Suite;
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ UtilsTest.class, NumericFormatterTest.class, TimestampFormatterTest.class,
-		StreamsThreadTest.class, StreamsResourcesTest.class, StreamsCacheTest.class })
+		StreamsThreadTest.class, StreamsResourcesTest.class, StreamsCacheTest.class, TokenizedCharSequenceTest.class,
+		DNSResolverTest.class, RingBufferQueueTest.class, SpillLogTest.class, ByteBufferInputStreamTest.class,
+		NativeExpressionTest.class, StreamingXPathMatcherTest.class })
 public class AllUtilsTests {
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.utils;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+/**
+ * @author akausinis
+ * @version 1.0
+ */
+public class ByteBufferInputStreamTest {
+
+	@Test
+	public void testReadSlice() throws Exception {
+		ByteBuffer bb = ByteBuffer.wrap("xxHello Streams!yy".getBytes(StandardCharsets.UTF_8)); // NON-NLS
+		bb.position(2);
+		bb.limit(bb.limit() - 2);
+
+		ByteBufferInputStream is = new ByteBufferInputStream(bb);
+		assertEquals(14, is.available());
+		assertEquals("Hello Streams!", IOUtils.toString(is, StandardCharsets.UTF_8)); // NON-NLS
+		assertEquals(-1, is.read());
+		assertEquals(2, bb.position());
+	}
+
+	@Test
+	public void testDirectBuffer() throws Exception {
+		byte[] data = "direct data".getBytes(StandardCharsets.UTF_8); // NON-NLS
+		ByteBuffer bb = ByteBuffer.allocateDirect(data.length);
+		bb.put(data);
+		bb.flip();
+
+		assertArrayEquals(data, IOUtils.toByteArray(new ByteBufferInputStream(bb)));
+	}
+
+	@Test
+	public void testMarkReset() throws Exception {
+		ByteBufferInputStream is = new ByteBufferInputStream(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 }));
+		assertTrue(is.markSupported());
+		assertEquals(1, is.read());
+		is.mark(10);
+		assertEquals(2, is.skip(2));
+		assertEquals(4, is.read());
+		is.reset();
+		assertEquals(2, is.read());
+	}
+
+	@Test
+	public void testGetString() throws Exception {
+		ByteBuffer bb = ByteBuffer.wrap("line1\nline2".getBytes(StandardCharsets.UTF_8)); // NON-NLS
+		bb.position(6);
+		assertEquals("line2", Utils.getString(bb, StandardCharsets.UTF_8)); // NON-NLS
+		assertEquals(6, bb.position());
+		bb.position(0);
+		assertEquals("line1", Utils.getStringLine(bb)); // NON-NLS
+	}
+}
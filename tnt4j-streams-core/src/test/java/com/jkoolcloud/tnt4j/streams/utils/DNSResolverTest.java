@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.utils;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @author akausinis
+ * @version 1.0
+ */
+public class DNSResolverTest {
+
+	private DNSResolver resolver = new DNSResolver(10, 60, 60, 5000);
+
+	@After
+	public void tearDown() {
+		resolver.shutdown();
+	}
+
+	@Test
+	public void testResolveLocalHost() {
+		String address = resolver.getHostAddress("localhost"); // NON-NLS
+		assertNotNull(address);
+		assertEquals(address, resolver.getHostAddress("localhost")); // NON-NLS
+		assertTrue(resolver.getResolvedCount() >= 1);
+	}
+
+	@Test
+	public void testResolveEmpty() {
+		assertNull(resolver.getHostName(null));
+		assertNull(resolver.getHostAddress(""));
+		assertEquals(0, resolver.getResolvedCount());
+		assertEquals(0, resolver.getUnresolvedCount());
+	}
+
+	@Test
+	public void testNoWaitLookup() throws Exception {
+		DNSResolver noWaitResolver = new DNSResolver(10, 60, 60, 0);
+		try {
+			assertNull(noWaitResolver.getHostAddress("localhost")); // NON-NLS
+			for (int i = 0; i < 50 && noWaitResolver.getResolvedCount() == 0; i++) {
+				Thread.sleep(100);
+			}
+			assertNotNull(noWaitResolver.getHostAddress("localhost")); // NON-NLS
+		} finally {
+			noWaitResolver.shutdown();
+		}
+	}
+}
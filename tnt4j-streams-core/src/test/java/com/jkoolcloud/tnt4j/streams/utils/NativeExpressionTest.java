@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.utils;
+
+import static org.junit.Assert.*;
+
+import java.text.ParseException;
+
+import org.junit.Test;
+
+import com.jkoolcloud.tnt4j.core.OpType;
+import com.jkoolcloud.tnt4j.streams.fields.*;
+import com.jkoolcloud.tnt4j.streams.filters.AbstractExpressionFilter;
+import com.jkoolcloud.tnt4j.streams.filters.StreamEntityFilter;
+
+/**
+ * @author akausinis
+ * @version 1.0
+ */
+public class NativeExpressionTest {
+
+	@Test
+	public void testArithmetic() throws Exception {
+		assertEquals(7L, NativeExpression.compile("1 + 2 * 3").evaluate(null, null));
+		assertEquals(9L, NativeExpression.compile("(1 + 2) * 3").evaluate(null, null));
+		assertEquals(2.5, NativeExpression.compile("5 / 2").evaluate(null, null));
+		assertEquals(1L, NativeExpression.compile("-2 + 3 % 4 - 0").evaluate(null, null));
+		assertEquals("a1", NativeExpression.compile("'a' + 1").evaluate(null, null));
+		assertEquals(110L, NativeExpression.compile("$fieldValue + 10").evaluate(100, null));
+		assertEquals(90L, NativeExpression.compile("$fieldValue - 10").evaluate("100", null));
+		assertEquals("10010", NativeExpression.compile("$fieldValue + 10").evaluate("100", null));
+	}
+
+	@Test
+	public void testConditions() throws Exception {
+		NativeExpression exp = NativeExpression.compile("$fieldValue > 100 && ${EventType} == 'SEND'");
+
+		ActivityInfo ai = new ActivityInfo();
+		ActivityField af = new ActivityField(StreamFieldType.EventType.name());
+		af.addLocator(new ActivityFieldLocator(ActivityFieldLocatorType.Label, "TestLocator"));
+		ai.applyField(af, OpType.SEND);
+
+		assertTrue(exp.test(150, ai));
+		assertTrue(exp.test("150.5", ai));
+		assertFalse(exp.test(50, ai));
+		assertFalse(exp.test(null, ai));
+		assertFalse(exp.test(150, null));
+
+		assertTrue(NativeExpression.compile("!($fieldValue =~ '^SYSTEM\\.') || false").test("APP.QUEUE", null));
+		assertTrue(NativeExpression.compile("${Missing} == null && !${Missing}").test(null, ai));
+		assertTrue(NativeExpression.compile("\"abc\" < 'abd' && 2 >= 2.0 && 1 != '2'").test(null, null));
+	}
+
+	@Test
+	public void testStringEscapes() throws Exception {
+		assertFalse(NativeExpression.compile("'SYSTEMX' =~ '^SYSTEM\\.'").test(null, null));
+		assertTrue(NativeExpression.compile("'SYSTEM.QUEUE' =~ '^SYSTEM\\.'").test(null, null));
+		assertTrue(NativeExpression.compile("$fieldValue =~ '^\\d+$'").test("12345", null));
+		assertFalse(NativeExpression.compile("$fieldValue =~ '^\\d+$'").test("123d", null));
+
+		assertEquals("It's", NativeExpression.compile("'It\\'s'").evaluate(null, null));
+		assertEquals("say \"hi\"", NativeExpression.compile("\"say \\\"hi\\\"\"").evaluate(null, null));
+		assertEquals("a\\b", NativeExpression.compile("'a\\\\b'").evaluate(null, null));
+		assertEquals("a\\nb", NativeExpression.compile("'a\\nb'").evaluate(null, null));
+	}
+
+	@Test
+	public void testSyntaxErrors() {
+		String[] invalid = { "1 +", "(1 + 2", "'abc", "${Field", "1 = 2", "$fieldValue =~ '['", "1 2" };
+		for (String exp : invalid) {
+			try {
+				NativeExpression.compile(exp);
+				fail("Expression should be invalid: " + exp);
+			} catch (ParseException exc) {
+			}
+		}
+	}
+
+	@Test
+	public void testNativeFilter() throws Exception {
+		StreamEntityFilter<Object> filter = AbstractExpressionFilter.createExpressionFilter("EXCLUDE",
+				StreamsScriptingUtils.NATIVE_LANG, "$fieldValue >= 500");
+
+		assertTrue(filter.doFilter(500, null));
+		assertFalse(filter.doFilter(499, null));
+	}
+}
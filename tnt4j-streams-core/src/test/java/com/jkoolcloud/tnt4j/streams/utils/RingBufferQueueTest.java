@@ -0,0 +1,110 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * @author akausinis
+ * @version 1.0
+ */
+public class RingBufferQueueTest {
+
+	@Test
+	public void testOfferPoll() throws Exception {
+		RingBufferQueue<String> queue = new RingBufferQueue<>(3);
+		assertEquals(4, queue.capacity());
+		assertTrue(queue.isEmpty());
+		assertNull(queue.poll());
+
+		assertTrue(queue.offer("a")); // NON-NLS
+		assertTrue(queue.offer("b")); // NON-NLS
+		assertTrue(queue.offer("c")); // NON-NLS
+		assertTrue(queue.offer("d")); // NON-NLS
+		assertFalse(queue.offer("e")); // NON-NLS
+		assertFalse(queue.offer("e", 10, TimeUnit.MILLISECONDS)); // NON-NLS
+		assertEquals(4, queue.size());
+		assertEquals(0, queue.remainingCapacity());
+		assertEquals("a", queue.peek());
+		assertEquals(Arrays.asList("a", "b", "c", "d"), new ArrayList<>(queue)); // NON-NLS
+
+		assertEquals("a", queue.take());
+		List<String> drained = new ArrayList<>();
+		assertEquals(2, queue.drainTo(drained, 2));
+		assertEquals(Arrays.asList("b", "c"), drained); // NON-NLS
+		assertEquals("d", queue.poll(10, TimeUnit.MILLISECONDS));
+		assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test(timeout = 20000)
+	public void testMultipleProducersConsumers() throws Exception {
+		final RingBufferQueue<Long> queue = new RingBufferQueue<>(64, RingBufferQueue.WaitStrategy.YIELD);
+		final int producers = 3;
+		final long itemsCount = 50000;
+		final AtomicLong sum = new AtomicLong();
+		final AtomicLong count = new AtomicLong();
+
+		Thread[] threads = new Thread[producers * 2];
+		for (int i = 0; i < producers; i++) {
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (long v = 1; v <= itemsCount; v++) {
+							queue.put(v);
+						}
+					} catch (InterruptedException exc) {
+					}
+				}
+			});
+			threads[producers + i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						while (count.get() < producers * itemsCount) {
+							Long v = queue.poll(10, TimeUnit.MILLISECONDS);
+							if (v != null) {
+								sum.addAndGet(v);
+								count.incrementAndGet();
+							}
+						}
+					} catch (InterruptedException exc) {
+					}
+				}
+			});
+		}
+		for (Thread t : threads) {
+			t.start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+
+		assertEquals(producers * itemsCount, count.get());
+		assertEquals(producers * itemsCount * (itemsCount + 1) / 2, sum.get());
+		assertTrue(queue.isEmpty());
+	}
+}
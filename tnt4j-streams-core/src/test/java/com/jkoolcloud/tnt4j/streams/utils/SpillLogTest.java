@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.utils;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author akausinis
+ * @version 1.0
+ */
+public class SpillLogTest {
+
+	private File spillDir;
+	private SpillLog spillLog;
+
+	@Before
+	public void setUp() throws Exception {
+		spillDir = Files.createTempDirectory("spill").toFile(); // NON-NLS
+		spillLog = new SpillLog(spillDir, 300);
+	}
+
+	@After
+	public void tearDown() {
+		spillLog.close();
+		assertEquals(0, spillDir.list().length);
+		spillDir.delete();
+	}
+
+	@Test
+	public void testAppendAndReplayInOrder() throws Exception {
+		for (int i = 0; i < 20; i++) {
+			assertTrue(spillLog.append("item-" + i)); // NON-NLS
+		}
+		assertEquals(20, spillLog.size());
+		assertTrue(spillDir.list().length > 1);
+
+		for (int i = 0; i < 15; i++) {
+			assertEquals("item-" + i, spillLog.peek()); // NON-NLS
+			spillLog.remove();
+		}
+		for (int i = 20; i < 25; i++) {
+			assertTrue(spillLog.append("item-" + i)); // NON-NLS
+		}
+		for (int i = 15; i < 25; i++) {
+			assertEquals("item-" + i, spillLog.peek()); // NON-NLS
+			spillLog.remove();
+		}
+
+		assertTrue(spillLog.isEmpty());
+		assertNull(spillLog.peek());
+		assertEquals(1, spillDir.list().length);
+	}
+
+	@Test
+	public void testNotSpillable() throws Exception {
+		assertFalse(spillLog.append(new Object()));
+		assertFalse(spillLog.append(new String(new char[400])));
+		assertTrue(spillLog.isEmpty());
+	}
+
+	@Test
+	public void testRemoveUnreadable() throws Exception {
+		assertTrue(spillLog.append(new UnreadableItem()));
+		assertTrue(spillLog.append("item")); // NON-NLS
+		try {
+			spillLog.peek();
+			fail("Unreadable item should fail to be read");
+		} catch (IOException exc) {
+		}
+		spillLog.remove();
+		assertEquals(1, spillLog.size());
+		assertEquals("item", spillLog.peek()); // NON-NLS
+	}
+
+	private static class UnreadableItem implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private void readObject(ObjectInputStream in) throws IOException {
+			throw new IOException("Unreadable"); // NON-NLS
+		}
+	}
+}
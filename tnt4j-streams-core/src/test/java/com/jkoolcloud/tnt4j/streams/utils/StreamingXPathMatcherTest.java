@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.utils;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author akausinis
+ * @version 1.0
+ */
+public class StreamingXPathMatcherTest {
+	private static final String XML = "<root xmlns:ns=\"urn:test\" id=\"r1\">" // NON-NLS
+			+ "<ns:item type=\"a\">one<sub>x</sub></ns:item>" // NON-NLS
+			+ "<item type=\"b\">two</item>" // NON-NLS
+			+ "<group><item type=\"c\">three</item></group>" // NON-NLS
+			+ "</root>"; // NON-NLS
+
+	private NamespaceMap namespaces;
+
+	@Before
+	public void setUp() {
+		namespaces = new NamespaceMap();
+		namespaces.addPrefixUriMapping("t", "urn:test"); // NON-NLS
+	}
+
+	@Test
+	public void testElementPaths() throws Exception {
+		StreamingXPathMatcher matcher = new StreamingXPathMatcher(true, namespaces);
+		assertTrue(matcher.addPath("/root/item")); // NON-NLS
+		assertTrue(matcher.addPath("root/group/item")); // NON-NLS
+		assertTrue(matcher.addPath("//item")); // NON-NLS
+
+		Map<String, List<StreamingXPathMatcher.MatchedValue>> values = matcher.match(new StringReader(XML));
+		assertValues(values.get("/root/item"), "two"); // NON-NLS
+		assertEquals("b", values.get("/root/item").get(0).getAttributes().get("type")); // NON-NLS
+		assertValues(values.get("root/group/item"), "three"); // NON-NLS
+		assertValues(values.get("//item"), "two", "three"); // NON-NLS
+	}
+
+	@Test
+	public void testNamespaces() throws Exception {
+		StreamingXPathMatcher matcher = new StreamingXPathMatcher(true, namespaces);
+		assertTrue(matcher.addPath("/root/ns:item")); // NON-NLS
+		assertTrue(matcher.addPath("/root/t:item")); // NON-NLS
+
+		Map<String, List<StreamingXPathMatcher.MatchedValue>> values = matcher.match(new StringReader(XML));
+		// element text includes descendants text
+		assertValues(values.get("/root/ns:item"), "onex"); // NON-NLS
+		// prefix resolved over namespace context
+		assertValues(values.get("/root/t:item"), "onex"); // NON-NLS
+
+		matcher = new StreamingXPathMatcher(false, namespaces);
+		assertTrue(matcher.addPath("/root/ns:item")); // NON-NLS
+		assertTrue(matcher.addPath("/root/t:item")); // NON-NLS
+
+		values = matcher.match(new StringReader(XML));
+		assertValues(values.get("/root/ns:item"), "onex"); // NON-NLS
+		assertNull(values.get("/root/t:item"));
+	}
+
+	@Test
+	public void testTextAndWildcardSteps() throws Exception {
+		StreamingXPathMatcher matcher = new StreamingXPathMatcher(true, namespaces);
+		assertTrue(matcher.addPath("/root/ns:item/text()")); // NON-NLS
+		assertTrue(matcher.addPath("/root/*/item")); // NON-NLS
+
+		Map<String, List<StreamingXPathMatcher.MatchedValue>> values = matcher.match(new StringReader(XML));
+		// text() step takes only element own text
+		assertValues(values.get("/root/ns:item/text()"), "one"); // NON-NLS
+		assertNull(values.get("/root/ns:item/text()").get(0).getAttributes());
+		assertValues(values.get("/root/*/item"), "three"); // NON-NLS
+	}
+
+	@Test
+	public void testAttributeCapture() throws Exception {
+		StreamingXPathMatcher matcher = new StreamingXPathMatcher(true, namespaces);
+		assertTrue(matcher.addPath("/root/@id")); // NON-NLS
+		assertTrue(matcher.addPath("/root/*/@type")); // NON-NLS
+		assertTrue(matcher.addPath("/root/item/@missing")); // NON-NLS
+
+		Map<String, List<StreamingXPathMatcher.MatchedValue>> values = matcher.match(new StringReader(XML));
+		assertValues(values.get("/root/@id"), "r1"); // NON-NLS
+		assertValues(values.get("/root/*/@type"), "a", "b"); // NON-NLS
+		// owner element attributes are collected together with attribute value
+		assertEquals("a", values.get("/root/*/@type").get(0).getAttributes().get("type")); // NON-NLS
+		assertNull(values.get("/root/item/@missing"));
+	}
+
+	@Test
+	public void testUnsupportedPaths() {
+		StreamingXPathMatcher matcher = new StreamingXPathMatcher(true, namespaces);
+		String[] unsupported = { "", "/root/item[1]", "count(//item)", "/root/following-sibling::item", "//@id", // NON-NLS
+				"/root/item | /root/group", "/root/@*" }; // NON-NLS
+		for (String path : unsupported) {
+			assertFalse("Path should not be supported: " + path, matcher.addPath(path)); // NON-NLS
+		}
+	}
+
+	private static void assertValues(List<StreamingXPathMatcher.MatchedValue> values, String... expected) {
+		assertNotNull(values);
+		assertEquals(expected.length, values.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], values.get(i).getText());
+		}
+	}
+}
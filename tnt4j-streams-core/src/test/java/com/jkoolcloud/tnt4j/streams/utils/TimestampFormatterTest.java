@@ -16,17 +16,20 @@
 
 package com.jkoolcloud.tnt4j.streams.utils;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.*;
 
 import java.text.ParseException;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.TimeZone;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
+import com.jkoolcloud.tnt4j.core.UsecTimestamp;
+
 /**
  * @author akausinis
  * @version 1.0
@@ -117,4 +120,137 @@ public class TimestampFormatterTest {
 		tu = TimestampFormatter.shiftUp(tu);
 		assertEquals(TimeUnit.DAYS, tu);
 	}
+
+	@Test
+	public void testParsePattern() throws Exception {
+		TimestampFormatter formatter = new TimestampFormatter("yyyy-MM-dd HH:mm:ss.SSSSSS", "UTC", null); // NON-NLS
+		UsecTimestamp ts = formatter.parse("2018-10-10 10:15:46.256789"); // NON-NLS
+		assertEquals(1539166546256L, ts.getTimeMillis());
+		assertEquals(789L, ts.getTimeUsec() % 1000);
+		// same seconds prefix is resolved from cache
+		ts = formatter.parse("2018-10-10 10:15:46.999001"); // NON-NLS
+		assertEquals(1539166546999L, ts.getTimeMillis());
+		assertEquals(1L, ts.getTimeUsec() % 1000);
+
+		SimpleDateFormat sdf = new SimpleDateFormat("dd/MMM/yyyy:HH:mm:ss Z", Locale.US); // NON-NLS
+		formatter = new TimestampFormatter("dd/MMM/yyyy:HH:mm:ss Z", null, "en_US"); // NON-NLS
+		String dateStr = "10/Oct/2018:13:55:36 -0700"; // NON-NLS
+		assertEquals(sdf.parse(dateStr).getTime(), formatter.parse(dateStr).getTimeMillis());
+
+		// lenient SimpleDateFormat parsing is preserved
+		sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS"); // NON-NLS
+		formatter = new TimestampFormatter("yyyy-MM-dd HH:mm:ss.SSS", null, null); // NON-NLS
+		dateStr = "2018-02-30 10:15:46.256"; // NON-NLS
+		assertEquals(sdf.parse(dateStr).getTime(), formatter.parse(dateStr).getTimeMillis());
+	}
+
+	@Test
+	public void testParsePatternDaylightSavingTime() throws Exception {
+		String pattern = "yyyy-MM-dd HH:mm:ss"; // NON-NLS
+		String timeZone = "America/New_York"; // NON-NLS
+		SimpleDateFormat sdf = new SimpleDateFormat(pattern);
+		sdf.setTimeZone(TimeZone.getTimeZone(timeZone));
+		TimestampFormatter formatter = new TimestampFormatter(pattern, timeZone, null);
+
+		// fall-back overlap resolves to standard time (later instant)
+		String dateStr = "2018-11-04 01:30:00"; // NON-NLS
+		assertEquals(1541313000000L, sdf.parse(dateStr).getTime());
+		assertEquals(1541313000000L, formatter.parse(dateStr).getTimeMillis());
+		assertEquals(1541313000000L, TimestampFormatter.parse(pattern, dateStr, timeZone, null).getTimeMillis());
+
+		// spring-forward gap is shifted forward
+		dateStr = "2018-03-11 02:30:00"; // NON-NLS
+		assertEquals(sdf.parse(dateStr).getTime(), formatter.parse(dateStr).getTimeMillis());
+
+		// explicit offset wins over overlap resolution
+		pattern = "yyyy-MM-dd HH:mm:ss Z"; // NON-NLS
+		formatter = new TimestampFormatter(pattern, timeZone, null);
+		assertEquals(1541309400000L, formatter.parse("2018-11-04 01:30:00 -0400").getTimeMillis()); // NON-NLS
+	}
+
+	@Test
+	public void testParsePatternFractionOfSecond() throws Exception {
+		// 6 fraction digits are microseconds
+		TimestampFormatter formatter = new TimestampFormatter("yyyy-MM-dd HH:mm:ss.SSSSSS", "UTC", null); // NON-NLS
+		UsecTimestamp ts = formatter.parse("2018-10-10 10:15:46.000001"); // NON-NLS
+		assertEquals(1539166546000L, ts.getTimeMillis());
+		assertEquals(1L, ts.getTimeUsec() % 1000);
+		assertParsedSameAsUsecTimestamp("yyyy-MM-dd HH:mm:ss.SSSSSS", "2018-10-10 10:15:46.256789"); // NON-NLS
+		assertParsedSameAsUsecTimestamp("yyyy-MM-dd HH:mm:ss.SSSSSS", "2018-10-10 10:15:46.000001"); // NON-NLS
+		assertParsedSameAsUsecTimestamp("yyyyMMddHHmmssSSSSSS", "20181010101546256789"); // NON-NLS
+
+		// 4 and 9 fraction digits are resolved by UsecTimestamp microseconds handling
+		assertParsedSameAsUsecTimestamp("yyyy-MM-dd HH:mm:ss.SSSS", "2018-10-10 10:15:46.2567"); // NON-NLS
+		assertParsedSameAsUsecTimestamp("yyyy-MM-dd HH:mm:ss.SSSS", "2018-10-10 10:15:46.0001"); // NON-NLS
+		assertParsedSameAsUsecTimestamp("yyyy-MM-dd HH:mm:ss.SSSSSSSSS", "2018-10-10 10:15:46.256789123"); // NON-NLS
+		assertParsedSameAsUsecTimestamp("yyyy-MM-dd HH:mm:ss.SSSSSSSSS", "2018-10-10 10:15:46.000000001"); // NON-NLS
+	}
+
+	private static void assertParsedSameAsUsecTimestamp(String pattern, String dateStr) throws Exception {
+		UsecTimestamp expected = null;
+		ParseException expectedExc = null;
+		try {
+			expected = new UsecTimestamp(dateStr, pattern, "UTC", null); // NON-NLS
+		} catch (ParseException exc) {
+			expectedExc = exc;
+		}
+
+		TimestampFormatter formatter = new TimestampFormatter(pattern, "UTC", null); // NON-NLS
+		// second parse of same value may be resolved from seconds cache
+		for (int i = 0; i < 2; i++) {
+			UsecTimestamp ts;
+			try {
+				ts = formatter.parse(dateStr);
+			} catch (ParseException exc) {
+				if (expectedExc == null) {
+					throw exc;
+				}
+				continue;
+			}
+			assertNull(pattern + ": " + dateStr, expectedExc);
+			assertEquals(pattern + ": " + dateStr, expected.getTimeUsec(), ts.getTimeUsec());
+		}
+
+		UsecTimestamp ts;
+		try {
+			ts = TimestampFormatter.parse(pattern, dateStr, "UTC", null); // NON-NLS
+		} catch (ParseException exc) {
+			if (expectedExc == null) {
+				throw exc;
+			}
+			return;
+		}
+		assertNull(pattern + ": " + dateStr, expectedExc);
+		assertEquals(pattern + ": " + dateStr, expected.getTimeUsec(), ts.getTimeUsec());
+	}
+
+	@Test
+	public void testParsePatternMultiThreaded() throws Exception {
+		final TimestampFormatter formatter = new TimestampFormatter("yyyy-MM-dd HH:mm:ss.SSS", "UTC", null); // NON-NLS
+		final long startTime = 1539166546000L;
+		final AtomicInteger failures = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		for (int t = 0; t < 4; t++) {
+			executor.submit(new Runnable() {
+				@Override
+				public void run() {
+					SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS"); // NON-NLS
+					sdf.setTimeZone(TimeZone.getTimeZone("UTC")); // NON-NLS
+					for (int i = 0; i < 5000; i++) {
+						long time = startTime + i * 7;
+						try {
+							if (formatter.parse(sdf.format(new Date(time))).getTimeMillis() != time) {
+								failures.incrementAndGet();
+							}
+						} catch (ParseException exc) {
+							failures.incrementAndGet();
+						}
+					}
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+		assertEquals(0, failures.get());
+	}
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.text.StringTokenizer;
+import org.apache.commons.text.matcher.StringMatcher;
+import org.apache.commons.text.matcher.StringMatcherFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares token parser used {@link StringTokenizer} token array based line splitting against
+ * {@link TokenizedCharSequence} slices based one, when only some of line tokens are picked as activity fields values.
+ * <p>
+ * Run it from IDE or using {@link #main(String[])}. Add {@code -prof gc} JMH option to compare allocation rates.
+ *
+ * @version $Revision: 1 $
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TokenizedCharSequenceBenchmark {
+
+	private static final String LINE = "2018-10-10 10:15:46.256,INFO,\"com.jkoolcloud, Streams\",127.0.0.1,Orders,"
+			+ "order-processing,12345,WAITING,\"item \"\"A\"\", item B\",EUR,1250.45,user@example.com,OK"; // NON-NLS
+	private static final int[] PICKED_TOKENS = { 1, 4, 7, 8, 11 };
+
+	private final StringMatcher delimMatcher = StringMatcherFactory.INSTANCE.charSetMatcher(",");
+	private final char[] delimChars = ",".toCharArray();
+	private final String[] locators = { "1", "4", "7", "8", "11" }; // NON-NLS
+
+	@Benchmark
+	public void stringTokenizer(Blackhole bh) {
+		StringTokenizer tk = new StringTokenizer(LINE, delimMatcher,
+				StringMatcherFactory.INSTANCE.doubleQuoteMatcher());
+		tk.setIgnoreEmptyTokens(false);
+		String[] fields = tk.getTokenArray();
+		for (String locStr : locators) {
+			int loc = Integer.parseInt(locStr);
+			bh.consume(fields[loc - 1].trim());
+		}
+	}
+
+	@Benchmark
+	public void tokenizedCharSequence(Blackhole bh) {
+		TokenizedCharSequence tokens = new TokenizedCharSequence(LINE, delimChars, true);
+		for (int loc : PICKED_TOKENS) {
+			bh.consume(tokens.get(loc - 1, true));
+		}
+	}
+
+	public static void main(String... args) throws RunnerException {
+		Options opt = new OptionsBuilder().include(TokenizedCharSequenceBenchmark.class.getSimpleName()).build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.apache.commons.text.StringTokenizer;
+import org.apache.commons.text.matcher.StringMatcherFactory;
+import org.junit.Test;
+
+/**
+ * @author akausinis
+ * @version 1.0
+ */
+public class TokenizedCharSequenceTest {
+
+	private static final String[] TEST_LINES = { "a,b,c", "a,,b,", ",", "", "\"x,y\",z", "\"a\"\"b\",c", // NON-NLS
+			"ab\"c,d\",e", " p , q ", "\"  s \",t;u", "\"a,b\"c,d", "\"a\"b\"c,d\",e", "\"unterminated,x", // NON-NLS
+			" \"x,y\"", "\"\",\"\"\"\"", "a\"\"b,\"", "\"a\"\"\"" }; // NON-NLS
+
+	@Test
+	public void testSameAsStringTokenizer() {
+		for (String line : TEST_LINES) {
+			StringTokenizer tk = new StringTokenizer(line, StringMatcherFactory.INSTANCE.charSetMatcher(",;"),
+					StringMatcherFactory.INSTANCE.doubleQuoteMatcher());
+			tk.setIgnoreEmptyTokens(false);
+			assertArrayEquals(line, tk.getTokenArray(),
+					new TokenizedCharSequence(line, ",;".toCharArray(), true).toArray()); // NON-NLS
+
+			tk = new StringTokenizer(line, StringMatcherFactory.INSTANCE.charSetMatcher(","));
+			tk.setIgnoreEmptyTokens(false);
+			assertArrayEquals(line, tk.getTokenArray(),
+					new TokenizedCharSequence(line, ",".toCharArray(), false).toArray()); // NON-NLS
+		}
+	}
+
+	@Test
+	public void testQuotedTokens() {
+		assertArrayEquals(new String[] { "x,y", "z" }, // NON-NLS
+				new TokenizedCharSequence("\"x,y\",z", ",".toCharArray(), true).toArray()); // NON-NLS
+		assertArrayEquals(new String[] { "a\"b", "c" }, // NON-NLS
+				new TokenizedCharSequence("\"a\"\"b\",c", ",".toCharArray(), true).toArray()); // NON-NLS
+		assertArrayEquals(new String[] { "a,bc", "d" }, // NON-NLS
+				new TokenizedCharSequence("\"a,b\"c,d", ",".toCharArray(), true).toArray()); // NON-NLS
+		assertArrayEquals(new String[] { "abc,d", "e" }, // NON-NLS
+				new TokenizedCharSequence("\"a\"b\"c,d\",e", ",".toCharArray(), true).toArray()); // NON-NLS
+		assertArrayEquals(new String[] { "ab\"c", "d\"", "e" }, // NON-NLS
+				new TokenizedCharSequence("ab\"c,d\",e", ",".toCharArray(), true).toArray()); // NON-NLS
+		assertArrayEquals(new String[] { " \"x", "y\"" }, // NON-NLS
+				new TokenizedCharSequence(" \"x,y\"", ",".toCharArray(), true).toArray()); // NON-NLS
+		assertArrayEquals(new String[] { "unterminated,x" }, // NON-NLS
+				new TokenizedCharSequence("\"unterminated,x", ",".toCharArray(), true).toArray()); // NON-NLS
+		assertArrayEquals(new String[] { "", "\"" }, // NON-NLS
+				new TokenizedCharSequence("\"\",\"\"\"\"", ",".toCharArray(), true).toArray()); // NON-NLS
+		assertArrayEquals(new String[] { "\"x", "y\"", "z" }, // NON-NLS
+				new TokenizedCharSequence("\"x,y\",z", ",".toCharArray(), false).toArray()); // NON-NLS
+	}
+
+	@Test
+	public void testNoDelimiters() {
+		assertArrayEquals(new String[] { "a,b;c" }, // NON-NLS
+				new TokenizedCharSequence("a,b;c", new char[0], true).toArray()); // NON-NLS
+		assertArrayEquals(new String[] { "a,b;c" }, // NON-NLS
+				new TokenizedCharSequence("\"a,b;c\"", null, true).toArray()); // NON-NLS
+	}
+
+	@Test
+	public void testTrimmedTokens() {
+		TokenizedCharSequence tokens = new TokenizedCharSequence(new StringBuilder(" p ,\" q \", "), // NON-NLS
+				",".toCharArray(), true);
+		assertEquals(3, tokens.size());
+		assertEquals("p", tokens.get(0, true)); // NON-NLS
+		assertEquals(" q ", tokens.get(1)); // NON-NLS
+		assertEquals("q", tokens.get(1, true)); // NON-NLS
+		assertEquals("", tokens.get(2, true));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testOutOfBounds() {
+		new TokenizedCharSequence("a,b", ",".toCharArray(), true).get(2); // NON-NLS
+	}
+}
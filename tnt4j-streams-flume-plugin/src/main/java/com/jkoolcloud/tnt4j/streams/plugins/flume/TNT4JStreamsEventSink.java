@@ -16,9 +16,9 @@
 
 package com.jkoolcloud.tnt4j.streams.plugins.flume;
 
-import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.*;
 import java.net.Socket;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.flume.*;
@@ -37,14 +37,31 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
 
 /**
  * Extends Apache Flume {@link AbstractSink} to deliver output events to jKoolCloud.
+ * <p>
+ * Events are taken from channel in batches - up to {@code batchSize} events are taken within single channel
+ * transaction, serialized to JSON lines over persistent socket connection and flushed once per batch. Optionally sent
+ * data can be compressed using GZIP ({@code compress} property). In that case TNT4J-Streams side stream must have
+ * property {@code CompressedInput} set to {@code true}.
+ * <p>
+ * This sink supports the following configuration properties:
+ * <ul>
+ * <li>hostname - host name of TNT4J-Streams to send events to. Default value - {@code localhost}. (Optional)</li>
+ * <li>port - port number of TNT4J-Streams to send events to. Default value - {@code 9595}. (Optional)</li>
+ * <li>streamConfig - TNT4J-Streams configuration file path, used to start streams when sink sends events to local
+ * host. (Optional)</li>
+ * <li>batchSize - maximal number of events taken from channel and sent within single transaction. Default value -
+ * {@code 100}. (Optional)</li>
+ * <li>compress - flag indicating whether to compress sent data using GZIP. Default value - {@code false}.
+ * (Optional)</li>
+ * </ul>
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  */
 public class TNT4JStreamsEventSink extends AbstractSink implements Configurable {
 	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(TNT4JStreamsEventSink.class);
 
 	/**
-	 * Constant for name of built-in sink @value} property.
+	 * Constant for name of built-in sink {@value} property.
 	 */
 	public static final String PROP_HOST = "hostname"; // NON-NLS
 
@@ -58,19 +75,38 @@ public class TNT4JStreamsEventSink extends AbstractSink implements Configurable
 	 */
 	public static final String PROP_STREAM_CONFIG = "streamConfig"; // NON-NLS
 
+	/**
+	 * Constant for name of built-in sink {@value} property.
+	 */
+	public static final String PROP_BATCH_SIZE = "batchSize"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in sink {@value} property.
+	 */
+	public static final String PROP_COMPRESS = "compress"; // NON-NLS
+
 	private static final String DEFAULT_HOST = "localhost"; // NON-NLS
 	private static final int DEFAULT_PORT = 9595;
 	private static final String DEFAULT_CONFIG_FILE_NAME = StreamsConfigLoader.DFLT_CFG_FILE_NAME;
+	private static final int DEFAULT_BATCH_SIZE = 100;
+	private static final int COMPRESSION_BUFFER_SIZE = 8192;
+
+	private final Gson gson = new Gson();
 
 	private String hostname;
 	private String streamConfig;
 	private int port;
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private boolean compress = false;
 	private Socket socket;
-	private PrintWriter out;
+	private BufferedWriter out;
 
 	/**
+	 * Takes batch of events from channel and sends them to TNT4J-Streams. Events batch is flushed to socket before
+	 * committing channel transaction.
 	 *
-	 * @return status of event delivery
+	 * @return status of event delivery: {@link Status#BACKOFF} if channel has no events, {@link Status#READY} -
+	 *         otherwise
 	 *
 	 * @throws EventDeliveryException
 	 *             when event can't be delivered
@@ -81,26 +117,44 @@ public class TNT4JStreamsEventSink extends AbstractSink implements Configurable
 		Channel channel = getChannel();
 		Transaction transaction = null;
 		Event event;
+		int eventsCount = 0;
 
 		try {
-
+			boolean debugLog = LOGGER.isSet(OpLevel.DEBUG);
 			transaction = channel.getTransaction();
 			transaction.begin();
-			event = channel.take();
 
-			if (event != null) {
-				StreamsEvent eventE = new StreamsEvent(event, getName(), channel.getName());
-				Gson gson = new Gson();
-				String jsonEvent = gson.toJson(eventE);
+			while (eventsCount < batchSize) {
+				event = channel.take();
+				if (event == null) {
+					break;
+				}
 
 				if (out == null || socket == null || socket.isClosed()) {
 					openSocket();
 				}
 
-				out.println(jsonEvent);
+				StreamsEvent eventE = new StreamsEvent(event, getName(), channel.getName());
+				if (debugLog) {
+					String jsonEvent = gson.toJson(eventE);
+					LOGGER.log(OpLevel.DEBUG, StreamsResources.getBundle(FlumeConstants.RESOURCE_BUNDLE_NAME),
+							"TNT4JStreamsEventSink.sending.json", hostname, port, jsonEvent);
+					out.write(jsonEvent);
+				} else {
+					gson.toJson(eventE, out);
+				}
+				out.newLine();
+				eventsCount++;
+			}
 
-				LOGGER.log(OpLevel.DEBUG, StreamsResources.getBundle(FlumeConstants.RESOURCE_BUNDLE_NAME),
-						"TNT4JStreamsEventSink.sending.json", hostname, port, jsonEvent);
+			if (eventsCount > 0) {
+				out.flush();
+				if (debugLog) {
+					LOGGER.log(OpLevel.DEBUG, StreamsResources.getBundle(FlumeConstants.RESOURCE_BUNDLE_NAME),
+							"TNT4JStreamsEventSink.batch.sent", eventsCount, hostname, port);
+				}
+			} else {
+				result = Status.BACKOFF;
 			}
 			transaction.commit();
 		} catch (Exception ex) {
@@ -108,6 +162,7 @@ public class TNT4JStreamsEventSink extends AbstractSink implements Configurable
 					"TNT4JStreamsEventSink.failed.to.publish");
 			Utils.logThrowable(LOGGER, OpLevel.ERROR, errorMsg, ex);
 			result = Status.BACKOFF;
+			closeSocket();
 			if (transaction != null) {
 				try {
 					transaction.rollback();
@@ -128,11 +183,22 @@ public class TNT4JStreamsEventSink extends AbstractSink implements Configurable
 	}
 
 	private void openSocket() throws IOException {
+		closeSocket();
+
+		socket = new Socket(hostname, port);
+		OutputStream os = socket.getOutputStream();
+		if (compress) {
+			os = new GZIPOutputStream(os, COMPRESSION_BUFFER_SIZE, true);
+		}
+		out = new BufferedWriter(new OutputStreamWriter(os));
+	}
+
+	private void closeSocket() {
 		Utils.close(out);
 		Utils.close(socket);
 
-		socket = new Socket(hostname, port);
-		out = new PrintWriter(socket.getOutputStream(), true);
+		out = null;
+		socket = null;
 	}
 
 	/**
@@ -164,8 +230,7 @@ public class TNT4JStreamsEventSink extends AbstractSink implements Configurable
 	public synchronized void stop() {
 		LOGGER.log(OpLevel.INFO, StreamsResources.getBundle(FlumeConstants.RESOURCE_BUNDLE_NAME),
 				"TNT4JStreamsEventSink.plugin.stopping");
-		Utils.close(out);
-		Utils.close(socket);
+		closeSocket();
 
 		super.stop();
 		LOGGER.log(OpLevel.INFO, StreamsResources.getBundle(FlumeConstants.RESOURCE_BUNDLE_NAME),
@@ -182,7 +247,9 @@ public class TNT4JStreamsEventSink extends AbstractSink implements Configurable
 	public void configure(Context context) {
 		hostname = context.getString(PROP_HOST);
 		String portStr = context.getString(PROP_PORT);
+		String batchSizeStr = context.getString(PROP_BATCH_SIZE);
 		streamConfig = context.getString(PROP_STREAM_CONFIG);
+		compress = context.getBoolean(PROP_COMPRESS, false);
 
 		if (hostname == null) {
 			LOGGER.log(OpLevel.WARNING, StreamsResources.getBundle(FlumeConstants.RESOURCE_BUNDLE_NAME),
@@ -204,6 +271,20 @@ public class TNT4JStreamsEventSink extends AbstractSink implements Configurable
 			}
 		}
 
+		batchSize = DEFAULT_BATCH_SIZE;
+		if (batchSizeStr != null) {
+			try {
+				batchSize = Integer.parseInt(batchSizeStr);
+			} catch (NumberFormatException exc) {
+				batchSize = -1;
+			}
+			if (batchSize <= 0) {
+				LOGGER.log(OpLevel.WARNING, StreamsResources.getBundle(FlumeConstants.RESOURCE_BUNDLE_NAME),
+						"TNT4JStreamsEventSink.invalid.batch.size", batchSizeStr, DEFAULT_BATCH_SIZE);
+				batchSize = DEFAULT_BATCH_SIZE;
+			}
+		}
+
 		if (streamConfig == null) {
 			LOGGER.log(OpLevel.WARNING, StreamsResources.getBundle(FlumeConstants.RESOURCE_BUNDLE_NAME),
 					"TNT4JStreamsEventSink.no.tnt4j.config", DEFAULT_CONFIG_FILE_NAME);
@@ -16,17 +16,20 @@
 
 package com.jkoolcloud.tnt4j.streams.plugins.flume;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
-import java.io.IOException;
+import java.io.*;
 import java.net.ServerSocket;
-
-import org.apache.flume.Channel;
-import org.apache.flume.Context;
-import org.apache.flume.Event;
-import org.apache.flume.Transaction;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.flume.*;
 import org.junit.Test;
 
 import com.jkoolcloud.tnt4j.streams.utils.FlumeConstants;
@@ -100,6 +103,7 @@ public class TNT4JStreamsEventSinkTest {
 				put(TNT4JStreamsEventSink.PROP_HOST, "localhost"); // NON-NLS
 				put(TNT4JStreamsEventSink.PROP_PORT, String.valueOf(PORT));
 				put(TNT4JStreamsEventSink.PROP_STREAM_CONFIG, "config.xml"); // NON-NLS
+				put(TNT4JStreamsEventSink.PROP_BATCH_SIZE, "1"); // NON-NLS
 			}
 		};
 		flumeSink.configure(context);
@@ -129,6 +133,80 @@ public class TNT4JStreamsEventSinkTest {
 		verify(channelMock).take();
 	}
 
+	@Test
+	public void testProcessBatch() throws Exception {
+		assertEquals(3, processBatch(PORT + 1, false).size());
+	}
+
+	@Test
+	public void testProcessBatchCompressed() throws Exception {
+		List<String> lines = processBatch(PORT + 2, true);
+		assertEquals(3, lines.size());
+		assertTrue(lines.get(0).contains("\"sinkName\":\"TestSink\"")); // NON-NLS
+	}
+
+	private static List<String> processBatch(final int port, final boolean compress) throws Exception {
+		TNT4JStreamsEventSink flumeSink = new TNT4JStreamsEventSink();
+		flumeSink.setName("TestSink"); // NON-NLS
+
+		Context context = new Context() {
+			{
+				put(TNT4JStreamsEventSink.PROP_HOST, "localhost"); // NON-NLS
+				put(TNT4JStreamsEventSink.PROP_PORT, String.valueOf(port));
+				put(TNT4JStreamsEventSink.PROP_STREAM_CONFIG, "config.xml"); // NON-NLS
+				put(TNT4JStreamsEventSink.PROP_BATCH_SIZE, "10"); // NON-NLS
+				put(TNT4JStreamsEventSink.PROP_COMPRESS, String.valueOf(compress));
+			}
+		};
+		flumeSink.configure(context);
+
+		final List<String> lines = new ArrayList<>();
+		final CountDownLatch received = new CountDownLatch(1);
+		final ServerSocket server = new ServerSocket(port);
+		Thread serverThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try (Socket socket = server.accept()) {
+					InputStream is = socket.getInputStream();
+					if (compress) {
+						is = new GZIPInputStream(is);
+					}
+					BufferedReader reader = new BufferedReader(new InputStreamReader(is));
+					for (int i = 0; i < 3; i++) {
+						lines.add(reader.readLine());
+					}
+				} catch (IOException e) {
+				} finally {
+					received.countDown();
+				}
+			}
+		});
+		serverThread.start();
+
+		try {
+			Channel channelMock = mock(Channel.class);
+			Event eventMock = mock(Event.class);
+			when(eventMock.getBody()).thenReturn("test event".getBytes(StandardCharsets.UTF_8)); // NON-NLS
+			Transaction transactionMock = mock(Transaction.class);
+
+			flumeSink.setChannel(channelMock);
+			when(channelMock.take()).thenReturn(eventMock, eventMock, eventMock, null);
+			when(channelMock.getTransaction()).thenReturn(transactionMock);
+
+			assertEquals(Sink.Status.READY, flumeSink.process());
+			assertTrue(received.await(5, TimeUnit.SECONDS));
+			verify(channelMock, times(4)).take();
+			verify(transactionMock).commit();
+
+			assertEquals(Sink.Status.BACKOFF, flumeSink.process());
+		} finally {
+			flumeSink.stop();
+			server.close();
+		}
+
+		return lines;
+	}
+
 	@Test
 	public void testRB() {
 		String keyModule = "TNT4JStreamsEventSink.streams.starting"; // NON-NLS
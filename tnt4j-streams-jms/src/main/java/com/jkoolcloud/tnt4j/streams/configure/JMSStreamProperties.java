@@ -19,7 +19,7 @@ package com.jkoolcloud.tnt4j.streams.configure;
 /**
  * Lists predefined property names used by TNT4-Streams JMS input streams.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  */
 public interface JMSStreamProperties extends StreamProperties {
 
@@ -27,4 +27,29 @@ public interface JMSStreamProperties extends StreamProperties {
 	 * Constant for name of built-in stream {@value} property.
 	 */
 	String PROP_JMS_CONN_FACTORY = "JMSConnFactory"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in stream {@value} property.
+	 */
+	String PROP_ACKNOWLEDGE_MODE = "AcknowledgeMode"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in stream {@value} property.
+	 */
+	String PROP_ACK_BATCH_SIZE = "AckBatchSize"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in stream {@value} property.
+	 */
+	String PROP_ACK_BATCH_INTERVAL = "AckBatchInterval"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in stream {@value} property.
+	 */
+	String PROP_ACK_WAIT_TIMEOUT = "AckWaitTimeout"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in stream {@value} property.
+	 */
+	String PROP_CONSUMERS_COUNT = "ConsumersCount"; // NON-NLS
 }
@@ -17,9 +17,9 @@
 package com.jkoolcloud.tnt4j.streams.inputs;
 
 import java.lang.IllegalStateException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Properties;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.jms.*;
 import javax.naming.Context;
@@ -33,6 +33,7 @@ import com.jkoolcloud.tnt4j.sink.DefaultEventSinkFactory;
 import com.jkoolcloud.tnt4j.sink.EventSink;
 import com.jkoolcloud.tnt4j.streams.configure.JMSStreamProperties;
 import com.jkoolcloud.tnt4j.streams.configure.StreamProperties;
+import com.jkoolcloud.tnt4j.streams.utils.JMSStreamConstants;
 import com.jkoolcloud.tnt4j.streams.utils.StreamsResources;
 import com.jkoolcloud.tnt4j.streams.utils.Utils;
 
@@ -52,11 +53,27 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * 'Topic')</li>
  * <li>java.naming.factory.initial - JNDI context factory name. (Required)</li>
  * <li>JMSConnFactory - JMS connection factory name. (Required)</li>
+ * <li>AcknowledgeMode - JMS session messages acknowledgement mode: {@code AUTO}, {@code CLIENT} or
+ * {@code TRANSACTED}. In {@code CLIENT} and {@code TRANSACTED} modes received messages are acknowledged (committed)
+ * in batches and only after all batch messages got processed by stream. Messages stream fails to parse or process are
+ * treated as processed and get acknowledged too, so they are not redelivered over and over again. Default value -
+ * {@code AUTO}. (Optional)</li>
+ * <li>AckBatchSize - maximum number of messages acknowledged at once in {@code CLIENT} and {@code TRANSACTED} modes.
+ * Value must be greater than {@code 0}. Default value - {@code 100}. (Optional)</li>
+ * <li>AckBatchInterval - maximum time in milliseconds to collect messages into acknowledgement batch in
+ * {@code CLIENT} and {@code TRANSACTED} modes. Value must be greater than {@code 0}. Default value - {@code 1000}.
+ * (Optional)</li>
+ * <li>AckWaitTimeout - time in milliseconds to wait for acknowledgement batch messages to get processed. If batch
+ * processing does not complete in time, session is recovered (rolled back) and not acknowledged messages get
+ * redelivered. When stream output collects activities into batches, output {@code BatchFlushInterval} shall be less
+ * than this timeout. Value must be greater than {@code 0}. Default value - {@code 30000}. (Optional)</li>
+ * <li>ConsumersCount - number of concurrent JMS sessions and consumers created for every queue. Value must be greater
+ * than {@code 0}. Default value - {@code 1}. (Optional)</li>
  * <li>list of JNDI context configuration properties supported by JMS server implementation. See
  * {@link javax.naming.Context} for more details. (Optional)</li>
  * </ul>
  *
- * @version $Revision: 1$
+ * @version $Revision: 4$
  *
  * @see com.jkoolcloud.tnt4j.streams.parsers.ActivityParser#isDataClassSupported(Object)
  */
@@ -68,10 +85,16 @@ public class JMSStream extends AbstractBufferedStream<Message> {
 	private String[] queueNames = null;
 	private String[] topicNames = null;
 	private String jmsConnFactory = null;
+	private AcknowledgeMode acknowledgeMode = AcknowledgeMode.AUTO;
+	private int ackBatchSize = 100;
+	private long ackBatchInterval = 1000;
+	private long ackWaitTimeout = 30000;
+	private int consumersCount = 1;
 	// JMS Context properties
 	private Properties ctxProps = new Properties();
 
 	private List<JMSDataReceiver> jmsDataReceivers = new ArrayList<>();
+	private final Map<Message, JMSDataReceiver.AckBatch> pendingMessages = new ConcurrentHashMap<>();
 
 	/**
 	 * Constructs an empty JMSStream. Requires configuration settings to set input stream source.
@@ -96,6 +119,21 @@ public class JMSStream extends AbstractBufferedStream<Message> {
 		if (JMSStreamProperties.PROP_JMS_CONN_FACTORY.equalsIgnoreCase(name)) {
 			return jmsConnFactory;
 		}
+		if (JMSStreamProperties.PROP_ACKNOWLEDGE_MODE.equalsIgnoreCase(name)) {
+			return acknowledgeMode.name();
+		}
+		if (JMSStreamProperties.PROP_ACK_BATCH_SIZE.equalsIgnoreCase(name)) {
+			return ackBatchSize;
+		}
+		if (JMSStreamProperties.PROP_ACK_BATCH_INTERVAL.equalsIgnoreCase(name)) {
+			return ackBatchInterval;
+		}
+		if (JMSStreamProperties.PROP_ACK_WAIT_TIMEOUT.equalsIgnoreCase(name)) {
+			return ackWaitTimeout;
+		}
+		if (JMSStreamProperties.PROP_CONSUMERS_COUNT.equalsIgnoreCase(name)) {
+			return consumersCount;
+		}
 		String cpv = ctxProps.getProperty(name);
 		if (cpv != null) {
 			return cpv;
@@ -114,11 +152,43 @@ public class JMSStream extends AbstractBufferedStream<Message> {
 			topicNames = value.split(DEFINITION_DELIMITER);
 		} else if (JMSStreamProperties.PROP_JMS_CONN_FACTORY.equalsIgnoreCase(name)) {
 			jmsConnFactory = value;
+		} else if (JMSStreamProperties.PROP_ACKNOWLEDGE_MODE.equalsIgnoreCase(name)) {
+			acknowledgeMode = AcknowledgeMode.valueOf(value.toUpperCase());
+		} else if (JMSStreamProperties.PROP_ACK_BATCH_SIZE.equalsIgnoreCase(name)) {
+			ackBatchSize = getPositiveInt(name, value);
+		} else if (JMSStreamProperties.PROP_ACK_BATCH_INTERVAL.equalsIgnoreCase(name)) {
+			ackBatchInterval = getPositiveLong(name, value);
+		} else if (JMSStreamProperties.PROP_ACK_WAIT_TIMEOUT.equalsIgnoreCase(name)) {
+			ackWaitTimeout = getPositiveLong(name, value);
+		} else if (JMSStreamProperties.PROP_CONSUMERS_COUNT.equalsIgnoreCase(name)) {
+			consumersCount = getPositiveInt(name, value);
 		} else {
 			ctxProps.put(name, value);
 		}
 	}
 
+	/**
+	 * Parses stream configuration property value as long greater than {@code 0}.
+	 *
+	 * @param name
+	 *            property name
+	 * @param value
+	 *            property value
+	 * @return parsed property value
+	 *
+	 * @throws IllegalArgumentException
+	 *             if property value is not greater than {@code 0}
+	 */
+	private static long getPositiveLong(String name, String value) {
+		long lValue = Long.parseLong(value);
+		if (lValue <= 0) {
+			throw new IllegalArgumentException(StreamsResources.getStringFormatted(StreamsResources.RESOURCE_BUNDLE_NAME,
+					"TNTInputStream.property.illegal", name, value));
+		}
+
+		return lValue;
+	}
+
 	@Override
 	protected void applyProperties() throws Exception {
 		super.applyProperties();
@@ -141,19 +211,22 @@ public class JMSStream extends AbstractBufferedStream<Message> {
 
 		Context ic = new InitialContext(ctxProps);
 
-		initReceivers(queueNames, ic);
-		initReceivers(topicNames, ic);
+		initReceivers(queueNames, ic, consumersCount);
+		// every topic subscriber gets all topic messages, so there is no point to have multiple of them
+		initReceivers(topicNames, ic, 1);
 	}
 
-	private void initReceivers(String[] destinations, Context ic) throws Exception {
+	private void initReceivers(String[] destinations, Context ic, int receiversCount) throws Exception {
 		if (destinations != null) {
 			JMSDataReceiver jmsDataReceiver;
 			for (String destName : destinations) {
 				String tDestName = destName.trim();
 				if (StringUtils.isNotEmpty(tDestName)) {
-					jmsDataReceiver = new JMSDataReceiver();
-					jmsDataReceiver.initialize(ic, tDestName, jmsConnFactory);
-					jmsDataReceivers.add(jmsDataReceiver);
+					for (int i = 0; i < receiversCount; i++) {
+						jmsDataReceiver = new JMSDataReceiver();
+						jmsDataReceiver.initialize(ic, tDestName, jmsConnFactory);
+						jmsDataReceivers.add(jmsDataReceiver);
+					}
 				}
 			}
 		}
@@ -192,6 +265,14 @@ public class JMSStream extends AbstractBufferedStream<Message> {
 		return true;
 	}
 
+	@Override
+	protected void activityItemCompleted(Message item) {
+		JMSDataReceiver.AckBatch batch = pendingMessages.remove(item);
+		if (batch != null) {
+			batch.messageCompleted();
+		}
+	}
+
 	@Override
 	protected long getActivityItemByteSize(Message itemMsg) {
 		try {
@@ -242,14 +323,29 @@ public class JMSStream extends AbstractBufferedStream<Message> {
 
 			jmsConFactory = (ConnectionFactory) ctx.lookup(jmsConnFactoryName);
 			jmsCon = jmsConFactory.createConnection();
-			jmsSession = jmsCon.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			switch (acknowledgeMode) {
+			case TRANSACTED:
+				jmsSession = jmsCon.createSession(true, Session.SESSION_TRANSACTED);
+				break;
+			case CLIENT:
+				jmsSession = jmsCon.createSession(false, Session.CLIENT_ACKNOWLEDGE);
+				break;
+			case AUTO:
+			default:
+				jmsSession = jmsCon.createSession(false, Session.AUTO_ACKNOWLEDGE);
+				break;
+			}
 			destination = (Destination) ctx.lookup(destinationName);
 			jmsReceiver = jmsSession.createConsumer(destination);
-			jmsReceiver.setMessageListener(this);
+			if (acknowledgeMode == AcknowledgeMode.AUTO) {
+				jmsReceiver.setMessageListener(this);
+			}
 		}
 
 		/**
-		 * Starts JMS client to receive incoming data. Shuts down this data receiver if exception occurs.
+		 * Starts JMS client to receive incoming data. In {@code CLIENT} and {@code TRANSACTED} acknowledgement modes
+		 * this thread keeps receiving messages and acknowledging them in batches. Shuts down this data receiver if
+		 * exception occurs.
 		 */
 		@Override
 		public void run() {
@@ -261,10 +357,76 @@ public class JMSStream extends AbstractBufferedStream<Message> {
 							StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
 							"AbstractBufferedStream.input.start.failed", exc);
 					shutdown();
+					return;
+				}
+
+				if (acknowledgeMode != AcknowledgeMode.AUTO) {
+					try {
+						receiveMessages();
+					} catch (JMSException exc) {
+						if (!isStopping()) {
+							Utils.logThrowable(logger(), OpLevel.ERROR,
+									StreamsResources.getBundle(JMSStreamConstants.RESOURCE_BUNDLE_NAME),
+									"JMSStream.receive.failed", exc);
+						}
+						shutdown();
+					}
 				}
 			}
 		}
 
+		private void receiveMessages() throws JMSException {
+			AckBatch batch = new AckBatch();
+			while (!isStopping()) {
+				Message msg = jmsReceiver.receive(batch.getWaitInterval());
+				if (msg != null) {
+					batch.addMessage(msg);
+				}
+
+				if (batch.isDue()) {
+					acknowledge(batch);
+					batch = new AckBatch();
+				}
+			}
+		}
+
+		/**
+		 * Waits for all batch messages to get processed and acknowledges (commits) them. If some of batch messages
+		 * were not added to stream input buffer or has not been processed in time, session gets recovered (rolled
+		 * back), so messages not acknowledged yet will be redelivered.
+		 *
+		 * @param batch
+		 *            messages batch to acknowledge
+		 * @throws JMSException
+		 *             if JMS fails to acknowledge or recover session due to internal error
+		 */
+		private void acknowledge(AckBatch batch) throws JMSException {
+			if (!batch.isLost() && batch.awaitCompleted()) {
+				if (acknowledgeMode == AcknowledgeMode.TRANSACTED) {
+					jmsSession.commit();
+				} else {
+					batch.getLastMessage().acknowledge();
+				}
+				logger().log(OpLevel.DEBUG, StreamsResources.getBundle(JMSStreamConstants.RESOURCE_BUNDLE_NAME),
+						"JMSStream.batch.acknowledged", batch.size());
+				return;
+			}
+
+			if (isStopping()) {
+				// closed session redelivers not acknowledged messages anyway
+				return;
+			}
+
+			pendingMessages.values().removeAll(Collections.singleton(batch));
+			if (acknowledgeMode == AcknowledgeMode.TRANSACTED) {
+				jmsSession.rollback();
+			} else {
+				jmsSession.recover();
+			}
+			logger().log(OpLevel.WARNING, StreamsResources.getBundle(JMSStreamConstants.RESOURCE_BUNDLE_NAME),
+					"JMSStream.batch.recovered", batch.size(), batch.getPendingCount());
+		}
+
 		/**
 		 * Closes JMS client objects.
 		 *
@@ -298,5 +460,126 @@ public class JMSStream extends AbstractBufferedStream<Message> {
 
 			addInputToBuffer(msg);
 		}
+
+		/**
+		 * Batch of received and not yet acknowledged JMS messages.
+		 */
+		private class AckBatch {
+			private final long startTime = System.currentTimeMillis();
+			private final AtomicInteger pendingCount = new AtomicInteger();
+			private int size = 0;
+			private Message lastMessage;
+			private boolean lost = false;
+
+			/**
+			 * Registers received message as pending for processing and adds it to stream input buffer.
+			 *
+			 * @param msg
+			 *            received JMS message
+			 */
+			void addMessage(Message msg) {
+				size++;
+				lastMessage = msg;
+				pendingCount.incrementAndGet();
+				pendingMessages.put(msg, this);
+				if (!addInputToBuffer(msg)) {
+					pendingMessages.remove(msg);
+					pendingCount.decrementAndGet();
+					lost = true;
+				}
+			}
+
+			/**
+			 * Marks one of batch messages as processed: activity data of message has been logged, filtered out or
+			 * message processing has failed and message was skipped.
+			 */
+			void messageCompleted() {
+				if (pendingCount.decrementAndGet() <= 0) {
+					synchronized (this) {
+						notifyAll();
+					}
+				}
+			}
+
+			/**
+			 * Waits until all batch messages get processed, but no longer than {@code AckWaitTimeout} milliseconds.
+			 *
+			 * @return {@code true} if all batch messages got processed, {@code false} - otherwise
+			 */
+			boolean awaitCompleted() {
+				long deadline = System.currentTimeMillis() + ackWaitTimeout;
+				synchronized (this) {
+					while (pendingCount.get() > 0 && !isStopping()) {
+						long waitTime = deadline - System.currentTimeMillis();
+						if (waitTime <= 0) {
+							break;
+						}
+						try {
+							wait(Math.min(waitTime, 500));
+						} catch (InterruptedException exc) {
+							break;
+						}
+					}
+				}
+
+				return pendingCount.get() <= 0;
+			}
+
+			/**
+			 * Checks if batch shall be acknowledged: it is full or its collection time has elapsed.
+			 *
+			 * @return {@code true} if batch shall be acknowledged, {@code false} - otherwise
+			 */
+			boolean isDue() {
+				return size > 0 && (size >= ackBatchSize || System.currentTimeMillis() - startTime >= ackBatchInterval);
+			}
+
+			/**
+			 * Returns time to wait for next message, so batch collection time is not exceeded.
+			 *
+			 * @return time in milliseconds to wait for next message
+			 */
+			long getWaitInterval() {
+				if (size == 0) {
+					return ackBatchInterval;
+				}
+
+				return Math.max(1, ackBatchInterval - (System.currentTimeMillis() - startTime));
+			}
+
+			int size() {
+				return size;
+			}
+
+			int getPendingCount() {
+				return pendingCount.get();
+			}
+
+			Message getLastMessage() {
+				return lastMessage;
+			}
+
+			boolean isLost() {
+				return lost;
+			}
+		}
+	}
+
+	/**
+	 * JMS session messages acknowledgement modes supported by stream.
+	 */
+	enum AcknowledgeMode {
+		/**
+		 * Messages are acknowledged automatically by JMS session when they are received.
+		 */
+		AUTO,
+		/**
+		 * Messages are acknowledged in batches by stream, after they get processed.
+		 */
+		CLIENT,
+		/**
+		 * Messages are received within JMS transaction, committed in batches by stream after they get processed.
+		 */
+		TRANSACTED
 	}
 }
@@ -17,21 +17,39 @@
 package com.jkoolcloud.tnt4j.streams.inputs;
 
 import static com.jkoolcloud.tnt4j.streams.TestUtils.testPropertyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
 
+import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import javax.jms.*;
 import javax.naming.Context;
 import javax.naming.InitialContext;
+import javax.naming.spi.InitialContextFactory;
 
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import com.jkoolcloud.tnt4j.streams.configure.JMSStreamProperties;
 import com.jkoolcloud.tnt4j.streams.configure.StreamProperties;
+import com.jkoolcloud.tnt4j.streams.fields.ActivityInfo;
+import com.jkoolcloud.tnt4j.streams.outputs.TNTStreamOutput;
+import com.jkoolcloud.tnt4j.streams.parsers.ActivityParser;
 import com.solacesystems.jms.SolJmsUtility;
 import com.solacesystems.jms.SupportedProperty;
 
@@ -54,6 +72,280 @@ public class JMSStreamTest {
 		testPropertyList(input, props.entrySet());
 	}
 
+	@Test
+	public void testNonPositiveProperties() {
+		input = new JMSStream();
+		String[] names = { JMSStreamProperties.PROP_ACK_BATCH_SIZE, JMSStreamProperties.PROP_ACK_BATCH_INTERVAL,
+				JMSStreamProperties.PROP_ACK_WAIT_TIMEOUT, JMSStreamProperties.PROP_CONSUMERS_COUNT };
+		for (String name : names) {
+			for (String value : new String[] { "0", "-1" }) {
+				try {
+					input.setProperty(name, value);
+					fail("Property " + name + "=" + value + " should be rejected"); // NON-NLS
+				} catch (IllegalArgumentException exc) {
+				}
+			}
+			input.setProperty(name, "5");
+			assertEquals(5L, ((Number) input.getProperty(name)).longValue());
+		}
+	}
+
+	@Test
+	public void testBatchAcknowledged() throws Exception {
+		final BlockingQueue<Message> received = new LinkedBlockingQueue<>();
+		List<Session> sessions = mockJMSSessions(received, false, Session.CLIENT_ACKNOWLEDGE, 1);
+
+		input = new JMSStream();
+		Map<String, String> props = getStreamProperties("CLIENT"); // NON-NLS
+		props.put(JMSStreamProperties.PROP_ACK_BATCH_SIZE, String.valueOf(2));
+		input.setProperties(props.entrySet());
+		input.setOutput(mockOutput(true));
+		input.addParser(mockParser(null));
+
+		TextMessage msg1 = mock(TextMessage.class);
+		TextMessage msg2 = mock(TextMessage.class);
+		received.add(msg1);
+		received.add(msg2);
+
+		StreamThread streamThread = new StreamThread(input);
+		streamThread.start();
+		try {
+			verify(msg2, timeout(5000)).acknowledge();
+			verify(msg1, never()).acknowledge();
+			verify(sessions.get(0), never()).recover();
+		} finally {
+			input.halt(true);
+			streamThread.join(5000);
+		}
+	}
+
+	@Test
+	public void testBatchCommitted() throws Exception {
+		final BlockingQueue<Message> received = new LinkedBlockingQueue<>();
+		List<Session> sessions = mockJMSSessions(received, true, Session.SESSION_TRANSACTED, 1);
+
+		input = new JMSStream();
+		Map<String, String> props = getStreamProperties("TRANSACTED"); // NON-NLS
+		props.put(JMSStreamProperties.PROP_ACK_BATCH_SIZE, String.valueOf(2));
+		input.setProperties(props.entrySet());
+		input.setOutput(mockOutput(true));
+		input.addParser(mockParser(null));
+
+		received.add(mock(TextMessage.class));
+		received.add(mock(TextMessage.class));
+
+		StreamThread streamThread = new StreamThread(input);
+		streamThread.start();
+		try {
+			verify(sessions.get(0), timeout(5000)).commit();
+			verify(sessions.get(0), never()).rollback();
+		} finally {
+			input.halt(true);
+			streamThread.join(5000);
+		}
+	}
+
+	@Test
+	public void testFailedMessagesAcknowledged() throws Exception {
+		final BlockingQueue<Message> received = new LinkedBlockingQueue<>();
+		List<Session> sessions = mockJMSSessions(received, false, Session.CLIENT_ACKNOWLEDGE, 1);
+
+		input = new JMSStream();
+		Map<String, String> props = getStreamProperties("CLIENT"); // NON-NLS
+		props.put(JMSStreamProperties.PROP_ACK_BATCH_SIZE, String.valueOf(2));
+		input.setProperties(props.entrySet());
+		input.setOutput(mockOutput(true));
+		input.addParser(mockParser(new ParseException("Bad message", 0))); // NON-NLS
+
+		TextMessage msg1 = mock(TextMessage.class);
+		TextMessage msg2 = mock(TextMessage.class);
+		received.add(msg1);
+		received.add(msg2);
+
+		StreamThread streamThread = new StreamThread(input);
+		streamThread.start();
+		try {
+			verify(msg2, timeout(5000)).acknowledge();
+			verify(sessions.get(0), never()).recover();
+		} finally {
+			input.halt(true);
+			streamThread.join(5000);
+		}
+	}
+
+	@Test
+	public void testNotLoggedBatchRolledBack() throws Exception {
+		final BlockingQueue<Message> received = new LinkedBlockingQueue<>();
+		List<Session> sessions = mockJMSSessions(received, true, Session.SESSION_TRANSACTED, 1);
+
+		input = new JMSStream();
+		Map<String, String> props = getStreamProperties("TRANSACTED"); // NON-NLS
+		props.put(JMSStreamProperties.PROP_ACK_BATCH_SIZE, String.valueOf(1));
+		props.put(JMSStreamProperties.PROP_ACK_WAIT_TIMEOUT, String.valueOf(200));
+		input.setProperties(props.entrySet());
+		// output never reports activities as logged, so batch can't complete within AckWaitTimeout
+		input.setOutput(mockOutput(false));
+		input.addParser(mockParser(null));
+
+		received.add(mock(TextMessage.class));
+
+		StreamThread streamThread = new StreamThread(input);
+		streamThread.start();
+		try {
+			verify(sessions.get(0), timeout(5000)).rollback();
+			verify(sessions.get(0), never()).commit();
+		} finally {
+			input.halt(true);
+			streamThread.join(5000);
+		}
+	}
+
+	@Test
+	public void testNotBufferedBatchRecovered() throws Exception {
+		final BlockingQueue<Message> received = new LinkedBlockingQueue<>();
+		List<Session> sessions = mockJMSSessions(received, false, Session.CLIENT_ACKNOWLEDGE, 1);
+
+		input = new JMSStream();
+		Map<String, String> props = getStreamProperties("CLIENT"); // NON-NLS
+		props.put(JMSStreamProperties.PROP_ACK_BATCH_SIZE, String.valueOf(3));
+		props.put(StreamProperties.PROP_BUFFER_SIZE, String.valueOf(1));
+		props.put(StreamProperties.PROP_BUFFER_DROP_WHEN_FULL, String.valueOf(true));
+		input.setProperties(props.entrySet());
+		input.setOutput(mockOutput(true));
+
+		// parser holds first message, so buffer of size 1 can't take all three batch messages
+		final CountDownLatch release = new CountDownLatch(1);
+		ActivityParser parser = mockParser(null);
+		when(parser.parse(any(TNTInputStream.class), any())).thenAnswer(new Answer<ActivityInfo>() {
+			@Override
+			public ActivityInfo answer(InvocationOnMock invocation) throws Throwable {
+				release.await(5, TimeUnit.SECONDS);
+				return null;
+			}
+		});
+		input.addParser(parser);
+
+		TextMessage msg3 = mock(TextMessage.class);
+		received.add(mock(TextMessage.class));
+		received.add(mock(TextMessage.class));
+		received.add(msg3);
+
+		StreamThread streamThread = new StreamThread(input);
+		streamThread.start();
+		try {
+			verify(sessions.get(0), timeout(5000)).recover();
+			verify(msg3, never()).acknowledge();
+		} finally {
+			release.countDown();
+			input.halt(true);
+			streamThread.join(5000);
+		}
+	}
+
+	@Test
+	public void testConsumersCount() throws Exception {
+		final BlockingQueue<Message> received = new LinkedBlockingQueue<>();
+		List<Session> sessions = mockJMSSessions(received, false, Session.CLIENT_ACKNOWLEDGE, 3);
+
+		input = new JMSStream();
+		Map<String, String> props = getStreamProperties("CLIENT"); // NON-NLS
+		props.put(JMSStreamProperties.PROP_CONSUMERS_COUNT, String.valueOf(3));
+		input.setProperties(props.entrySet());
+		input.setOutput(mockOutput(true));
+		input.addParser(mockParser(null));
+
+		StreamThread streamThread = new StreamThread(input);
+		streamThread.start();
+		try {
+			for (Session session : sessions) {
+				verify(session, timeout(5000)).createConsumer(any(Queue.class));
+			}
+			assertEquals(3, new HashSet<>(sessions).size());
+		} finally {
+			input.halt(true);
+			streamThread.join(5000);
+		}
+	}
+
+	private static Map<String, String> getStreamProperties(String ackMode) {
+		Map<String, String> props = new HashMap<>(10);
+		props.put(Context.INITIAL_CONTEXT_FACTORY, TestContextFactory.class.getName());
+		props.put(Context.PROVIDER_URL, "tcp://localhost:61616"); // NON-NLS
+		props.put(StreamProperties.PROP_QUEUE_NAME, "TestQueue"); // NON-NLS
+		props.put(JMSStreamProperties.PROP_JMS_CONN_FACTORY, "TestConnFactory"); // NON-NLS
+		props.put(JMSStreamProperties.PROP_ACKNOWLEDGE_MODE, ackMode);
+		props.put(JMSStreamProperties.PROP_ACK_WAIT_TIMEOUT, String.valueOf(10000));
+		return props;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static TNTStreamOutput<ActivityInfo> mockOutput(boolean logged) {
+		TNTStreamOutput<ActivityInfo> output = mock(TNTStreamOutput.class);
+		if (logged) {
+			doAnswer(new Answer<Void>() {
+				@Override
+				public Void answer(InvocationOnMock invocation) throws Throwable {
+					((Runnable) invocation.getArgument(0)).run();
+					return null;
+				}
+			}).when(output).runWhenLogged(any(Runnable.class));
+		}
+		return output;
+	}
+
+	private static ActivityParser mockParser(ParseException failure) throws Exception {
+		ActivityParser parser = mock(ActivityParser.class);
+		when(parser.isDataClassSupported(any())).thenReturn(true);
+		if (failure != null) {
+			when(parser.parse(any(TNTInputStream.class), any())).thenThrow(failure);
+		}
+		return parser;
+	}
+
+	private static List<Session> mockJMSSessions(final BlockingQueue<Message> received, boolean transacted,
+			int ackMode, int count) throws Exception {
+		ConnectionFactory connFactory = mock(ConnectionFactory.class);
+		Connection connection = mock(Connection.class);
+		Queue queue = mock(Queue.class);
+
+		when(connFactory.createConnection()).thenReturn(connection);
+		List<Session> sessions = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Session session = mock(Session.class);
+			MessageConsumer consumer = mock(MessageConsumer.class);
+			when(session.createConsumer(queue)).thenReturn(consumer);
+			when(consumer.receive(anyLong())).thenAnswer(new Answer<Message>() {
+				@Override
+				public Message answer(InvocationOnMock invocation) throws Throwable {
+					long timeout = invocation.getArgument(0);
+					return received.poll(timeout, TimeUnit.MILLISECONDS);
+				}
+			});
+			sessions.add(session);
+		}
+		Session[] moreSessions = sessions.subList(1, count).toArray(new Session[count - 1]);
+		when(connection.createSession(transacted, ackMode)).thenReturn(sessions.get(0), moreSessions);
+
+		Context context = mock(Context.class);
+		when(context.lookup("TestConnFactory")).thenReturn(connFactory); // NON-NLS
+		when(context.lookup("TestQueue")).thenReturn(queue); // NON-NLS
+		TestContextFactory.context = context;
+
+		return sessions;
+	}
+
+	/**
+	 * JNDI context factory providing mocked JMS objects.
+	 */
+	public static class TestContextFactory implements InitialContextFactory {
+		static Context context;
+
+		@Override
+		public Context getInitialContext(Hashtable<?, ?> environment) {
+			return context;
+		}
+	}
+
 	// @Test
 	// public void testInitialize() throws Exception {
 	// testProperties();
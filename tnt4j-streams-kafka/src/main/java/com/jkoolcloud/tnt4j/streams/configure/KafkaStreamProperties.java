@@ -19,7 +19,7 @@ package com.jkoolcloud.tnt4j.streams.configure;
 /**
  * Lists predefined property names used by TNT4-Streams Kafka input streams.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  */
 public interface KafkaStreamProperties extends StreamProperties {
 
@@ -27,4 +27,24 @@ public interface KafkaStreamProperties extends StreamProperties {
 	 * Constant for name of built-in {@value} property.
 	 */
 	String PROP_START_ZOOKEEPER = "StartZooKeeper"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_POLL_TIMEOUT = "PollTimeout"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_COMMIT_BATCH_SIZE = "CommitBatchSize"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_COMMIT_INTERVAL = "CommitInterval"; // NON-NLS
+
+	/**
+	 * Constant for name of built-in {@value} property.
+	 */
+	String PROP_PARTITION_WORKERS = "PartitionWorkers"; // NON-NLS
 }
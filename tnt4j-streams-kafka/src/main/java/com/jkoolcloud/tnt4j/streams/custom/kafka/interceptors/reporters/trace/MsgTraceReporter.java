@@ -23,7 +23,9 @@ import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
@@ -51,9 +53,7 @@ import com.jkoolcloud.tnt4j.streams.fields.ActivityField;
 import com.jkoolcloud.tnt4j.streams.fields.ActivityInfo;
 import com.jkoolcloud.tnt4j.streams.fields.StreamFieldType;
 import com.jkoolcloud.tnt4j.streams.parsers.ActivityParser;
-import com.jkoolcloud.tnt4j.streams.utils.KafkaStreamConstants;
-import com.jkoolcloud.tnt4j.streams.utils.StreamsResources;
-import com.jkoolcloud.tnt4j.streams.utils.Utils;
+import com.jkoolcloud.tnt4j.streams.utils.*;
 import com.jkoolcloud.tnt4j.uuid.DefaultUUIDFactory;
 
 /**
@@ -67,8 +67,18 @@ import com.jkoolcloud.tnt4j.uuid.DefaultUUIDFactory;
  * <li>consume - n {@link com.jkoolcloud.tnt4j.core.OpType#RECEIVE} type events.</li>
  * <li>commit - n {@link com.jkoolcloud.tnt4j.core.OpType#EVENT} type events.</li>
  * </ul>
+ * <p>
+ * Interceptor threads only capture intercepted records into bounded lock-free handoff queue. Records parsing and
+ * signatures calculation is performed by dedicated reporter worker threads, so tracing adds minimal latency to traced
+ * application. If handoff queue gets full, intercepted records are not traced. Interceptor configuration properties
+ * used:
+ * <ul>
+ * <li>messages.tracer.queue.size - handoff queue capacity. Default value - {@code 10000}.</li>
+ * <li>messages.tracer.workers - number of reporter worker threads. When more than one worker is used, traced events
+ * may be reported not in order they were intercepted. Default value - {@code 1}.</li>
+ * </ul>
  *
- * @version $Revision: 1 $
+ * @version $Revision: 3 $
  */
 public class MsgTraceReporter implements InterceptionsReporter {
 	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(MsgTraceReporter.class);
@@ -89,6 +99,18 @@ public class MsgTraceReporter implements InterceptionsReporter {
 	 * Constant defining interceptor parsers configuration file name.
 	 */
 	public static final String DEFAULT_PARSER_CONFIG_FILE = "tnt-data-source-interceptor.xml"; // NON-NLS
+	/**
+	 * Constant defining default handoff queue capacity.
+	 */
+	public static final int DEFAULT_QUEUE_SIZE = 10000;
+	/**
+	 * Constant defining default number of reporter worker threads.
+	 */
+	public static final int DEFAULT_WORKERS = 1;
+
+	private static final long WORKER_POLL_TIMEOUT = 100;
+	private static final long WORKERS_SHUTDOWN_TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+	private static final long DROPPED_LOG_PERIOD = 10000;
 
 	private ActivityParser mainParser;
 
@@ -96,6 +118,11 @@ public class MsgTraceReporter implements InterceptionsReporter {
 	private Map<String, TraceCommandDeserializer.TopicTraceCommand> traceConfig = new HashMap<>();
 	private Timer pollTimer;
 
+	private final BlockingQueue<Object> handoffQueue;
+	private final List<ReporterWorker> workers;
+	private volatile boolean stopping = false;
+	private final AtomicLong droppedCount = new AtomicLong();
+
 	private static KafkaConsumer<String, TraceCommandDeserializer.TopicTraceCommand> consumer;
 
 	/**
@@ -111,7 +138,9 @@ public class MsgTraceReporter implements InterceptionsReporter {
 	 * @param stream
 	 *            trace stream instance
 	 * @param interceptorProperties
-	 *            Kafka interceptor configuration properties
+	 *            Kafka interceptor configuration properties. Non positive {@code messages.tracer.queue.size} value falls
+	 *            back to {@value #DEFAULT_QUEUE_SIZE}, non positive {@code messages.tracer.workers} value starts single
+	 *            reporter worker thread
 	 * @param enableCfgPolling
 	 *            flag indicating whether to enable tracing configuration pooling from dedicated Kafka topic
 	 */
@@ -120,6 +149,17 @@ public class MsgTraceReporter implements InterceptionsReporter {
 		this.stream = stream;
 		mainParser = getParser("KafkaTraceParser"); // NON-NLS
 
+		int queueSize = Utils.getInt("messages.tracer.queue.size", interceptorProperties, DEFAULT_QUEUE_SIZE); // NON-NLS
+		int workersCount = Utils.getInt("messages.tracer.workers", interceptorProperties, DEFAULT_WORKERS); // NON-NLS
+		handoffQueue = new RingBufferQueue<>(queueSize > 0 ? queueSize : DEFAULT_QUEUE_SIZE);
+		workersCount = Math.max(1, workersCount);
+		workers = new ArrayList<>(workersCount);
+		for (int i = 0; i < workersCount; i++) {
+			ReporterWorker worker = new ReporterWorker("MsgTraceReporterWorker-" + i); // NON-NLS
+			workers.add(worker);
+			worker.start();
+		}
+
 		StreamsAgent.runFromAPI(stream);
 		LOGGER.log(OpLevel.DEBUG, StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
 				"MsgTraceReporter.stream.started", stream.getName());
@@ -260,10 +300,13 @@ public class MsgTraceReporter implements InterceptionsReporter {
 		}
 
 		boolean send = (topic != null && topicTraceConfig != null) && topicTraceConfig.match(topic, count);
-		StackTraceElement callMethodTrace = Utils.getStackFrame(2);
+		if (LOGGER.isSet(OpLevel.DEBUG)) {
+			StackTraceElement callMethodTrace = Utils.getStackFrame(2);
 
-		LOGGER.log(OpLevel.DEBUG, StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
-				"MsgTraceReporter.should.trace", callMethodTrace.getMethodName(), topic, count, topicTraceConfig, send);
+			LOGGER.log(OpLevel.DEBUG, StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
+					"MsgTraceReporter.should.trace", callMethodTrace.getMethodName(), topic, count, topicTraceConfig,
+					send);
+		}
 
 		return send;
 	}
@@ -278,7 +321,7 @@ public class MsgTraceReporter implements InterceptionsReporter {
 				KafkaTraceEventData kafkaTraceData = new KafkaTraceEventData(producerRecord,
 						MapUtils.getString(interceptor.getConfig(), ProducerConfig.CLIENT_ID_CONFIG));
 
-				stream.addInputToBuffer(mainParser.parse(stream, kafkaTraceData));
+				handOff(kafkaTraceData);
 			} catch (Exception exc) {
 				Utils.logThrowable(LOGGER, OpLevel.ERROR,
 						StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
@@ -297,9 +340,7 @@ public class MsgTraceReporter implements InterceptionsReporter {
 			try {
 				KafkaTraceEventData kafkaTraceData = new KafkaTraceEventData(recordMetadata, e, clusterResource,
 						MapUtils.getString(interceptor.getConfig(), ProducerConfig.CLIENT_ID_CONFIG));
-				kafkaTraceData.setSignature(
-						calcSignature(recordMetadata.topic(), recordMetadata.partition(), recordMetadata.offset()));
-				stream.addInputToBuffer(mainParser.parse(stream, kafkaTraceData));
+				handOff(kafkaTraceData);
 			} catch (Exception exc) {
 				Utils.logThrowable(LOGGER, OpLevel.ERROR,
 						StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
@@ -337,22 +378,8 @@ public class MsgTraceReporter implements InterceptionsReporter {
 		if (consumerRecords == null) {
 			return;
 		}
-		String tid = null;
-		ActivityInfo ai = null;
-		try {
-			ai = new ActivityInfo();
-			ai.setFieldValue(new ActivityField(StreamFieldType.EventType.name()), OpType.ACTIVITY);
-			ai.setFieldValue(new ActivityField(StreamFieldType.EventName.name()), "Kafka_Consumer_Consume"); // NON-NLS
-			ai.setFieldValue(new ActivityField(StreamFieldType.TrackingId.name()),
-					DefaultUUIDFactory.getInstance().newUUID());
-			stream.addInputToBuffer(ai);
-
-			tid = ai.getTrackingId();
-		} catch (Exception exc) {
-			Utils.logThrowable(LOGGER, OpLevel.ERROR,
-					StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
-					"MsgTraceReporter.consume.failed", exc);
-		}
+		String tid = DefaultUUIDFactory.getInstance().newUUID();
+		handOff(new ParentActivityData("Kafka_Consumer_Consume", tid)); // NON-NLS
 		for (ConsumerRecord<Object, Object> cr : consumerRecords) {
 			if (cr == null) {
 				continue;
@@ -362,8 +389,7 @@ public class MsgTraceReporter implements InterceptionsReporter {
 					KafkaTraceEventData kafkaTraceData = new KafkaTraceEventData(cr,
 							MapUtils.getString(interceptor.getConfig(), ProducerConfig.CLIENT_ID_CONFIG));
 					kafkaTraceData.setParentId(tid);
-					kafkaTraceData.setSignature(calcSignature(cr.topic(), cr.partition(), cr.offset()));
-					stream.addInputToBuffer(mainParser.parse(stream, kafkaTraceData));
+					handOff(kafkaTraceData);
 				} catch (Exception exc) {
 					Utils.logThrowable(LOGGER, OpLevel.ERROR,
 							StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
@@ -378,33 +404,18 @@ public class MsgTraceReporter implements InterceptionsReporter {
 		if (map == null || map.isEmpty()) {
 			return;
 		}
-		String tid = null;
-		ActivityInfo ai;
-		try {
-			ai = new ActivityInfo();
-			ai.setFieldValue(new ActivityField(StreamFieldType.EventType.name()), OpType.ACTIVITY);
-			ai.setFieldValue(new ActivityField(StreamFieldType.EventName.name()), "Kafka_Consumer_Commit"); // NON-NLS
-			ai.setFieldValue(new ActivityField(StreamFieldType.TrackingId.name()),
-					DefaultUUIDFactory.getInstance().newUUID());
-			stream.addInputToBuffer(ai);
-
-			tid = ai.getTrackingId();
-		} catch (Exception exc) {
-			Utils.logThrowable(LOGGER, OpLevel.ERROR,
-					StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
-					"MsgTraceReporter.commit.failed", exc);
-		}
+		String tid = DefaultUUIDFactory.getInstance().newUUID();
+		handOff(new ParentActivityData("Kafka_Consumer_Commit", tid)); // NON-NLS
 		for (Map.Entry<TopicPartition, OffsetAndMetadata> me : map.entrySet()) {
 			if (me == null) {
 				continue;
 			}
 			if (shouldSendTrace(me.getKey().topic(), false)) {
 				try {
-					ai = new ActivityInfo();
 					KafkaTraceEventData kafkaTraceData = new KafkaTraceEventData(me.getKey(), me.getValue(),
 							MapUtils.getString(interceptor.getConfig(), ProducerConfig.CLIENT_ID_CONFIG));
 					kafkaTraceData.setParentId(tid);
-					stream.addInputToBuffer(mainParser.parse(stream, kafkaTraceData));
+					handOff(kafkaTraceData);
 				} catch (Exception exc) {
 					Utils.logThrowable(LOGGER, OpLevel.ERROR,
 							StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
@@ -414,8 +425,84 @@ public class MsgTraceReporter implements InterceptionsReporter {
 		}
 	}
 
+	/**
+	 * Puts intercepted data into handoff queue to be reported by reporter worker thread. If handoff queue is full,
+	 * intercepted data is dropped.
+	 *
+	 * @param data
+	 *            intercepted data to report
+	 */
+	protected void handOff(Object data) {
+		if (!handoffQueue.offer(data)) {
+			long dropped = droppedCount.incrementAndGet();
+			if (dropped % DROPPED_LOG_PERIOD == 1) {
+				LOGGER.log(OpLevel.WARNING, StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
+						"MsgTraceReporter.queue.full", dropped);
+			}
+		}
+	}
+
+	/**
+	 * Returns number of intercepted data entries dropped because of full handoff queue.
+	 *
+	 * @return number of dropped intercepted data entries
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	/**
+	 * Parses intercepted data and puts produced activity entity into stream buffer.
+	 *
+	 * @param data
+	 *            intercepted data to report
+	 */
+	protected void report(Object data) {
+		if (data instanceof ParentActivityData) {
+			ParentActivityData pad = (ParentActivityData) data;
+			try {
+				ActivityInfo ai = new ActivityInfo();
+				ai.setFieldValue(new ActivityField(StreamFieldType.EventType.name()), OpType.ACTIVITY);
+				ai.setFieldValue(new ActivityField(StreamFieldType.EventName.name()), pad.eventName);
+				ai.setFieldValue(new ActivityField(StreamFieldType.TrackingId.name()), pad.trackingId);
+				stream.addInputToBuffer(ai);
+			} catch (Exception exc) {
+				Utils.logThrowable(LOGGER, OpLevel.ERROR,
+						StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
+						"MsgTraceReporter.report.failed", exc);
+			}
+		} else if (data instanceof KafkaTraceEventData) {
+			KafkaTraceEventData kafkaTraceData = (KafkaTraceEventData) data;
+			try {
+				if (KafkaTraceEventData.ACK.equals(kafkaTraceData.type())) {
+					RecordMetadata recordMetadata = kafkaTraceData.getRecordMetadata();
+					kafkaTraceData.setSignature(
+							calcSignature(recordMetadata.topic(), recordMetadata.partition(), recordMetadata.offset()));
+				} else if (KafkaTraceEventData.CONSUME.equals(kafkaTraceData.type())) {
+					ConsumerRecord<?, ?> cr = kafkaTraceData.getConsumerRecord();
+					kafkaTraceData.setSignature(calcSignature(cr.topic(), cr.partition(), cr.offset()));
+				}
+				stream.addInputToBuffer(mainParser.parse(stream, kafkaTraceData));
+			} catch (Exception exc) {
+				Utils.logThrowable(LOGGER, OpLevel.ERROR,
+						StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
+						"MsgTraceReporter.report.failed", exc);
+			}
+		}
+	}
+
 	@Override
 	public void shutdown() {
+		stopping = true;
+		for (ReporterWorker worker : workers) {
+			try {
+				worker.join(WORKERS_SHUTDOWN_TIMEOUT);
+			} catch (InterruptedException exc) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+
 		if (stream != null) {
 			stream.markEnded();
 		}
@@ -425,7 +512,12 @@ public class MsgTraceReporter implements InterceptionsReporter {
 		}
 	}
 
-	private final MessageDigest MSG_DIGEST = Utils.getMD5Digester();
+	private final ThreadLocal<MessageDigest> MSG_DIGEST = new ThreadLocal<MessageDigest>() {
+		@Override
+		protected MessageDigest initialValue() {
+			return Utils.getMD5Digester();
+		}
+	};
 
 	/**
 	 * Generates a new unique message event signature.
@@ -440,15 +532,55 @@ public class MsgTraceReporter implements InterceptionsReporter {
 	 * @return unique message event signature
 	 */
 	protected String calcSignature(String topic, int partition, long offset) {
-		synchronized (MSG_DIGEST) {
-			MSG_DIGEST.reset();
-			if (topic != null) {
-				MSG_DIGEST.update(topic.getBytes());
-			}
-			MSG_DIGEST.update(ByteBuffer.allocate(4).putInt(partition).array());
-			MSG_DIGEST.update(ByteBuffer.allocate(8).putLong(offset).array());
+		MessageDigest msgDigest = MSG_DIGEST.get();
+		msgDigest.reset();
+		if (topic != null) {
+			msgDigest.update(topic.getBytes());
+		}
+		msgDigest.update(ByteBuffer.allocate(12).putInt(partition).putLong(offset).array());
+
+		return Utils.base64EncodeStr(msgDigest.digest());
+	}
+
+	/**
+	 * Consumer "consume"/"commit" interceptions parent activity data.
+	 */
+	private static class ParentActivityData {
+		private final String eventName;
+		private final String trackingId;
+
+		private ParentActivityData(String eventName, String trackingId) {
+			this.eventName = eventName;
+			this.trackingId = trackingId;
+		}
+	}
+
+	/**
+	 * Reporter worker thread taking intercepted data from handoff queue and reporting it.
+	 */
+	private class ReporterWorker extends StreamsThread {
 
-			return Utils.base64EncodeStr(MSG_DIGEST.digest());
+		private ReporterWorker(String name) {
+			super(name);
+
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				Object data;
+				try {
+					data = handoffQueue.poll(WORKER_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException exc) {
+					break;
+				}
+				if (data != null) {
+					report(data);
+				} else if (stopping) {
+					break;
+				}
+			}
 		}
 	}
 
@@ -19,6 +19,13 @@ package com.jkoolcloud.tnt4j.streams.inputs;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.kafka.clients.consumer.*;
@@ -28,10 +35,9 @@ import org.apache.kafka.common.errors.WakeupException;
 import com.jkoolcloud.tnt4j.core.OpLevel;
 import com.jkoolcloud.tnt4j.sink.DefaultEventSinkFactory;
 import com.jkoolcloud.tnt4j.sink.EventSink;
+import com.jkoolcloud.tnt4j.streams.configure.KafkaStreamProperties;
 import com.jkoolcloud.tnt4j.streams.configure.StreamProperties;
-import com.jkoolcloud.tnt4j.streams.utils.KafkaStreamConstants;
-import com.jkoolcloud.tnt4j.streams.utils.StreamsResources;
-import com.jkoolcloud.tnt4j.streams.utils.Utils;
+import com.jkoolcloud.tnt4j.streams.utils.*;
 
 /**
  * Implements a Kafka topics transmitted activity stream, where each message body is assumed to represent a single
@@ -47,6 +53,18 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * <ul>
  * <li>Topic - topic name to listen. (Required)</li>
  * <li>FileName - Kafka Consumer configuration file ({@code "consumer.properties"}) path. (Optional)</li>
+ * <li>PollTimeout - Kafka consumer poll timeout in milliseconds. Value must be greater than {@code 0}. Default value
+ * - {@code 1000}. (Optional)</li>
+ * <li>CommitBatchSize - number of processed records after which processed records offsets are committed. Value must
+ * be greater than {@code 0}. Actual only if Kafka consumer property {@code enable.auto.commit} is set to
+ * {@code false}. Default value - {@code 500}. (Optional)</li>
+ * <li>CommitInterval - maximum period in milliseconds processed records offsets are kept uncommitted. Actual only if
+ * Kafka consumer property {@code enable.auto.commit} is set to {@code false}. Default value - {@code 5000}.
+ * (Optional)</li>
+ * <li>PartitionWorkers - number of worker threads processing consumed records in parallel. Records of same topic
+ * partition are always processed by same worker, so records order is kept within partition. Value must be greater
+ * than {@code 0}. If not set, records are processed by stream thread. Not used when stream uses executors or processing
+ * pipeline. (Optional)</li>
  * <li>List of Kafka Consumer configuration properties. @see
  * <a href="https://kafka.apache.org/documentation/#consumerconfigs">Kafka Consumer configuration reference</a></li>.
  * </ul>
@@ -54,8 +72,14 @@ import com.jkoolcloud.tnt4j.streams.utils.Utils;
  * NOTE: those file defined Kafka consumer properties gets merged with ones defined in stream configuration - user
  * defined properties. So you can take some basic consumer configuration form file and customize it using stream
  * configuration defined properties.
+ * <p>
+ * When Kafka consumer auto commit is disabled, records offsets are committed only after activities produced from
+ * those records has been logged by stream output. Offsets are committed asynchronously in batches, so records buffered
+ * by stream but not processed yet are consumed again after stream restart. Records may complete out of order (e.g.,
+ * when executors or processing pipeline are used), so partition offset is committed only up to lowest offset of
+ * partition record still being processed. Records failed to be processed are skipped and their offsets get committed.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 4 $
  *
  * @see com.jkoolcloud.tnt4j.streams.parsers.ActivityParser#isDataClassSupported(Object)
  * @see com.jkoolcloud.tnt4j.streams.parsers.KafkaConsumerRecordParser
@@ -73,8 +97,34 @@ public class KafkaConsumerStream extends AbstractBufferedStream<ConsumerRecord<?
 	 */
 	protected static final String PROP_SCOPE_CONSUMER = "consumer"; // NON-NLS
 
+	/**
+	 * Constant defining default Kafka consumer poll timeout in milliseconds.
+	 */
+	public static final long DEFAULT_POLL_TIMEOUT = 1000;
+	/**
+	 * Constant defining default number of processed records to commit in one batch.
+	 */
+	public static final int DEFAULT_COMMIT_BATCH_SIZE = 500;
+	/**
+	 * Constant defining default maximum period in milliseconds processed records offsets are kept uncommitted.
+	 */
+	public static final long DEFAULT_COMMIT_INTERVAL = 5000;
+
+	private static final int PARTITION_WORKER_QUEUE_SIZE = 1000;
+	private static final long PARTITION_WORKER_POLL_TIMEOUT = 100;
+	private static final long PARTITION_WORKERS_SHUTDOWN_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
 	private String topicName;
 	private String cfgFileName;
+	private long pollTimeout = DEFAULT_POLL_TIMEOUT;
+	private int commitBatchSize = DEFAULT_COMMIT_BATCH_SIZE;
+	private long commitInterval = DEFAULT_COMMIT_INTERVAL;
+	private int partitionWorkersCount = 0;
+
+	private PartitionWorker[] partitionWorkers;
+	private AtomicBoolean workersFailureFlag;
+	private final ConcurrentMap<TopicPartition, PartitionOffsets> partitionsOffsets = new ConcurrentHashMap<>();
+	private final AtomicInteger uncommittedCount = new AtomicInteger();
 
 	private Map<String, Properties> userKafkaProps = new HashMap<>(3);
 
@@ -118,8 +168,21 @@ public class KafkaConsumerStream extends AbstractBufferedStream<ConsumerRecord<?
 			topicName = value;
 		} else if (StreamProperties.PROP_FILENAME.equalsIgnoreCase(name)) {
 			cfgFileName = value;
+		} else if (KafkaStreamProperties.PROP_POLL_TIMEOUT.equalsIgnoreCase(name)) {
+			long timeout = Long.parseLong(value);
+			if (timeout <= 0) {
+				throw new IllegalArgumentException(StreamsResources.getStringFormatted(
+						StreamsResources.RESOURCE_BUNDLE_NAME, "TNTInputStream.property.illegal", name, value));
+			}
+			pollTimeout = timeout;
+		} else if (KafkaStreamProperties.PROP_COMMIT_BATCH_SIZE.equalsIgnoreCase(name)) {
+			commitBatchSize = getPositiveInt(name, value);
+		} else if (KafkaStreamProperties.PROP_COMMIT_INTERVAL.equalsIgnoreCase(name)) {
+			commitInterval = Long.parseLong(value);
+		} else if (KafkaStreamProperties.PROP_PARTITION_WORKERS.equalsIgnoreCase(name)) {
+			partitionWorkersCount = getPositiveInt(name, value);
 		} else {
-			Field[] propFields = StreamProperties.class.getDeclaredFields();
+			Field[] propFields = KafkaStreamProperties.class.getFields();
 
 			boolean streamsProperty = false;
 			for (Field pf : propFields) {
@@ -148,6 +211,18 @@ public class KafkaConsumerStream extends AbstractBufferedStream<ConsumerRecord<?
 		if (StreamProperties.PROP_FILENAME.equalsIgnoreCase(name)) {
 			return cfgFileName;
 		}
+		if (KafkaStreamProperties.PROP_POLL_TIMEOUT.equalsIgnoreCase(name)) {
+			return pollTimeout;
+		}
+		if (KafkaStreamProperties.PROP_COMMIT_BATCH_SIZE.equalsIgnoreCase(name)) {
+			return commitBatchSize;
+		}
+		if (KafkaStreamProperties.PROP_COMMIT_INTERVAL.equalsIgnoreCase(name)) {
+			return commitInterval;
+		}
+		if (KafkaStreamProperties.PROP_PARTITION_WORKERS.equalsIgnoreCase(name)) {
+			return partitionWorkersCount;
+		}
 
 		Object prop = super.getProperty(name);
 		if (prop == null) {
@@ -275,12 +350,30 @@ public class KafkaConsumerStream extends AbstractBufferedStream<ConsumerRecord<?
 
 		kafkaDataReceiver = new KafkaDataReceiver();
 		kafkaDataReceiver.initialize(getScopeProps(PROP_SCOPE_CONSUMER), Collections.singleton(topicName));
+
+		if (partitionWorkersCount > 0) {
+			if (Utils.toBoolean(String.valueOf(getProperty(StreamProperties.PROP_USE_EXECUTOR_SERVICE)))
+					|| Utils.toBoolean(String.valueOf(getProperty(StreamProperties.PROP_USE_PIPELINE)))) {
+				logger().log(OpLevel.WARNING, StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
+						"KafkaConsumerStream.partition.workers.ignored", getName());
+			} else {
+				partitionWorkers = new PartitionWorker[partitionWorkersCount];
+				for (int i = 0; i < partitionWorkers.length; i++) {
+					partitionWorkers[i] = new PartitionWorker("KafkaConsumerStream.PartitionWorker-" + i); // NON-NLS
+				}
+			}
+		}
 	}
 
 	@Override
 	protected void start() throws Exception {
 		super.start();
 
+		if (partitionWorkers != null) {
+			for (PartitionWorker pw : partitionWorkers) {
+				pw.start();
+			}
+		}
 		kafkaDataReceiver.start();
 
 		logger().log(OpLevel.DEBUG, StreamsResources.getBundle(StreamsResources.RESOURCE_BUNDLE_NAME),
@@ -299,8 +392,99 @@ public class KafkaConsumerStream extends AbstractBufferedStream<ConsumerRecord<?
 		return kafkaDataReceiver.isInputEnded();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If partition workers are used, consumer record is passed to partition worker bound to record topic partition.
+	 */
+	@Override
+	protected void processActivityItem(ConsumerRecord<?, ?> item, AtomicBoolean failureFlag) throws Exception {
+		if (partitionWorkers == null) {
+			super.processActivityItem(item, failureFlag);
+		} else {
+			workersFailureFlag = failureFlag;
+			int idx = Math.abs((31 * item.topic().hashCode() + item.partition()) % partitionWorkers.length);
+			partitionWorkers[idx].put(item);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If partition workers are used, consumer record gets completed by partition worker processing it.
+	 */
+	@Override
+	protected void completeActivityItem(ConsumerRecord<?, ?> item) {
+		if (partitionWorkers == null) {
+			super.completeActivityItem(item);
+		}
+	}
+
+	@Override
+	protected void activityItemCompleted(ConsumerRecord<?, ?> item) {
+		markProcessed(item);
+	}
+
+	/**
+	 * Registers consumer record as being processed, so its topic partition offset is not committed until record
+	 * processing completes.
+	 *
+	 * @param record
+	 *            consumer record to register
+	 */
+	protected void markPending(ConsumerRecord<?, ?> record) {
+		TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+		PartitionOffsets offsets = partitionsOffsets.get(partition);
+		if (offsets == null) {
+			offsets = new PartitionOffsets();
+			PartitionOffsets prevOffsets = partitionsOffsets.putIfAbsent(partition, offsets);
+			if (prevOffsets != null) {
+				offsets = prevOffsets;
+			}
+		}
+		offsets.addPending(record.offset());
+	}
+
+	/**
+	 * Marks consumer record as processed, making its offset committable once all lower offset records of same topic
+	 * partition get processed.
+	 *
+	 * @param record
+	 *            processed consumer record
+	 */
+	protected void markProcessed(ConsumerRecord<?, ?> record) {
+		PartitionOffsets offsets = partitionsOffsets.get(new TopicPartition(record.topic(), record.partition()));
+		if (offsets != null && offsets.complete(record.offset())) {
+			uncommittedCount.incrementAndGet();
+		}
+	}
+
+	private void stopPartitionWorkers() {
+		if (partitionWorkers == null) {
+			return;
+		}
+
+		for (PartitionWorker pw : partitionWorkers) {
+			pw.stopping = true;
+		}
+		long deadline = System.currentTimeMillis() + PARTITION_WORKERS_SHUTDOWN_TIMEOUT;
+		for (PartitionWorker pw : partitionWorkers) {
+			long wait = deadline - System.currentTimeMillis();
+			if (wait <= 0) {
+				break;
+			}
+			try {
+				pw.join(wait);
+			} catch (InterruptedException exc) {
+				break;
+			}
+		}
+	}
+
 	@Override
 	protected void cleanup() {
+		stopPartitionWorkers();
+
 		if (kafkaDataReceiver != null) {
 			kafkaDataReceiver.shutdown();
 		}
@@ -315,6 +499,8 @@ public class KafkaConsumerStream extends AbstractBufferedStream<ConsumerRecord<?
 		private Consumer<?, ?> consumer;
 		private Collection<String> topics;
 		private boolean autoCommit = true;
+		private long lastCommitTime;
+		private final Map<TopicPartition, Long> committedOffsets = new HashMap<>();
 
 		private KafkaDataReceiver() {
 			super("KafkaConsumerStream.KafkaDataReceiver"); // NON-NLS
@@ -346,33 +532,110 @@ public class KafkaConsumerStream extends AbstractBufferedStream<ConsumerRecord<?
 		public void run() {
 			if (consumer != null) {
 				try {
-					consumer.subscribe(topics);
+					consumer.subscribe(topics, new ConsumerRebalanceListener() {
+						@Override
+						public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+							if (!autoCommit) {
+								commitProcessedOffsets(true);
+								for (TopicPartition partition : partitions) {
+									partitionsOffsets.remove(partition);
+									committedOffsets.remove(partition);
+								}
+							}
+						}
+
+						@Override
+						public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+						}
+					});
+					lastCommitTime = System.currentTimeMillis();
 
 					while (!isHalted()) {
-						ConsumerRecords<?, ?> records = consumer.poll(Long.MAX_VALUE);
-						if (autoCommit) {
-							addRecordsToBuffer(records);
-						} else {
-							for (TopicPartition partition : records.partitions()) {
-								List<? extends ConsumerRecord<?, ?>> partitionRecords = records.records(partition);
-								addRecordsToBuffer(partitionRecords);
-								long lastOffset = partitionRecords.get(partitionRecords.size() - 1).offset();
-								consumer.commitSync(
-										Collections.singletonMap(partition, new OffsetAndMetadata(lastOffset + 1)));
-								logger().log(OpLevel.DEBUG,
-										StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
-										"KafkaStream.committing.offset", partition, lastOffset);
-							}
+						ConsumerRecords<?, ?> records = consumer.poll(pollTimeout);
+						addRecordsToBuffer(records);
+						if (!autoCommit && isCommitDue()) {
+							commitProcessedOffsets(false);
 						}
 					}
 				} catch (WakeupException exc) {
 				} finally {
+					if (!autoCommit) {
+						try {
+							commitProcessedOffsets(true);
+						} catch (Exception exc) {
+							Utils.logThrowable(logger(), OpLevel.WARNING,
+									StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
+									"KafkaConsumerStream.commit.failed", exc);
+						}
+					}
 					consumer.unsubscribe();
 					consumer.close();
 				}
 			}
 		}
 
+		private boolean isCommitDue() {
+			int uncommitted = uncommittedCount.get();
+			return uncommitted > 0 && (uncommitted >= commitBatchSize
+					|| System.currentTimeMillis() - lastCommitTime >= commitInterval);
+		}
+
+		/**
+		 * Commits offsets of processed consumer records for currently assigned topic partitions. Offsets of partitions no
+		 * longer assigned to this consumer are discarded.
+		 *
+		 * @param sync
+		 *            flag indicating whether to commit synchronously
+		 */
+		private void commitProcessedOffsets(boolean sync) {
+			uncommittedCount.set(0);
+			lastCommitTime = System.currentTimeMillis();
+
+			final Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+			Set<TopicPartition> assignment = consumer.assignment();
+			for (Map.Entry<TopicPartition, PartitionOffsets> poe : partitionsOffsets.entrySet()) {
+				TopicPartition partition = poe.getKey();
+				if (!assignment.contains(partition)) {
+					partitionsOffsets.remove(partition, poe.getValue());
+					continue;
+				}
+				long offset = poe.getValue().getCommittableOffset();
+				if (offset >= 0 && !Long.valueOf(offset).equals(committedOffsets.get(partition))) {
+					offsets.put(partition, new OffsetAndMetadata(offset));
+					committedOffsets.put(partition, offset);
+					logger().log(OpLevel.DEBUG, StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
+							"KafkaStream.committing.offset", partition, offset);
+				}
+			}
+
+			if (offsets.isEmpty()) {
+				return;
+			}
+
+			if (sync) {
+				consumer.commitSync(offsets);
+			} else {
+				consumer.commitAsync(offsets, new OffsetCommitCallback() {
+					@Override
+					public void onComplete(Map<TopicPartition, OffsetAndMetadata> committed, Exception exc) {
+						if (exc != null) {
+							Utils.logThrowable(logger(), OpLevel.WARNING,
+									StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
+									"KafkaConsumerStream.commit.failed", exc);
+							// make failed offsets to be committed again
+							for (Map.Entry<TopicPartition, OffsetAndMetadata> oe : offsets.entrySet()) {
+								Long offset = oe.getValue().offset();
+								if (offset.equals(committedOffsets.get(oe.getKey()))) {
+									committedOffsets.remove(oe.getKey());
+								}
+							}
+							uncommittedCount.incrementAndGet();
+						}
+					}
+				});
+			}
+		}
+
 		/**
 		 * Adds consumer records from provided <tt>records</tt> collection to stream input buffer.
 		 *
@@ -387,7 +650,13 @@ public class KafkaConsumerStream extends AbstractBufferedStream<ConsumerRecord<?
 				logger().log(OpLevel.DEBUG, StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
 						"KafkaStream.next.message", msgData);
 
-				addInputToBuffer(record);
+				if (!autoCommit) {
+					markPending(record);
+				}
+				if (!addInputToBuffer(record) && !autoCommit && !isHalted()) {
+					// dropped record will not be processed, so it shall not hold partition offset
+					markProcessed(record);
+				}
 			}
 		}
 
@@ -401,4 +670,112 @@ public class KafkaConsumerStream extends AbstractBufferedStream<ConsumerRecord<?
 			}
 		}
 	}
+
+	/**
+	 * Worker thread processing consumer records of topic partitions bound to it. Records are processed in the order
+	 * they were consumed.
+	 */
+	private class PartitionWorker extends StreamsThread {
+		private final BlockingQueue<ConsumerRecord<?, ?>> recordsQueue = new ArrayBlockingQueue<>(
+				PARTITION_WORKER_QUEUE_SIZE);
+		private volatile boolean stopping = false;
+
+		private PartitionWorker(String name) {
+			super(name);
+
+			setDaemon(true);
+		}
+
+		/**
+		 * Puts consumer record into worker queue. Blocks while worker queue is full.
+		 *
+		 * @param record
+		 *            consumer record to process
+		 * @throws InterruptedException
+		 *             if interrupted while waiting for worker queue to accept record
+		 */
+		void put(ConsumerRecord<?, ?> record) throws InterruptedException {
+			while (!recordsQueue.offer(record, PARTITION_WORKER_POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				if (stopping) {
+					incrementLostActivitiesCount();
+					return;
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					ConsumerRecord<?, ?> record = recordsQueue.poll(PARTITION_WORKER_POLL_TIMEOUT,
+							TimeUnit.MILLISECONDS);
+					if (record == null) {
+						if (stopping) {
+							break;
+						}
+						continue;
+					}
+
+					try {
+						KafkaConsumerStream.super.processActivityItem(record, workersFailureFlag);
+					} catch (Exception exc) {
+						Utils.logThrowable(logger(), OpLevel.ERROR,
+								StreamsResources.getBundle(KafkaStreamConstants.RESOURCE_BUNDLE_NAME),
+								"KafkaConsumerStream.record.processing.failed", record.topic(), record.partition(),
+								record.offset(), exc);
+						incrementSkippedActivitiesCount();
+					}
+					KafkaConsumerStream.super.completeActivityItem(record);
+				}
+			} catch (InterruptedException exc) {
+			}
+		}
+	}
+
+	/**
+	 * Tracks topic partition records offsets being processed and picks offset safe to commit. Records may complete in
+	 * different order than they were consumed, so committable offset is the lowest offset of records still being
+	 * processed, or the offset following highest processed record offset if there are no records being processed.
+	 */
+	static class PartitionOffsets {
+		private final TreeSet<Long> pendingOffsets = new TreeSet<>();
+		private long nextOffset = -1;
+
+		/**
+		 * Registers record offset as being processed.
+		 *
+		 * @param offset
+		 *            record offset
+		 */
+		synchronized void addPending(long offset) {
+			pendingOffsets.add(offset);
+		}
+
+		/**
+		 * Marks record offset as processed.
+		 *
+		 * @param offset
+		 *            record offset
+		 * @return {@code true} if offset was registered as being processed, {@code false} - otherwise
+		 */
+		synchronized boolean complete(long offset) {
+			if (!pendingOffsets.remove(offset)) {
+				return false;
+			}
+			nextOffset = Math.max(nextOffset, offset + 1);
+			return true;
+		}
+
+		/**
+		 * Returns offset safe to commit: no records having lower offset are still being processed.
+		 *
+		 * @return offset safe to commit, or {@code -1} if no records have been processed yet
+		 */
+		synchronized long getCommittableOffset() {
+			if (nextOffset < 0 || pendingOffsets.isEmpty()) {
+				return nextOffset;
+			}
+			return Math.min(nextOffset, pendingOffsets.first());
+		}
+	}
 }
@@ -8,6 +8,8 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import javax.xml.parsers.ParserConfigurationException;
@@ -396,6 +398,129 @@ public class MsgTraceReporterTest {
 		return MsgTraceReporter.getParser(parserName);
 	}
 
+	@Test
+	public void testNonPositiveWorkersAndQueueSize() throws Exception {
+		Properties props = new Properties();
+		props.setProperty("messages.tracer.queue.size", "-5"); // NON-NLS
+		props.setProperty("messages.tracer.workers", "-1"); // NON-NLS
+
+		final CountDownLatch reported = new CountDownLatch(1);
+		MsgTraceReporter reporter = new MsgTraceReporter(buildStream(), props, false) {
+			@Override
+			protected void report(Object data) {
+				reported.countDown();
+			}
+		};
+
+		try {
+			reporter.handOff("DATA"); // NON-NLS
+			assertTrue(reported.await(5, TimeUnit.SECONDS));
+			assertEquals(0, reporter.getDroppedCount());
+		} finally {
+			reporter.shutdown();
+		}
+	}
+
+	@Test
+	public void testHandOffReportedByWorkers() throws Exception {
+		Properties props = new Properties();
+		props.setProperty("messages.tracer.workers", "3"); // NON-NLS
+
+		final int count = 100;
+		final Queue<Object> reportedData = new ConcurrentLinkedQueue<>();
+		final Set<String> workerNames = Collections.synchronizedSet(new HashSet<String>());
+		final CountDownLatch reported = new CountDownLatch(count);
+		MsgTraceReporter reporter = new MsgTraceReporter(buildStream(), props, false) {
+			@Override
+			protected void report(Object data) {
+				reportedData.add(data);
+				workerNames.add(Thread.currentThread().getName());
+				reported.countDown();
+			}
+		};
+
+		try {
+			for (int i = 0; i < count; i++) {
+				reporter.handOff(i);
+			}
+			assertTrue(reported.await(5, TimeUnit.SECONDS));
+		} finally {
+			reporter.shutdown();
+		}
+
+		assertEquals(count, reportedData.size());
+		assertEquals(count, new HashSet<>(reportedData).size());
+		assertEquals(0, reporter.getDroppedCount());
+		assertFalse(workerNames.isEmpty());
+		for (String workerName : workerNames) {
+			assertTrue(workerName, workerName.startsWith("MsgTraceReporterWorker-")); // NON-NLS
+		}
+	}
+
+	@Test
+	public void testHandOffDropsWhenQueueFull() throws Exception {
+		Properties props = new Properties();
+		props.setProperty("messages.tracer.queue.size", "2"); // NON-NLS
+		props.setProperty("messages.tracer.workers", "1"); // NON-NLS
+
+		final Queue<Object> reportedData = new ConcurrentLinkedQueue<>();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		MsgTraceReporter reporter = new MsgTraceReporter(buildStream(), props, false) {
+			@Override
+			protected void report(Object data) {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException exc) {
+					Thread.currentThread().interrupt();
+				}
+				reportedData.add(data);
+			}
+		};
+
+		try {
+			reporter.handOff("BUSY"); // NON-NLS
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+
+			reporter.handOff("QUEUED-1"); // NON-NLS
+			reporter.handOff("QUEUED-2"); // NON-NLS
+			reporter.handOff("DROPPED-1"); // NON-NLS
+			reporter.handOff("DROPPED-2"); // NON-NLS
+
+			assertEquals(2, reporter.getDroppedCount());
+		} finally {
+			release.countDown();
+			reporter.shutdown();
+		}
+
+		assertEquals(Arrays.<Object> asList("BUSY", "QUEUED-1", "QUEUED-2"), new ArrayList<>(reportedData)); // NON-NLS
+	}
+
+	@Test
+	public void testShutdownDrainsHandOffQueue() throws Exception {
+		final int count = 20;
+		final Queue<Object> reportedData = new ConcurrentLinkedQueue<>();
+		MsgTraceReporter reporter = new MsgTraceReporter(buildStream(), new Properties(), false) {
+			@Override
+			protected void report(Object data) {
+				try {
+					Thread.sleep(10);
+				} catch (InterruptedException exc) {
+					Thread.currentThread().interrupt();
+				}
+				reportedData.add(data);
+			}
+		};
+
+		for (int i = 0; i < count; i++) {
+			reporter.handOff(i);
+		}
+		reporter.shutdown();
+
+		assertEquals(count, reportedData.size());
+	}
+
 	public interface TestActivityInfoConsumer {
 		void test(ActivityInfo ai);
 	}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.inputs;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.jkoolcloud.tnt4j.streams.configure.KafkaStreamProperties;
+
+/**
+ * @author akausinis
+ * @version 1.0
+ */
+public class KafkaConsumerStreamTest {
+
+	@Test
+	public void testNonPositiveProperties() {
+		KafkaConsumerStream stream = new KafkaConsumerStream();
+		String[] names = { KafkaStreamProperties.PROP_POLL_TIMEOUT, KafkaStreamProperties.PROP_COMMIT_BATCH_SIZE,
+				KafkaStreamProperties.PROP_PARTITION_WORKERS };
+		for (String name : names) {
+			for (String value : new String[] { "0", "-1" }) { // NON-NLS
+				try {
+					stream.setProperty(name, value);
+					fail("Property value should be rejected: " + name + "=" + value); // NON-NLS
+				} catch (IllegalArgumentException exc) {
+				}
+			}
+			stream.setProperty(name, "2"); // NON-NLS
+			assertEquals(2L, ((Number) stream.getProperty(name)).longValue());
+		}
+	}
+
+	@Test
+	public void testOffsetsInOrderCompletion() {
+		KafkaConsumerStream.PartitionOffsets offsets = new KafkaConsumerStream.PartitionOffsets();
+		assertEquals(-1, offsets.getCommittableOffset());
+
+		for (long i = 10; i < 15; i++) {
+			offsets.addPending(i);
+		}
+		assertEquals(-1, offsets.getCommittableOffset());
+
+		offsets.complete(10);
+		offsets.complete(11);
+		assertEquals(12, offsets.getCommittableOffset());
+
+		offsets.complete(12);
+		offsets.complete(13);
+		offsets.complete(14);
+		assertEquals(15, offsets.getCommittableOffset());
+	}
+
+	@Test
+	public void testOffsetsOutOfOrderCompletion() {
+		KafkaConsumerStream.PartitionOffsets offsets = new KafkaConsumerStream.PartitionOffsets();
+		for (long i = 0; i < 5; i++) {
+			offsets.addPending(i);
+		}
+
+		// later records complete first - offset must not pass records still in flight
+		offsets.complete(3);
+		offsets.complete(4);
+		assertEquals(0, offsets.getCommittableOffset());
+
+		offsets.complete(1);
+		assertEquals(0, offsets.getCommittableOffset());
+
+		offsets.complete(0);
+		assertEquals(2, offsets.getCommittableOffset());
+
+		offsets.addPending(5);
+		offsets.addPending(6);
+		offsets.complete(6);
+		assertEquals(2, offsets.getCommittableOffset());
+
+		offsets.complete(2);
+		assertEquals(5, offsets.getCommittableOffset());
+
+		offsets.complete(5);
+		assertEquals(7, offsets.getCommittableOffset());
+	}
+
+	@Test
+	public void testOffsetsUnknownCompletion() {
+		KafkaConsumerStream.PartitionOffsets offsets = new KafkaConsumerStream.PartitionOffsets();
+		offsets.addPending(7);
+
+		assertFalse(offsets.complete(20));
+		assertEquals(-1, offsets.getCommittableOffset());
+
+		assertTrue(offsets.complete(7));
+		assertFalse(offsets.complete(7));
+		assertEquals(8, offsets.getCommittableOffset());
+	}
+}
@@ -16,12 +16,12 @@
 
 package com.jkoolcloud.tnt4j.streams.inputs;
 
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.Collection;
-import java.util.Hashtable;
-import java.util.Map;
-import java.util.NoSuchElementException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.collections4.CollectionUtils;
@@ -81,12 +81,22 @@ import com.jkoolcloud.tnt4j.streams.utils.*;
  * <li>MQSO_RESUME - if subscription name is defined</li>
  * </ul>
  * (Optional)</li>
+ * <li>SyncpointBatchSize - number of messages got under same syncpoint before committing it. Syncpoint gets committed
+ * only when all messages got under it have been processed. Syncpoints having not processed messages on stream stop or
+ * queue manager disconnect are backed out. Default value - {@code 1}. (Optional)</li>
+ * <li>SyncpointBatchTimeout - maximum time in milliseconds messages are kept uncommitted under syncpoint. If no new
+ * messages arrive within that time, batch gets committed. Value {@code 0} means batch is committed only when it gets
+ * full. When stream output collects activities into batches, output {@code BatchFlushInterval} shall be set, so
+ * syncpoint commit would not wait for output batch to be filled. Default value - {@code 1000}. (Optional)</li>
+ * <li>GetThreads - number of threads getting messages from WMQ object in parallel. Each thread uses its own queue
+ * manager connection and syncpoint. When more than one thread is used, messages may be processed not in order they
+ * were put to WMQ object. Default value - {@code 1}. (Optional)</li>
  * </ul>
  *
  * @param <T>
  *            the type of RAW activity data retrieved from {@link MQMessage}
  *
- * @version $Revision: 1 $
+ * @version $Revision: 3 $
  */
 public abstract class AbstractWmqStream<T> extends TNTParseableInputStream<T> {
 	/**
@@ -105,6 +115,13 @@ public abstract class AbstractWmqStream<T> extends TNTParseableInputStream<T> {
 	 */
 	protected static final String FORCE_OPEN_OPTION = "!"; // NON-NLS
 
+	/**
+	 * Default syncpoint batch timeout, in milliseconds.
+	 */
+	protected static final long DEFAULT_SYNCPOINT_BATCH_TIMEOUT = TimeUnit.SECONDS.toMillis(1);
+
+	private static final long GETTERS_POLL_TIMEOUT = 100;
+
 	/**
 	 * Represents Queue Manager connected to
 	 */
@@ -142,7 +159,17 @@ public abstract class AbstractWmqStream<T> extends TNTParseableInputStream<T> {
 	private int openOptions;
 	private boolean forceOpenOptions;
 
+	private int syncpointBatchSize = 1;
+	private long syncpointBatchTimeout = DEFAULT_SYNCPOINT_BATCH_TIMEOUT;
+	private int getThreads = 1;
+
 	private MQMessage mqMsg;
+	private SyncpointBatch syncpointBatch = new SyncpointBatch();
+	private final Map<Object, SyncpointBatch> itemBatches = Collections
+			.synchronizedMap(new IdentityHashMap<Object, SyncpointBatch>());
+
+	private List<MessageGetter> getters;
+	private BlockingQueue<T> prefetchQueue;
 
 	protected AbstractWmqStream() {
 		mqConnProps.put(CMQC.PORT_PROPERTY, 1414);
@@ -194,6 +221,12 @@ public abstract class AbstractWmqStream<T> extends TNTParseableInputStream<T> {
 					reconnectDelay = Integer.valueOf(value);
 				} else if (WmqStreamProperties.OPEN_OPTIONS.equalsIgnoreCase(name)) {
 					openOptions = initOpenOptions(value);
+				} else if (WmqStreamProperties.PROP_SYNCPOINT_BATCH_SIZE.equalsIgnoreCase(name)) {
+					syncpointBatchSize = Integer.parseInt(value);
+				} else if (WmqStreamProperties.PROP_SYNCPOINT_BATCH_TIMEOUT.equalsIgnoreCase(name)) {
+					syncpointBatchTimeout = Long.parseLong(value);
+				} else if (WmqStreamProperties.PROP_GET_THREADS.equalsIgnoreCase(name)) {
+					getThreads = Integer.parseInt(value);
 				} else {
 					String[] mqcNameTokens = name.split("\\.");
 					String mqcName = mqcNameTokens[mqcNameTokens.length - 1];
@@ -316,6 +349,15 @@ public abstract class AbstractWmqStream<T> extends TNTParseableInputStream<T> {
 		if (WmqStreamProperties.OPEN_OPTIONS.equalsIgnoreCase(name)) {
 			return openOptions;
 		}
+		if (WmqStreamProperties.PROP_SYNCPOINT_BATCH_SIZE.equalsIgnoreCase(name)) {
+			return syncpointBatchSize;
+		}
+		if (WmqStreamProperties.PROP_SYNCPOINT_BATCH_TIMEOUT.equalsIgnoreCase(name)) {
+			return syncpointBatchTimeout;
+		}
+		if (WmqStreamProperties.PROP_GET_THREADS.equalsIgnoreCase(name)) {
+			return getThreads;
+		}
 
 		return super.getProperty(name);
 	}
@@ -332,10 +374,41 @@ public abstract class AbstractWmqStream<T> extends TNTParseableInputStream<T> {
 		}
 		// Prevents WMQ library from writing exceptions to stderr
 		MQException.log = null;
-		gmo = new MQGetMessageOptions();
+		gmo = createGetMessageOptions();
+		mqMsg = new MQMessage();
+
+		if (getThreads > 1) {
+			prefetchQueue = new ArrayBlockingQueue<>(getThreads * Math.max(syncpointBatchSize, 1));
+			getters = new ArrayList<>(getThreads);
+			for (int i = 0; i < getThreads; i++) {
+				getters.add(new MessageGetter("WmqStream.MessageGetter-" + i)); // NON-NLS
+			}
+		}
+	}
+
+	@Override
+	protected void start() throws Exception {
+		super.start();
+
+		if (getters != null) {
+			for (MessageGetter getter : getters) {
+				getter.start();
+			}
+		}
+	}
+
+	/**
+	 * Creates get options used for reading messages from specified object.
+	 *
+	 * @return get message options instance
+	 */
+	protected MQGetMessageOptions createGetMessageOptions() {
+		MQGetMessageOptions gmo = new MQGetMessageOptions();
 		gmo.waitInterval = CMQC.MQWI_UNLIMITED;
 		gmo.options &= ~CMQC.MQGMO_NO_SYNCPOINT;
 		gmo.options |= CMQC.MQGMO_SYNCPOINT | CMQC.MQGMO_WAIT;
+
+		return gmo;
 	}
 
 	/**
@@ -354,6 +427,11 @@ public abstract class AbstractWmqStream<T> extends TNTParseableInputStream<T> {
 		}
 
 		closeDestination();
+		if (getters != null) {
+			for (MessageGetter getter : getters) {
+				getter.closeDestination();
+			}
+		}
 
 		// Restore WMQ tracing.
 		traceOff(false);
@@ -382,6 +460,19 @@ public abstract class AbstractWmqStream<T> extends TNTParseableInputStream<T> {
 	 * @return flag indicating if connected to queue manager
 	 */
 	protected boolean isConnectedToQmgr(MQException mqe) {
+		return isConnectedToQmgr(qmgr, mqe);
+	}
+
+	/**
+	 * Checks if connection to provided queue manager is opened.
+	 *
+	 * @param qmgr
+	 *            queue manager to check
+	 * @param mqe
+	 *            MQ exception object
+	 * @return flag indicating if connected to queue manager
+	 */
+	protected static boolean isConnectedToQmgr(MQQueueManager qmgr, MQException mqe) {
 		if (qmgr == null || !qmgr.isConnected()) {
 			return false;
 		}
@@ -423,6 +514,25 @@ public abstract class AbstractWmqStream<T> extends TNTParseableInputStream<T> {
 					"WmqStream.connecting.qm", qmgrName, mqConnProps);
 		}
 		qmgr = new MQQueueManager(qmgrName, mqConnProps);
+		dest = openDestination(qmgr, gmo);
+		curFailCount = 0;
+	}
+
+	/**
+	 * Opens necessary object (queue/topic) for retrieving messages.
+	 *
+	 * @param qmgr
+	 *            queue manager to open object on
+	 * @param gmo
+	 *            get options used for reading messages from opened object
+	 * @return opened object to read messages from
+	 * @throws MQException
+	 *             if exception occurs opening required object
+	 *
+	 * @see #initOpenOptions(String)
+	 */
+	protected MQDestination openDestination(MQQueueManager qmgr, MQGetMessageOptions gmo) throws MQException {
+		MQDestination dest;
 		if (StringUtils.isNotEmpty(topicString) || StringUtils.isNotEmpty(topicName)
 				|| StringUtils.isNotEmpty(subName)) {
 			if (!forceOpenOptions) {
@@ -453,11 +563,16 @@ public abstract class AbstractWmqStream<T> extends TNTParseableInputStream<T> {
 		logger().log(OpLevel.INFO, StreamsResources.getBundle(WmqStreamConstants.RESOURCE_BUNDLE_NAME),
 				"WmqStream.reading.from", dest.getName().trim(), String.format("%08X", gmo.options), // NON-NLS
 				MQConstants.decodeOptions(gmo.options, "MQGMO_.*")); // NON-NLS
-		curFailCount = 0;
+
+		return dest;
 	}
 
 	@Override
 	public T getNextItem() throws Exception {
+		if (getters != null) {
+			return getPrefetchedItem();
+		}
+
 		while (true) {
 			while (!isHalted() && !isConnectedToQmgr(null)) {
 				try {
@@ -484,21 +599,15 @@ public abstract class AbstractWmqStream<T> extends TNTParseableInputStream<T> {
 			}
 
 			try {
-				MQMessage mqMsg = new MQMessage();
-				logger().log(OpLevel.DEBUG, StreamsResources.getBundle(WmqStreamConstants.RESOURCE_BUNDLE_NAME),
-						"WmqStream.waiting.for.message", dest.getName().trim());
-				dest.get(mqMsg, gmo);
-				logger().log(OpLevel.DEBUG, StreamsResources.getBundle(WmqStreamConstants.RESOURCE_BUNDLE_NAME),
-						"WmqStream.read.msg", dest.getName().trim(), mqMsg.getMessageLength());
-				// TODO: MQCFH mqcfh = new MQCFH(mqMsg); mqcfh.control != MQConstants.MQCFC_LAST;
-				if (stripHeaders) {
-					MQHeaderIterator hdrIt = new MQHeaderIterator(mqMsg);
-					hdrIt.skipHeaders();
-					logger().log(OpLevel.DEBUG, StreamsResources.getBundle(WmqStreamConstants.RESOURCE_BUNDLE_NAME),
-							"WmqStream.stripped.wmq");
+				if (syncpointBatch.isFull() || !getMessage(dest, mqMsg, gmo, syncpointBatch)) {
+					// batch is full or no new messages arrived within batch timeout
+					if (!awaitCompleted(syncpointBatch)) {
+						return null;
+					}
+					syncpointBatch = commitSyncpoint(qmgr, syncpointBatch);
+					continue;
 				}
-				T msgData = getActivityDataFromMessage(mqMsg);
-				qmgr.commit();
+				T msgData = getActivityData(mqMsg, syncpointBatch);
 				curFailCount = 0;
 				addStreamedBytesCount(mqMsg.getMessageLength());
 				// logger().log(OpLevel.DEBUG, "QUEUE {0} DEPTH: {1}", queueName, ((MQQueue) dest).getCurrentDepth());
@@ -539,6 +648,207 @@ public abstract class AbstractWmqStream<T> extends TNTParseableInputStream<T> {
 		}
 	}
 
+	/**
+	 * Gets message from provided WMQ object into provided reusable message instance. If syncpoint batch is not empty,
+	 * waits for message no longer than batch timeout.
+	 *
+	 * @param dest
+	 *            object (queue/topic) to read message from
+	 * @param mqMsg
+	 *            reusable message instance to read message into
+	 * @param gmo
+	 *            get options used for reading message
+	 * @param batch
+	 *            syncpoint batch message is read under
+	 * @return {@code true} if message has been read, {@code false} if no message arrived within syncpoint batch timeout
+	 * @throws Exception
+	 *             if exception occurs reading message
+	 */
+	protected boolean getMessage(MQDestination dest, MQMessage mqMsg, MQGetMessageOptions gmo, SyncpointBatch batch)
+			throws Exception {
+		resetMessage(mqMsg);
+		gmo.waitInterval = batch.getWaitInterval();
+
+		logger().log(OpLevel.DEBUG, StreamsResources.getBundle(WmqStreamConstants.RESOURCE_BUNDLE_NAME),
+				"WmqStream.waiting.for.message", dest.getName().trim());
+		try {
+			dest.get(mqMsg, gmo);
+		} catch (MQException mqe) {
+			if (mqe.getReason() == CMQC.MQRC_NO_MSG_AVAILABLE && batch.size() > 0) {
+				return false;
+			}
+			throw mqe;
+		}
+		batch.messageGot();
+		logger().log(OpLevel.DEBUG, StreamsResources.getBundle(WmqStreamConstants.RESOURCE_BUNDLE_NAME),
+				"WmqStream.read.msg", dest.getName().trim(), mqMsg.getMessageLength());
+		// TODO: MQCFH mqcfh = new MQCFH(mqMsg); mqcfh.control != MQConstants.MQCFC_LAST;
+		if (stripHeaders) {
+			MQHeaderIterator hdrIt = new MQHeaderIterator(mqMsg);
+			hdrIt.skipHeaders();
+			logger().log(OpLevel.DEBUG, StreamsResources.getBundle(WmqStreamConstants.RESOURCE_BUNDLE_NAME),
+					"WmqStream.stripped.wmq");
+		}
+
+		return true;
+	}
+
+	/**
+	 * Prepares reusable message instance to read next message into: clears message data buffer and resets message
+	 * descriptor fields used to match message to get.
+	 *
+	 * @param mqMsg
+	 *            reusable message instance
+	 * @throws IOException
+	 *             if exception occurs clearing message
+	 */
+	protected static void resetMessage(MQMessage mqMsg) throws IOException {
+		mqMsg.clearMessage();
+		// new arrays, since previous ones may be referenced by already produced activity data
+		mqMsg.messageId = new byte[CMQC.MQ_MSG_ID_LENGTH];
+		mqMsg.correlationId = new byte[CMQC.MQ_CORREL_ID_LENGTH];
+		mqMsg.groupId = new byte[CMQC.MQ_GROUP_ID_LENGTH];
+	}
+
+	/**
+	 * Gets RAW activity data from provided {@link MQMessage} and binds it to syncpoint batch message was got under.
+	 * Message failed to be converted to RAW activity data is treated as processed, since it will not be passed to
+	 * stream for processing.
+	 *
+	 * @param mqMsg
+	 *            MQ message to get RAW activity data
+	 * @param batch
+	 *            syncpoint batch message was got under
+	 * @return RAW activity data retrieved from MQ message
+	 * @throws Exception
+	 *             if any errors occurred getting RAW activity data from MQ message
+	 *
+	 * @see #getActivityDataFromMessage(com.ibm.mq.MQMessage)
+	 */
+	private T getActivityData(MQMessage mqMsg, SyncpointBatch batch) throws Exception {
+		T msgData;
+		try {
+			msgData = getActivityDataFromMessage(mqMsg);
+		} catch (Exception exc) {
+			batch.messageCompleted();
+			throw exc;
+		}
+		if (msgData == null) {
+			batch.messageCompleted();
+		} else {
+			itemBatches.put(msgData, batch);
+		}
+		return msgData;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Marks message item was retrieved from as processed within syncpoint batch message was got under.
+	 */
+	@Override
+	protected void activityItemCompleted(T item) {
+		SyncpointBatch batch = itemBatches.remove(item);
+		if (batch != null) {
+			batch.messageCompleted();
+		}
+	}
+
+	/**
+	 * Waits until all messages got under provided syncpoint batch get processed.
+	 *
+	 * @param batch
+	 *            syncpoint batch to wait for
+	 * @return {@code true} if all batch messages have been processed, {@code false} if stream got halted while waiting
+	 * @throws InterruptedException
+	 *             if current thread was interrupted while waiting
+	 */
+	protected boolean awaitCompleted(SyncpointBatch batch) throws InterruptedException {
+		while (!batch.isCompleted()) {
+			if (isHalted()) {
+				return false;
+			}
+			batch.awaitCompleted(GETTERS_POLL_TIMEOUT);
+		}
+		return true;
+	}
+
+	/**
+	 * Commits queue manager syncpoint if there are uncommitted messages got under provided syncpoint batch. All
+	 * messages of provided batch shall be processed before committing it.
+	 *
+	 * @param qmgr
+	 *            queue manager to commit syncpoint
+	 * @param batch
+	 *            syncpoint batch to commit
+	 * @return syncpoint batch to get next messages under
+	 * @throws MQException
+	 *             if exception occurs committing syncpoint
+	 *
+	 * @see #awaitCompleted(SyncpointBatch)
+	 */
+	protected SyncpointBatch commitSyncpoint(MQQueueManager qmgr, SyncpointBatch batch) throws MQException {
+		if (batch.size() == 0) {
+			return batch;
+		}
+		qmgr.commit();
+		return new SyncpointBatch();
+	}
+
+	/**
+	 * Ends queue manager syncpoint on stream stop or queue manager disconnect: commits syncpoint if all messages got
+	 * under provided syncpoint batch have been processed and backs it out otherwise, so not processed messages would
+	 * be redelivered.
+	 *
+	 * @param qmgr
+	 *            queue manager to end syncpoint
+	 * @param batch
+	 *            syncpoint batch to end
+	 * @return syncpoint batch to get next messages under
+	 */
+	protected SyncpointBatch endSyncpointQuietly(MQQueueManager qmgr, SyncpointBatch batch) {
+		if (qmgr == null || batch.size() == 0) {
+			return batch;
+		}
+		if (batch.isCompleted()) {
+			try {
+				qmgr.commit();
+			} catch (MQException mqe) {
+				logger().log(OpLevel.WARNING, StreamsResources.getBundle(WmqStreamConstants.RESOURCE_BUNDLE_NAME),
+						"WmqStream.error.commit", formatMqException(mqe));
+			}
+		} else {
+			logger().log(OpLevel.INFO, StreamsResources.getBundle(WmqStreamConstants.RESOURCE_BUNDLE_NAME),
+					"WmqStream.backout.not.processed", batch.size(), batch.size() - batch.completed());
+			try {
+				qmgr.backout();
+			} catch (MQException mqe) {
+				logger().log(OpLevel.WARNING, StreamsResources.getBundle(WmqStreamConstants.RESOURCE_BUNDLE_NAME),
+						"WmqStream.error.backout", formatMqException(mqe));
+			}
+		}
+		return new SyncpointBatch();
+	}
+
+	private T getPrefetchedItem() throws InterruptedException {
+		while (!isHalted()) {
+			T item = prefetchQueue.poll(GETTERS_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+			if (item != null) {
+				return item;
+			}
+
+			boolean gettersAlive = false;
+			for (MessageGetter getter : getters) {
+				gettersAlive |= getter.isAlive();
+			}
+			if (!gettersAlive) {
+				return prefetchQueue.poll();
+			}
+		}
+
+		return null;
+	}
+
 	/**
 	 * Gets RAW activity data from provided {@link MQMessage}.
 	 *
@@ -558,6 +868,7 @@ public abstract class AbstractWmqStream<T> extends TNTParseableInputStream<T> {
 	 */
 	protected void closeQmgrConnection() {
 		closeDestination();
+		syncpointBatch = endSyncpointQuietly(qmgr, syncpointBatch);
 		disconnectQM();
 	}
 
@@ -605,6 +916,18 @@ public abstract class AbstractWmqStream<T> extends TNTParseableInputStream<T> {
 	 */
 	@Override
 	protected void cleanup() {
+		if (getters != null) {
+			for (MessageGetter getter : getters) {
+				getter.halt(true);
+			}
+			for (MessageGetter getter : getters) {
+				try {
+					getter.join(TimeUnit.SECONDS.toMillis(5));
+				} catch (InterruptedException exc) {
+					break;
+				}
+			}
+		}
 		closeQmgrConnection();
 
 		super.cleanup();
@@ -622,4 +945,220 @@ public abstract class AbstractWmqStream<T> extends TNTParseableInputStream<T> {
 	protected static String formatMqException(MQException mqe) {
 		return String.format("%s (%s)", mqe, MQConstants.lookupReasonCode(mqe.getReason())); // NON-NLS
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Messages got under same queue manager syncpoint. New batch instance is used for every syncpoint, so late
+	 * completions of messages got under ended syncpoint would not affect next one.
+	 */
+	protected class SyncpointBatch {
+		private int size = 0;
+		private int completed = 0;
+		private long startTime = 0;
+
+		/**
+		 * Registers message got under this syncpoint.
+		 */
+		synchronized void messageGot() {
+			if (size == 0) {
+				startTime = System.currentTimeMillis();
+			}
+			size++;
+		}
+
+		/**
+		 * Registers message got under this syncpoint as processed.
+		 */
+		synchronized void messageCompleted() {
+			completed++;
+			notifyAll();
+		}
+
+		/**
+		 * Returns number of messages got under this syncpoint.
+		 *
+		 * @return number of uncommitted messages
+		 */
+		synchronized int size() {
+			return size;
+		}
+
+		/**
+		 * Returns number of processed messages got under this syncpoint.
+		 *
+		 * @return number of processed messages
+		 */
+		synchronized int completed() {
+			return completed;
+		}
+
+		/**
+		 * Checks whether all messages got under this syncpoint have been processed.
+		 *
+		 * @return {@code true} if all batch messages have been processed, {@code false} - otherwise
+		 */
+		synchronized boolean isCompleted() {
+			return completed >= size;
+		}
+
+		/**
+		 * Waits for batch message to be processed no longer than provided timeout.
+		 *
+		 * @param timeout
+		 *            maximum time to wait in milliseconds
+		 * @throws InterruptedException
+		 *             if current thread was interrupted while waiting
+		 */
+		synchronized void awaitCompleted(long timeout) throws InterruptedException {
+			if (completed < size) {
+				wait(timeout);
+			}
+		}
+
+		/**
+		 * Checks whether this syncpoint batch shall be committed.
+		 *
+		 * @return {@code true} if batch is full or batch timeout has expired, {@code false} - otherwise
+		 */
+		synchronized boolean isFull() {
+			return size >= syncpointBatchSize || (syncpointBatchTimeout > 0 && size > 0
+					&& System.currentTimeMillis() - startTime >= syncpointBatchTimeout);
+		}
+
+		/**
+		 * Returns message get wait interval: unlimited for empty batch and time left until batch timeout expires
+		 * otherwise.
+		 *
+		 * @return message get wait interval in milliseconds
+		 */
+		synchronized int getWaitInterval() {
+			if (size == 0 || syncpointBatchTimeout <= 0) {
+				return CMQC.MQWI_UNLIMITED;
+			}
+
+			long left = startTime + syncpointBatchTimeout - System.currentTimeMillis();
+			return (int) Math.max(left, 0);
+		}
+	}
+
+	/**
+	 * Thread getting messages from WMQ object over its own queue manager connection and putting produced RAW activity
+	 * data into stream prefetch queue.
+	 */
+	private class MessageGetter extends StreamsThread {
+		private MQQueueManager getterQmgr;
+		private MQDestination getterDest;
+		private final MQGetMessageOptions getterGmo = createGetMessageOptions();
+		private final MQMessage getterMsg = new MQMessage();
+		private SyncpointBatch getterBatch = new SyncpointBatch();
+		private int failCount = 0;
+
+		private MessageGetter(String name) {
+			super(name);
+
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (!isStopRunning() && !isHalted()) {
+					if (getterQmgr == null || !getterQmgr.isConnected()) {
+						if (!connect()) {
+							break;
+						}
+						continue;
+					}
+
+					try {
+						if (!getterBatch.isFull() && getMessage(getterDest, getterMsg, getterGmo, getterBatch)) {
+							T msgData = getActivityData(getterMsg, getterBatch);
+							addStreamedBytesCount(getterMsg.getMessageLength());
+							while (!prefetchQueue.offer(msgData, GETTERS_POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+								if (isStopRunning() || isHalted()) {
+									// message is not delivered to stream, so its syncpoint gets backed out
+									itemBatches.remove(msgData);
+									return;
+								}
+							}
+							failCount = 0;
+							continue;
+						}
+						if (!awaitCompleted(getterBatch) || isStopRunning()) {
+							break;
+						}
+						getterBatch = commitSyncpoint(getterQmgr, getterBatch);
+					} catch (MQException mqe) {
+						if (isStopRunning() || isHalted()) {
+							break;
+						}
+						failCount++;
+						logger().log(OpLevel.ERROR,
+								StreamsResources.getBundle(WmqStreamConstants.RESOURCE_BUNDLE_NAME),
+								"WmqStream.failed.reading", getName(), formatMqException(mqe));
+						if (failCount >= MAX_CONSECUTIVE_FAILURES || !isConnectedToQmgr(getterQmgr, mqe)) {
+							logger().log(OpLevel.ERROR,
+									StreamsResources.getBundle(WmqStreamConstants.RESOURCE_BUNDLE_NAME),
+									"WmqStream.reached.limit", MAX_CONSECUTIVE_FAILURES);
+							disconnect();
+						} else if (mqe.getReason() == CMQC.MQRC_GET_INHIBITED) {
+							StreamsThread.sleep(reconnectDelay);
+						}
+					} catch (InterruptedException exc) {
+						break;
+					} catch (Exception exc) {
+						Utils.logThrowable(logger(), OpLevel.ERROR,
+								StreamsResources.getBundle(WmqStreamConstants.RESOURCE_BUNDLE_NAME),
+								"WmqStream.failed.reading", getName(), exc);
+					}
+				}
+			} finally {
+				disconnect();
+			}
+		}
+
+		private boolean connect() {
+			try {
+				getterQmgr = new MQQueueManager(qmgrName, mqConnProps);
+				getterDest = openDestination(getterQmgr, getterGmo);
+				failCount = 0;
+			} catch (MQException mqe) {
+				if (isConnectedToQmgr(getterQmgr, mqe)) {
+					logger().log(OpLevel.ERROR, StreamsResources.getBundle(WmqStreamConstants.RESOURCE_BUNDLE_NAME),
+							"WmqStream.failed.opening", formatMqException(mqe));
+					return false;
+				}
+				logger().log(OpLevel.ERROR, StreamsResources.getBundle(WmqStreamConstants.RESOURCE_BUNDLE_NAME),
+						"WmqStream.failed.to.connect", formatMqException(mqe));
+				disconnect();
+				if (!isHalted()) {
+					StreamsThread.sleep(reconnectDelay);
+				}
+			}
+
+			return true;
+		}
+
+		private void closeDestination() {
+			MQDestination d = getterDest;
+			if (d != null) {
+				try {
+					d.close();
+				} catch (MQException mqe) {
+				}
+			}
+		}
+
+		private void disconnect() {
+			closeDestination();
+			getterDest = null;
+			getterBatch = endSyncpointQuietly(getterQmgr, getterBatch);
+			if (getterQmgr != null) {
+				try {
+					getterQmgr.disconnect();
+				} catch (MQException mqe) {
+				}
+				getterQmgr = null;
+			}
+		}
+	}
+}
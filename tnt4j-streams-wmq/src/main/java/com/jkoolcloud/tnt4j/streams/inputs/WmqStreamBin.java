@@ -31,7 +31,7 @@ import com.jkoolcloud.tnt4j.streams.utils.WmqStreamConstants;
  * <p>
  * This activity stream supports properties from {@link AbstractWmqStream} (and higher hierarchy streams).
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  */
 public class WmqStreamBin extends AbstractWmqStream<byte[]> {
 	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(WmqStreamBin.class);
@@ -52,9 +52,12 @@ public class WmqStreamBin extends AbstractWmqStream<byte[]> {
 	protected byte[] getActivityDataFromMessage(MQMessage mqMsg) throws Exception {
 		byte[] msgData = new byte[mqMsg.getDataLength()];
 		mqMsg.readFully(msgData);
-		logger().log(OpLevel.TRACE,
-				StreamsResources.getString(WmqStreamConstants.RESOURCE_BUNDLE_NAME, "WmqStream.message.data"),
-				msgData.length, Utils.toHexDump(msgData));
+		// hex dump of large message is few times bigger than message itself, so build it only when it gets logged
+		if (logger().isSet(OpLevel.TRACE)) {
+			logger().log(OpLevel.TRACE,
+					StreamsResources.getString(WmqStreamConstants.RESOURCE_BUNDLE_NAME, "WmqStream.message.data"),
+					msgData.length, Utils.toHexDump(msgData));
+		}
 		return msgData;
 	}
 }
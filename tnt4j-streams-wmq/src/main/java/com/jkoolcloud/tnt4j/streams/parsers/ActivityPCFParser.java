@@ -18,7 +18,7 @@ package com.jkoolcloud.tnt4j.streams.parsers;
 
 import java.io.UnsupportedEncodingException;
 import java.text.ParseException;
-import java.util.NoSuchElementException;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -86,8 +86,12 @@ import com.jkoolcloud.tnt4j.streams.utils.*;
  * <li>SignatureDelim - signature fields delimiter. Default value -
  * {@value com.jkoolcloud.tnt4j.streams.parsers.GenericActivityParser#DEFAULT_DELIM}. (Optional)</li>
  * </ul>
+ * <p>
+ * Field locators are compiled into PCF parameter identifiers paths once, when parser fields get organized. PCF content
+ * parameters are indexed by parameter identifier on first lookup within parsed PCF message, so parameters are not
+ * searched sequentially for every field.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  */
 public class ActivityPCFParser extends GenericActivityParser<PCFContent> {
 	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(ActivityPCFParser.class);
@@ -96,10 +100,13 @@ public class ActivityPCFParser extends GenericActivityParser<PCFContent> {
 	private static final String HEAD_MQMD = "MQMD"; // NON-NLS
 	private static final Pattern STRUCT_ATTR_PATTERN = Pattern.compile("MQBACF_(\\w{4,5})_STRUCT"); // NON-NLS
 	private static final String MQ_TMP_CTX_STRUCT_PREF = "MQ_TMP_CTX_"; // NON-NLS
+	private static final String PARAMS_INDEX_KEY = "PCF_PARAMS_INDEX"; // NON-NLS
 
 	private boolean translateNumValues = true;
 	private String sigDelim = DEFAULT_DELIM;
 
+	private Map<ActivityFieldLocator, PCFLocatorPath> locatorPaths = Collections.emptyMap();
+
 	/**
 	 * Constructs a new ActivityPCFParser.
 	 */
@@ -142,6 +149,26 @@ public class ActivityPCFParser extends GenericActivityParser<PCFContent> {
 		return super.getProperty(name);
 	}
 
+	@Override
+	public void organizeFields() {
+		super.organizeFields();
+
+		Map<ActivityFieldLocator, PCFLocatorPath> paths = new IdentityHashMap<>();
+		for (ActivityField aField : fieldList) {
+			List<ActivityFieldLocator> locators = aField.getLocators();
+			if (locators == null) {
+				continue;
+			}
+			for (ActivityFieldLocator loc : locators) {
+				if (isDataLocator(loc) && !ActivityField.isDynamicAttr(loc.getLocator())) {
+					paths.put(loc, PCFLocatorPath.compile(loc.getLocator()));
+				}
+			}
+		}
+
+		locatorPaths = paths;
+	}
+
 	/**
 	 * Returns whether this parser supports the given format of the activity data. This is used by activity streams to
 	 * determine if the parser can parse the data in the format that the stream has it.
@@ -179,8 +206,11 @@ public class ActivityPCFParser extends GenericActivityParser<PCFContent> {
 			AtomicBoolean formattingNeeded) throws ParseException {
 		Object val = null;
 		String locStr = locator.getLocator();
-		String[] path = Utils.getNodePath(locStr, StreamsConstants.DEFAULT_PATH_DELIM);
-		val = getParamValue(locator, path, cData.getData(), 0, cData);
+		PCFLocatorPath lPath = locatorPaths.get(locator);
+		if (lPath == null || !lPath.locator.equals(locStr)) {
+			lPath = PCFLocatorPath.compile(locStr);
+		}
+		val = getParamValue(locator, lPath, cData.getData(), 0, cData);
 
 		logger().log(OpLevel.TRACE, StreamsResources.getBundle(WmqStreamConstants.RESOURCE_BUNDLE_NAME),
 				"ActivityPCFParser.resolved.pcf.value", locStr, toString(val));
@@ -224,40 +254,115 @@ public class ActivityPCFParser extends GenericActivityParser<PCFContent> {
 			return null;
 		}
 
+		return getParamValue(locator, PCFLocatorPath.compile(path), pcfContent, i, cData);
+	}
+
+	/**
+	 * Resolves PCF parameter value from provided {@link PCFContent}: {@link PCFMessage} or {@link MQCFGR}, using
+	 * compiled locator path.
+	 *
+	 * @param locator
+	 *            field locator activity field locator
+	 * @param lPath
+	 *            compiled locator path
+	 * @param pcfContent
+	 *            PCF content data (message or parameters group)
+	 * @param i
+	 *            processed locator path element index
+	 * @param cData
+	 *            PCF message parsing context data
+	 * @return raw value resolved by locator, or {@code null} if value is not resolved
+	 *
+	 * @throws ParseException
+	 *             if exception occurs while resolving raw data value
+	 *
+	 * @see #getParamValue(com.jkoolcloud.tnt4j.streams.fields.ActivityFieldLocator, String[],
+	 *      com.ibm.mq.headers.pcf.PCFContent, int,
+	 *      com.jkoolcloud.tnt4j.streams.parsers.GenericActivityParser.ActivityContext)
+	 */
+	protected Object getParamValue(ActivityFieldLocator locator, PCFLocatorPath lPath, PCFContent pcfContent, int i,
+			ActivityContext cData) throws ParseException {
+		String[] path = lPath.path;
+		if (ArrayUtils.isEmpty(path) || pcfContent == null) {
+			return null;
+		}
+
 		Object val = null;
 		String paramStr = path[i];
 
-		if (i == 0 && paramStr.equals(HEAD_MQCFH)) {
-			val = resolvePCFHeaderValue(locator, path[i + 1], (PCFMessage) pcfContent);
-		} else if (i == 0 && paramStr.equalsIgnoreCase(HEAD_MQMD)) {
-			val = resolveMDMQHeaderValue(locator, path[i + 1], (PCFMessage) pcfContent);
+		if (i == 0 && lPath.header == PCFLocatorPath.HEADER_MQCFH) {
+			val = resolvePCFHeaderValue(locator, lPath.headerAttr, (PCFMessage) pcfContent);
+		} else if (i == 0 && lPath.header == PCFLocatorPath.HEADER_MQMD) {
+			val = resolveMDMQHeaderValue(locator, lPath, (PCFMessage) pcfContent, cData);
 		} else {
-			try {
-				Integer paramId = WmqUtils.getParamId(paramStr);
-				PCFParameter param = pcfContent.getParameter(paramId);
-
-				if (!isLastPathToken(path, i)) {
-					if (param instanceof MQCFGR) {
-						val = getParamValue(locator, path, (MQCFGR) param, ++i, cData);
-					} else if (isMqiStructParam(paramStr)) {
-						val = resolveMqiStructValue(locator, param, path, i, pcfContent, cData);
-					}
-				} else {
-					if (param instanceof MQCFGR && isDataSupportedByStackedParser(cData.getField(), param)) {
-						val = param;
-					} else {
-						val = resolvePCFParamValue(locator, param);
-					}
-				}
-			} catch (NoSuchElementException exc) {
+			Integer paramId = lPath.paramIds[i];
+			if (paramId == null) {
 				throw new ParseException(StreamsResources.getStringFormatted(WmqStreamConstants.RESOURCE_BUNDLE_NAME,
 						"ActivityPCFParser.unresolved.pcf.parameter", paramStr), getPCFPosition(pcfContent));
 			}
+			PCFParameter param = getParameter(pcfContent, paramId, cData);
+
+			if (!isLastPathToken(path, i)) {
+				if (param instanceof MQCFGR) {
+					val = getParamValue(locator, lPath, (MQCFGR) param, ++i, cData);
+				} else if (lPath.structParams[i]) {
+					val = resolveMqiStructValue(locator, param, path, i, pcfContent, cData);
+				}
+			} else {
+				if (param instanceof MQCFGR && isDataSupportedByStackedParser(cData.getField(), param)) {
+					val = param;
+				} else {
+					val = resolvePCFParamValue(locator, param);
+				}
+			}
 		}
 
 		return val;
 	}
 
+	/**
+	 * Returns PCF content parameter having provided parameter identifier. Parameters of PCF content are indexed by
+	 * parameter identifier on first lookup and index is kept in parsing context, so subsequent lookups within same
+	 * parsed PCF message do not search parameters sequentially. Having multiple parameters with same identifier, first
+	 * one is returned, same as {@link PCFContent#getParameter(int)} does.
+	 *
+	 * @param pcfContent
+	 *            PCF content data (message or parameters group)
+	 * @param paramId
+	 *            PCF parameter identifier
+	 * @param cData
+	 *            PCF message parsing context data
+	 * @return PCF parameter, or {@code null} if PCF content has no parameter with provided identifier
+	 */
+	@SuppressWarnings("unchecked")
+	protected PCFParameter getParameter(PCFContent pcfContent, int paramId, ActivityContext cData) {
+		if (cData == null) {
+			return pcfContent.getParameter(paramId);
+		}
+
+		Map<PCFContent, Map<Integer, PCFParameter>> paramsIndex = (Map<PCFContent, Map<Integer, PCFParameter>>) cData
+				.get(PARAMS_INDEX_KEY);
+		if (paramsIndex == null) {
+			paramsIndex = new IdentityHashMap<>();
+			cData.put(PARAMS_INDEX_KEY, paramsIndex);
+		}
+
+		Map<Integer, PCFParameter> contentIndex = paramsIndex.get(pcfContent);
+		if (contentIndex == null) {
+			contentIndex = new HashMap<>();
+			Enumeration<?> params = pcfContent.getParameters();
+			while (params.hasMoreElements()) {
+				PCFParameter param = (PCFParameter) params.nextElement();
+				if (!contentIndex.containsKey(param.getParameter())) {
+					contentIndex.put(param.getParameter(), param);
+				}
+			}
+			paramsIndex.put(pcfContent, contentIndex);
+		}
+
+		return contentIndex.get(paramId);
+	}
+
 	private static boolean isLastPathToken(String[] path, int i) {
 		return i >= path.length - 1;
 	}
@@ -266,6 +371,14 @@ public class ActivityPCFParser extends GenericActivityParser<PCFContent> {
 		return STRUCT_ATTR_PATTERN.matcher(paramStr).matches();
 	}
 
+	private static Integer findParamId(String paramStr) {
+		try {
+			return WmqUtils.getParamId(paramStr);
+		} catch (NoSuchElementException exc) {
+			return null;
+		}
+	}
+
 	/**
 	 * Returns PCF content position identifier to know where event has occurred.
 	 *
@@ -281,6 +394,9 @@ public class ActivityPCFParser extends GenericActivityParser<PCFContent> {
 	private Object resolvePCFHeaderValue(ActivityFieldLocator locator, String hAttrName, PCFMessage pcfMsg) {
 		Integer val = null;
 		Object mappedValue = null;
+		if (hAttrName == null) {
+			return null;
+		}
 		if ("command".equals(hAttrName.toLowerCase())) { // NON-NLS
 			val = pcfMsg.getCommand();
 			if (isValueTranslatable(locator.getDataType())) {
@@ -314,17 +430,15 @@ public class ActivityPCFParser extends GenericActivityParser<PCFContent> {
 		return translateNumValues && isTextualLocatorDataType(fDataType);
 	}
 
-	private Object resolveMDMQHeaderValue(ActivityFieldLocator locator, String hAttrName, PCFMessage pcfMsg)
-			throws ParseException {
-		try {
-			Integer paramId = getMQMDParamId(hAttrName);
-			PCFParameter param = pcfMsg.getParameter(WmqStreamConstants.PCF_MQMD_HEADER + paramId);
-
-			return resolvePCFParamValue(locator, param);
-		} catch (NoSuchElementException exc) {
+	private Object resolveMDMQHeaderValue(ActivityFieldLocator locator, PCFLocatorPath lPath, PCFMessage pcfMsg,
+			ActivityContext cData) throws ParseException {
+		if (lPath.mqmdParamId == null) {
 			throw new ParseException(StreamsResources.getStringFormatted(WmqStreamConstants.RESOURCE_BUNDLE_NAME,
-					"ActivityPCFParser.unresolved.mqmd.parameter", hAttrName), getPCFPosition(pcfMsg));
+					"ActivityPCFParser.unresolved.mqmd.parameter", lPath.headerAttr), getPCFPosition(pcfMsg));
 		}
+		PCFParameter param = getParameter(pcfMsg, lPath.mqmdParamId, cData);
+
+		return resolvePCFParamValue(locator, param);
 	}
 
 	private static Integer getMQMDParamId(String mqmdParamId) throws NoSuchElementException {
@@ -596,7 +710,7 @@ public class ActivityPCFParser extends GenericActivityParser<PCFContent> {
 			return null;
 		}
 
-		String ctxStructKey = MQ_TMP_CTX_STRUCT_PREF + param.getParameterName();
+		String ctxStructKey = MQ_TMP_CTX_STRUCT_PREF + param.getParameter();
 		MqiStructure mqiStruct = (MqiStructure) cData.get(ctxStructKey);
 		boolean exception = false;
 		if (mqiStruct == null) {
@@ -1400,4 +1514,96 @@ public class ActivityPCFParser extends GenericActivityParser<PCFContent> {
 
 		super.applyFieldValue(ai, field, value);
 	}
+
+	/**
+	 * PCF field locator path compiled into PCF parameter identifiers. Locator path tokens are resolved to PCF parameter
+	 * identifiers, PCF message header selectors and MQI structure parameter flags once, so values can be resolved from
+	 * parsed PCF messages without string lookups.
+	 */
+	protected static class PCFLocatorPath {
+		static final int HEADER_NONE = 0;
+		static final int HEADER_MQCFH = 1;
+		static final int HEADER_MQMD = 2;
+
+		private final String locator;
+		private final String[] path;
+		private final Integer[] paramIds;
+		private final boolean[] structParams;
+		private int header = HEADER_NONE;
+		private String headerAttr;
+		private Integer mqmdParamId;
+
+		private PCFLocatorPath(String locator, String[] path) {
+			this.locator = locator;
+			this.path = path;
+			this.paramIds = new Integer[path == null ? 0 : path.length];
+			this.structParams = new boolean[paramIds.length];
+		}
+
+		/**
+		 * Compiles provided locator string into PCF locator path.
+		 *
+		 * @param locStr
+		 *            locator string
+		 * @return compiled PCF locator path
+		 */
+		public static PCFLocatorPath compile(String locStr) {
+			return compile(locStr, Utils.getNodePath(locStr, StreamsConstants.DEFAULT_PATH_DELIM));
+		}
+
+		/**
+		 * Compiles provided locator path tokens into PCF locator path.
+		 *
+		 * @param path
+		 *            locator path tokens
+		 * @return compiled PCF locator path
+		 */
+		public static PCFLocatorPath compile(String[] path) {
+			return compile(StringUtils.join(path, StreamsConstants.DEFAULT_PATH_DELIM), path);
+		}
+
+		private static PCFLocatorPath compile(String locStr, String[] path) {
+			PCFLocatorPath lPath = new PCFLocatorPath(locStr, path);
+			if (ArrayUtils.isEmpty(path)) {
+				return lPath;
+			}
+
+			if (path[0].equals(HEAD_MQCFH)) {
+				lPath.header = HEADER_MQCFH;
+			} else if (path[0].equalsIgnoreCase(HEAD_MQMD)) {
+				lPath.header = HEADER_MQMD;
+			}
+
+			if (lPath.header != HEADER_NONE) {
+				lPath.headerAttr = path.length > 1 ? path[1] : null;
+				if (lPath.header == HEADER_MQMD && lPath.headerAttr != null) {
+					try {
+						lPath.mqmdParamId = WmqStreamConstants.PCF_MQMD_HEADER + getMQMDParamId(lPath.headerAttr);
+					} catch (NoSuchElementException exc) {
+					}
+				}
+			} else {
+				for (int i = 0; i < path.length; i++) {
+					lPath.paramIds[i] = findParamId(path[i]);
+					lPath.structParams[i] = isMqiStructParam(path[i]);
+				}
+			}
+
+			return lPath;
+		}
+
+		/**
+		 * Returns locator path tokens.
+		 *
+		 * @return locator path tokens
+		 */
+		public String[] getPath() {
+			return path;
+		}
+
+		@Override
+		public String toString() {
+			return locator;
+		}
+	}
 }
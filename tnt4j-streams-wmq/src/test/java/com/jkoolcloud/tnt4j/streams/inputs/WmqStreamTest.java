@@ -20,6 +20,7 @@ import static com.jkoolcloud.tnt4j.streams.TestUtils.testPropertyList;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,6 +28,8 @@ import org.junit.Test;
 
 import com.ibm.mq.MQDestination;
 import com.ibm.mq.MQException;
+import com.ibm.mq.MQGetMessageOptions;
+import com.ibm.mq.MQMessage;
 import com.ibm.mq.MQQueueManager;
 import com.ibm.mq.constants.MQConstants;
 import com.jkoolcloud.tnt4j.streams.configure.WmqStreamProperties;
@@ -120,6 +123,109 @@ public class WmqStreamTest {
 		// Verify doesn't throw
 	}
 
+	@Test
+	public void testSyncpointCommittedWhenProcessed() throws Exception {
+		SyncpointTestStream stream = createSyncpointStream(2);
+
+		String item1 = stream.getNextItem();
+		String item2 = stream.getNextItem();
+		stream.activityItemCompleted(item2);
+		stream.activityItemCompleted(item1);
+		verify(stream.qmgr, never()).commit();
+
+		assertNotNull("Message not got", stream.getNextItem());
+		verify(stream.qmgr).commit();
+		verify(stream.qmgr, never()).backout();
+	}
+
+	@Test
+	public void testSyncpointBackedOutWhenNotProcessed() throws Exception {
+		SyncpointTestStream stream = createSyncpointStream(3);
+		MQQueueManager mqqManager = stream.qmgr;
+
+		String item1 = stream.getNextItem();
+		stream.getNextItem();
+		stream.activityItemCompleted(item1);
+
+		stream.cleanup();
+
+		verify(mqqManager).backout();
+		verify(mqqManager, never()).commit();
+		verify(mqqManager).disconnect();
+	}
+
+	@Test
+	public void testSyncpointCommittedOnCloseWhenProcessed() throws Exception {
+		SyncpointTestStream stream = createSyncpointStream(3);
+		MQQueueManager mqqManager = stream.qmgr;
+
+		String item1 = stream.getNextItem();
+		String item2 = stream.getNextItem();
+		stream.activityItemCompleted(item1);
+		stream.activityItemCompleted(item2);
+
+		stream.cleanup();
+
+		verify(mqqManager).commit();
+		verify(mqqManager, never()).backout();
+	}
+
+	@Test
+	public void testSyncpointCommittedOnFailedMessage() throws Exception {
+		SyncpointTestStream stream = createSyncpointStream(3);
+		MQQueueManager mqqManager = stream.qmgr;
+
+		stream.failData = true;
+		try {
+			stream.getNextItem();
+			fail("Message data retrieval failure expected");
+		} catch (IOException exc) {
+		}
+
+		stream.cleanup();
+
+		verify(mqqManager).commit();
+		verify(mqqManager, never()).backout();
+	}
+
+	private static SyncpointTestStream createSyncpointStream(int batchSize) throws Exception {
+		SyncpointTestStream stream = new SyncpointTestStream();
+		Map<String, String> props = new HashMap<>(4);
+		props.put(WmqStreamProperties.PROP_QMGR_NAME, "TEST"); // NON-NLS
+		props.put(WmqStreamProperties.PROP_QUEUE_NAME, "TEST"); // NON-NLS
+		props.put(WmqStreamProperties.PROP_SYNCPOINT_BATCH_SIZE, String.valueOf(batchSize));
+		props.put(WmqStreamProperties.PROP_SYNCPOINT_BATCH_TIMEOUT, String.valueOf(0));
+		stream.setProperties(props.entrySet());
+		stream.startStream();
+
+		MQQueueManager mqqManager = mock(MQQueueManager.class);
+		when(mqqManager.isConnected()).thenReturn(true);
+		stream.qmgr = mqqManager;
+		stream.dest = mock(MQDestination.class);
+
+		return stream;
+	}
+
+	private static class SyncpointTestStream extends WmqStream {
+		private int msgCount = 0;
+		private boolean failData = false;
+
+		@Override
+		protected boolean getMessage(MQDestination dest, MQMessage mqMsg, MQGetMessageOptions gmo,
+				SyncpointBatch batch) {
+			batch.messageGot();
+			return true;
+		}
+
+		@Override
+		protected String getActivityDataFromMessage(MQMessage mqMsg) throws Exception {
+			if (failData) {
+				throw new IOException("Bad message"); // NON-NLS
+			}
+			return "Message " + (++msgCount); // NON-NLS
+		}
+	}
+
 	@Test
 	public void testRB() {
 		String keyModule = "WmqStream.stripped.wmq";
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.parsers;
+
+import static org.junit.Assert.*;
+
+import java.text.ParseException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.mq.constants.MQConstants;
+import com.ibm.mq.headers.pcf.MQCFGR;
+import com.ibm.mq.headers.pcf.MQCFIN;
+import com.ibm.mq.headers.pcf.MQCFST;
+import com.ibm.mq.headers.pcf.PCFMessage;
+import com.jkoolcloud.tnt4j.streams.TestUtils;
+import com.jkoolcloud.tnt4j.streams.fields.*;
+import com.jkoolcloud.tnt4j.streams.utils.WmqStreamConstants;
+
+/**
+ * @author akausinis
+ * @version 1.0
+ */
+public class ActivityPCFParserTest {
+
+	private ActivityPCFParser parser;
+	private PCFMessage pcfMsg;
+
+	@Before
+	public void setUp() {
+		parser = new ActivityPCFParser();
+
+		pcfMsg = new PCFMessage(MQConstants.MQCMD_INQUIRE_Q);
+		pcfMsg.addParameter(MQConstants.MQCA_Q_NAME, "TEST.QUEUE  "); // NON-NLS
+		pcfMsg.addParameter(MQConstants.MQIA_CURRENT_Q_DEPTH, 5);
+		pcfMsg.addParameter(MQConstants.MQCA_Q_NAME, "DUPLICATE.QUEUE"); // NON-NLS
+		pcfMsg.addParameter(WmqStreamConstants.PCF_MQMD_HEADER + MQConstants.MQCACH_FORMAT_NAME, "MQSTR   "); // NON-NLS
+
+		MQCFGR group = new MQCFGR();
+		group.setParameter(MQConstants.MQGACF_ACTIVITY_TRACE);
+		group.addParameter(new MQCFST(MQConstants.MQCACF_APPL_NAME, "TestAppl")); // NON-NLS
+		group.addParameter(new MQCFIN(MQConstants.MQIACF_COMP_CODE, MQConstants.MQCC_OK));
+		pcfMsg.addParameter(group);
+	}
+
+	@Test
+	public void testCompileLocatorPath() {
+		ActivityPCFParser.PCFLocatorPath lPath = ActivityPCFParser.PCFLocatorPath
+				.compile("MQGACF_ACTIVITY_TRACE.MQCACF_APPL_NAME"); // NON-NLS
+		assertArrayEquals(new String[] { "MQGACF_ACTIVITY_TRACE", "MQCACF_APPL_NAME" }, lPath.getPath()); // NON-NLS
+		assertEquals("MQGACF_ACTIVITY_TRACE.MQCACF_APPL_NAME", lPath.toString()); // NON-NLS
+
+		lPath = ActivityPCFParser.PCFLocatorPath.compile(new String[] { "MQCFH", "Command" }); // NON-NLS
+		assertArrayEquals(new String[] { "MQCFH", "Command" }, lPath.getPath()); // NON-NLS
+		assertEquals("MQCFH.Command", lPath.toString()); // NON-NLS
+	}
+
+	@Test
+	public void testResolveParameterByName() throws Exception {
+		assertEquals("TEST.QUEUE", resolve(locator("MQCA_Q_NAME"))); // NON-NLS
+		assertEquals(5, resolve(locator("MQIA_CURRENT_Q_DEPTH", ActivityFieldDataType.Number))); // NON-NLS
+	}
+
+	@Test
+	public void testResolveParameterById() throws Exception {
+		assertEquals("TEST.QUEUE", resolve(locator(String.valueOf(MQConstants.MQCA_Q_NAME))));
+	}
+
+	@Test
+	public void testResolveFirstOfDuplicateParameters() throws Exception {
+		ActivityPCFParser.ActivityContext cData = parser.prepareItem(new TestUtils.SimpleTestStream(), pcfMsg);
+		ActivityFieldLocator loc = locator("MQCA_Q_NAME"); // NON-NLS
+
+		assertEquals("TEST.QUEUE", parser.resolveLocatorValue(loc, cData, new AtomicBoolean(false))); // NON-NLS
+		assertEquals("TEST.QUEUE", parser.resolveLocatorValue(loc, cData, new AtomicBoolean(false))); // NON-NLS
+	}
+
+	@Test
+	public void testResolveGroupParameter() throws Exception {
+		assertEquals("TestAppl", resolve(locator("MQGACF_ACTIVITY_TRACE.MQCACF_APPL_NAME"))); // NON-NLS
+		assertEquals(MQConstants.MQCC_OK,
+				resolve(locator("MQGACF_ACTIVITY_TRACE.MQIACF_COMP_CODE", ActivityFieldDataType.Number))); // NON-NLS
+		assertNull(resolve(locator("MQGACF_ACTIVITY_TRACE.MQCA_Q_NAME"))); // NON-NLS
+	}
+
+	@Test
+	public void testResolveMissingParameter() throws Exception {
+		assertNull(resolve(locator("MQCA_Q_DESC"))); // NON-NLS
+	}
+
+	@Test
+	public void testResolvePCFHeaderValue() throws Exception {
+		assertEquals(MQConstants.MQCMD_INQUIRE_Q, resolve(locator("MQCFH.Command", ActivityFieldDataType.Number))); // NON-NLS
+		assertEquals("MQCMD_INQUIRE_Q", resolve(locator("MQCFH.Command"))); // NON-NLS
+		assertEquals(pcfMsg.getParameterCount(),
+				resolve(locator("MQCFH.ParameterCount", ActivityFieldDataType.Number))); // NON-NLS
+		assertNull(resolve(locator("MQCFH"))); // NON-NLS
+	}
+
+	@Test
+	public void testResolveMQMDHeaderValue() throws Exception {
+		assertEquals("MQSTR", resolve(locator("MQMD.Format"))); // NON-NLS
+		assertEquals("MQSTR", resolve(locator("mqmd.format"))); // NON-NLS
+	}
+
+	@Test(expected = ParseException.class)
+	public void testUnresolvedParameterName() throws Exception {
+		resolve(locator("MQCA_NO_SUCH_PARAMETER")); // NON-NLS
+	}
+
+	@Test(expected = ParseException.class)
+	public void testUnresolvedGroupParameterName() throws Exception {
+		resolve(locator("MQGACF_ACTIVITY_TRACE.MQCA_NO_SUCH_PARAMETER")); // NON-NLS
+	}
+
+	@Test(expected = ParseException.class)
+	public void testUnresolvedMQMDParameterName() throws Exception {
+		resolve(locator("MQMD.NoSuchAttribute")); // NON-NLS
+	}
+
+	@Test
+	public void testParseWithCompiledLocators() throws Exception {
+		ActivityField qNameField = new ActivityField("QueueName"); // NON-NLS
+		qNameField.addLocator(locator("MQCA_Q_NAME")); // NON-NLS
+		parser.addField(qNameField);
+		ActivityField applNameField = new ActivityField("ApplicationName"); // NON-NLS
+		applNameField.addLocator(locator("MQGACF_ACTIVITY_TRACE.MQCACF_APPL_NAME")); // NON-NLS
+		parser.addField(applNameField);
+		ActivityField formatField = new ActivityField("Format"); // NON-NLS
+		formatField.addLocator(locator("MQMD.Format")); // NON-NLS
+		parser.addField(formatField);
+		parser.organizeFields();
+
+		ActivityInfo ai = parser.parse(new TestUtils.SimpleTestStream(), pcfMsg);
+
+		assertNotNull(ai);
+		assertEquals("TEST.QUEUE", ai.getFieldValue("QueueName")); // NON-NLS
+		assertEquals("TestAppl", ai.getFieldValue("ApplicationName")); // NON-NLS
+		assertEquals("MQSTR", ai.getFieldValue("Format")); // NON-NLS
+	}
+
+	private Object resolve(ActivityFieldLocator loc) throws ParseException {
+		ActivityPCFParser.ActivityContext cData = parser.prepareItem(new TestUtils.SimpleTestStream(), pcfMsg);
+		return parser.resolveLocatorValue(loc, cData, new AtomicBoolean(false));
+	}
+
+	private static ActivityFieldLocator locator(String locStr) {
+		return new ActivityFieldLocator(ActivityFieldLocatorType.Label, locStr);
+	}
+
+	private static ActivityFieldLocator locator(String locStr, ActivityFieldDataType dataType) {
+		return new ActivityFieldLocator(ActivityFieldLocatorType.Label, locStr, dataType);
+	}
+}
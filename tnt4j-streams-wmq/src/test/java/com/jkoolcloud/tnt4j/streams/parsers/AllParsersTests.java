@@ -24,6 +24,7 @@ import org.junit.runners.Suite;
  * @version 1.0
  */
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ ActivityRFH2ParserTest.class, MessageActivityXmlParserTest.class, MessageTypeTest.class })
+@Suite.SuiteClasses({ ActivityPCFParserTest.class, ActivityRFH2ParserTest.class, MessageActivityXmlParserTest.class,
+		MessageTypeTest.class })
 public class AllParsersTests {
 }
@@ -19,7 +19,7 @@ package com.jkoolcloud.tnt4j.streams.configure;
 /**
  * Lists predefined property names used by TNT4-Streams WS input streams.
  *
- * @version $Revision: 1 $
+ * @version $Revision: 2 $
  */
 public interface WsStreamProperties extends StreamProperties {
 	/**
@@ -50,4 +50,28 @@ public interface WsStreamProperties extends StreamProperties {
 	 * Constant for name of built-in stream {@value} property.
 	 */
 	public static final String PROP_DROP_RECURRENT_RESULT_SETS = "DropRecurrentResultSets"; // NON-NLS
+	/**
+	 * Constant for name of built-in stream {@value} property.
+	 */
+	public static final String PROP_USE_CONNECTION_POOL = "UseConnectionPool"; // NON-NLS
+	/**
+	 * Constant for name of built-in stream {@value} property.
+	 */
+	public static final String PROP_FETCH_SIZE = "FetchSize"; // NON-NLS
+	/**
+	 * Constant for name of built-in stream {@value} property.
+	 */
+	public static final String PROP_DETACH_RESULT_SETS = "DetachResultSets"; // NON-NLS
+	/**
+	 * Constant for name of built-in stream {@value} property.
+	 */
+	public static final String PROP_WATERMARK_COLUMN = "WatermarkColumn"; // NON-NLS
+	/**
+	 * Constant for name of built-in stream {@value} property.
+	 */
+	public static final String PROP_WATERMARK_INITIAL_VALUE = "WatermarkInitialValue"; // NON-NLS
+	/**
+	 * Constant for name of built-in stream {@value} property.
+	 */
+	public static final String PROP_WATERMARK_FILE = "WatermarkFile"; // NON-NLS
 }
@@ -16,11 +16,22 @@
 
 package com.jkoolcloud.tnt4j.streams.inputs;
 
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.sql.*;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
 
 import org.apache.commons.lang3.StringUtils;
 import org.quartz.*;
@@ -37,6 +48,8 @@ import com.jkoolcloud.tnt4j.streams.utils.Duration;
 import com.jkoolcloud.tnt4j.streams.utils.StreamsResources;
 import com.jkoolcloud.tnt4j.streams.utils.Utils;
 import com.jkoolcloud.tnt4j.streams.utils.WsStreamConstants;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 
 /**
  * Implements a scheduled JDBC query call activity stream, where each query call returned {@link java.sql.ResultSet} row
@@ -53,7 +66,27 @@ import com.jkoolcloud.tnt4j.streams.utils.WsStreamConstants;
  * <ul>
  * <li>DropRecurrentResultSets - flag indicating whether to drop streaming input buffer contained recurring result sets,
  * when stream input scheduler invokes JDBC queries faster than they can be processed (parsed and sent to sink, e.g.
- * because of sink/JKool limiter throttling). Default value - {@code false}. (Optional)</li>
+ * because of sink/JKool limiter throttling). If {@code false}, scheduled query call is skipped while result set
+ * returned by previous call of same query is still buffered or being processed. Default value - {@code false}.
+ * (Optional)</li>
+ * <li>UseConnectionPool - flag indicating whether to obtain DB connections from pooled {@link javax.sql.DataSource}
+ * (one pool per DB URL and user) instead of opening new connection over {@link java.sql.DriverManager} for every query
+ * call. Default value - {@code false}. (Optional)</li>
+ * <li>MaxTotalPoolConnections - defines the maximum number of total open connections in DB connections pool. Default
+ * value - {@code 5}. (Optional)</li>
+ * <li>FetchSize - number of rows to be fetched from DB when more rows are needed for query returned
+ * {@link java.sql.ResultSet}. Value {@code 0} means JDBC driver default. Default value - {@code 0}. (Optional)</li>
+ * <li>DetachResultSets - flag indicating whether to copy query returned {@link java.sql.ResultSet} into disconnected
+ * {@link javax.sql.rowset.CachedRowSet} and release DB cursor, statement and connection right after query execution.
+ * Default value - {@code false}. (Optional)</li>
+ * <li>WatermarkColumn - name of result set column, which value of last processed row is kept as query watermark and
+ * can be used in next query call as {@code ${Watermark}} variable. Watermark gets advanced only when activity produced
+ * from that row is logged by stream output, filtered out or skipped. Query should order rows by this column.
+ * (Optional)</li>
+ * <li>WatermarkInitialValue - watermark value used for query call when there is no watermark value persisted for
+ * it yet. (Optional)</li>
+ * <li>WatermarkFile - path of file to persist query watermark values to, so incremental querying can be continued
+ * after stream restart. (Optional)</li>
  * <li>set of JDBC driver supported properties used to invoke
  * {@link DriverManager#getConnection(String, java.util.Properties)}. (Optional)</li>
  * <li>when {@value com.jkoolcloud.tnt4j.streams.configure.StreamProperties#PROP_USE_EXECUTOR_SERVICE} is set to
@@ -62,7 +95,7 @@ import com.jkoolcloud.tnt4j.streams.utils.WsStreamConstants;
  * accessed in multi-thread manner.</li>
  * </ul>
  *
- * @version $Revision: 1 $
+ * @version $Revision: 3 $
  *
  * @see com.jkoolcloud.tnt4j.streams.parsers.ActivityParser#isDataClassSupported(Object)
  * @see java.sql.DriverManager#getConnection(String, java.util.Properties)
@@ -72,10 +105,23 @@ import com.jkoolcloud.tnt4j.streams.utils.WsStreamConstants;
 public class JDBCStream extends AbstractWsStream<ResultSet> {
 	private static final EventSink LOGGER = DefaultEventSinkFactory.defaultEventSink(JDBCStream.class);
 	private static final String QUERY_NAME_PROP = "QueryName"; // NON-NLS
+	private static final String WATERMARK_VAR = "Watermark"; // NON-NLS
 
 	protected Map<String, String> jdbcProperties = new HashMap<>();
 
 	private boolean dropRecurrentResultSets = false;
+	private boolean useConnectionPool = false;
+	private int maxTotalPoolConnections = 5;
+	private int fetchSize = 0;
+	private boolean detachResultSets = false;
+	private String watermarkColumn;
+	private String watermarkInitialValue;
+	private String watermarkFile;
+
+	private final Map<String, HikariDataSource> dataSources = new HashMap<>();
+	private final Map<String, String> watermarks = new ConcurrentHashMap<>();
+	private final Map<WsResponse<ResultSet>, ResultSetProgress> rsProgress = new IdentityHashMap<>();
+	private final Set<String> runningQueries = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
 	/**
 	 * Constructs an empty JDBCStream. Requires configuration settings to set input stream source.
@@ -95,6 +141,20 @@ public class JDBCStream extends AbstractWsStream<ResultSet> {
 
 		if (WsStreamProperties.PROP_DROP_RECURRENT_RESULT_SETS.equalsIgnoreCase(name)) {
 			dropRecurrentResultSets = Utils.toBoolean(value);
+		} else if (WsStreamProperties.PROP_USE_CONNECTION_POOL.equalsIgnoreCase(name)) {
+			useConnectionPool = Utils.toBoolean(value);
+		} else if (WsStreamProperties.PROP_MAX_TOTAL_POOL_CONNECTIONS.equalsIgnoreCase(name)) {
+			maxTotalPoolConnections = Integer.parseInt(value);
+		} else if (WsStreamProperties.PROP_FETCH_SIZE.equalsIgnoreCase(name)) {
+			fetchSize = Integer.parseInt(value);
+		} else if (WsStreamProperties.PROP_DETACH_RESULT_SETS.equalsIgnoreCase(name)) {
+			detachResultSets = Utils.toBoolean(value);
+		} else if (WsStreamProperties.PROP_WATERMARK_COLUMN.equalsIgnoreCase(name)) {
+			watermarkColumn = value;
+		} else if (WsStreamProperties.PROP_WATERMARK_INITIAL_VALUE.equalsIgnoreCase(name)) {
+			watermarkInitialValue = value;
+		} else if (WsStreamProperties.PROP_WATERMARK_FILE.equalsIgnoreCase(name)) {
+			watermarkFile = value;
 		} else {
 			jdbcProperties.put(name, value);
 		}
@@ -105,6 +165,27 @@ public class JDBCStream extends AbstractWsStream<ResultSet> {
 		if (WsStreamProperties.PROP_DROP_RECURRENT_RESULT_SETS.equalsIgnoreCase(name)) {
 			return dropRecurrentResultSets;
 		}
+		if (WsStreamProperties.PROP_USE_CONNECTION_POOL.equalsIgnoreCase(name)) {
+			return useConnectionPool;
+		}
+		if (WsStreamProperties.PROP_MAX_TOTAL_POOL_CONNECTIONS.equalsIgnoreCase(name)) {
+			return maxTotalPoolConnections;
+		}
+		if (WsStreamProperties.PROP_FETCH_SIZE.equalsIgnoreCase(name)) {
+			return fetchSize;
+		}
+		if (WsStreamProperties.PROP_DETACH_RESULT_SETS.equalsIgnoreCase(name)) {
+			return detachResultSets;
+		}
+		if (WsStreamProperties.PROP_WATERMARK_COLUMN.equalsIgnoreCase(name)) {
+			return watermarkColumn;
+		}
+		if (WsStreamProperties.PROP_WATERMARK_INITIAL_VALUE.equalsIgnoreCase(name)) {
+			return watermarkInitialValue;
+		}
+		if (WsStreamProperties.PROP_WATERMARK_FILE.equalsIgnoreCase(name)) {
+			return watermarkFile;
+		}
 
 		Object pValue = super.getProperty(name);
 		if (pValue != null) {
@@ -124,9 +205,25 @@ public class JDBCStream extends AbstractWsStream<ResultSet> {
 			setProperty(StreamProperties.PROP_EXECUTOR_THREADS_QTY, "1");
 		}
 
+		loadWatermarks();
+
 		super.initialize();
 	}
 
+	@Override
+	protected void cleanup() {
+		super.cleanup();
+
+		synchronized (dataSources) {
+			for (HikariDataSource ds : dataSources.values()) {
+				Utils.close(ds);
+			}
+			dataSources.clear();
+		}
+
+		storeWatermarks();
+	}
+
 	@Override
 	protected long getActivityItemByteSize(WsResponse<ResultSet> item) {
 		return 0; // TODO
@@ -148,24 +245,22 @@ public class JDBCStream extends AbstractWsStream<ResultSet> {
 		boolean drop = dropRecurrentResultSets && isRecurrentResultSet(item, inputBuffer);
 		if (drop) {
 			logger().log(OpLevel.WARNING, StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
-					"JDBCStream.rs.consumption.drop", item.getParameters().get(QUERY_NAME_PROP).getValue());
+					"JDBCStream.rs.consumption.drop", getQueryName(item));
 		}
 
 		ResultSet rs = item.getData();
 		try {
 			if (rs.isClosed() || !rs.next() || drop) {
-				Statement st = rs.getStatement();
-				Connection conn = st == null ? null : st.getConnection();
-
-				Utils.close(rs);
-				Utils.close(st);
-				Utils.close(conn);
+				closeResultSet(rs);
+				resultSetConsumed(item);
 
 				logger().log(OpLevel.INFO, StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
 						"JDBCStream.rs.consumption.done");
 				return true;
 			}
 
+			rowRead(item, rs);
+
 			logger().log(OpLevel.INFO, StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
 					"JDBCStream.rs.consumption.marker.new", rs.getRow());
 			return false;
@@ -173,18 +268,127 @@ public class JDBCStream extends AbstractWsStream<ResultSet> {
 			Utils.logThrowable(logger(), OpLevel.WARNING,
 					StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
 					"JDBCStream.rs.consumption.exception", exc);
+			resultSetConsumed(item);
 			return true;
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Advances query watermark to the value of result set row activity has been produced from. When all rows of
+	 * consumed result set get processed, query watermarks are persisted and next call of that query is allowed.
+	 */
+	@Override
+	protected void activityItemCompleted(WsResponse<ResultSet> item) {
+		synchronized (rsProgress) {
+			ResultSetProgress progress = rsProgress.get(item);
+			if (progress == null || progress.pendingWatermarks.isEmpty()) {
+				return;
+			}
+
+			String wmValue = progress.pendingWatermarks.poll();
+			if (wmValue != null) {
+				watermarks.put(getQueryName(item), wmValue);
+			}
+
+			if (!progress.consumed || !progress.pendingWatermarks.isEmpty()) {
+				return;
+			}
+			rsProgress.remove(item);
+		}
+
+		queryCompleted(item);
+	}
+
+	private void rowRead(WsResponse<ResultSet> item, ResultSet rs) throws SQLException {
+		String wmValue = null;
+		if (StringUtils.isNotEmpty(watermarkColumn)) {
+			Object wmObj = rs.getObject(watermarkColumn);
+			wmValue = wmObj == null ? null : Utils.toString(wmObj);
+		}
+
+		synchronized (rsProgress) {
+			ResultSetProgress progress = rsProgress.get(item);
+			if (progress == null) {
+				progress = new ResultSetProgress();
+				rsProgress.put(item, progress);
+			}
+			progress.pendingWatermarks.add(wmValue);
+		}
+	}
+
+	private void resultSetConsumed(WsResponse<ResultSet> item) {
+		synchronized (rsProgress) {
+			ResultSetProgress progress = rsProgress.get(item);
+			if (progress != null && !progress.pendingWatermarks.isEmpty()) {
+				progress.consumed = true;
+				return;
+			}
+			rsProgress.remove(item);
+		}
+
+		queryCompleted(item);
+	}
+
+	private void queryCompleted(WsResponse<ResultSet> item) {
+		runningQueries.remove(getQueryName(item));
+		storeWatermarks();
+	}
+
+	/**
+	 * Checks whether result set returned by previous call of query is still buffered or being processed.
+	 *
+	 * @param queryName
+	 *            DB query name
+	 * @return {@code true} if query result set is still buffered or being processed, {@code false} - otherwise
+	 */
+	protected boolean isQueryInProgress(String queryName) {
+		return runningQueries.contains(queryName);
+	}
+
+	/**
+	 * Adds query call returned result set to stream input buffer and marks query as being in progress until all result
+	 * set rows get processed. If result set can't be added to buffer, it gets closed.
+	 *
+	 * @param resp
+	 *            query call response containing result set
+	 *
+	 * @see #isQueryInProgress(String)
+	 */
+	protected void addResultSetToBuffer(WsResponse<ResultSet> resp) {
+		String queryName = getQueryName(resp);
+		runningQueries.add(queryName);
+
+		if (!addInputToBuffer(resp)) {
+			runningQueries.remove(queryName);
+			try {
+				closeResultSet(resp.getData());
+			} catch (SQLException exc) {
+			}
+		}
+	}
+
+	private static String getQueryName(WsResponse<ResultSet> item) {
+		return item.getParameters().get(QUERY_NAME_PROP).getValue();
+	}
+
+	private static void closeResultSet(ResultSet rs) throws SQLException {
+		Statement st = rs.getStatement();
+		Connection conn = st == null ? null : st.getConnection();
+
+		Utils.close(rs);
+		Utils.close(st);
+		Utils.close(conn);
+	}
+
 	@SuppressWarnings("unchecked")
 	protected boolean isRecurrentResultSet(WsResponse<ResultSet> resp, Queue<?> buffer) {
 		for (Object item : buffer) {
 			if (item instanceof WsResponse) {
 				WsResponse<ResultSet> respItem = (WsResponse<ResultSet>) item;
 
-				if (respItem.getParameters().get(QUERY_NAME_PROP).getValue()
-						.equals(resp.getParameters().get(QUERY_NAME_PROP).getValue())) {
+				if (getQueryName(respItem).equals(getQueryName(resp))) {
 					return true;
 				}
 			}
@@ -211,6 +415,8 @@ public class JDBCStream extends AbstractWsStream<ResultSet> {
 	 *            DB query
 	 * @param params
 	 *            DB query parameters map
+	 * @param queryName
+	 *            DB query name used to resolve query watermark value
 	 * @param stream
 	 *            stream instance to use for JDBC query execution
 	 * @return JDBC call returned result set {@link java.sql.ResultSet}
@@ -218,7 +424,7 @@ public class JDBCStream extends AbstractWsStream<ResultSet> {
 	 *             if exception occurs while performing JDBC call
 	 */
 	protected static ResultSet executeJdbcCall(String url, String user, String pass, String query,
-			Map<String, WsRequest.Parameter> params, JDBCStream stream) throws SQLException {
+			Map<String, WsRequest.Parameter> params, String queryName, JDBCStream stream) throws SQLException {
 		if (StringUtils.isEmpty(url)) {
 			LOGGER.log(OpLevel.WARNING, StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
 					"JDBCStream.db.conn.not.defined", url);
@@ -237,37 +443,109 @@ public class JDBCStream extends AbstractWsStream<ResultSet> {
 		LOGGER.log(OpLevel.DEBUG, StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
 				"JDBCStream.obtaining.db.connection", url);
 		Duration cod = Duration.arm();
-		Connection dbConn;
-		if (stream.jdbcProperties.isEmpty()) {
-			dbConn = DriverManager.getConnection(url, user, pass);
-		} else {
-			Properties connProps = new Properties();
-			connProps.setProperty("user", user); // NON-NLS
-			connProps.setProperty("password", pass); // NON-NLS
-
-			for (Map.Entry<String, String> pe : stream.jdbcProperties.entrySet()) {
-				connProps.setProperty(pe.getKey(), pe.getValue());
-			}
-			dbConn = DriverManager.getConnection(url, connProps);
-		}
+		Connection dbConn = stream.getConnection(url, user, pass);
 		LOGGER.log(OpLevel.INFO, StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
 				"JDBCStream.db.connection.obtained", url, cod.durationHMS());
 
 		LOGGER.log(OpLevel.INFO, StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
 				"JDBCStream.preparing.query", query);
 
-		PreparedStatement statement = dbConn.prepareStatement(query);
-		addStatementParameters(statement, params, stream);
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+		try {
+			statement = dbConn.prepareStatement(query);
+			if (stream.fetchSize > 0) {
+				statement.setFetchSize(stream.fetchSize);
+			}
+			addStatementParameters(statement, params, queryName, stream);
+
+			LOGGER.log(OpLevel.DEBUG, StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
+					"JDBCStream.executing.query", url);
+			Duration qed = Duration.arm();
+			rs = statement.executeQuery();
 
-		LOGGER.log(OpLevel.DEBUG, StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
-				"JDBCStream.executing.query", url);
-		Duration qed = Duration.arm();
-		ResultSet rs = statement.executeQuery();
+			LOGGER.log(OpLevel.INFO, StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
+					"JDBCStream.query.execution.completed", url, qed.durationHMS(), cod.durationHMS());
 
-		LOGGER.log(OpLevel.INFO, StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
-				"JDBCStream.query.execution.completed", url, qed.durationHMS(), cod.durationHMS());
+			if (stream.detachResultSets) {
+				CachedRowSet crs = RowSetProvider.newFactory().createCachedRowSet();
+				crs.populate(rs);
+				Utils.close(rs);
+				Utils.close(statement);
+				Utils.close(dbConn);
+
+				LOGGER.log(OpLevel.DEBUG, StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
+						"JDBCStream.rs.detached", crs.size(), cod.durationHMS());
+				return crs;
+			}
+
+			return rs;
+		} catch (SQLException exc) {
+			Utils.close(rs);
+			Utils.close(statement);
+			Utils.close(dbConn);
+			throw exc;
+		}
+	}
+
+	/**
+	 * Obtains DB connection. If stream property {@code UseConnectionPool} is set to {@code true}, connection is taken
+	 * from pooled data source bound to {@code url} and {@code user}, otherwise new connection is opened over
+	 * {@link java.sql.DriverManager}.
+	 *
+	 * @param url
+	 *            DB connection URL
+	 * @param user
+	 *            DB user name
+	 * @param pass
+	 *            DB user password
+	 * @return DB connection
+	 * @throws SQLException
+	 *             if DB connection can't be obtained
+	 */
+	protected Connection getConnection(String url, String user, String pass) throws SQLException {
+		if (useConnectionPool) {
+			return getDataSource(url, user, pass).getConnection();
+		}
+
+		if (jdbcProperties.isEmpty()) {
+			return DriverManager.getConnection(url, user, pass);
+		}
+
+		Properties connProps = new Properties();
+		connProps.setProperty("user", user); // NON-NLS
+		connProps.setProperty("password", pass); // NON-NLS
+
+		for (Map.Entry<String, String> pe : jdbcProperties.entrySet()) {
+			connProps.setProperty(pe.getKey(), pe.getValue());
+		}
+		return DriverManager.getConnection(url, connProps);
+	}
+
+	private HikariDataSource getDataSource(String url, String user, String pass) {
+		String dsKey = url + "#" + user; // NON-NLS
+		synchronized (dataSources) {
+			HikariDataSource ds = dataSources.get(dsKey);
+			if (ds == null) {
+				HikariConfig dsConfig = new HikariConfig();
+				dsConfig.setPoolName(getName() + "-DBPool-" + dataSources.size()); // NON-NLS
+				dsConfig.setJdbcUrl(url);
+				dsConfig.setUsername(user);
+				dsConfig.setPassword(pass);
+				dsConfig.setMaximumPoolSize(maxTotalPoolConnections);
+				for (Map.Entry<String, String> pe : jdbcProperties.entrySet()) {
+					dsConfig.addDataSourceProperty(pe.getKey(), pe.getValue());
+				}
 
-		return rs;
+				ds = new HikariDataSource(dsConfig);
+				dataSources.put(dsKey, ds);
+
+				logger().log(OpLevel.INFO, StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
+						"JDBCStream.db.pool.created", dsConfig.getPoolName(), url, maxTotalPoolConnections);
+			}
+
+			return ds;
+		}
 	}
 
 	/**
@@ -277,13 +555,15 @@ public class JDBCStream extends AbstractWsStream<ResultSet> {
 	 *            prepared SQL statement parameters to set
 	 * @param params
 	 *            SQL query parameters map
+	 * @param queryName
+	 *            SQL query name used to resolve query watermark value
 	 * @param stream
 	 *            stream instance to use for JDBC query execution
 	 * @throws SQLException
 	 *             if exception occurs while setting prepared statement parameter
 	 */
 	protected static void addStatementParameters(PreparedStatement statement, Map<String, WsRequest.Parameter> params,
-			JDBCStream stream) throws SQLException {
+			String queryName, JDBCStream stream) throws SQLException {
 		if (params != null) {
 			for (Map.Entry<String, WsRequest.Parameter> param : params.entrySet()) {
 				try {
@@ -295,7 +575,7 @@ public class JDBCStream extends AbstractWsStream<ResultSet> {
 						type = "";
 					}
 
-					value = stream.fillInRequestData(value);
+					value = stream.fillInRequestData(value, queryName);
 
 					switch (type.toUpperCase()) {
 					case "INTEGER": // NON-NLS
@@ -436,6 +716,87 @@ public class JDBCStream extends AbstractWsStream<ResultSet> {
 		return frd;
 	}
 
+	/**
+	 * Fills in JDBC query string having variable expressions with query watermark value (variable
+	 * {@code ${Watermark}}), parameters stored in {@link #jdbcProperties} map and streams cache
+	 * {@link com.jkoolcloud.tnt4j.streams.utils.StreamsCache}.
+	 *
+	 * @param reqDataStr
+	 *            JDBC query string
+	 * @param queryName
+	 *            JDBC query name to resolve watermark value
+	 * @return variable values filled in JDBC query string
+	 *
+	 * @see #fillInRequestData(String)
+	 */
+	protected String fillInRequestData(String reqDataStr, String queryName) {
+		String frd = reqDataStr;
+		if (StringUtils.isNotEmpty(watermarkColumn) && queryName != null) {
+			String watermark = watermarks.get(queryName);
+			frd = fillInRequestData(frd,
+					Collections.singletonMap(WATERMARK_VAR, watermark == null ? watermarkInitialValue : watermark));
+		}
+
+		return fillInRequestData(frd);
+	}
+
+	private void loadWatermarks() {
+		if (StringUtils.isEmpty(watermarkFile)) {
+			return;
+		}
+
+		File wmFile = new File(watermarkFile);
+		if (!wmFile.isFile()) {
+			return;
+		}
+
+		Properties wmProps = new Properties();
+		try (InputStream is = new FileInputStream(wmFile)) {
+			wmProps.load(is);
+			for (String queryName : wmProps.stringPropertyNames()) {
+				watermarks.put(queryName, wmProps.getProperty(queryName));
+			}
+			logger().log(OpLevel.INFO, StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
+					"JDBCStream.watermarks.loaded", watermarks.size(), watermarkFile);
+		} catch (IOException exc) {
+			Utils.logThrowable(logger(), OpLevel.WARNING,
+					StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
+					"JDBCStream.watermarks.load.failed", watermarkFile, exc);
+		}
+	}
+
+	private synchronized void storeWatermarks() {
+		if (StringUtils.isEmpty(watermarkFile) || watermarks.isEmpty()) {
+			return;
+		}
+
+		Properties wmProps = new Properties();
+		wmProps.putAll(watermarks);
+		File wmFile = new File(watermarkFile);
+		File tmpFile = new File(watermarkFile + ".tmp"); // NON-NLS
+		try {
+			try (OutputStream os = new FileOutputStream(tmpFile)) {
+				wmProps.store(os, null);
+			}
+			Files.move(tmpFile.toPath(), wmFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException exc) {
+			Utils.logThrowable(logger(), OpLevel.WARNING,
+					StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
+					"JDBCStream.watermarks.store.failed", watermarkFile, exc);
+		}
+	}
+
+	/**
+	 * Query result set rows consumption progress.
+	 */
+	private static class ResultSetProgress {
+		/**
+		 * Watermark values of rows read from result set, but not yet processed.
+		 */
+		private final Queue<String> pendingWatermarks = new LinkedList<>();
+		private boolean consumed = false;
+	}
+
 	/**
 	 * Scheduler job to execute JDBC call.
 	 */
@@ -457,15 +818,23 @@ public class JDBCStream extends AbstractWsStream<ResultSet> {
 			if (!scenarioStep.isEmpty()) {
 				String dbQuery;
 				ResultSet respRs;
+				String queryName;
 				int stepIdx = 0;
 				for (WsRequest<String> request : scenarioStep.getRequests()) {
 					dbQuery = null;
 					respRs = null;
+					queryName = (stepIdx++) + ":" + scenarioStep.getName(); // NON-NLS
+
+					if (!stream.dropRecurrentResultSets && stream.isQueryInProgress(queryName)) {
+						LOGGER.log(OpLevel.INFO, StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
+								"JDBCStream.query.in.progress", queryName);
+						continue;
+					}
 
 					try {
-						dbQuery = stream.fillInRequestData(request.getData());
+						dbQuery = stream.fillInRequestData(request.getData(), queryName);
 						respRs = executeJdbcCall(scenarioStep.getUrlStr(), scenarioStep.getUsername(),
-								scenarioStep.getPassword(), dbQuery, request.getParameters(), stream);
+								scenarioStep.getPassword(), dbQuery, request.getParameters(), queryName, stream);
 					} catch (Throwable exc) {
 						Utils.logThrowable(LOGGER, OpLevel.ERROR,
 								StreamsResources.getBundle(WsStreamConstants.RESOURCE_BUNDLE_NAME),
@@ -473,9 +842,8 @@ public class JDBCStream extends AbstractWsStream<ResultSet> {
 					} finally {
 						if (respRs != null) {
 							WsResponse<ResultSet> resp = new WsResponse<>(respRs, request.getTags());
-							resp.addParameter(new WsRequest.Parameter(QUERY_NAME_PROP,
-									(stepIdx++) + ":" + scenarioStep.getName())); // NON-NLS
-							stream.addInputToBuffer(resp);
+							resp.addParameter(new WsRequest.Parameter(QUERY_NAME_PROP, queryName));
+							stream.addResultSetToBuffer(resp);
 						}
 					}
 				}
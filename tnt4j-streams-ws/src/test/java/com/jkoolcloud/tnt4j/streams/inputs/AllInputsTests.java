@@ -24,6 +24,6 @@ import org.junit.runners.Suite;
  * @version 1.0
  */
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ WsStreamTest.class })
+@Suite.SuiteClasses({ WsStreamTest.class, JDBCStreamTest.class })
 public class AllInputsTests {
 }
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2014-2018 JKOOL, LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jkoolcloud.tnt4j.streams.inputs;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import javax.sql.rowset.CachedRowSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+
+import com.jkoolcloud.tnt4j.streams.configure.WsStreamProperties;
+import com.jkoolcloud.tnt4j.streams.scenario.WsRequest;
+import com.jkoolcloud.tnt4j.streams.scenario.WsResponse;
+import com.jkoolcloud.tnt4j.streams.scenario.WsScenarioStep;
+
+/**
+ * @author akausinis
+ * @version 1.0
+ */
+public class JDBCStreamTest {
+	private static final String DB_URL = "jdbc:tnt4jtest:db"; // NON-NLS
+	private static final String QUERY = "SELECT * FROM TEST WHERE ID > ${Watermark} ORDER BY ID"; // NON-NLS
+	private static final String STEP_NAME = "TestStep"; // NON-NLS
+	private static final String QUERY_NAME = "0:" + STEP_NAME; // NON-NLS
+	private static final String WATERMARK_EXPR = "${Watermark}"; // NON-NLS
+
+	private TestJDBCStream stream;
+
+	@Before
+	public void setUp() throws Exception {
+		stream = new TestJDBCStream();
+	}
+
+	@After
+	public void tearDown() {
+		stream.cleanup();
+	}
+
+	@Test
+	public void testPooledConnections() throws Exception {
+		TestDriver driver = new TestDriver();
+		DriverManager.registerDriver(driver);
+		JDBCStream jdbcStream = new JDBCStream();
+		try {
+			jdbcStream.setProperty(WsStreamProperties.PROP_USE_CONNECTION_POOL, "true");
+			jdbcStream.setProperty(WsStreamProperties.PROP_MAX_TOTAL_POOL_CONNECTIONS, "2");
+
+			for (int i = 0; i < 10; i++) {
+				Connection conn = jdbcStream.getConnection(DB_URL, "user", "pass"); // NON-NLS
+				assertNotNull(conn);
+				conn.close();
+			}
+
+			assertTrue(driver.connectCount.get() > 0);
+			assertTrue(driver.connectCount.get() <= 2);
+		} finally {
+			jdbcStream.cleanup();
+			DriverManager.deregisterDriver(driver);
+		}
+	}
+
+	@Test
+	public void testNotPooledConnections() throws Exception {
+		TestDriver driver = new TestDriver();
+		DriverManager.registerDriver(driver);
+		JDBCStream jdbcStream = new JDBCStream();
+		try {
+			for (int i = 0; i < 3; i++) {
+				Connection conn = jdbcStream.getConnection(DB_URL, "user", "pass"); // NON-NLS
+				assertNotNull(conn);
+				conn.close();
+			}
+
+			assertEquals(3, driver.connectCount.get());
+		} finally {
+			jdbcStream.cleanup();
+			DriverManager.deregisterDriver(driver);
+		}
+	}
+
+	@Test
+	public void testFetchSize() throws Exception {
+		ResultSet rs = mockResultSet(1, 2);
+		stream.setResultSet(rs);
+		stream.setProperty(WsStreamProperties.PROP_FETCH_SIZE, "100");
+
+		ResultSet qrs = JDBCStream.executeJdbcCall(DB_URL, null, null, QUERY, null, QUERY_NAME, stream);
+
+		assertSame(rs, qrs);
+		verify(stream.statement).setFetchSize(100);
+		verify(stream.connection, never()).close();
+	}
+
+	@Test
+	public void testDefaultFetchSize() throws Exception {
+		stream.setResultSet(mockResultSet(1, 2));
+
+		JDBCStream.executeJdbcCall(DB_URL, null, null, QUERY, null, QUERY_NAME, stream);
+
+		verify(stream.statement, never()).setFetchSize(anyInt());
+	}
+
+	@Test
+	public void testDetachResultSets() throws Exception {
+		ResultSet rs = mockResultSet(1, 2, 3);
+		stream.setResultSet(rs);
+		stream.setProperty(WsStreamProperties.PROP_DETACH_RESULT_SETS, "true");
+
+		ResultSet qrs = JDBCStream.executeJdbcCall(DB_URL, null, null, QUERY, null, QUERY_NAME, stream);
+
+		assertTrue(qrs instanceof CachedRowSet);
+		assertEquals(3, ((CachedRowSet) qrs).size());
+		verify(rs).close();
+		verify(stream.statement).close();
+		verify(stream.connection).close();
+	}
+
+	@Test
+	public void testWatermarkAdvancedWhenRowsProcessed() throws Exception {
+		File wmFile = File.createTempFile("jdbc-watermarks", ".properties"); // NON-NLS
+		wmFile.delete();
+		wmFile.deleteOnExit();
+
+		stream.setProperty(WsStreamProperties.PROP_WATERMARK_COLUMN, "ID");
+		stream.setProperty(WsStreamProperties.PROP_WATERMARK_INITIAL_VALUE, "0");
+		stream.setProperty(WsStreamProperties.PROP_WATERMARK_FILE, wmFile.getAbsolutePath());
+		assertEquals("0", stream.fillInRequestData(WATERMARK_EXPR, QUERY_NAME));
+
+		WsResponse<ResultSet> resp = createResponse(mockResultSet(1, 2, 3));
+		assertTrue(stream.initItemForParsing(resp));
+		assertFalse(stream.isItemConsumed(resp));
+		// rows are read, but not processed yet
+		assertEquals("0", stream.fillInRequestData(WATERMARK_EXPR, QUERY_NAME));
+
+		stream.activityItemCompleted(resp);
+		assertEquals("1", stream.fillInRequestData(WATERMARK_EXPR, QUERY_NAME));
+		stream.activityItemCompleted(resp);
+		assertEquals("2", stream.fillInRequestData(WATERMARK_EXPR, QUERY_NAME));
+
+		assertFalse(stream.isItemConsumed(resp));
+		assertTrue(stream.isItemConsumed(resp));
+		assertFalse(wmFile.exists());
+
+		stream.activityItemCompleted(resp);
+		assertEquals("3", stream.fillInRequestData(WATERMARK_EXPR, QUERY_NAME));
+		assertTrue(wmFile.exists());
+
+		Properties wmProps = new Properties();
+		try (InputStream is = new FileInputStream(wmFile)) {
+			wmProps.load(is);
+		}
+		assertEquals("3", wmProps.getProperty(QUERY_NAME));
+	}
+
+	@Test
+	public void testOverlappingQueryCallSkipped() throws Exception {
+		stream.setResultSet(mockResultSet(1));
+
+		WsScenarioStep step = new WsScenarioStep(STEP_NAME);
+		step.setUrlStr(DB_URL);
+		step.addRequest(QUERY);
+		JobExecutionContext context = mockJobContext(step);
+		JDBCStream.JdbcCallJob job = new JDBCStream.JdbcCallJob();
+
+		job.execute(context);
+		assertEquals(1, stream.bufferedItems.size());
+		assertTrue(stream.isQueryInProgress(QUERY_NAME));
+
+		// previous call result set is not processed yet
+		job.execute(context);
+		assertEquals(1, stream.bufferedItems.size());
+		verify(stream.connection, times(1)).prepareStatement(anyString());
+
+		WsResponse<ResultSet> resp = stream.bufferedItems.get(0);
+		assertTrue(stream.initItemForParsing(resp));
+		assertTrue(stream.isItemConsumed(resp));
+		assertTrue(stream.isQueryInProgress(QUERY_NAME));
+
+		stream.activityItemCompleted(resp);
+		assertFalse(stream.isQueryInProgress(QUERY_NAME));
+
+		job.execute(context);
+		assertEquals(2, stream.bufferedItems.size());
+	}
+
+	private JobExecutionContext mockJobContext(WsScenarioStep step) {
+		JobDataMap dataMap = new JobDataMap();
+		dataMap.put(AbstractWsStream.JOB_PROP_STREAM_KEY, stream);
+		dataMap.put(AbstractWsStream.JOB_PROP_SCENARIO_STEP_KEY, step);
+
+		JobDetail jobDetail = mock(JobDetail.class);
+		when(jobDetail.getJobDataMap()).thenReturn(dataMap);
+		JobExecutionContext context = mock(JobExecutionContext.class);
+		when(context.getJobDetail()).thenReturn(jobDetail);
+
+		return context;
+	}
+
+	private static WsResponse<ResultSet> createResponse(ResultSet rs) {
+		WsResponse<ResultSet> resp = new WsResponse<>(rs);
+		resp.addParameter(new WsRequest.Parameter("QueryName", QUERY_NAME)); // NON-NLS
+
+		return resp;
+	}
+
+	private static ResultSet mockResultSet(final Object... ids) throws SQLException {
+		final AtomicInteger row = new AtomicInteger();
+		Answer<Object> idAnswer = new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				return ids[row.get() - 1];
+			}
+		};
+
+		ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+		when(rsmd.getColumnCount()).thenReturn(1);
+		when(rsmd.getColumnName(1)).thenReturn("ID");
+		when(rsmd.getColumnLabel(1)).thenReturn("ID");
+		when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.getMetaData()).thenReturn(rsmd);
+		when(rs.next()).thenAnswer(new Answer<Boolean>() {
+			@Override
+			public Boolean answer(InvocationOnMock invocation) throws Throwable {
+				return row.incrementAndGet() <= ids.length;
+			}
+		});
+		when(rs.getRow()).thenAnswer(new Answer<Integer>() {
+			@Override
+			public Integer answer(InvocationOnMock invocation) throws Throwable {
+				return row.get();
+			}
+		});
+		when(rs.getObject("ID")).thenAnswer(idAnswer);
+		when(rs.getObject(1)).thenAnswer(idAnswer);
+
+		return rs;
+	}
+
+	private static class TestJDBCStream extends JDBCStream {
+		private final Connection connection = mock(Connection.class);
+		private final PreparedStatement statement = mock(PreparedStatement.class);
+		private final List<WsResponse<ResultSet>> bufferedItems = new ArrayList<>();
+
+		TestJDBCStream() throws SQLException {
+			when(connection.prepareStatement(anyString())).thenReturn(statement);
+			when(statement.getConnection()).thenReturn(connection);
+		}
+
+		void setResultSet(ResultSet rs) throws SQLException {
+			when(statement.executeQuery()).thenReturn(rs);
+			when(rs.getStatement()).thenReturn(statement);
+		}
+
+		@Override
+		protected Connection getConnection(String url, String user, String pass) throws SQLException {
+			return connection;
+		}
+
+		@Override
+		protected boolean addInputToBuffer(WsResponse<ResultSet> inputData) throws IllegalStateException {
+			bufferedItems.add(inputData);
+			return true;
+		}
+	}
+
+	/**
+	 * JDBC driver handing out mocked connections, used to test DB connections obtaining.
+	 */
+	public static class TestDriver implements Driver {
+		private final AtomicInteger connectCount = new AtomicInteger();
+
+		@Override
+		public Connection connect(String url, Properties info) throws SQLException {
+			if (!acceptsURL(url)) {
+				return null;
+			}
+
+			connectCount.incrementAndGet();
+			Connection conn = mock(Connection.class);
+			when(conn.isValid(anyInt())).thenReturn(true);
+
+			return conn;
+		}
+
+		@Override
+		public boolean acceptsURL(String url) throws SQLException {
+			return url != null && url.startsWith(DB_URL);
+		}
+
+		@Override
+		public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+			return new DriverPropertyInfo[0];
+		}
+
+		@Override
+		public int getMajorVersion() {
+			return 1;
+		}
+
+		@Override
+		public int getMinorVersion() {
+			return 0;
+		}
+
+		@Override
+		public boolean jdbcCompliant() {
+			return false;
+		}
+
+		@Override
+		public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+			throw new SQLFeatureNotSupportedException();
+		}
+	}
+}